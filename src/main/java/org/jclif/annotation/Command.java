@@ -42,4 +42,18 @@ public @interface Command {
 	public String longIdentifier() default "";
 	public String description() default "";
 	public String longDescription() default "";
+	
+	/**
+	 * Identifier of the option or parameter whose value partitions the executions of
+	 * the command. Executions with the same value are executed in order while executions 
+	 * with different values may run concurrently. Empty if executions are not partitioned.
+	 */
+	public String partitionKey() default "";
+	
+	/**
+	 * Identifiers of the parent commands of a subcommand separated by a space, e.g. 
+	 * "remote" for the command <code>remote add</code>. Empty if the command is not a 
+	 * subcommand. Options of the parent commands are accepted by the subcommand.
+	 */
+	public String parent() default "";
 }
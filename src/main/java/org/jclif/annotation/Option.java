@@ -41,4 +41,17 @@ public @interface Option {
 	public String longDescription() default "";
 	public boolean required() default false;
 	public boolean multiValued() default false;
+	
+	/**
+	 * Name of the environment variable whose value is used when the option is not in the 
+	 * command line. Empty if the option has no environment variable fallback.
+	 */
+	public String environmentVariable() default "";
+	
+	/**
+	 * Name of the system property whose value is used when the option is not in the 
+	 * command line, a system property takes precedence over the environment variable.
+	 * Empty if the option has no system property fallback.
+	 */
+	public String systemProperty() default "";
 }
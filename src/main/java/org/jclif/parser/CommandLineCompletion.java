@@ -0,0 +1,221 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandLineProperties;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.type.OptionScope;
+import org.jclif.type.ParameterConfiguration;
+import org.jclif.type.ParameterMetadata;
+
+/**
+ * This class completes a partially typed command line. Commands and options are found 
+ * in the prefix trees of their configuration, see {@link org.jclif.type.Configuration#getCompletions(String)},
+ * so completing a word does not depend on the number of commands and options. Parameters
+ * of type FILE and DIRECTORY are completed with the entries of the file system.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class CommandLineCompletion {
+	
+	private CommandLineCompletion() {
+	}
+	
+	/**
+	 * Returns the completions of a word of a command line in lexicographic order. Words 
+	 * before the cursor select the command, the options and the parameter completed.
+	 * 
+	 * @param config	command line configuration
+	 * @param args		words of the command line typed so far, without the application name
+	 * @param cursor	index of the word completed, a cursor equal to the number of 
+	 * 					words completes a new empty word
+	 * @return List<String>	completions of the word
+	 */
+	public static List<String> complete(CommandLineConfiguration config, String[] args, int cursor) {
+		
+		if(cursor < 0 || cursor > args.length) {
+			throw new IllegalArgumentException("Cursor " + cursor + " is out of range of " 
+					+ args.length + " arguments");
+		}
+		
+		CommandLineProperties properties = config.getCommandLineProperties();
+		CommandConfiguration commands = config.getCommandConfiguration();
+		OptionScope options = new OptionScope(config.getOptionConfiguration(), null);
+		ParameterConfiguration parameters = config.getParameterConfiguration();
+		boolean commandMatched = false;
+		int parameterIndex = 0;
+		ParameterType valueType = null;
+		
+		for(int i = 0; i < cursor; i++) {
+			String word = args[i];
+			if(valueType!=null) {
+				valueType = null;
+				continue;
+			}
+			OptionMetadata option = getOption(options, properties, word);
+			if(option!=null) {
+				if(option.isParameterAccepted()) {
+					valueType = option.getParameterMetadata().getParameterType();
+				}
+				continue;
+			}
+			if(parameterIndex==0 && commands!=null) {
+				CommandMetadata command = commands.get(word);
+				if(command!=null) {
+					// options of a subcommand are a scope of the options of its parent
+					options = new OptionScope(command.getOptionConfigurations(), commandMatched?options:null);
+					parameters = command.getParameterConfigurations();
+					commands = commands.getSubcommandConfiguration(word);
+					commandMatched = true;
+					continue;
+				}
+			}
+			parameterIndex++;
+		}
+		
+		String word = (cursor < args.length)?args[cursor]:"";
+		if(valueType!=null) {
+			return completeValue(valueType, word);
+		}
+		
+		Set<String> completions = new TreeSet<String>();
+		if(word.startsWith(properties.getOptionPrefix()) || word.startsWith(properties.getOptionLongPrefix())) {
+			completeOption(options, properties, word, completions);
+			return new ArrayList<String>(completions);
+		}
+		if(parameterIndex==0 && commands!=null) {
+			completions.addAll(commands.getCompletions(word));
+		}
+		ParameterMetadata parameter = getParameter(parameters, parameterIndex);
+		if(parameter!=null) {
+			completions.addAll(completeValue(parameter.getParameterType(), word));
+		}
+		return new ArrayList<String>(completions);
+	}
+	
+	private static OptionMetadata getOption(OptionScope options, CommandLineProperties properties, 
+			String word) {
+		String longPrefix = properties.getOptionLongPrefix();
+		String prefix = properties.getOptionPrefix();
+		// long prefix is checked first since the short prefix is usually a prefix of it
+		if(word.startsWith(longPrefix) && word.length() > longPrefix.length()) {
+			OptionMetadata option = options.getOption(word.substring(longPrefix.length()), IdentifierType.LONG);
+			if(option!=null) {
+				return option;
+			}
+		}
+		if(word.startsWith(prefix) && word.length() > prefix.length()) {
+			return options.getOption(word.substring(prefix.length()), IdentifierType.SHORT);
+		}
+		return null;
+	}
+	
+	private static void completeOption(OptionScope scope, CommandLineProperties properties, 
+			String word, Set<String> completions) {
+		for(; scope != null; scope = scope.getParent()) {
+			completeOption(scope.getOptionConfiguration(), properties, word, completions);
+		}
+	}
+	
+	private static void completeOption(OptionConfiguration options, CommandLineProperties properties, 
+			String word, Set<String> completions) {
+		String longPrefix = properties.getOptionLongPrefix();
+		String prefix = properties.getOptionPrefix();
+		if(word.startsWith(longPrefix)) {
+			for(String identifier : options.getCompletions(word.substring(longPrefix.length()))) {
+				if(options.getOption(identifier, IdentifierType.LONG)!=null) {
+					completions.add(longPrefix + identifier);
+				}
+			}
+		} else if(longPrefix.startsWith(word)) {
+			// a partial long prefix completes to every long option
+			for(String identifier : options.getCompletions("")) {
+				if(options.getOption(identifier, IdentifierType.LONG)!=null) {
+					completions.add(longPrefix + identifier);
+				}
+			}
+		}
+		if(word.startsWith(prefix)) {
+			for(String identifier : options.getCompletions(word.substring(prefix.length()))) {
+				if(options.get(identifier)!=null) {
+					completions.add(prefix + identifier);
+				}
+			}
+		}
+	}
+	
+	private static ParameterMetadata getParameter(ParameterConfiguration parameters, int index) {
+		if(parameters.isEmpty()) {
+			return null;
+		}
+		List<ParameterMetadata> list = new ArrayList<ParameterMetadata>(parameters.values());
+		if(index < list.size()) {
+			return list.get(index);
+		}
+		ParameterMetadata last = list.get(list.size() - 1);
+		return last.isMultiValued()?last:null;
+	}
+	
+	/**
+	 * Returns the file system entries starting with a partial path. Directories end with
+	 * a file separator so completion can continue into the directory, hidden entries are 
+	 * only returned if the partial name starts with a dot.
+	 */
+	private static List<String> completeValue(ParameterType type, String word) {
+		if(type!=ParameterType.FILE && type!=ParameterType.DIRECTORY) {
+			return Collections.emptyList();
+		}
+		int separator = Math.max(word.lastIndexOf('/'), word.lastIndexOf(File.separatorChar));
+		String directoryPath = word.substring(0, separator + 1);
+		String namePrefix = word.substring(separator + 1);
+		File[] files = new File(directoryPath.isEmpty()?".":directoryPath).listFiles();
+		if(files==null) {
+			return Collections.emptyList();
+		}
+		Set<String> completions = new TreeSet<String>();
+		for(File file : files) {
+			String name = file.getName();
+			if(!name.startsWith(namePrefix) || (name.startsWith(".") && !namePrefix.startsWith("."))) {
+				continue;
+			}
+			if(file.isDirectory()) {
+				completions.add(directoryPath + name + File.separator);
+			} else if(type==ParameterType.FILE) {
+				completions.add(directoryPath + name);
+			}
+		}
+		return new ArrayList<String>(completions);
+	}
+	
+}
@@ -22,7 +22,9 @@ package org.jclif.parser;
 import org.jclif.type.CommandInput;
 import org.jclif.type.CommandLineConfiguration;
 import org.jclif.type.CommandMetadata;
+import org.jclif.type.EnvironmentSnapshot;
 import org.jclif.type.OptionInputSet;
+import org.jclif.type.OptionScope;
 import org.jclif.type.ParameterInputSet;
 
 /**
@@ -37,6 +39,7 @@ public class CommandLineParseResult {
 	private ParameterInputSet parameterSet;
 	private CommandInput matchingCommand;
 	private CommandLineConfiguration configuration;
+	private EnvironmentSnapshot environment = EnvironmentSnapshot.EMPTY;
 	
 	CommandLineParseResult(CommandLineConfiguration configuration) {
 		this.configuration = configuration;
@@ -68,6 +71,24 @@ public class CommandLineParseResult {
 		}
 	}
 	
+	void setOptionScope(OptionScope scope) {
+		this.optionSet = new OptionInputSet(scope);
+	}
+	
+	/**
+	 * Returns the environment of the fallback values of options which are not in the 
+	 * command line.
+	 * 
+	 * @return EnvironmentSnapshot	environment snapshot
+	 */
+	public EnvironmentSnapshot getEnvironment() {
+		return environment;
+	}
+	
+	void setEnvironment(EnvironmentSnapshot environment) {
+		this.environment = environment;
+	}
+	
 	public OptionInputSet getOptionInput() {
 		return optionSet;
 	}
@@ -20,6 +20,7 @@
 package org.jclif.parser;
 
 import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.EnvironmentSnapshot;
 
 
 /**
@@ -52,6 +53,23 @@ public abstract class CommandLineParser {
 	 */
 	public abstract CommandLineParseResult parse(CommandLineConfiguration configuration, String... args) throws InvalidInputException;
 	
+	/**
+	 * Parses options provided in command line with an environment of option fallback values.
+	 * A required option which is not in the command line is valid if the environment has 
+	 * its fallback value, the value is converted when the result is bound to a handler.
+	 * 
+	 * @param configuration	command line option metadata information
+	 * @param environment	environment variables and system properties of option fallbacks
+	 * @param args	option list passed in command line
+	 * @return	OptionSet a set of options parsed
+	 * @throws InvalidInputException	thrown if options passed does not match 
+	 * 									with the option metadata configuration
+	 */
+	public CommandLineParseResult parse(CommandLineConfiguration configuration, EnvironmentSnapshot environment, 
+			String... args) throws InvalidInputException {
+		return parse(configuration, args);
+	}
+	
 	/**
 	 * Checks if a given command line options matches the option metadata configuration.
 	 * 
@@ -21,21 +21,22 @@ package org.jclif.parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
+import org.jclif.type.CommandConfiguration;
 import org.jclif.type.CommandInputImpl;
 import org.jclif.type.CommandLineConfiguration;
 import org.jclif.type.CommandLineProperties;
 import org.jclif.type.CommandMetadata;
-import org.jclif.type.OptionConfiguration;
+import org.jclif.type.EnvironmentSnapshot;
 import org.jclif.type.OptionInput;
 import org.jclif.type.OptionInputImpl;
 import org.jclif.type.OptionInputSet;
 import org.jclif.type.OptionMetadata;
 import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.type.OptionScope;
 import org.jclif.type.ParameterConfiguration;
 import org.jclif.type.ParameterInput;
 import org.jclif.type.ParameterInputImpl;
@@ -55,180 +56,281 @@ class DefaultCommandLineParser extends CommandLineParser {
 
 	private final static Logger LOGGER = Logger.getLogger(DefaultCommandLineParser.class.getName());
 	
-	private static final Pattern optionsIdRegEx = Pattern.compile("([\\w]+)");
-	private static final Pattern paramValueRegEx = Pattern.compile("((\"[\\p{Alnum}\\p{Punct}\\p{Space}&&[^\"]]+\")|('[\\p{Alnum}\\p{Punct}\\p{Space}&&[^']]+')|([\\p{Alnum}\\p{Punct}]+))");
+	private static final Pattern commandRegEx = Pattern.compile("[\\w]+");
+	private static final Pattern numberRegEx = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
 	
 	
 	@Override
 	public CommandLineParseResult parse(CommandLineConfiguration configuration,
 			String... args) throws InvalidInputException {
-		
-		CommandLineParseResult resultSet = new CommandLineParseResult(configuration);
-		
-		StringBuffer sb = new StringBuffer();
-		for(String arg: args) {
-			if(StringUtil.containsSpace(arg)) {
-				sb.append(String.format("\"%s\"", arg));
-			} else {
-				sb.append(arg);
-			}
-			sb.append(" ");
-		}
-		
-		LOGGER.info(String.format("Command input:%s", sb.toString()));
-		
-		Scanner scanner = new Scanner(sb.toString());
-		boolean cmdFound = parseCommand(scanner, configuration, resultSet);
-		if(!cmdFound){
-			parseOptions(scanner, configuration, null, configuration.getOptionConfiguration(), resultSet.getOptionInput());
-			parseParameters(scanner, configuration, null, configuration.getParameterConfiguration(), resultSet.getParameterInput());
-		}
-		scanner.close();
-		
-		validate( configuration, resultSet);
-		
-		return resultSet;
+		return parse(configuration, EnvironmentSnapshot.EMPTY, args);
 	}
 	
-	private boolean parseCommand(Scanner scanner, CommandLineConfiguration configuration, 
-			CommandLineParseResult resultSet) throws InvalidInputException {
+	@Override
+	public CommandLineParseResult parse(CommandLineConfiguration configuration, EnvironmentSnapshot environment,
+			String... args) throws InvalidInputException {
 		
-		if(configuration.getCommandConfiguration().isEmpty()) {
-			return false;
-		}
+		CommandLineParseResult resultSet = new CommandLineParseResult(configuration);
+		resultSet.setEnvironment(environment);
 		
-		StringBuffer sbOptionFlags = new StringBuffer("(");
-		for(CommandMetadata cmdMetadata : configuration.getCommandConfiguration().values()) {
-			sbOptionFlags.append(cmdMetadata.getIdentifier());
-			sbOptionFlags.append("|");
+		// walk the command trie, one word per level, options of each command are a scope
+		// of the options of its subcommands
+		CommandConfiguration commandConfig = configuration.getCommandConfiguration();
+		ParameterConfiguration parameterConfig = configuration.getParameterConfiguration();
+		CommandMetadata cmdMetadata = null;
+		OptionScope scope = null;
+		int index = 0;
+		while(commandConfig!=null && !commandConfig.isEmpty() && index < args.length) {
+			String word = args[index];
+			CommandMetadata metadata = commandConfig.get(word);
+			if(metadata==null) {
+				// a word where only a command is accepted is a mistyped command
+				if(parameterConfig.isEmpty() && commandRegEx.matcher(word).matches()) {
+					InvalidInputException e = new InvalidInputException("Command " + word + " is invalid.", cmdMetadata);
+					e.setSuggestions(commandConfig.getSuggestions(word));
+					throw e;
+				}
+				break;
+			}
+			if(LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine(String.format("Command=%s", word));
+			}
+			resultSet.setMatchingCommand(new CommandInputImpl(word, metadata, commandConfig.getOrdinal(word)));
+			cmdMetadata = metadata;
+			scope = new OptionScope(metadata.getOptionConfigurations(), scope);
+			parameterConfig = metadata.getParameterConfigurations();
+			commandConfig = commandConfig.getSubcommandConfiguration(word);
+			index++;
 		}
-		sbOptionFlags.setCharAt(sbOptionFlags.length()-1, ')');
-		
-		Pattern commandsParam = Pattern.compile(String.format("^%s", sbOptionFlags.toString()));
-		String token = scanner.findInLine(commandsParam);
-		if(token==null) {
-			return false;
+		if(scope==null) {
+			scope = new OptionScope(configuration.getOptionConfiguration(), null);
 		}
+		resultSet.setOptionScope(scope);
 		
-		MatchResult result = scanner.match();
-		String cmdIdentifier = result.group(0);
-		CommandMetadata cmdMetadata = configuration.getCommandMetadata(cmdIdentifier);
-		resultSet.setMatchingCommand(new CommandInputImpl(cmdIdentifier, cmdMetadata));
+		CommandLineProperties properties = configuration.getCommandLineProperties();
+		index = parseOptions(args, index, properties, cmdMetadata, scope, resultSet.getOptionInput());
+		parseParameters(args, index, cmdMetadata, parameterConfig, resultSet.getParameterInput());
 		
-		LOGGER.info(String.format("Token=%s%n", token));
-		LOGGER.info(String.format("Command=%s%n", scanner));
+		validate(configuration, resultSet, scope, parameterConfig);
 		
-		String paramsToken = scanner.findInLine("[ \t]+(.*)");
-		if(paramsToken!=null) {
-			MatchResult paramResult = scanner.match();
-			LOGGER.info(String.format("Options=%s%n", paramResult.group(1)));
-			Scanner scannerOptions = new Scanner(paramResult.group(1));
-			parseOptions(scannerOptions, configuration, cmdMetadata, cmdMetadata.getOptionConfigurations(), resultSet.getOptionInput());
-			parseParameters(scannerOptions, configuration, cmdMetadata, cmdMetadata.getParameterConfigurations(), resultSet.getParameterInput());
-			scannerOptions.close();
-		}
-		
-		return true;
+		return resultSet;
 	}
 	
-	@SuppressWarnings("unchecked")
-	private boolean parseOptions(Scanner scanner, CommandLineConfiguration config, CommandMetadata cmdMetadata, 
-			OptionConfiguration optionConfig, OptionInputSet resultSet) throws InvalidInputException {
+	/**
+	 * Parses the options of the arguments starting at an index in a single pass, each 
+	 * argument is read once and split at character positions. Accepted forms are an 
+	 * option followed by its value as next argument or attached after the option parameter
+	 * delimiter, a long option with <code>=value</code>, and when option bundling is 
+	 * enabled, bundled short options and short options with attached values, e.g. 
+	 * <code>-abc</code> and <code>-ofile</code>. When option abbreviation is enabled, a 
+	 * long option can be abbreviated to any prefix which no other long option starts with.
+	 * Options end at the first argument which is not an option or after the long option 
+	 * prefix alone, e.g. <code>--</code>.
+	 * 
+	 * @return int	index of the first parameter argument
+	 */
+	private int parseOptions(String[] args, int index, CommandLineProperties properties, CommandMetadata cmdMetadata, 
+			OptionScope scope, OptionInputSet resultSet) throws InvalidInputException {
 		
-		if(optionConfig.getOptions().isEmpty()) {
-			return true;
+		String longPrefix = properties.getOptionLongPrefix();
+		if(scope.isEmpty()) {
+			return (index < args.length && args[index].equals(longPrefix))?index + 1:index;
 		}
 		
-		String token = null;
-		CommandLineProperties cmdLineProperties = config.getCommandLineProperties();
-		final Pattern optionsShortPrefix = Pattern.compile(cmdLineProperties.getOptionPrefix());
-		final Pattern optionsLongPrefix = Pattern.compile(cmdLineProperties.getOptionLongPrefix());
+		String shortPrefix = properties.getOptionPrefix();
+		boolean samePrefix = shortPrefix.equals(longPrefix);
+		boolean bundling = properties.isOptionBundling() && !samePrefix;
+		boolean abbreviation = properties.isOptionAbbreviation();
+		String delim = properties.getOptionParameterDelim();
+		// a space delimited value is the next argument, other delimiters attach the value
+		boolean attachedDelim = delim.trim().length() > 0;
 		
-		// parse options
-		while (true) {
+		while(index < args.length) {
 			
-			// parse the option prefix
-			String optionPrefix = scanner.findInLine(optionsLongPrefix);
-			if(optionPrefix==null) {
-				optionPrefix = scanner.findInLine(optionsShortPrefix);
-				if(optionPrefix==null) {
-					break; // word is not a prefix
-				}
+			String arg = args[index];
+			if(arg.equals(longPrefix)) {
+				return index + 1;
 			}
 			
-			// parse option identifier extract option identifier and get its metadata
-			String optionId = scanner.findInLine(optionsIdRegEx);
-			if(optionId==null) {
-				break; // prefix has no option id
+			String optionPrefix;
+			IdentifierType type;
+			if(arg.length() > longPrefix.length() && arg.startsWith(longPrefix)) {
+				optionPrefix = longPrefix;
+				type = IdentifierType.LONG;
+			} else if(arg.length() > shortPrefix.length() && arg.startsWith(shortPrefix)) {
+				optionPrefix = shortPrefix;
+				type = IdentifierType.SHORT;
+			} else {
+				break; // word is not an option
 			}
 			
-			LOGGER.info(String.format("Options Prefix={%s}, Id={%s}", optionPrefix, optionId));
+			// split the option identifier and its attached value
+			int start = optionPrefix.length();
+			int delimIndex = attachedDelim?arg.indexOf(delim, start):-1;
+			int valueIndex = (delimIndex < 0)?-1:delimIndex + delim.length();
+			if(delimIndex < 0 && type==IdentifierType.LONG) {
+				delimIndex = arg.indexOf('=', start);
+				valueIndex = delimIndex + 1;
+			}
+			String optionId = (delimIndex < 0)?arg.substring(start):arg.substring(start, delimIndex);
+			String value = (delimIndex < 0)?null:arg.substring(valueIndex);
 			
-			OptionMetadata metadata = null;
-			if(cmdLineProperties.getOptionPrefix().equals(cmdLineProperties.getOptionLongPrefix())) {
-				metadata = optionConfig.getOption(optionId);
-			} else {
-				boolean longPrefix = optionPrefix.equals(cmdLineProperties.getOptionLongPrefix());
-				metadata = optionConfig.getOption(optionId, (longPrefix)?IdentifierType.LONG:IdentifierType.SHORT);
+			if(LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine(String.format("Options Prefix={%s}, Id={%s}, Value={%s}", optionPrefix, optionId, value));
 			}
-			if (metadata == null) {
-				throw new InvalidInputException("Option " + optionPrefix + optionId + " is invalid.", cmdMetadata);
+			
+			OptionMetadata metadata = samePrefix?scope.getOption(optionId):scope.getOption(optionId, type);
+			if(metadata==null && abbreviation && type==IdentifierType.LONG) {
+				metadata = getOptionByAbbreviation(optionPrefix, optionId, cmdMetadata, scope);
 			}
-
-			// parse the parameter
-			Object parameterValue = null;
-			token = scanner.findInLine(config.getCommandLineProperties().getOptionParameterDelim());
-			if (metadata.isParameterAccepted() && token!=null) {
-				
-				token = scanner.findInLine(paramValueRegEx);
-				
-				ParameterMetadata parameterMetadata = metadata.getParameterMetadata();
-				if (parameterMetadata.isRequired() && token==null) {
-					throw new InvalidInputException("Parameter required for option " + optionPrefix + optionId + ".", cmdMetadata);
-				}
-				
-				if (token != null) {
-					MatchResult paramResult = scanner.match();
-					for(int i=0;i<paramResult.groupCount();i++) {
-						LOGGER.info(String.format("[%d] Delim={%s}, Param={%s}", i, config.getCommandLineProperties().getOptionParameterDelim(), paramResult.group(i)));
-					}
-					String groupValue = StringUtil.extractQuotedValue(paramResult.group(1));
-					LOGGER.info(String.format("Delim={%s}, Param={%s}", config.getCommandLineProperties().getOptionParameterDelim(), groupValue));
-					parameterValue = getParameterValue(cmdMetadata, parameterMetadata, groupValue);
-				}
-				
+			if(metadata!=null) {
+				index = parseOption(args, index, properties, optionPrefix, optionId, value, metadata, cmdMetadata, resultSet);
+			} else if(bundling && type==IdentifierType.SHORT) {
+				index = parseBundledOptions(args, index, properties, cmdMetadata, scope, resultSet);
+			} else {
+				throw createInvalidOptionException(optionPrefix, optionId, properties, cmdMetadata, scope);
 			}
-
-			// create the parameter value
-			ParameterInput parameter = null;
-			OptionInput optionValue = resultSet.get(optionId);
-			if (optionValue == null) {
-				if (metadata.isParameterAccepted()) {
-					if (metadata.isMultiValued()) {
-						List<Object> valueList = new ArrayList<Object>();
-						valueList.add(parameterValue);
-						parameter = new ParameterInputImpl(metadata.getParameterMetadata(), valueList);
-					} else {
-						parameter = new ParameterInputImpl(metadata.getParameterMetadata(), parameterValue);
-					}
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Returns the option of an abbreviated long identifier, an abbreviation of several long
+	 * identifiers is invalid.
+	 */
+	private OptionMetadata getOptionByAbbreviation(String optionPrefix, String optionId, CommandMetadata cmdMetadata, 
+			OptionScope scope) throws InvalidInputException {
+		OptionMetadata metadata = scope.getOptionByAbbreviation(optionId);
+		if(metadata==null) {
+			List<String> identifiers = scope.getLongIdentifiers(optionId);
+			if(identifiers.size() > 1) {
+				InvalidInputException e = new InvalidInputException("Option " + optionPrefix + optionId + " is ambiguous.", cmdMetadata);
+				List<String> suggestions = new ArrayList<String>();
+				for(String identifier : identifiers) {
+					suggestions.add(optionPrefix + identifier);
 				}
-				optionValue = new OptionInputImpl(metadata, parameter);
-				resultSet.add(optionValue);
-			} else {
-				parameter = optionValue.getParameter();
-				if (parameter != null && metadata.isMultiValued()) {
-					List<Object> valueList = (List<Object>) parameter.getValue();
+				e.setSuggestions(suggestions);
+				throw e;
+			}
+		} else if(LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("Option %s%s abbreviates %s%s", optionPrefix, optionId, 
+					optionPrefix, metadata.getIdentifier(IdentifierType.LONG)));
+		}
+		return metadata;
+	}
+	
+	/**
+	 * Parses bundled short options, the characters of the argument are options until an 
+	 * option which accepts a parameter, the rest of the argument is its value.
+	 */
+	private int parseBundledOptions(String[] args, int index, CommandLineProperties properties, CommandMetadata cmdMetadata,
+			OptionScope scope, OptionInputSet resultSet) throws InvalidInputException {
+		
+		String arg = args[index];
+		String shortPrefix = properties.getOptionPrefix();
+		String delim = properties.getOptionParameterDelim();
+		for(int i = shortPrefix.length(); i < arg.length(); i++) {
+			String optionId = arg.substring(i, i + 1);
+			OptionMetadata metadata = scope.getOption(optionId, IdentifierType.SHORT);
+			if(metadata==null) {
+				throw createInvalidOptionException(shortPrefix, optionId, properties, cmdMetadata, scope);
+			}
+			if(metadata.isParameterAccepted()) {
+				int valueIndex = (arg.startsWith(delim, i + 1))?i + 1 + delim.length():i + 1;
+				String value = (valueIndex < arg.length())?arg.substring(valueIndex):null;
+				return parseOption(args, index, properties, shortPrefix, optionId, value, metadata, cmdMetadata, resultSet);
+			}
+			addOption(resultSet, metadata, null);
+		}
+		return index + 1;
+	}
+	
+	/**
+	 * Parses an option and its parameter value, the value is the attached value or the 
+	 * next argument. The next argument is not used as optional value if it is a short or
+	 * a long option, whatever the prefix of the option parsed. A negative number such as
+	 * -1 is a value and not an option.
+	 * 
+	 * @return int	index of the argument after the option
+	 */
+	private int parseOption(String[] args, int index, CommandLineProperties properties, String optionPrefix, 
+			String optionId, String value, OptionMetadata metadata, CommandMetadata cmdMetadata, 
+			OptionInputSet resultSet) throws InvalidInputException {
+		
+		Object parameterValue = null;
+		if(metadata.isParameterAccepted()) {
+			ParameterMetadata parameterMetadata = metadata.getParameterMetadata();
+			if(value==null && index + 1 < args.length 
+					&& (parameterMetadata.isRequired() || !isOption(args[index + 1], properties))) {
+				value = args[++index];
+			}
+			if(value!=null) {
+				parameterValue = getParameterValue(cmdMetadata, parameterMetadata, StringUtil.extractQuotedValue(value));
+			} else if(parameterMetadata.isRequired()) {
+				throw new InvalidInputException("Parameter required for option " + optionPrefix + optionId + ".", cmdMetadata);
+			}
+		} else if(value!=null) {
+			throw new InvalidInputException("Option " + optionPrefix + optionId + " does not accept a parameter.", cmdMetadata);
+		}
+		addOption(resultSet, metadata, parameterValue);
+		return index + 1;
+	}
+	
+	/**
+	 * Returns true if an argument starts with the short or the long option prefix, or is
+	 * the long option prefix alone which ends the options. Arguments which are numbers are
+	 * not options.
+	 */
+	private static boolean isOption(String arg, CommandLineProperties properties) {
+		if(numberRegEx.matcher(arg).matches()) {
+			return false;
+		}
+		String longPrefix = properties.getOptionLongPrefix();
+		String shortPrefix = properties.getOptionPrefix();
+		return arg.startsWith(longPrefix) 
+				|| (arg.length() > shortPrefix.length() && arg.startsWith(shortPrefix));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void addOption(OptionInputSet resultSet, OptionMetadata metadata, Object parameterValue) {
+		ParameterInput parameter = null;
+		OptionInput optionValue = resultSet.get(metadata);
+		if (optionValue == null) {
+			if (metadata.isParameterAccepted()) {
+				if (metadata.isMultiValued()) {
+					List<Object> valueList = new ArrayList<Object>();
 					valueList.add(parameterValue);
+					parameter = new ParameterInputImpl(metadata.getParameterMetadata(), valueList);
 				} else {
-					LOGGER.info("Skipping parameter for arg = "
-							+ optionId
-							+ " since value alreay exist. Might be arg was specified twice.");
+					parameter = new ParameterInputImpl(metadata.getParameterMetadata(), parameterValue);
 				}
 			}
-
+			optionValue = new OptionInputImpl(metadata, parameter);
+			resultSet.add(optionValue);
+		} else {
+			parameter = optionValue.getParameter();
+			if (parameter != null && metadata.isMultiValued()) {
+				List<Object> valueList = (List<Object>) parameter.getValue();
+				valueList.add(parameterValue);
+			} else {
+				LOGGER.info("Skipping parameter for arg = "
+						+ metadata.getIdentifier()
+						+ " since value alreay exist. Might be arg was specified twice.");
+			}
 		}
+	}
 	
-		return !resultSet.isEmpty();
+	private InvalidInputException createInvalidOptionException(String optionPrefix, String optionId, 
+			CommandLineProperties properties, CommandMetadata cmdMetadata, OptionScope scope) {
+		InvalidInputException e = new InvalidInputException("Option " + optionPrefix + optionId + " is invalid.", cmdMetadata);
+		List<String> suggestions = new ArrayList<String>();
+		for(String suggestion : scope.getSuggestions(optionId)) {
+			suggestions.add(((scope.getOption(suggestion, IdentifierType.SHORT)!=null)?properties.getOptionPrefix()
+					:properties.getOptionLongPrefix()) + suggestion);
+		}
+		e.setSuggestions(suggestions);
+		return e;
 	}
 	
 	private Object getParameterValue(CommandMetadata cmdMetadata, ParameterMetadata metadata, String paramValue) throws InvalidInputException {
@@ -240,7 +342,7 @@ class DefaultCommandLineParser extends CommandLineParser {
 		}
 	}
 	
-	private boolean parseParameters(Scanner scanner, CommandLineConfiguration config, CommandMetadata cmdMetadata, 
+	private boolean parseParameters(String[] args, int index, CommandMetadata cmdMetadata, 
 			ParameterConfiguration parameterConfig, ParameterInputSet resultSet) throws InvalidInputException {
 		
 		if(parameterConfig.isEmpty()) {
@@ -252,10 +354,8 @@ class DefaultCommandLineParser extends CommandLineParser {
 			Object paraValue = null;
 			if(paramMeta.isMultiValued()) {
 				List<Object> valueList = new ArrayList<Object>();
-				int i = 0;
-				while(scanner.hasNext()) {
-					String token = scanner.next();
-					LOGGER.info(String.format("Parameter[%d]={%s}", (i++), token));
+				while(index < args.length) {
+					String token = args[index++];
 					valueList.add(getParameterValue(cmdMetadata, paramMeta, token));
 				}
 				if(paramMeta.isRequired() && valueList.isEmpty()) {
@@ -263,9 +363,8 @@ class DefaultCommandLineParser extends CommandLineParser {
 				}
 				resultSet.add(new ParameterInputImpl(paramMeta, valueList));
 			} else {
-				if(scanner.hasNext()) {
-					String token = scanner.next();
-					LOGGER.info(String.format("Parameter={%s}", token));
+				if(index < args.length) {
+					String token = args[index++];
 					paraValue = getParameterValue(cmdMetadata, paramMeta, token);
 					resultSet.add(new ParameterInputImpl(paramMeta, paraValue));
 				} else {
@@ -294,26 +393,20 @@ class DefaultCommandLineParser extends CommandLineParser {
 		}
 	}
 	
-	void validate(CommandLineConfiguration configuration, CommandLineParseResult result) throws InvalidInputException {
-		
-		OptionConfiguration optionConfig = configuration.getOptionConfiguration();
-		ParameterConfiguration parameterConig = configuration.getParameterConfiguration();
-		if(result.isCommandMatch()) {
-			CommandMetadata cmdMetadata = (CommandMetadata) result.getMatchingCommand().getMetadata();
-			optionConfig = cmdMetadata.getOptionConfigurations();
-			parameterConig = cmdMetadata.getParameterConfigurations();
-		}
+	void validate(CommandLineConfiguration configuration, CommandLineParseResult result, OptionScope scope, 
+			ParameterConfiguration parameterConig) throws InvalidInputException {
 		
 		// validate options
-		for(OptionMetadata metadata : optionConfig.getOptions()) {
+		for(OptionMetadata metadata : scope.getOptions()) {
 			if(metadata.isRequired()) {
-				if(!result.getOptionInput().contains(metadata.getIdentifier())) {
+				if(!result.getOptionInput().contains(metadata.getIdentifier()) 
+						&& result.getEnvironment().getValue(metadata)==null) {
 					throw new InvalidInputException("Option " + configuration.getCommandLineProperties().getOptionPrefix() + metadata.getIdentifier() + " is required.");
 				}
 			}
 			if(metadata.getParameterMetadata()!=null && metadata.getParameterMetadata().isRequired()) {
 				OptionInput option = result.getOptionInput().get(metadata.getIdentifier());
-				if(option.getParameter() == null || option.getParameter().getValue() == null) {
+				if(option!=null && (option.getParameter() == null || option.getParameter().getValue() == null)) {
 					throw new InvalidInputException("Missing parameter for option " + configuration.getCommandLineProperties().getOptionPrefix() + metadata.getIdentifier() + ".");
 				}
 			}
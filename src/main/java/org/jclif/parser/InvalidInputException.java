@@ -19,6 +19,9 @@
 
 package org.jclif.parser;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.jclif.type.CommandMetadata;
 
 
@@ -36,6 +39,7 @@ public class InvalidInputException extends Exception {
 	private static final long serialVersionUID = 528304270306604990L;
 	
 	private CommandMetadata commandMetadata;
+	private List<String> suggestions = Collections.emptyList();
 
 	/**
 	 * Create new instance of InvalidInputException with specified error message.
@@ -90,6 +94,24 @@ public class InvalidInputException extends Exception {
 		return this.commandMetadata;
 	}
 	
+	/**
+	 * Returns the valid inputs similar to the invalid input, most similar first.
+	 * 
+	 * @return List<String>	suggestions or an empty list if there is none
+	 */
+	public List<String> getSuggestions() {
+		return suggestions;
+	}
+	
+	/**
+	 * Sets the valid inputs similar to the invalid input.
+	 * 
+	 * @param suggestions	suggestions, most similar first
+	 */
+	public void setSuggestions(List<String> suggestions) {
+		this.suggestions = Collections.unmodifiableList(suggestions);
+	}
+	
 	/**
 	 * Returns true if exception is triggered by an invalid command input.
 	 * 
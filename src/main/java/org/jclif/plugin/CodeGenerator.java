@@ -1,17 +1,48 @@
 package org.jclif.plugin;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
-import java.util.Calendar;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.annotation.Option;
+import org.jclif.annotation.Parameter;
 import org.jclif.runtime.Configuration;
+import org.jclif.runtime.Executor;
 import org.jclif.runtime.ExecutorHandler;
+import org.jclif.runtime.HandlerProvider;
+import org.jclif.text.CommandLineFormatType;
+import org.jclif.text.CompletionScript;
+import org.jclif.text.HelpDocumentGenerator;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CompiledConfiguration;
 import org.jclif.util.StringUtil;
 
 /**
@@ -29,6 +60,14 @@ public class CodeGenerator {
 	
 	private static final Logger LOGGER = Logger.getLogger(CodeGenerator.class.getCanonicalName());
 	
+	/**
+	 * Name of the file of the target directory caching the content hash and handler
+	 * class of each source file.
+	 */
+	public static final String CACHE_FILE = "jclif-codegen.cache";
+	
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+	
 	private String appName;
 	private String srcMainDir;
 	
@@ -45,55 +84,458 @@ public class CodeGenerator {
 		return srcMainDir;
 	}
 	
+	/**
+	 * Generates the configuration file listing the JCLIF annotated handler classes of the 
+	 * java source files of a package and its sub packages. Generation is incremental, the
+	 * content hash and handler class of each source file are kept in a cache file of the 
+	 * target directory and only new or changed source files are loaded and checked. The
+	 * configuration file is only written if its content changed.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @param targetDir					target directory
+	 * @throws IOException
+	 */
 	public void generateMain(String commandAnnotatedPackage, String targetDir) throws IOException {
 		
-		String fileSeparator = System.getProperty("file.separator");
-		
 		// always check if the target directory exists
 		File targetDirectory = new File(targetDir);
 		if(!targetDirectory.exists()) {
 			throw new IllegalArgumentException("Target Directory " + targetDir + " does not exist");
 		}
 		
+		List<String> handlerClassNames = getHandlerClassNames(commandAnnotatedPackage, 
+				new File(targetDirectory, CACHE_FILE));
+		
+		StringBuilder content = new StringBuilder("# JCLIF Generated file\n");
+		content.append(Configuration.CONFIG_PROPERTY_APP_NAME).append('=')
+			.append(escapePropertyValue(getAppName())).append('\n');
+		for(int i = 0; i < handlerClassNames.size(); i++) {
+			content.append(Configuration.CONFIG_PROPERTY_APP_HANDLER_LIST).append('.').append(i + 1)
+				.append('=').append(handlerClassNames.get(i)).append('\n');
+		}
+		
+		// write to file only if content changed
+		File generatedFile = new File(targetDirectory, Configuration.DEFAULT_EXECUTOR_CONFIG_FILE);
+		byte[] bytes = content.toString().getBytes(ISO_8859_1);
+		if(generatedFile.isFile() && Arrays.equals(bytes, Files.readAllBytes(generatedFile.toPath()))) {
+			LOGGER.info("Configuration file " + generatedFile + " is up to date");
+			return;
+		}
+		Files.write(generatedFile.toPath(), bytes);
+		
+	}
+	
+	/**
+	 * Returns the JCLIF annotated handler classes of the java source files of a package
+	 * and its sub packages.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @return List<Class<?>>	handler classes sorted by class name
+	 * @throws IOException
+	 */
+	public List<Class<?>> getHandlerClasses(String commandAnnotatedPackage) throws IOException {
+		List<Class<?>> handlerClasses = new ArrayList<Class<?>>();
+		for(String className : getHandlerClassNames(commandAnnotatedPackage, null)) {
+			try {
+				handlerClasses.add(Class.forName(className));
+			} catch (ClassNotFoundException e) {
+				LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
+			}
+		}
+		return handlerClasses;
+	}
+	
+	/**
+	 * Returns the class names of the JCLIF annotated handler classes of the java source
+	 * files of a package and its sub packages. Source files are hashed and checked in 
+	 * parallel. If a cache file is specified, source files whose content hash is the same
+	 * as the hash in the cache are not loaded and the cache is updated. Classes which 
+	 * cannot be loaded are not cached.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @param cacheFile					cache file or null if no cache is used
+	 * @return List<String>	handler class names sorted by name
+	 * @throws IOException
+	 */
+	List<String> getHandlerClassNames(String commandAnnotatedPackage, File cacheFile) throws IOException {
+		
 		// retrieve all the java files only
 		File srcMainDir = new File(getSourceMainDirectory());
 		if(!srcMainDir.exists()) {
 			throw new IllegalArgumentException("Source Directory " + srcMainDir + " does not exist");
 		}
-		File classSourceDir = new File(srcMainDir, commandAnnotatedPackage.replace(".", fileSeparator));
-		File[] files = classSourceDir.listFiles(new FileFilter() {
-			@Override
-			public boolean accept(File file) {
-				return file.getName().endsWith(".java");
-			}
-		});
-		if(files == null || 0 == files.length) {
+		File classSourceDir = new File(srcMainDir, commandAnnotatedPackage.replace('.', File.separatorChar));
+		Map<String, File> sourceFiles = new TreeMap<String, File>();
+		listSourceFiles(classSourceDir, commandAnnotatedPackage, sourceFiles);
+		if(sourceFiles.isEmpty()) {
 			throw new IllegalArgumentException("No Java files found in directory " + classSourceDir.getCanonicalPath());
 		}
 		
-		// scan all classes of a directory and detect which ones are JCLIF annotated
-		Configuration jclifProperties = new Configuration(getAppName());
-		for(File srcFile : files) {
-			
-			String classNameFromFile = StringUtil.sourceNameToClassName(srcFile.getName());
-			String className = commandAnnotatedPackage + "." + classNameFromFile;
+		final Properties cache = new Properties();
+		if(cacheFile!=null && cacheFile.isFile()) {
+			InputStream in = new FileInputStream(cacheFile);
 			try {
-				Class<?> classType = Class.forName(className);
-				ExecutorHandler handler = new ExecutorHandler(classType);
-				jclifProperties.addHandler(handler.getHandlerClass());
-			} catch (ClassNotFoundException e) {
-				LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
-			} catch(Exception e) {
-				LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
+				cache.load(in);
+			} finally {
+				in.close();
 			}
-			
 		}
 		
-		// write to file
-		File generatedFile = new File(targetDirectory, Configuration.DEFAULT_EXECUTOR_CONFIG_FILE);
-		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(generatedFile)));
-		jclifProperties.store(out, "JCLIF Generated file - " + Calendar.getInstance().getTime());
+		// scan all classes of the source files in parallel and detect which ones are JCLIF annotated
+		List<Callable<String[]>> tasks = new ArrayList<Callable<String[]>>(sourceFiles.size());
+		for(final Map.Entry<String, File> sourceFile : sourceFiles.entrySet()) {
+			tasks.add(new Callable<String[]>() {
+				@Override
+				public String[] call() throws IOException {
+					String className = sourceFile.getKey();
+					String hash = hash(Files.readAllBytes(sourceFile.getValue().toPath()));
+					String cached = cache.getProperty(className);
+					if(cached!=null && cached.startsWith(hash + ",")) {
+						return new String[] { className, cached };
+					}
+					Boolean handler = isHandlerClass(className);
+					if(handler==null) {
+						// not cached so the class is checked again once it can be loaded
+						return new String[] { className, null };
+					}
+					return new String[] { className, hash + "," + (handler?className:"") };
+				}
+			});
+		}
+		
+		Properties updatedCache = new Properties();
+		List<String> handlerClassNames = new ArrayList<String>();
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			for(Future<String[]> result : pool.invokeAll(tasks)) {
+				String[] entry = result.get();
+				if(entry[1]==null) {
+					continue;
+				}
+				updatedCache.setProperty(entry[0], entry[1]);
+				String handlerClassName = entry[1].substring(entry[1].indexOf(',') + 1);
+				if(!handlerClassName.isEmpty()) {
+					handlerClassNames.add(handlerClassName);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Scanning source files interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Scanning source files failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
 		
+		if(cacheFile!=null && !updatedCache.equals(cache)) {
+			OutputStream out = new FileOutputStream(cacheFile);
+			try {
+				updatedCache.store(out, "JCLIF code generator cache");
+			} finally {
+				out.close();
+			}
+		}
+		return handlerClassNames;
+	}
+	
+	private static void listSourceFiles(File dir, String packageName, Map<String, File> sourceFiles) {
+		File[] files = dir.listFiles();
+		if(files==null) {
+			return;
+		}
+		for(File file : files) {
+			if(file.isDirectory()) {
+				listSourceFiles(file, packageName + "." + file.getName(), sourceFiles);
+			} else if(file.getName().endsWith(".java")) {
+				sourceFiles.put(packageName + "." + StringUtil.sourceNameToClassName(file.getName()), file);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if a class is a handler class, false if it is not a handler class or 
+	 * null if the class cannot be loaded, for example if it is not compiled yet.
+	 */
+	private static Boolean isHandlerClass(String className) {
+		Class<?> classType;
+		try {
+			classType = Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
+			return null;
+		} catch (LinkageError e) {
+			LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
+			return null;
+		}
+		try {
+			new ExecutorHandler(classType);
+			return Boolean.TRUE;
+		} catch(Exception e) {
+			LOGGER.log(Level.WARNING, String.format("Unable to load class %s due to error '%s'", className, e.getMessage()), e);
+			return Boolean.FALSE;
+		}
+	}
+	
+	private static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for(byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+	
+	private static String escapePropertyValue(String value) {
+		StringBuilder escaped = new StringBuilder();
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c=='\\' || (i==0 && c==' ')) {
+				escaped.append('\\');
+			}
+			if(c > 0x7E) {
+				escaped.append(String.format("\\u%04x", (int) c));
+			} else {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+	
+	/**
+	 * Generates the configuration a GraalVM native image of the application needs. Handler
+	 * classes are created, read and invoked using reflection so reflect-config.json lists the
+	 * constructor, fields and methods of each handler class, resource-config.json lists the
+	 * configuration, logging and service files read from the class path. Files are written to
+	 * META-INF/native-image/org.jclif/&lt;application name&gt; of the target directory where 
+	 * native-image finds them on the class path.
+	 * <p>
+	 * Handler packages cannot be scanned in a native image, handlers must be listed in the 
+	 * configuration file generated by {@link #generateMain(String, String)}.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @param targetDir					target directory
+	 * @return File	directory of the generated configuration files
+	 * @throws IOException
+	 */
+	public File generateNativeImageConfig(String commandAnnotatedPackage, String targetDir) throws IOException {
+		
+		File configDir = new File(targetDir, "META-INF/native-image/org.jclif/" + getAppName());
+		if(!configDir.isDirectory() && !configDir.mkdirs()) {
+			throw new IOException("Unable to create directory " + configDir);
+		}
+		
+		List<String> reflectEntries = new ArrayList<String>();
+		for(Class<?> annotationClass : Arrays.asList(Command.class, Option.class, Parameter.class, Handler.class)) {
+			reflectEntries.add(String.format("{\"name\":\"%s\",\"allDeclaredMethods\":true}", 
+					annotationClass.getName()));
+		}
+		for(Class<?> handlerClass : getHandlerClasses(commandAnnotatedPackage)) {
+			reflectEntries.add(String.format("{\"name\":\"%s\",\"allDeclaredFields\":true,"
+					+ "\"allDeclaredMethods\":true,\"allPublicMethods\":true,"
+					+ "\"methods\":[{\"name\":\"<init>\",\"parameterTypes\":[]}]}", 
+					handlerClass.getName()));
+		}
+		writeJsonArray(new File(configDir, "reflect-config.json"), reflectEntries);
+		
+		List<String> resourceEntries = new ArrayList<String>();
+		for(String resource : Arrays.asList(Configuration.DEFAULT_EXECUTOR_CONFIG_FILE, "logging.properties", 
+				"META-INF/services/" + HandlerProvider.class.getName())) {
+			resourceEntries.add(String.format("{\"pattern\":\"\\\\Q%s\\\\E\"}", resource));
+		}
+		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(new File(configDir, "resource-config.json"))));
+		try {
+			out.println("{");
+			out.println("  \"resources\":{");
+			out.print("    \"includes\":");
+			out.println(toJsonArray(resourceEntries, "      "));
+			out.println("  }");
+			out.println("}");
+		} finally {
+			out.close();
+		}
+		return configDir;
+	}
+	
+	/**
+	 * Generates the shell completion script of the handlers of a package. Script is 
+	 * generated from the same configuration the executor creates from the handlers so 
+	 * it lists the commands and options the application accepts.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @param shell						shell of the script
+	 * @param scriptFile				script file to write
+	 * @return File	script file
+	 * @throws IOException	thrown if the script cannot be written
+	 */
+	public File generateCompletionScript(String commandAnnotatedPackage, CompletionScript.Shell shell, 
+			File scriptFile) throws IOException {
+		CommandLineConfiguration config = createConfiguration(commandAnnotatedPackage);
+		Files.write(scriptFile.toPath(), CompletionScript.generate(config, shell).getBytes(ISO_8859_1));
+		return scriptFile;
+	}
+	
+	/**
+	 * Generates the help documents of the application and of each command of the handlers
+	 * of a package, e.g. manual pages or Markdown, see {@link HelpDocumentGenerator}.
+	 * 
+	 * @param commandAnnotatedPackage	package of handler classes
+	 * @param formatType				format of the documents
+	 * @param targetDir					directory of the documents
+	 * @return List<File>	documents written
+	 * @throws IOException	thrown if a document cannot be written
+	 */
+	public List<File> generateHelpDocuments(String commandAnnotatedPackage, CommandLineFormatType formatType, 
+			File targetDir) throws IOException {
+		return HelpDocumentGenerator.generate(createConfiguration(commandAnnotatedPackage), formatType, targetDir);
+	}
+	
+	/**
+	 * Generates the compiled configuration of the handlers of a package. Executor loads 
+	 * a compiled configuration with {@link Executor#loadCompiledConfiguration(File)}
+	 * instead of processing the annotations of the handlers.
+	 * 
+	 * @param commandAnnotatedPackage	package of command handlers
+	 * @param compiledFile				compiled configuration file
+	 * @return File	compiled configuration file
+	 * @throws IOException	thrown if the handlers cannot be read or the file cannot be written
+	 */
+	public File generateCompiledConfiguration(String commandAnnotatedPackage, File compiledFile) throws IOException {
+		List<Class<?>> handlerClasses = getHandlerClasses(commandAnnotatedPackage);
+		Map<String, String> handlerClassNames = new HashMap<String, String>();
+		for(Class<?> handlerClass : handlerClasses) {
+			Command command = handlerClass.getAnnotation(Command.class);
+			String parent = command.parent().trim();
+			handlerClassNames.put(parent.isEmpty()?command.identifier():parent.replaceAll("\\s+", " ") + " " 
+					+ command.identifier(), handlerClass.getName());
+		}
+		CompiledConfiguration.write(createConfiguration(handlerClasses), handlerClassNames, compiledFile);
+		LOGGER.info("Generated compiled configuration " + compiledFile + ", command count: " 
+				+ handlerClassNames.size());
+		return compiledFile;
+	}
+	
+	/**
+	 * Returns the configuration the executor creates from the handlers of a package.
+	 */
+	private CommandLineConfiguration createConfiguration(String commandAnnotatedPackage) throws IOException {
+		return createConfiguration(getHandlerClasses(commandAnnotatedPackage));
+	}
+	
+	private CommandLineConfiguration createConfiguration(List<Class<?>> handlerClasses) {
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandlers(handlerClasses.toArray(new Class<?>[handlerClasses.size()]));
+		CommandLineConfiguration config = executor.getConfig().copy();
+		config.setName(getAppName());
+		return config;
+	}
+	
+	private static void writeJsonArray(File file, List<String> entries) throws IOException {
+		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)));
+		try {
+			out.println(toJsonArray(entries, "  "));
+		} finally {
+			out.close();
+		}
+	}
+	
+	private static String toJsonArray(List<String> entries, String indent) {
+		StringBuilder json = new StringBuilder("[");
+		for(int i = 0; i < entries.size(); i++) {
+			json.append((i==0)?"\n":",\n").append(indent).append(entries.get(i));
+		}
+		return json.append("\n").append(indent.substring(2)).append("]").toString();
+	}
+	
+	/**
+	 * Generates the class list of a class data sharing archive of the application. A new 
+	 * JVM executes the command lines of a training set through {@link Executor} and records 
+	 * the classes it loads using the JVM option -XX:DumpLoadedClassList.
+	 * 
+	 * @param trainingFile		training set, one command line per line
+	 * @param classPath			class path of the application
+	 * @param classListFile		class list file to write
+	 * @return File	class list file
+	 * @throws IOException	thrown if the training JVM cannot be started or fails
+	 */
+	public File generateClassList(File trainingFile, String classPath, File classListFile) throws IOException {
+		if(!trainingFile.isFile()) {
+			throw new IllegalArgumentException("Training file " + trainingFile + " does not exist");
+		}
+		List<String> command = new ArrayList<String>();
+		command.add(getJavaCommand());
+		command.add("-Xshare:off");
+		command.add("-XX:DumpLoadedClassList=" + classListFile.getPath());
+		command.add("-D" + Configuration.PROPERTY_JCLIF_TRAINING_FILE + "=" + trainingFile.getPath());
+		command.add("-cp");
+		command.add(classPath);
+		command.add(Executor.class.getName());
+		run(command);
+		if(!classListFile.isFile()) {
+			throw new IOException("Class list " + classListFile + " was not written");
+		}
+		return classListFile;
+	}
+	
+	/**
+	 * Generates the class data sharing archive of the classes of a class list. The 
+	 * application must be launched with the same class path and the JVM option
+	 * -XX:SharedArchiveFile to use the archive. Class path must only contain jar files, 
+	 * classes loaded from directories are not archived by the JVM.
+	 * 
+	 * @param classListFile		class list generated by {@link #generateClassList(File, String, File)}
+	 * @param classPath			class path of the application
+	 * @param archiveFile		archive file to write
+	 * @return File	archive file
+	 * @throws IOException	thrown if the JVM cannot be started or fails to dump the archive
+	 */
+	public File generateSharedArchive(File classListFile, String classPath, File archiveFile) throws IOException {
+		List<String> command = new ArrayList<String>();
+		command.add(getJavaCommand());
+		command.add("-Xshare:dump");
+		command.add("-XX:SharedClassListFile=" + classListFile.getPath());
+		command.add("-XX:SharedArchiveFile=" + archiveFile.getPath());
+		command.add("-cp");
+		command.add(classPath);
+		run(command);
+		if(!archiveFile.isFile()) {
+			throw new IOException("Shared archive " + archiveFile + " was not written");
+		}
+		return archiveFile;
+	}
+	
+	private static String getJavaCommand() {
+		return new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+	}
+	
+	private static void run(List<String> command) throws IOException {
+		LOGGER.info("Running " + command);
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		InputStream in = process.getInputStream();
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+		try {
+			int exitCode = process.waitFor();
+			if(exitCode != 0) {
+				throw new IOException("Command " + command + " failed with exit code " + exitCode 
+						+ ": " + new String(output.toByteArray(), Charset.defaultCharset()));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Command " + command + " interrupted", e);
+		}
 	}
 	
 }
@@ -0,0 +1,442 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.plugin;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.annotation.Option;
+import org.jclif.annotation.Parameter;
+import org.jclif.runtime.HandlerBinder;
+import org.jclif.runtime.HandlerProvider;
+
+/**
+ * This class is an annotation processor which generates, at compile time, a HandlerBinder
+ * for each Command annotated class and a HandlerProvider which lists all the binders of a
+ * compilation unit. Binders build the command metadata and set the handler fields using 
+ * the handler setter methods, so an Executor which loads a generated provider does not
+ * use reflection to process the annotations of the handlers it binds.
+ * <p>
+ * The processor is registered as a service of the JCLIF jar, it is run by javac for any
+ * project which has JCLIF in its compile classpath. The provider is generated in the 
+ * package of the first handler with the name {@value #PROVIDER_CLASS_NAME} and covers the
+ * packages of all handlers of the compilation, a provider generated by a compilation of 
+ * only some handlers of a package must be regenerated by a full build.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public class HandlerAnnotationProcessor extends AbstractProcessor {
+	
+	public static final String BINDER_CLASS_SUFFIX = "_JclifBinder";
+	public static final String PROVIDER_CLASS_NAME = "JclifHandlerProvider";
+	
+	private static final String LIST_CLASS_NAME = "java.util.List";
+	
+	private final Map<String, String> binderClassNames = new TreeMap<String, String>();
+	private final Set<String> handlerPackages = new TreeSet<String>();
+	private String providerPackage;
+	
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(Command.class.getCanonicalName());
+	}
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		
+		for(Element element : roundEnv.getElementsAnnotatedWith(Command.class)) {
+			if(element.getKind()!=ElementKind.CLASS) {
+				continue;
+			}
+			TypeElement handlerType = (TypeElement) element;
+			try {
+				String binderClassName = generateBinder(handlerType);
+				if(binderClassName!=null) {
+					binderClassNames.put(handlerType.getQualifiedName().toString(), binderClassName);
+					handlerPackages.add(getPackageName(handlerType));
+				}
+			} catch (IOException e) {
+				getMessager().printMessage(Kind.ERROR, "Unable to generate binder: " + e.getMessage(), handlerType);
+			}
+		}
+		
+		if(roundEnv.processingOver() && !binderClassNames.isEmpty()) {
+			try {
+				generateProvider();
+			} catch (IOException e) {
+				getMessager().printMessage(Kind.ERROR, "Unable to generate handler provider: " + e.getMessage());
+			}
+		}
+		
+		return false;
+	}
+	
+	private Messager getMessager() {
+		return processingEnv.getMessager();
+	}
+	
+	/**
+	 * Generates the binder of a handler class.
+	 * 
+	 * @param handlerType	handler class
+	 * @return String	qualified name of generated binder or null if handler is invalid
+	 * @throws IOException	thrown if source file cannot be written
+	 */
+	String generateBinder(TypeElement handlerType) throws IOException {
+		
+		if(!isValidHandlerType(handlerType)) {
+			return null;
+		}
+		
+		Command command = handlerType.getAnnotation(Command.class);
+		String packageName = getPackageName(handlerType);
+		String binderSimpleName = getBinderSimpleName(handlerType);
+		String binderClassName = packageName.isEmpty()?binderSimpleName:(packageName + "." + binderSimpleName);
+		String handlerClassName = handlerType.getQualifiedName().toString();
+		
+		ExecutableElement handlerMethod = getHandlerMethod(handlerType);
+		if(handlerMethod==null) {
+			getMessager().printMessage(Kind.ERROR, "Command handler annotation not found in " 
+					+ handlerClassName, handlerType);
+			return null;
+		}
+		
+		StringBuilder metadataCode = new StringBuilder();
+		StringBuilder bindCode = new StringBuilder();
+		boolean partitionKeyFound = command.partitionKey().isEmpty();
+		
+		for(VariableElement field : ElementFilter.fieldsIn(handlerType.getEnclosedElements())) {
+			
+			Option option = field.getAnnotation(Option.class);
+			Parameter parameter = field.getAnnotation(Parameter.class);
+			String identifier;
+			String valueMethod;
+			
+			if(option!=null) {
+				identifier = option.identifier();
+				valueMethod = "getOptionValue";
+				boolean multiValued = isList(field.asType());
+				metadataCode.append(String.format("\t\toption = new org.jclif.type.OptionMetadataImpl(%s, %s,%n"
+						+ "\t\t\t\tnew org.jclif.type.ParameterMetadataImpl(%s, org.jclif.annotation.ParameterType.%s),%n"
+						+ "\t\t\t\t%b, %b, %s, %s);%n", 
+						literal(option.identifier()), literal(option.longIdentifier()), 
+						literal(option.identifier()), option.type().name(), 
+						option.required(), multiValued, 
+						literal(option.description()), literal(option.longDescription())));
+				if(!option.environmentVariable().isEmpty()) {
+					metadataCode.append(String.format("\t\toption.setEnvironmentVariable(%s);%n", 
+							literal(option.environmentVariable())));
+				}
+				if(!option.systemProperty().isEmpty()) {
+					metadataCode.append(String.format("\t\toption.setSystemProperty(%s);%n", 
+							literal(option.systemProperty())));
+				}
+				metadataCode.append(String.format("\t\toptions.addOption(option);%n"));
+			} else if(parameter!=null) {
+				identifier = parameter.identifier();
+				valueMethod = "getParameterValue";
+				metadataCode.append(String.format("\t\tparameters.addParameter(new org.jclif.type.ParameterMetadataImpl(%s,%n"
+						+ "\t\t\t\t%b, %b, org.jclif.annotation.ParameterType.%s, %s, %s));%n", 
+						literal(parameter.identifier()), parameter.required(), parameter.multiValued(), 
+						parameter.type().name(), literal(parameter.description()), 
+						literal(parameter.longDescription())));
+			} else {
+				continue;
+			}
+			
+			if(identifier.equals(command.partitionKey())) {
+				partitionKeyFound = true;
+			}
+			
+			ExecutableElement setter = getSetterMethod(handlerType, field);
+			if(setter==null) {
+				getMessager().printMessage(Kind.ERROR, "Setter method not found for field " 
+						+ field.getSimpleName(), field);
+				return null;
+			}
+			
+			bindCode.append(String.format("\t\tvalue = org.jclif.runtime.HandlerBinderSupport.%s(result, %s);%n"
+					+ "\t\tif(value!=null) {%n"
+					+ "\t\t\thandler.%s((%s) value);%n"
+					+ "\t\t}%n", 
+					valueMethod, literal(identifier), setter.getSimpleName(), 
+					getCastType(setter.getParameters().get(0).asType())));
+		}
+		
+		if(!partitionKeyFound) {
+			getMessager().printMessage(Kind.ERROR, "Partition key " + command.partitionKey() + " of " 
+					+ handlerClassName + " is not an option or parameter identifier.", handlerType);
+			return null;
+		}
+		
+		FileObject sourceFile = processingEnv.getFiler().createSourceFile(binderClassName, handlerType);
+		PrintWriter out = new PrintWriter(sourceFile.openWriter());
+		try {
+			if(!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Handler binder of " + handlerClassName + ".");
+			out.println(" * Generated by " + getClass().getCanonicalName() + ", do not edit.");
+			out.println(" */");
+			out.println("public final class " + binderSimpleName + " implements " 
+					+ HandlerBinder.class.getCanonicalName() + " {");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic org.jclif.type.CommandMetadata createMetadata() {");
+			out.println("\t\torg.jclif.type.OptionConfiguration options = new org.jclif.type.OptionConfiguration();");
+			out.println("\t\torg.jclif.type.ParameterConfiguration parameters = new org.jclif.type.ParameterConfiguration();");
+			out.println("\t\torg.jclif.type.OptionMetadataImpl option;");
+			out.print(metadataCode);
+			out.println(String.format("\t\torg.jclif.type.CommandMetadataImpl metadata = new org.jclif.type.CommandMetadataImpl(%s,%n"
+					+ "\t\t\t\toptions, parameters, %s, %s);", 
+					literal(command.identifier()), literal(command.description()), literal(command.longDescription())));
+			out.println("\t\tmetadata.setPartitionKey(" + literal(command.partitionKey()) + ");");
+			out.println("\t\treturn metadata;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Class<?> getHandlerClass() {");
+			out.println("\t\treturn " + handlerClassName + ".class;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic String getParent() {");
+			out.println("\t\treturn " + literal(command.parent()) + ";");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic void execute(org.jclif.parser.CommandLineParseResult result) {");
+			out.println("\t\t" + handlerClassName + " handler = new " + handlerClassName + "();");
+			out.println("\t\tObject value;");
+			out.print(bindCode);
+			out.println("\t\thandler." + handlerMethod.getSimpleName() + "();");
+			out.println("\t}");
+			out.println();
+			out.println("}");
+		} finally {
+			out.close();
+		}
+		
+		return binderClassName;
+	}
+	
+	/**
+	 * Generates the provider class and its service registration file.
+	 * 
+	 * @throws IOException	thrown if source or service file cannot be written
+	 */
+	void generateProvider() throws IOException {
+		
+		Filer filer = processingEnv.getFiler();
+		String providerClassName = (providerPackage==null || providerPackage.isEmpty())
+				?PROVIDER_CLASS_NAME:(providerPackage + "." + PROVIDER_CLASS_NAME);
+		
+		PrintWriter out = new PrintWriter(filer.createSourceFile(providerClassName).openWriter());
+		try {
+			if(providerPackage!=null && !providerPackage.isEmpty()) {
+				out.println("package " + providerPackage + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Handler provider of " + binderClassNames.size() + " handlers.");
+			out.println(" * Generated by " + getClass().getCanonicalName() + ", do not edit.");
+			out.println(" */");
+			out.println("public final class " + PROVIDER_CLASS_NAME + " implements " 
+					+ HandlerProvider.class.getCanonicalName() + " {");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<org.jclif.runtime.HandlerBinder> getBinders() {");
+			out.println("\t\tjava.util.List<org.jclif.runtime.HandlerBinder> binders = " 
+					+ "new java.util.ArrayList<org.jclif.runtime.HandlerBinder>(" + binderClassNames.size() + ");");
+			for(String binderClassName : binderClassNames.values()) {
+				out.println("\t\tbinders.add(new " + binderClassName + "());");
+			}
+			out.println("\t\treturn binders;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<String> getPackages() {");
+			StringBuilder packages = new StringBuilder();
+			for(String handlerPackage : handlerPackages) {
+				packages.append((packages.length()==0)?"":", ").append(literal(handlerPackage));
+			}
+			out.println("\t\treturn java.util.Arrays.asList(" + packages + ");");
+			out.println("\t}");
+			out.println();
+			out.println("}");
+		} finally {
+			out.close();
+		}
+		
+		FileObject serviceFile = filer.createResource(StandardLocation.CLASS_OUTPUT, "", 
+				"META-INF/services/" + HandlerProvider.class.getCanonicalName());
+		Writer writer = serviceFile.openWriter();
+		try {
+			writer.write(providerClassName);
+			writer.write('\n');
+		} finally {
+			writer.close();
+		}
+	}
+	
+	private boolean isValidHandlerType(TypeElement handlerType) {
+		
+		Set<Modifier> modifiers = handlerType.getModifiers();
+		if(modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)
+				|| (handlerType.getNestingKind()==NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))
+				|| handlerType.getNestingKind()==NestingKind.LOCAL 
+				|| handlerType.getNestingKind()==NestingKind.ANONYMOUS) {
+			getMessager().printMessage(Kind.ERROR, "Handler class " + handlerType.getQualifiedName() 
+					+ " must be a non-private concrete top level or static nested class", handlerType);
+			return false;
+		}
+		
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(handlerType.getEnclosedElements())) {
+			if(constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				if(providerPackage==null) {
+					providerPackage = getPackageName(handlerType);
+				}
+				return true;
+			}
+		}
+		
+		getMessager().printMessage(Kind.ERROR, "Handler class " + handlerType.getQualifiedName() 
+				+ " has no accessible no argument constructor", handlerType);
+		return false;
+	}
+	
+	private ExecutableElement getHandlerMethod(TypeElement handlerType) {
+		for(ExecutableElement method : ElementFilter.methodsIn(
+				processingEnv.getElementUtils().getAllMembers(handlerType))) {
+			if(method.getAnnotation(Handler.class)!=null 
+					&& method.getModifiers().contains(Modifier.PUBLIC)
+					&& !method.getModifiers().contains(Modifier.STATIC)
+					&& method.getParameters().isEmpty()) {
+				return method;
+			}
+		}
+		return null;
+	}
+	
+	private ExecutableElement getSetterMethod(TypeElement handlerType, VariableElement field) {
+		String fieldName = field.getSimpleName().toString();
+		String setterName = "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+		for(ExecutableElement method : ElementFilter.methodsIn(
+				processingEnv.getElementUtils().getAllMembers(handlerType))) {
+			if(method.getSimpleName().contentEquals(setterName) 
+					&& method.getModifiers().contains(Modifier.PUBLIC)
+					&& method.getParameters().size()==1) {
+				return method;
+			}
+		}
+		return null;
+	}
+	
+	private boolean isList(TypeMirror type) {
+		Types types = processingEnv.getTypeUtils();
+		return type.getKind()==TypeKind.DECLARED 
+				&& types.erasure(type).toString().equals(LIST_CLASS_NAME);
+	}
+	
+	private String getCastType(TypeMirror type) {
+		Types types = processingEnv.getTypeUtils();
+		if(type.getKind().isPrimitive()) {
+			return types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString();
+		}
+		return types.erasure(type).toString();
+	}
+	
+	private String getPackageName(TypeElement type) {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		return packageElement.isUnnamed()?"":packageElement.getQualifiedName().toString();
+	}
+	
+	private String getBinderSimpleName(TypeElement type) {
+		StringBuilder name = new StringBuilder(type.getSimpleName());
+		Element enclosing = type.getEnclosingElement();
+		while(enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+			name.insert(0, enclosing.getSimpleName() + "_");
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name.append(BINDER_CLASS_SUFFIX).toString();
+	}
+	
+	static String literal(String value) {
+		if(value==null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder("\"");
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch(c) {
+			case '"': sb.append("\\\""); break;
+			case '\\': sb.append("\\\\"); break;
+			case '\n': sb.append("\\n"); break;
+			case '\r': sb.append("\\r"); break;
+			case '\t': sb.append("\\t"); break;
+			default:
+				if(c < 0x20 || c > 0x7e) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		return sb.append('"').toString();
+	}
+	
+}
@@ -1,9 +1,12 @@
 package org.jclif.plugin;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
+import org.jclif.text.CommandLineFormatType;
+import org.jclif.text.CompletionScript;
 
 public class JclifAntTask extends Task {
 
@@ -11,11 +14,41 @@ public class JclifAntTask extends Task {
 	private String sourceDirectory;
 	private String annotatedPackage;
 	private String buildDirectory;
+	private String trainingFile;
+	private String classPath;
+	private String classListFile;
+	private String sharedArchiveFile;
+	private boolean nativeImageConfig;
+	private String completionShell;
+	private String helpFormat;
+	private String helpDirectory;
 	
 	public void execute() {
 		try {
 			CodeGenerator codeGen = new CodeGenerator(this.getApplicationName(), this.getSourceDirectory());
 			codeGen.generateMain(this.getAnnotatedPackage(), this.getBuildDirectory());
+			if(this.isNativeImageConfig()) {
+				codeGen.generateNativeImageConfig(this.getAnnotatedPackage(), this.getBuildDirectory());
+			}
+			if(this.getCompletionShell()!=null) {
+				codeGen.generateCompletionScript(this.getAnnotatedPackage(), 
+						CompletionScript.Shell.valueOf(this.getCompletionShell().toUpperCase()), 
+						new File(this.getBuildDirectory(), this.getApplicationName() + "-completion." 
+								+ this.getCompletionShell().toLowerCase()));
+			}
+			if(this.getHelpFormat()!=null) {
+				codeGen.generateHelpDocuments(this.getAnnotatedPackage(), 
+						CommandLineFormatType.valueOf(this.getHelpFormat().toUpperCase()), 
+						new File((this.getHelpDirectory()!=null)?this.getHelpDirectory():this.getBuildDirectory()));
+			}
+			if(this.getTrainingFile()!=null) {
+				File classList = (this.getClassListFile()!=null)? new File(this.getClassListFile()) 
+						: new File(this.getBuildDirectory(), this.getApplicationName() + ".classlist");
+				codeGen.generateClassList(new File(this.getTrainingFile()), this.getClassPath(), classList);
+				if(this.getSharedArchiveFile()!=null) {
+					codeGen.generateSharedArchive(classList, this.getClassPath(), new File(this.getSharedArchiveFile()));
+				}
+			}
 		} catch (IOException e) {
 			throw new BuildException("JCLIF configuration generator failed", e);
 		}
@@ -53,4 +86,68 @@ public class JclifAntTask extends Task {
 		this.buildDirectory = buildDirectory;
 	}
 	
+	public String getTrainingFile() {
+		return trainingFile;
+	}
+
+	public void setTrainingFile(String trainingFile) {
+		this.trainingFile = trainingFile;
+	}
+
+	public String getClassPath() {
+		return classPath;
+	}
+
+	public void setClassPath(String classPath) {
+		this.classPath = classPath;
+	}
+
+	public String getClassListFile() {
+		return classListFile;
+	}
+
+	public void setClassListFile(String classListFile) {
+		this.classListFile = classListFile;
+	}
+
+	public String getSharedArchiveFile() {
+		return sharedArchiveFile;
+	}
+
+	public void setSharedArchiveFile(String sharedArchiveFile) {
+		this.sharedArchiveFile = sharedArchiveFile;
+	}
+	
+	public boolean isNativeImageConfig() {
+		return nativeImageConfig;
+	}
+
+	public void setNativeImageConfig(boolean nativeImageConfig) {
+		this.nativeImageConfig = nativeImageConfig;
+	}
+	
+	public String getCompletionShell() {
+		return completionShell;
+	}
+
+	public void setCompletionShell(String completionShell) {
+		this.completionShell = completionShell;
+	}
+	
+	public String getHelpFormat() {
+		return helpFormat;
+	}
+
+	public void setHelpFormat(String helpFormat) {
+		this.helpFormat = helpFormat;
+	}
+	
+	public String getHelpDirectory() {
+		return helpDirectory;
+	}
+
+	public void setHelpDirectory(String helpDirectory) {
+		this.helpDirectory = helpDirectory;
+	}
+	
 }
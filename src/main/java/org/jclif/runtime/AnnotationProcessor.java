@@ -88,11 +88,19 @@ public final class AnnotationProcessor {
 			
 		}
 		
-		CommandMetadata metadata = new CommandMetadataImpl(commandAnnotation.identifier(), 
+		String partitionKey = commandAnnotation.partitionKey();
+		if(!partitionKey.isEmpty() && optionConfig.getOption(partitionKey)==null 
+				&& !parameterConfig.contains(partitionKey)) {
+			throw new IllegalArgumentException("Partition key " + partitionKey + " of " 
+					+ commandHandler.getCanonicalName() + " is not an option or parameter identifier.");
+		}
+		
+		CommandMetadataImpl metadata = new CommandMetadataImpl(commandAnnotation.identifier(), 
 				optionConfig, 
 				parameterConfig, 
 				commandAnnotation.description(), 
 				commandAnnotation.longDescription());
+		metadata.setPartitionKey(partitionKey);
 		return metadata;
 	}
 	
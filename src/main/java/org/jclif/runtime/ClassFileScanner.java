@@ -0,0 +1,287 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import org.jclif.annotation.Command;
+
+/**
+ * This class reads class files to find out if a class is annotated with Command without 
+ * loading the class. Only the constant pool and the class attributes of a class file are 
+ * read, field and method attributes are skipped.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+final class ClassFileScanner {
+	
+	private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+	private static final byte[] COMMAND_DESCRIPTOR = ("L" + Command.class.getName().replace('.', '/') + ";")
+			.getBytes(Charset.forName("UTF-8"));
+	
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+	
+	private ClassFileScanner() {
+		// Helper class
+	}
+	
+	/**
+	 * Returns the name of a class if the class file is annotated with Command.
+	 * 
+	 * @param file	class file
+	 * @return String	binary class name or null if class is not annotated with Command
+	 * @throws IOException	thrown if the file cannot be read or is not a valid class file
+	 */
+	static String getCommandClassName(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			return getCommandClassName(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Returns the name of a class if the class file read from a stream is annotated with Command.
+	 * 
+	 * @param in	input stream of class file, stream is not closed
+	 * @return String	binary class name or null if class is not annotated with Command
+	 * @throws IOException	thrown if the stream cannot be read or is not a valid class file
+	 */
+	static String getCommandClassName(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return getCommandClassName(ByteBuffer.wrap(out.toByteArray()));
+	}
+	
+	/**
+	 * Returns the name of a class if the class file is annotated with Command.
+	 * 
+	 * @param classFile	class file content
+	 * @return String	binary class name or null if class is not annotated with Command
+	 * @throws IOException	thrown if content is not a valid class file
+	 */
+	static String getCommandClassName(ByteBuffer classFile) throws IOException {
+		try {
+			return readCommandClassName(classFile);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated class file", e);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Invalid class file", e);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid class file", e);
+		}
+	}
+	
+	private static String readCommandClassName(ByteBuffer buf) throws IOException {
+		
+		if(buf.getInt() != CLASS_FILE_MAGIC) {
+			throw new IOException("Invalid class file magic number");
+		}
+		buf.getShort(); // minor version
+		buf.getShort(); // major version
+		
+		// offsets of utf8 entries, class entries point to their utf8 name
+		int count = buf.getShort() & 0xFFFF;
+		int[] offsets = new int[count];
+		int[] classNames = new int[count];
+		int commandIndex = -1;
+		for(int i = 1; i < count; i++) {
+			int tag = buf.get();
+			switch(tag) {
+			case CONSTANT_UTF8:
+				offsets[i] = buf.position();
+				int length = buf.getShort() & 0xFFFF;
+				if(commandIndex < 0 && utf8Equals(buf, buf.position(), length, COMMAND_DESCRIPTOR)) {
+					commandIndex = i;
+				}
+				skip(buf, length);
+				break;
+			case CONSTANT_CLASS:
+				classNames[i] = buf.getShort() & 0xFFFF;
+				break;
+			case CONSTANT_STRING:
+			case CONSTANT_METHOD_TYPE:
+			case CONSTANT_MODULE:
+			case CONSTANT_PACKAGE:
+				skip(buf, 2);
+				break;
+			case CONSTANT_METHOD_HANDLE:
+				skip(buf, 3);
+				break;
+			case CONSTANT_INTEGER:
+			case CONSTANT_FLOAT:
+			case CONSTANT_FIELDREF:
+			case CONSTANT_METHODREF:
+			case CONSTANT_INTERFACE_METHODREF:
+			case CONSTANT_NAME_AND_TYPE:
+			case CONSTANT_DYNAMIC:
+			case CONSTANT_INVOKE_DYNAMIC:
+				skip(buf, 4);
+				break;
+			case CONSTANT_LONG:
+			case CONSTANT_DOUBLE:
+				skip(buf, 8);
+				i++;
+				break;
+			default:
+				throw new IOException("Invalid constant pool tag " + tag + " at index " + i);
+			}
+		}
+		
+		// descriptor of Command is not referenced anywhere in the class
+		if(commandIndex < 0) {
+			return null;
+		}
+		
+		buf.getShort(); // access flags
+		int thisClass = buf.getShort() & 0xFFFF;
+		buf.getShort(); // super class
+		skip(buf, 2 * (buf.getShort() & 0xFFFF)); // interfaces
+		skipMembers(buf); // fields
+		skipMembers(buf); // methods
+		
+		int attributeCount = buf.getShort() & 0xFFFF;
+		for(int i = 0; i < attributeCount; i++) {
+			int name = buf.getShort() & 0xFFFF;
+			int length = buf.getInt();
+			int end = buf.position() + length;
+			if(readUtf8(buf, offsets[name]).equals(RUNTIME_VISIBLE_ANNOTATIONS)) {
+				int annotationCount = buf.getShort() & 0xFFFF;
+				for(int j = 0; j < annotationCount; j++) {
+					int type = buf.getShort() & 0xFFFF;
+					if(type == commandIndex) {
+						return readUtf8(buf, offsets[classNames[thisClass]]).replace('/', '.');
+					}
+					skipElementValuePairs(buf);
+				}
+			}
+			buf.position(end);
+		}
+		
+		return null;
+	}
+	
+	private static void skipMembers(ByteBuffer buf) {
+		int memberCount = buf.getShort() & 0xFFFF;
+		for(int i = 0; i < memberCount; i++) {
+			skip(buf, 6); // access flags, name and descriptor
+			skipAttributes(buf);
+		}
+	}
+	
+	private static void skipAttributes(ByteBuffer buf) {
+		int attributeCount = buf.getShort() & 0xFFFF;
+		for(int i = 0; i < attributeCount; i++) {
+			buf.getShort();
+			skip(buf, buf.getInt());
+		}
+	}
+	
+	private static void skipElementValuePairs(ByteBuffer buf) {
+		int pairCount = buf.getShort() & 0xFFFF;
+		for(int i = 0; i < pairCount; i++) {
+			buf.getShort();
+			skipElementValue(buf);
+		}
+	}
+	
+	private static void skipElementValue(ByteBuffer buf) {
+		int tag = buf.get();
+		switch(tag) {
+		case 'e':
+			skip(buf, 4);
+			break;
+		case '@':
+			buf.getShort();
+			skipElementValuePairs(buf);
+			break;
+		case '[':
+			int valueCount = buf.getShort() & 0xFFFF;
+			for(int i = 0; i < valueCount; i++) {
+				skipElementValue(buf);
+			}
+			break;
+		default:
+			skip(buf, 2);
+		}
+	}
+	
+	private static void skip(ByteBuffer buf, int length) {
+		buf.position(buf.position() + length);
+	}
+	
+	private static boolean utf8Equals(ByteBuffer buf, int offset, int length, byte[] value) {
+		if(length != value.length) {
+			return false;
+		}
+		for(int i = 0; i < length; i++) {
+			if(buf.get(offset + i) != value[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads a constant pool utf8 entry. Class names and attribute names never contain 
+	 * the characters encoded differently by the modified UTF-8 of class files.
+	 */
+	private static String readUtf8(ByteBuffer buf, int offset) {
+		int length = buf.getShort(offset) & 0xFFFF;
+		byte[] bytes = new byte[length];
+		for(int i = 0; i < length; i++) {
+			bytes[i] = buf.get(offset + 2 + i);
+		}
+		return new String(bytes, Charset.forName("UTF-8"));
+	}
+	
+}
@@ -9,18 +9,12 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
-import java.util.Set;
-import java.util.jar.JarEntry;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.jclif.util.StringUtil;
-
 /**
  * This class represents a configuration used by the executor when processing command line
  * inputs. A Configuration contains the properties which defines the package handler name, 
@@ -42,6 +36,19 @@ public class Configuration extends Properties {
 	public static final String PROPERTY_JCLIF_INSTALL_PATH = "org.jclif.app.installation.path";
 	public static final String PROPERTY_JCLIF_CONFIG_FILE = "org.jclif.app.configuration.file";
 	public static final String PROPERTY_JCLIF_OS_NAME = "org.jclif.runtime.system.os.name";
+	public static final String PROPERTY_JCLIF_CHANNEL_FILE = "org.jclif.runtime.channel.file";
+	public static final String PROPERTY_JCLIF_SCRIPT_FILE = "org.jclif.runtime.script.file";
+	public static final String PROPERTY_JCLIF_SCRIPT_CONCURRENCY = "org.jclif.runtime.script.concurrency";
+	public static final String PROPERTY_JCLIF_SCRIPT_FAILURE_POLICY = "org.jclif.runtime.script.failure.policy";
+	public static final String PROPERTY_JCLIF_SCRIPT_RETRY_COUNT = "org.jclif.runtime.script.retry.count";
+	public static final String PROPERTY_JCLIF_SHELL = "org.jclif.runtime.shell";
+	public static final String PROPERTY_JCLIF_SHELL_HISTORY_FILE = "org.jclif.runtime.shell.history.file";
+	public static final String PROPERTY_JCLIF_SHELL_HISTORY_SIZE = "org.jclif.runtime.shell.history.size";
+	public static final String PROPERTY_JCLIF_INDEX_FILE = "org.jclif.runtime.index.file";
+	public static final String PROPERTY_JCLIF_TRAINING_FILE = "org.jclif.runtime.training.file";
+	public static final String PROPERTY_JCLIF_WATCH = "org.jclif.runtime.watch";
+	public static final String PROPERTY_JCLIF_PLUGIN_DIR = "org.jclif.runtime.plugin.dir";
+	public static final String PROPERTY_JCLIF_COMPILED_FILE = "org.jclif.runtime.compiled.file";
 	
 	public static final String CONFIG_PROPERTY_APP_NAME = "org.jclif.app.name";
 	public static final String CONFIG_PROPERTY_APP_MAIN = "org.jclif.app.main";
@@ -49,6 +56,7 @@ public class Configuration extends Properties {
 	public static final String CONFIG_PROPERTY_APP_HANDLER_PACKAGE = "org.jclif.app.handler.package";
 	
 	private int handlerCount = 0;
+	private transient ClassLoader classLoader;
 	
 	/**
 	 * Creates an empty configuration.
@@ -85,7 +93,7 @@ public class Configuration extends Properties {
 	 */
 	public void load(InputStream inputStream) throws IOException {
 		super.load(inputStream);
-		getHandlerList();
+		this.handlerCount = getHandlerClassNameList().size();
 	}
 	
 	/**
@@ -97,9 +105,7 @@ public class Configuration extends Properties {
 	public static InputStream getDefaultConfigInputStream() throws IOException {
 		InputStream stream = Executor.class.getClassLoader().getResourceAsStream(DEFAULT_EXECUTOR_CONFIG_FILE);
 		if(stream==null) {
-			String configFileName = System.getProperty(PROPERTY_JCLIF_CONFIG_FILE, DEFAULT_EXECUTOR_CONFIG_FILE);
-			String configDirPath = System.getProperty(PROPERTY_JCLIF_INSTALL_PATH, System.getProperty("user.dir"));
-			File configFile = new File(new File(configDirPath).getCanonicalFile(), configFileName);
+			File configFile = getDefaultConfigFile();
 			stream = new FileInputStream(configFile);
 			LOGGER.info(String.format("Executor using file config file '%s'", configFile.getCanonicalPath()));
 		} else {
@@ -108,6 +114,33 @@ public class Configuration extends Properties {
 		return stream;
 	}
 	
+	/**
+	 * Returns the configuration file in the installation directory, the file read when no
+	 * configuration file is found in class path.
+	 * 
+	 * @return File	configuration file, which may not exist
+	 * @throws IOException	thrown if the installation path cannot be resolved
+	 */
+	public static File getDefaultConfigFile() throws IOException {
+		String configFileName = System.getProperty(PROPERTY_JCLIF_CONFIG_FILE, DEFAULT_EXECUTOR_CONFIG_FILE);
+		String configDirPath = System.getProperty(PROPERTY_JCLIF_INSTALL_PATH, System.getProperty("user.dir"));
+		return new File(new File(configDirPath).getCanonicalFile(), configFileName);
+	}
+	
+	/**
+	 * Sets the class loader of the handler classes listed in the configuration, e.g. a 
+	 * class loader of plugin jars. Defaults to the class loader of the executor.
+	 * 
+	 * @param classLoader	class loader of handler classes
+	 */
+	public void setClassLoader(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+	
+	public ClassLoader getClassLoader() {
+		return (classLoader==null)?Executor.class.getClassLoader():classLoader;
+	}
+	
 	public void setHandlerPackage(String packageName) {
 		put(CONFIG_PROPERTY_APP_HANDLER_PACKAGE, packageName);
 	}
@@ -125,30 +158,94 @@ public class Configuration extends Properties {
 	 */
 	public List<Class<?>> getHandlerList() {
 		List<Class<?>> handlerList = new ArrayList<Class<?>>();
-		for(int i = 1; ; i++) {
-			String className = getProperty(CONFIG_PROPERTY_APP_HANDLER_LIST + "." + i, "").trim();
-			if(className==null || className.isEmpty()) {
-				break;
-			}
+		for(String className : getHandlerClassNameList()) {
 			try {
-				handlerList.add(Class.forName(className));
+				handlerList.add(Class.forName(className, true, getClassLoader()));
 			} catch (ClassNotFoundException e) {
 				LOGGER.log(Level.WARNING, "Handler class " + className + " not found in classpath", 
 						e);
 			}
 		}
-		this.handlerCount = handlerList.size();
 		return handlerList;
 	}
 	
+	/**
+	 * Returns the class names of the command handlers registered in the properties file
+	 * under properties org.jclif.app.handler.[index], without loading the classes.
+	 * 
+	 * @return List<String> list of handler class names
+	 */
+	public List<String> getHandlerClassNameList() {
+		List<String> classNameList = new ArrayList<String>();
+		for(int i = 1; ; i++) {
+			String className = getProperty(CONFIG_PROPERTY_APP_HANDLER_LIST + "." + i, "").trim();
+			if(className.isEmpty()) {
+				break;
+			}
+			classNameList.add(className);
+		}
+		return classNameList;
+	}
+	
 	/**
 	 * Retrieves command handler list detected in package name specified under 
-	 * org.jclif.app.handler.package property of properties file. 
+	 * org.jclif.app.handler.package property of properties file. Only classes annotated
+	 * with Command are loaded, class files are read without loading the class to check 
+	 * for the annotation. Class files are read in parallel and handlers are returned sorted
+	 * by class name.
 	 * 
 	 * @return List<Class<?>> list of handler classes
 	 * @throws IOException 
 	 */
 	public List<Class<?>> getPackageHandlerList() throws IOException {
+		return getPackageHandlerList(null);
+	}
+	
+	/**
+	 * Retrieves command handler list detected in package name specified under 
+	 * org.jclif.app.handler.package property of properties file using an index file.
+	 * If the index file was written for the same package and the fingerprint of the jar
+	 * or class directory of the package did not change, the handler list of the index is 
+	 * returned without scanning the package. Otherwise the package is scanned and the 
+	 * index file is written.
+	 * 
+	 * @param indexFile	handler index file or null if no index is used
+	 * @return List<Class<?>> list of handler classes
+	 * @throws IOException 
+	 */
+	public List<Class<?>> getPackageHandlerList(File indexFile) throws IOException {
+		HandlerIndex index = getPackageHandlerIndex(indexFile, false);
+		if(index==null) {
+			return new ArrayList<Class<?>>();
+		}
+		try {
+			try {
+				return index.loadClasses(getClassLoader());
+			} catch (ClassNotFoundException e) {
+				LOGGER.log(Level.WARNING, "Handler of index " + indexFile + " not found", e);
+				return getPackageHandlerIndex(indexFile, true).loadClasses(getClassLoader());
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Loading handler failed", e);
+		}
+	}
+	
+	/**
+	 * Returns the handler index of the package specified under org.jclif.app.handler.package
+	 * property of properties file. If the index file is up to date, the index is returned 
+	 * without scanning the package or loading any handler class so handlers can be 
+	 * registered by name and loaded only when needed. Otherwise the package is scanned and
+	 * the index file is written.
+	 * 
+	 * @param indexFile	handler index file or null if no index is used
+	 * @return HandlerIndex	handler index or null if no handler package is configured
+	 * @throws IOException
+	 */
+	HandlerIndex getPackageHandlerIndex(File indexFile) throws IOException {
+		return getPackageHandlerIndex(indexFile, false);
+	}
+	
+	private HandlerIndex getPackageHandlerIndex(File indexFile, boolean rescan) throws IOException {
 		
 		URL url = null;
 		String appMainPackage = null;
@@ -157,7 +254,7 @@ public class Configuration extends Properties {
 			appMainPackage = appPackage.replace(".", "/");
 			url = Executor.class.getClassLoader().getResource(DEFAULT_EXECUTOR_CONFIG_FILE);
 		} else {
-			return new ArrayList<Class<?>>();
+			return null;
 		}
 		
 		LOGGER.info("Loading Main handler: " + appMainPackage);
@@ -168,44 +265,47 @@ public class Configuration extends Properties {
 					+ DEFAULT_EXECUTOR_CONFIG_FILE + " is found in classpath.");
 		}
 		
-		Set<Class<?>> packageHandlerList = new HashSet<Class<?>>();
-			
 		URLConnection urlConn = url.openConnection();
+		File location = null;
+		long fingerprint = 0;
+		if(indexFile!=null) {
+			location = getPackageLocation(url, urlConn);
+		}
+		if(location!=null) {
+			fingerprint = HandlerIndex.fingerprint(location, appMainPackage);
+			if(!rescan) {
+				HandlerIndex index = readHandlerIndex(indexFile, appPackage, location, fingerprint);
+				if(index!=null) {
+					return index;
+				}
+			}
+		}
 		
+		List<String> classNames = new ArrayList<String>();
+		ForkJoinPool pool = ParallelHandlerScanner.getPool();
 		if (urlConn instanceof JarURLConnection){
-			
 			JarURLConnection conn = (JarURLConnection) urlConn;
-			
 			LOGGER.info("Loading Handler from jar: " + conn.getJarFile().getName());
-			
-			for(Enumeration<JarEntry> e = conn.getJarFile().entries(); e.hasMoreElements(); ) {
-				JarEntry entry = e.nextElement();
-				if(entry==null) {
-					continue;
-				}
-				LOGGER.info("Checking Handler from jar path: " + entry.getName());
-				if(entry.getName().startsWith(appMainPackage) && !entry.isDirectory() && entry.getName().endsWith(".class")) {
-					
-					try {
-						Class<?> classType = Class.forName(StringUtil.pathToClassName(entry.getName()));
-						packageHandlerList.add(classType);
-					} catch (ClassNotFoundException ex) {
-						LOGGER.log(Level.WARNING, "Loading Handler from jar path " + url, ex);
-					}
-					
-				}
-			}
-			
+			classNames = ParallelHandlerScanner.scanJar(pool, conn.getJarFile(), appMainPackage);
 		} else if(url.getProtocol().equalsIgnoreCase("file")){
 			try {
-				File fileDir = new File(url.toURI());
-				LOGGER.info("Loading Handler from local path: " + fileDir.getCanonicalFile().getParentFile());
-				extractClassPackages(fileDir.getCanonicalFile().getParentFile(), 
-						appMainPackage, packageHandlerList);
+				File fileDir = new File(url.toURI()).getCanonicalFile().getParentFile();
+				LOGGER.info("Loading Handler from local path: " + fileDir);
+				classNames = ParallelHandlerScanner.scanDirectory(pool, new File(fileDir, appMainPackage));
 			} catch (URISyntaxException e) {
 				LOGGER.log(Level.WARNING, "Loading Handler from local path failed " + url, e);
 			}
 		}
+		
+		List<Class<?>> packageHandlerList = new ArrayList<Class<?>>(classNames.size());
+		for(String className : classNames) {
+			try {
+				packageHandlerList.add(Class.forName(className, true, getClassLoader()));
+			} catch (ClassNotFoundException e) {
+				// Skipping those classes which cannot be found in classpath!
+				LOGGER.log(Level.WARNING, "Loading Handler " + className + " failed", e);
+			}
+		}
 			
 		if(packageHandlerList.isEmpty()) {
 			throw new IllegalArgumentException("Handler package not configured or no "
@@ -213,47 +313,44 @@ public class Configuration extends Properties {
 					+ ".<X> entry found. Please check configuration file.");
 		}
 		
-		return new ArrayList<Class<?>>(packageHandlerList);
-	}
-	
-	void extractClassPackages(File srcDir, String appMainPackage, 
-			Collection<Class<?>> packageClasses) {
-		
-		File packageDir = new File(srcDir, appMainPackage);
-		File[] files =  packageDir.listFiles();
-		LOGGER.fine("extractClassPackages files: " + files);
-		
-		for(File file : files) {
-			
-			String entryFilePath;
+		HandlerIndex index = new HandlerIndex(appPackage, location, fingerprint, packageHandlerList);
+		if(location!=null) {
 			try {
-				entryFilePath = file.getCanonicalPath();
+				index.write(indexFile);
 			} catch (IOException e) {
-				LOGGER.log(Level.WARNING, "extractClassPackages failed", e);
-				continue;
+				LOGGER.log(Level.WARNING, "Writing handler index " + indexFile + " failed", e);
 			}
-			
-			if(file.isDirectory()) {
-				extractClassPackages(file, appMainPackage, packageClasses);
-			} else {
-				if(entryFilePath.endsWith(appMainPackage + File.separator +  file.getName())
-					&& !file.isDirectory() 
-					&& file.getName().endsWith(".class")) {
-					
-					try {
-						Class<?> classType = Class.forName(StringUtil.pathToClassName(
-								appMainPackage + "." + file.getName()));
-						packageClasses.add(classType);	
-					} catch (ClassNotFoundException e) {
-						// Skipping those classes which cannot be found in classpath!
-						LOGGER.log(Level.WARNING, "Loading Handler from local path failed for " 
-								+ file, e);
-					}
-				}
+		}
+		return index;
+	}
+	
+	private HandlerIndex readHandlerIndex(File indexFile, String appPackage, File location, long fingerprint) {
+		try {
+			HandlerIndex index = HandlerIndex.read(indexFile);
+			if(index!=null && index.matches(appPackage, location, fingerprint)) {
+				LOGGER.info("Loading Handler from index " + indexFile);
+				return index;
 			}
-			
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Reading handler index " + indexFile + " failed", e);
 		}
-		
+		return null;
+	}
+	
+	/**
+	 * Returns the jar file or class directory containing the configuration file.
+	 */
+	private File getPackageLocation(URL url, URLConnection urlConn) throws IOException {
+		if (urlConn instanceof JarURLConnection) {
+			return new File(((JarURLConnection) urlConn).getJarFile().getName());
+		} else if(url.getProtocol().equalsIgnoreCase("file")) {
+			try {
+				return new File(url.toURI()).getCanonicalFile().getParentFile();
+			} catch (URISyntaxException e) {
+				LOGGER.log(Level.WARNING, "Invalid local path " + url, e);
+			}
+		}
+		return null;
 	}
 	
 	public int getHandlerCount() {
@@ -0,0 +1,163 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class watches the configuration file and the plugin directory of an executor and
+ * runs a listener when the configuration file changes or a plugin jar is added, replaced or
+ * removed. Events are read by a daemon thread, a burst of events, e.g. an editor saving a 
+ * file or a jar being copied, runs the listener once after no event is received for the
+ * quiet period.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class ConfigurationWatcher implements Closeable, Runnable {
+	
+	private static final Logger LOGGER = Logger.getLogger(ConfigurationWatcher.class.getCanonicalName());
+	
+	static final long DEFAULT_QUIET_PERIOD = 200;
+	
+	private final File configFile;
+	private final File pluginDirectory;
+	private final Runnable listener;
+	private final long quietPeriod;
+	private final WatchService watchService;
+	private final Thread thread;
+	private Path configDirectory;
+	private Path pluginPath;
+	
+	/**
+	 * Creates a watcher of a configuration file and a plugin directory.
+	 * 
+	 * @param configFile		configuration file or null if not watched
+	 * @param pluginDirectory	plugin directory or null if not watched
+	 * @param listener			listener run in the watcher thread when a change is detected
+	 * @param quietPeriod		milliseconds without event before the listener is run
+	 * @throws IOException	thrown if the watch service cannot be created
+	 */
+	ConfigurationWatcher(File configFile, File pluginDirectory, Runnable listener, long quietPeriod) 
+			throws IOException {
+		this.configFile = configFile;
+		this.pluginDirectory = pluginDirectory;
+		this.listener = listener;
+		this.quietPeriod = quietPeriod;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.thread = new Thread(this, "jclif-configuration-watcher");
+		this.thread.setDaemon(true);
+	}
+	
+	/**
+	 * Registers the watched directories and starts the watcher thread.
+	 * 
+	 * @throws IOException	thrown if a directory cannot be watched
+	 */
+	void start() throws IOException {
+		if(configFile!=null) {
+			configDirectory = configFile.getAbsoluteFile().getParentFile().toPath();
+			register(configDirectory);
+		}
+		if(pluginDirectory!=null) {
+			pluginPath = pluginDirectory.getAbsoluteFile().toPath();
+			if(!pluginPath.equals(configDirectory)) {
+				register(pluginPath);
+			}
+		}
+		thread.start();
+		LOGGER.info("Watching configuration file " + configFile + " and plugin directory " + pluginDirectory);
+	}
+	
+	private void register(Path dir) throws IOException {
+		dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, 
+				StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+	}
+	
+	@Override
+	public void run() {
+		try {
+			while(true) {
+				if(!isRelevant(watchService.take())) {
+					continue;
+				}
+				// wait until the burst of events ends
+				WatchKey key;
+				while((key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS)) != null) {
+					isRelevant(key);
+				}
+				try {
+					listener.run();
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Configuration change listener failed", e);
+				}
+			}
+		} catch (InterruptedException e) {
+			LOGGER.fine("Configuration watcher interrupted");
+		} catch (ClosedWatchServiceException e) {
+			LOGGER.fine("Configuration watcher closed");
+		}
+	}
+	
+	/**
+	 * Returns true if an event of a key is a change of the configuration file or of a 
+	 * plugin jar. Key is reset so it receives the next events.
+	 */
+	private boolean isRelevant(WatchKey key) {
+		boolean relevant = false;
+		Path dir = (Path) key.watchable();
+		for(WatchEvent<?> event : key.pollEvents()) {
+			if(event.kind()==StandardWatchEventKinds.OVERFLOW) {
+				relevant = true;
+				continue;
+			}
+			Path name = (Path) event.context();
+			if(dir.equals(configDirectory) && name.toString().equals(configFile.getName())) {
+				relevant = true;
+			} else if(dir.equals(pluginPath) && name.toString().endsWith(".jar")) {
+				relevant = true;
+			}
+		}
+		key.reset();
+		return relevant;
+	}
+	
+	/**
+	 * Stops the watcher thread.
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+	}
+	
+}
@@ -0,0 +1,67 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.PrintStream;
+
+/**
+ * This class gives handlers the output stream of the command being executed. Handlers
+ * write their output to {@link #getOut()} instead of <code>System.out</code> so an
+ * Executor serving a channel or training can capture the output of each execution 
+ * without changing the standard output of the process, which is shared by all threads.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class ExecutionContext {
+	
+	private static final ThreadLocal<PrintStream> OUT = new ThreadLocal<PrintStream>();
+	
+	private ExecutionContext() {
+	}
+	
+	/**
+	 * Returns the output stream of the command executed by the current thread, or 
+	 * <code>System.out</code> if the output of the command is not redirected.
+	 * 
+	 * @return PrintStream	output stream
+	 */
+	public static PrintStream getOut() {
+		PrintStream out = OUT.get();
+		return (out==null)?System.out:out;
+	}
+	
+	/**
+	 * Redirects the output of the commands executed by the current thread.
+	 * 
+	 * @param out	output stream, or null to write to <code>System.out</code>
+	 * @return PrintStream	previous output stream, null if output was not redirected
+	 */
+	static PrintStream bind(PrintStream out) {
+		PrintStream previous = OUT.get();
+		if(out==null) {
+			OUT.remove();
+		} else {
+			OUT.set(out);
+		}
+		return previous;
+	}
+
+}
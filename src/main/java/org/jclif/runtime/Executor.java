@@ -19,24 +19,57 @@
 
 package org.jclif.runtime;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.jclif.annotation.Command;
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineCompletion;
 import org.jclif.parser.CommandLineParseResult;
 import org.jclif.parser.CommandLineParser;
 import org.jclif.parser.InvalidInputException;
 import org.jclif.text.CommandLineFormat;
+import org.jclif.type.CommandConfiguration;
 import org.jclif.type.CommandLineConfiguration;
 import org.jclif.type.CommandLineProperties;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.CompiledConfiguration;
+import org.jclif.type.EnvironmentSnapshot;
+import org.jclif.type.InputMetadata;
 import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadataImpl;
 import org.jclif.type.ParameterMetadata;
+import org.jclif.type.ParameterMetadataImpl;
 import org.jclif.util.LoggerUtil;
+import org.jclif.util.StringUtil;
 
 
 /**
@@ -51,11 +84,65 @@ public final class Executor {
 
 	private static final Logger LOGGER = Logger.getLogger(Executor.class.getCanonicalName());
 	
+	/**
+	 * Identifiers of the options which execute a script from the command line, e.g. 
+	 * <code>--script commands.txt --script_concurrency 8</code>. Each option falls back
+	 * to its runtime system property.
+	 */
+	public static final String OPTION_SCRIPT = "script";
+	public static final String OPTION_SCRIPT_CONCURRENCY = "script_concurrency";
+	public static final String OPTION_SCRIPT_FAILURE_POLICY = "script_failure_policy";
+	public static final String OPTION_SCRIPT_RETRY_COUNT = "script_retry_count";
+	
+	/**
+	 * Frozen command line configuration and the handler registry of its commands. A 
+	 * snapshot is never modified, registering handlers publishes a new snapshot so a 
+	 * command is parsed and dispatched without locking while handlers are registered.
+	 */
+	static final class Snapshot {
+		
+		private final CommandLineConfiguration config;
+		private final ExecutorHandlerRegistry handlerRegistry;
+		private volatile String usage;
+		
+		Snapshot(CommandLineConfiguration config, ExecutorHandlerRegistry handlerRegistry) {
+			config.freeze();
+			this.config = config;
+			this.handlerRegistry = handlerRegistry;
+		}
+		
+		CommandLineConfiguration getConfig() {
+			return config;
+		}
+		
+		/**
+		 * Returns the handler of a result parsed with the configuration of this snapshot.
+		 * 
+		 * @param result	parse result
+		 * @return ExecutorHandler	handler or null if no handler is registered
+		 */
+		ExecutorHandler getHandler(CommandLineParseResult result) {
+			return Executor.getHandler(handlerRegistry, result);
+		}
+		
+	}
+	
 	private Configuration appConfig = new Configuration();
-	private CommandLineConfiguration config = new CommandLineConfiguration();
-	private ExecutorHandlerRegistry handlerRegistry = new ExecutorHandlerRegistry();
+	private volatile Snapshot snapshot = new Snapshot(new CommandLineConfiguration(), new ExecutorHandlerRegistry());
+	private final Object snapshotLock = new Object();
 	private InputStream configurationStream;
 	private PrintStream outputStream;
+	private int scriptConcurrency = Runtime.getRuntime().availableProcessors();
+	private ScriptFailurePolicy scriptFailurePolicy = ScriptFailurePolicy.CONTINUE;
+	private int scriptRetryCount = 3;
+	private File shellHistoryFile;
+	private int shellHistorySize = 500;
+	private File handlerIndexFile;
+	private File configurationFile;
+	private File pluginDirectory;
+	private URLClassLoader pluginClassLoader;
+	private boolean configurationLoaded;
+	private volatile EnvironmentSnapshot environment = EnvironmentSnapshot.capture();
 	
 	/**
 	 * Creates an Executor instance which uses a custom input stream of configuration properties
@@ -82,46 +169,388 @@ public final class Executor {
 	}
 	
 	/**
-	 * Returns the comman line configuration of this executor.
+	 * Returns the comman line configuration of this executor. Configuration is a frozen
+	 * snapshot, it is not modified when handlers are registered later.
 	 * 
 	 * @return	CommandLineConfiguration
 	 */
 	public CommandLineConfiguration getConfig() {
-		return config;
+		return snapshot.config;
 	}
 	
 	/**
-	 * Loads command line handlers from configuration input stream and registers the handlers
-	 * to the command line configuration.
+	 * Loads the configuration properties from the configuration input stream. Configuration
+	 * is loaded only once.
 	 * 
 	 * @throws IOException thrown if an error occurs while loading the configuration properties 
 	 */
-	public void loadHandlers() throws IOException {
-		
-		if(configurationStream==null) {
+	void loadConfiguration() throws IOException {
+		if(configurationLoaded) {
+			return;
+		}
+		if(configurationFile!=null) {
+			InputStream in = new FileInputStream(configurationFile);
+			try {
+				appConfig.load(in);
+			} finally {
+				in.close();
+			}
+		} else if(configurationStream==null) {
 			appConfig.load();
 		} else {
 			appConfig.load(configurationStream);
 		}
+		if(pluginDirectory!=null) {
+			pluginClassLoader = createPluginClassLoader(pluginDirectory);
+			appConfig.setClassLoader(pluginClassLoader);
+		}
+		configurationLoaded = true;
+	}
+	
+	/**
+	 * Returns a class loader of the jar files of a plugin directory. Jar files are added 
+	 * sorted by name so the class loaded does not depend on the order of the listing.
+	 * 
+	 * @param dir	plugin directory
+	 * @return URLClassLoader	class loader of plugin jars
+	 * @throws IOException thrown if a jar file path is not a valid URL
+	 */
+	static URLClassLoader createPluginClassLoader(File dir) throws IOException {
+		File[] jarFiles = dir.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(".jar");
+			}
+		});
+		if(jarFiles==null) {
+			jarFiles = new File[0];
+		}
+		Arrays.sort(jarFiles);
+		URL[] urls = new URL[jarFiles.length];
+		for(int i = 0; i < jarFiles.length; i++) {
+			urls[i] = jarFiles[i].toURI().toURL();
+		}
+		LOGGER.info("Plugin jar list: " + Arrays.toString(jarFiles));
+		return new URLClassLoader(urls, Executor.class.getClassLoader());
+	}
+	
+	/**
+	 * Sets the configuration file to load instead of the configuration input stream. The
+	 * file is loaded again by {@link #reload()}.
+	 * 
+	 * @param configurationFile	configuration file
+	 */
+	public void setConfigurationFile(File configurationFile) {
+		this.configurationFile = configurationFile;
+	}
+	
+	public File getConfigurationFile() {
+		return configurationFile;
+	}
+	
+	/**
+	 * Sets the directory of plugin jar files. Handler classes listed in the configuration
+	 * are loaded from the class path of the executor first then from the plugin jars, a 
+	 * plugin jar cannot replace a class of the executor class path.
+	 * 
+	 * @param pluginDirectory	plugin directory
+	 */
+	public void setPluginDirectory(File pluginDirectory) {
+		this.pluginDirectory = pluginDirectory;
+	}
+	
+	public File getPluginDirectory() {
+		return pluginDirectory;
+	}
+	
+	/**
+	 * Sets the environment variables and system properties used as fallback values of 
+	 * options which are not in the command line. Environment is a snapshot taken when the 
+	 * executor is created.
+	 * 
+	 * @param environment	environment snapshot
+	 */
+	public void setEnvironment(EnvironmentSnapshot environment) {
+		this.environment = environment;
+	}
+	
+	/**
+	 * Returns the environment variables and system properties used as fallback values of
+	 * options which are not in the command line.
+	 * 
+	 * @return EnvironmentSnapshot	environment snapshot
+	 */
+	public EnvironmentSnapshot getEnvironment() {
+		return environment;
+	}
+	
+	/**
+	 * Loads the configuration file and the plugin jars again then replaces the handlers
+	 * of this executor with the handlers loaded. Handlers are loaded into a new snapshot 
+	 * which is published only if loading succeeds, commands being executed complete with
+	 * the snapshot they started with. Handlers registered programmatically are replaced.
+	 * The class loader of the previous plugin jars is closed once the new snapshot is 
+	 * published. 
+	 * <p>
+	 * A configuration input stream cannot be read again, if no configuration file is set 
+	 * the properties read from the stream are kept and only the plugin jars are reloaded.
+	 * 
+	 * @throws IOException thrown if an error occurs while loading the configuration properties
+	 */
+	public void reload() throws IOException {
+		
+		Executor loader = new Executor(configurationStream, outputStream);
+		loader.setConfigurationFile(configurationFile);
+		loader.setPluginDirectory(pluginDirectory);
+		loader.setHandlerIndexFile(handlerIndexFile);
+		if(configurationFile==null && configurationLoaded) {
+			loader.appConfig.putAll(appConfig);
+			if(pluginDirectory!=null) {
+				loader.pluginClassLoader = createPluginClassLoader(pluginDirectory);
+				loader.appConfig.setClassLoader(loader.pluginClassLoader);
+			}
+			loader.configurationLoaded = true;
+		}
+		CommandLineConfiguration current = snapshot.config;
+		loader.snapshot = new Snapshot(new CommandLineConfiguration(current.getName(), 
+				current.getDescription(), 
+				(CommandLineProperties) current.getCommandLineProperties().clone()), 
+				new ExecutorHandlerRegistry());
+		boolean loaded = false;
+		try {
+			loader.loadHandlers();
+			loaded = true;
+		} finally {
+			if(!loaded) {
+				closeQuietly(loader.pluginClassLoader);
+			}
+		}
 		
+		URLClassLoader previousClassLoader;
+		synchronized(snapshotLock) {
+			appConfig = loader.appConfig;
+			configurationLoaded = true;
+			snapshot = loader.snapshot;
+			previousClassLoader = pluginClassLoader;
+			pluginClassLoader = loader.pluginClassLoader;
+		}
+		closeQuietly(previousClassLoader);
+		LOGGER.info("Handlers reloaded from configuration file " + configurationFile 
+				+ " and plugin directory " + pluginDirectory);
+	}
+	
+	private static void closeQuietly(URLClassLoader classLoader) {
+		if(classLoader==null) {
+			return;
+		}
+		try {
+			classLoader.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Plugin class loader could not be closed", e);
+		}
+	}
+	
+	/**
+	 * Watches the configuration file and the plugin directory and reloads the handlers 
+	 * when the configuration file or a plugin jar changes. Watching stops when the 
+	 * returned object is closed. A failed reload is logged and the current handlers are
+	 * kept.
+	 * 
+	 * @return Closeable	stops watching when closed
+	 * @throws IOException	thrown if the files cannot be watched
+	 * @throws IllegalStateException thrown if neither configuration file nor plugin 
+	 * 		directory is set
+	 */
+	public Closeable watch() throws IOException {
+		if(configurationFile==null && pluginDirectory==null) {
+			throw new IllegalStateException("Configuration file or plugin directory is not set");
+		}
+		ConfigurationWatcher watcher = new ConfigurationWatcher(configurationFile, pluginDirectory, 
+				new Runnable() {
+					@Override
+					public void run() {
+						try {
+							reload();
+						} catch (Exception e) {
+							LOGGER.log(Level.WARNING, "Reload failed, current handlers are kept", e);
+						}
+					}
+				}, ConfigurationWatcher.DEFAULT_QUIET_PERIOD);
+		watcher.start();
+		return watcher;
+	}
+	
+	/**
+	 * Loads command line handlers from configuration input stream and registers the handlers
+	 * to the command line configuration.
+	 * 
+	 * @throws IOException thrown if an error occurs while loading the configuration properties 
+	 */
+	public void loadHandlers() throws IOException {
+		
+		loadConfiguration();
+		
+		// handler package is neither scanned nor loaded by name if a provider covers it
+		Set<String> coveredPackages = new HashSet<String>();
+		Set<Class<?>> generatedClassList = loadGeneratedHandlers(coveredPackages);
+		Set<String> registeredClassNameList = new HashSet<String>();
+		for(Class<?> generatedClass : generatedClassList) {
+			registeredClassNameList.add(generatedClass.getName());
+		}
 		Set<Class<?>> handlerClassList = new HashSet<Class<?>>();
-		handlerClassList.addAll(appConfig.getPackageHandlerList());
-		handlerClassList.addAll(appConfig.getHandlerList());
+		String handlerPackage = appConfig.getHandlerPackage();
+		if(handlerPackage!=null && coveredPackages.contains(handlerPackage)) {
+			LOGGER.info("Handler package " + handlerPackage + " is covered by a generated handler provider");
+		} else if(handlerIndexFile==null) {
+			handlerClassList.addAll(appConfig.getPackageHandlerList());
+		} else {
+			registeredClassNameList.addAll(loadIndexedHandlers(registeredClassNameList));
+		}
+		for(String className : appConfig.getHandlerClassNameList()) {
+			if(registeredClassNameList.contains(className)) {
+				continue;
+			}
+			try {
+				handlerClassList.add(Class.forName(className, true, appConfig.getClassLoader()));
+			} catch (ClassNotFoundException e) {
+				LOGGER.log(Level.WARNING, "Handler class " + className + " not found in classpath", e);
+			}
+		}
+		handlerClassList.removeAll(generatedClassList);
 		processHandlerAnnotations(handlerClassList);
 		
-		LOGGER.info("Handler class list: " + handlerClassList);
+		LOGGER.info("Handler class list: " + handlerClassList + ", generated handler class list: " 
+				+ generatedClassList);
 		
 	}
 	
-	void processHandlerAnnotations(Set<Class<?>> classList) {
-		for(Class<?> classInstance : classList) {
-			try {
-				registerHandler(classInstance);
-			} catch(IllegalArgumentException e) {
-				LOGGER.log(Level.WARNING, "Handler " + classInstance.getCanonicalName() 
-						+ " is not a valid handler, skipping.", e);
+	/**
+	 * Registers the handlers of the handler index by name. Handler classes are not loaded,
+	 * the handler class of a command is loaded only when the command is executed or when
+	 * its options are needed, so startup does not depend on the number of commands. The
+	 * default command handler is loaded since its options are part of the root options.
+	 * 
+	 * @param registeredClassNameList	class names of handlers already registered
+	 * @return Set<String> class names of handlers registered
+	 * @throws IOException thrown if the handler package cannot be read
+	 */
+	Set<String> loadIndexedHandlers(Set<String> registeredClassNameList) throws IOException {
+		Set<String> classNameList = new HashSet<String>();
+		HandlerIndex index = appConfig.getPackageHandlerIndex(handlerIndexFile);
+		if(index==null) {
+			return classNameList;
+		}
+		List<ExecutorHandler> handlers = new ArrayList<ExecutorHandler>();
+		for(HandlerIndex.Entry entry : index.getEntries()) {
+			if(!registeredClassNameList.contains(entry.getClassName())) {
+				handlers.add(new ExecutorHandler(new LazyCommandMetadata(entry, appConfig.getClassLoader())));
+				classNameList.add(entry.getClassName());
 			}
 		}
+		registerHandlers(handlers);
+		return classNameList;
+	}
+	
+	/**
+	 * Sets the file where the handlers found in the handler package are indexed. If the
+	 * index is up to date, {@link #loadHandlers()} loads the handlers of the index instead
+	 * of scanning the handler package. Index is not used if file is null.
+	 * 
+	 * @param handlerIndexFile	handler index file
+	 */
+	public void setHandlerIndexFile(File handlerIndexFile) {
+		this.handlerIndexFile = handlerIndexFile;
+	}
+	
+	public File getHandlerIndexFile() {
+		return handlerIndexFile;
+	}
+	
+	/**
+	 * Loads the commands and handlers of a compiled configuration written by 
+	 * {@link CompiledConfiguration#write(CommandLineConfiguration, java.util.Map, File)}.
+	 * Compiled configuration replaces the handlers of this executor. Commands are views of
+	 * the memory mapped file and handler classes are loaded only when their command is
+	 * executed, so loading does not process any handler annotation. Command line 
+	 * properties of the compiled configuration are used. Handler classes and parameter 
+	 * validators are loaded with the class loader of the handlers of this executor.
+	 * 
+	 * @param file	compiled configuration file
+	 * @throws IOException thrown if the file cannot be mapped or is not a valid compiled configuration
+	 */
+	public void loadCompiledConfiguration(File file) throws IOException {
+		
+		loadConfiguration();
+		CompiledConfiguration compiled = CompiledConfiguration.map(file);
+		compiled.setClassLoader(appConfig.getClassLoader());
+		CommandLineConfiguration config = compiled.getConfiguration();
+		ExecutorHandlerRegistry handlerRegistry = new ExecutorHandlerRegistry();
+		addCompiledHandlers(compiled, config.getCommandConfiguration(), handlerRegistry);
+		String defaultClassName = compiled.getDefaultHandlerClassName();
+		if(defaultClassName!=null) {
+			handlerRegistry.add(new ExecutorHandler(new LazyCommandMetadata(defaultClassName, 
+					Command.DEFAULT_COMMAND_IDENTIFIER, "", "", compiled.getClassLoader())));
+		}
+		
+		synchronized(snapshotLock) {
+			snapshot = new Snapshot(config, handlerRegistry);
+		}
+		LOGGER.info("Compiled configuration " + file + " loaded, command count: " + compiled.getCommandCount());
+	}
+	
+	private static void addCompiledHandlers(CompiledConfiguration compiled, CommandConfiguration commandConfig, 
+			ExecutorHandlerRegistry handlerRegistry) {
+		for(CommandMetadata metadata : commandConfig.values()) {
+			String className = compiled.getHandlerClassName(metadata);
+			if(className!=null) {
+				handlerRegistry.add(new ExecutorHandler(new LazyCommandMetadata(className, metadata, compiled.getClassLoader())), 
+						commandConfig.getOrdinal(metadata.getIdentifier()), commandConfig.getCommandPath(metadata));
+			}
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(metadata.getIdentifier());
+			if(subcommandConfig!=null) {
+				addCompiledHandlers(compiled, subcommandConfig, handlerRegistry);
+			}
+		}
+	}
+	
+	/**
+	 * Registers the handlers of the providers generated by 
+	 * {@link org.jclif.plugin.HandlerAnnotationProcessor}. The handler package is not 
+	 * scanned by {@link #loadHandlers()} if it is one of the packages covered by the 
+	 * providers, otherwise only the annotations of generated handlers are not processed.
+	 * 
+	 * @param coveredPackages	set where the packages covered by the providers are added
+	 * @return Set<Class<?>> handler classes registered
+	 */
+	Set<Class<?>> loadGeneratedHandlers(Set<String> coveredPackages) {
+		Set<Class<?>> handlerClassList = new HashSet<Class<?>>();
+		List<ExecutorHandler> handlers = new ArrayList<ExecutorHandler>();
+		for(HandlerProvider provider : ServiceLoader.load(HandlerProvider.class)) {
+			coveredPackages.addAll(provider.getPackages());
+			for(HandlerBinder binder : provider.getBinders()) {
+				handlers.add(new ExecutorHandler(binder));
+				handlerClassList.add(binder.getHandlerClass());
+			}
+		}
+		registerHandlers(handlers);
+		return handlerClassList;
+	}
+	
+	/**
+	 * Processes the annotations of handler classes in parallel then registers the handlers 
+	 * sorted by class name so the configuration does not depend on the order of the classes.
+	 * 
+	 * @param classList	handler classes
+	 */
+	void processHandlerAnnotations(Set<Class<?>> classList) {
+		List<Class<?>> sortedClassList = new ArrayList<Class<?>>(classList);
+		Collections.sort(sortedClassList, new Comparator<Class<?>>() {
+			@Override
+			public int compare(Class<?> c1, Class<?> c2) {
+				return c1.getName().compareTo(c2.getName());
+			}
+		});
+		registerHandlers(ParallelHandlerScanner.createHandlers(ParallelHandlerScanner.getPool(), sortedClassList));
 	}
 	
 	/**
@@ -131,23 +560,121 @@ public final class Executor {
 	 * @throws IllegalArgumentException thrown if handler class is not a valid Command handler
 	 */
 	public void registerHandler(Class<?> handlerClass) {
+		registerHandler(AnnotationProcessor.createExecutorHandler(handlerClass));
+	}
+	
+	/**
+	 * Registers classes as command line handlers. The configuration is copied and 
+	 * published once for all the classes, so registering many handlers with this method
+	 * is linear in the number of handlers while registering them one at a time is not.
+	 * 
+	 * @param handlerClasses command line handlers
+	 * @throws IllegalArgumentException thrown if a handler class is not a valid Command handler
+	 */
+	public void registerHandlers(Class<?>... handlerClasses) {
+		List<ExecutorHandler> handlers = new ArrayList<ExecutorHandler>(handlerClasses.length);
+		for(Class<?> handlerClass : handlerClasses) {
+			handlers.add(AnnotationProcessor.createExecutorHandler(handlerClass));
+		}
+		registerHandlers(handlers);
+	}
+	
+	/**
+	 * Registers a handler binder generated by {@link org.jclif.plugin.HandlerAnnotationProcessor}.
+	 * 
+	 * @param binder	handler binder
+	 */
+	public void registerHandler(HandlerBinder binder) {
+		registerHandler(new ExecutorHandler(binder));
+	}
+	
+	void registerHandler(ExecutorHandler handler) {
+		registerHandlers(Collections.singletonList(handler));
+	}
+	
+	/**
+	 * Registers handlers to a copy of the current configuration and registry then publishes
+	 * the copy as the new snapshot. Handlers are registered all or none, if a handler is
+	 * invalid the current snapshot is kept. Subcommand handlers are registered after the
+	 * handlers of their parent commands.
+	 * 
+	 * @param handlers	handlers to register
+	 */
+	void registerHandlers(List<ExecutorHandler> handlers) {
 		
-		ExecutorHandler handler = AnnotationProcessor.createExecutorHandler(handlerClass);
+		if(handlers.isEmpty()) {
+			return;
+		}
 		
-		LOGGER.log(Level.INFO, "Adding class handler " + handlerClass.getCanonicalName());
+		final Map<ExecutorHandler, String[]> parents = new HashMap<ExecutorHandler, String[]>();
+		for(ExecutorHandler handler : handlers) {
+			String parent = handler.getParent().trim();
+			parents.put(handler, parent.isEmpty()?new String[0]:parent.split("\\s+"));
+		}
+		List<ExecutorHandler> sortedHandlers = new ArrayList<ExecutorHandler>(handlers);
+		Collections.sort(sortedHandlers, new Comparator<ExecutorHandler>() {
+			@Override
+			public int compare(ExecutorHandler h1, ExecutorHandler h2) {
+				return parents.get(h1).length - parents.get(h2).length;
+			}
+		});
 		
-		if(handler.getMetadata().getIdentifier().equals(Command.DEFAULT_COMMAND_IDENTIFIER)) {
-			for(OptionMetadata optMeta: handler.getMetadata().getOptionConfigurations().values()) {
-				config.getOptionConfiguration().addOption(optMeta);
+		synchronized(snapshotLock) {
+			CommandLineConfiguration config = snapshot.config.copy();
+			ExecutorHandlerRegistry handlerRegistry = snapshot.handlerRegistry.copy();
+			
+			for(ExecutorHandler handler : sortedHandlers) {
+				
+				LOGGER.log(Level.FINE, "Adding class handler " + handler.getMetadata());
+				
+				int ordinal = -1;
+				String commandPath = handler.getMetadata().getIdentifier();
+				if(commandPath.equals(Command.DEFAULT_COMMAND_IDENTIFIER)) {
+					for(OptionMetadata optMeta: handler.getMetadata().getOptionConfigurations().values()) {
+						config.getOptionConfiguration().addOption(optMeta);
+					}
+					for(ParameterMetadata paramMeta: handler.getMetadata().getParameterConfigurations().values()) {
+						config.getParameterConfiguration().addParameter(paramMeta);
+					}
+				} else {
+					String[] parent = parents.get(handler);
+					CommandConfiguration commandConfig = config.getCommandConfiguration();
+					if(parent.length > 0) {
+						commandConfig = getParentConfiguration(commandConfig, parent, handler);
+						commandConfig.addSubcommand(parent[parent.length - 1], handler.getMetadata());
+						commandConfig = commandConfig.getSubcommandConfiguration(parent[parent.length - 1]);
+					} else {
+						commandConfig.addCommand(handler.getMetadata());
+					}
+					ordinal = commandConfig.getOrdinal(handler.getMetadata().getIdentifier());
+					commandPath = commandConfig.getCommandPath(handler.getMetadata());
+				}
+				
+				handlerRegistry.add(handler, ordinal, commandPath);
 			}
-			for(ParameterMetadata paramMeta: handler.getMetadata().getParameterConfigurations().values()) {
-				config.getParameterConfiguration().addParameter(paramMeta);
+			
+			snapshot = new Snapshot(config, handlerRegistry);
+		}
+	}
+	
+	/**
+	 * Returns the configuration of the parent command of a subcommand handler.
+	 * 
+	 * @throws IllegalArgumentException thrown if a parent command is not registered
+	 */
+	private static CommandConfiguration getParentConfiguration(CommandConfiguration commandConfig, 
+			String[] parent, ExecutorHandler handler) {
+		for(int i = 0; commandConfig!=null && i < parent.length; i++) {
+			if(!commandConfig.containsKey(parent[i])) {
+				break;
 			}
-		} else {
-			config.getCommandConfiguration().addCommand(handler.getMetadata());
+			if(i==parent.length - 1) {
+				return commandConfig;
+			}
+			commandConfig = commandConfig.getSubcommandConfiguration(parent[i]);
 		}
-		
-		handlerRegistry.add(handler);
+		throw new IllegalArgumentException("Parent command '" + handler.getParent() + "' of command " 
+				+ handler.getMetadata().getIdentifier() + " is not registered");
 	}
 	
 	/**
@@ -158,7 +685,11 @@ public final class Executor {
 	 * @param osName OS Name
 	 */
 	public void setOperatingSystem(String osName) {
-		config.setCommandLineProperties(CommandLineProperties.getSystemProperties(osName));
+		synchronized(snapshotLock) {
+			CommandLineConfiguration config = snapshot.config.copy();
+			config.setCommandLineProperties(CommandLineProperties.getSystemProperties(osName));
+			snapshot = new Snapshot(config, snapshot.handlerRegistry);
+		}
 	}
 	
 	/**
@@ -168,47 +699,464 @@ public final class Executor {
 	 * @param args	command line arguments
 	 */
 	public void execute(String... args) {
+		execute(outputStream, args);
+	}
+	
+	/**
+	 * Executes a command line handler which matches the command line arguments and if 
+	 * a parsing error occurs prints the usage message to the specified output stream
+	 * instead of the output stream of this executor.
+	 * 
+	 * @param out	output stream where the help text are written
+	 * @param args	command line arguments
+	 */
+	public void execute(PrintStream out, String... args) {
+		
+		// parse and dispatch with the same snapshot
+		Snapshot current = snapshot;
 		
 		try {
 			
-			CommandLineParseResult result = CommandLineParser.getInstance().parse(config, args);
+			CommandLineParseResult result = CommandLineParser.getInstance().parse(current.config, environment, args);
 			
 			LOGGER.info("Command match: " + result.isCommandMatch() 
 					+ ",command=" + result.getMatchingCommand());
 			
-			ExecutorHandler handler = null;
-			if(result.isCommandMatch()) {
-				handler = handlerRegistry.getHandler(result.getMatchingCommand().getMetadata());
-			} else {
-				handler = handlerRegistry.getDefaultHandler();
-			}
-			
+			ExecutorHandler handler = getHandler(current.handlerRegistry, result);
 			if(handler!=null) {
 				handler.execute(result);
 			} else {
-				printUsage( (InvalidInputException) null );
+				printUsage(out, (InvalidInputException) null );
 			}
 			
 		} catch (InvalidInputException e) {
-			printUsage(e);
+			printUsage(out, e);
 		} catch (Exception e) {
-			printUsage("Unknwon exception. " + e.getMessage() 
-					+ ". Cause = " + ((e.getCause()!=null)?e.getCause().getMessage():""));
+			InvalidInputException invalidInput = getInvalidInput(e);
+			if(invalidInput!=null) {
+				printUsage(out, invalidInput);
+			} else {
+				printUsage(out, "Unknwon exception. " + e.getMessage() 
+						+ ". Cause = " + ((e.getCause()!=null)?e.getCause().getMessage():""));
+			}
+		}
+		
+	}
+	
+	/**
+	 * Returns the invalid input exception which caused an exception, e.g. an invalid 
+	 * fallback value found while binding option values to a handler.
+	 * 
+	 * @param e	exception
+	 * @return InvalidInputException	cause or null if exception is not caused by an invalid input
+	 */
+	static InvalidInputException getInvalidInput(Throwable e) {
+		for(Throwable cause = e; cause!=null; cause = cause.getCause()) {
+			if(cause instanceof InvalidInputException) {
+				return (InvalidInputException) cause;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the handler of a parse result. The handler is the handler of the matching
+	 * command or the default handler if no command matches.
+	 * 
+	 * @param result	parse result
+	 * @return ExecutorHandler	handler or null if no handler is registered
+	 */
+	ExecutorHandler getHandler(CommandLineParseResult result) {
+		return getHandler(snapshot.handlerRegistry, result);
+	}
+	
+	/**
+	 * Returns the snapshot of the configuration and handlers of this executor. A command 
+	 * parsed with the configuration of a snapshot is dispatched with the same snapshot. 
+	 * 
+	 * @return Snapshot	current snapshot
+	 */
+	Snapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Returns the handler of a parse result from a registry. Ordinals are assigned again 
+	 * when handlers are reloaded so the handler of an ordinal is used only if it handles 
+	 * the matching command, otherwise the handler is looked up by metadata.
+	 */
+	private static ExecutorHandler getHandler(ExecutorHandlerRegistry handlerRegistry, CommandLineParseResult result) {
+		if(result.isCommandMatch()) {
+			InputMetadata metadata = result.getMatchingCommand().getMetadata();
+			ExecutorHandler handler = handlerRegistry.getHandler(result.getMatchingCommand().getOrdinal());
+			if(handler!=null && handler.isHandlerOf(metadata)) {
+				return handler;
+			}
+			String commandPath = result.getConfiguration().getCommandConfiguration()
+					.getCommandPath((CommandMetadata) metadata);
+			return (commandPath==null)?null:handlerRegistry.getHandler(commandPath, metadata);
+		} 
+		return handlerRegistry.getDefaultHandler();
+	}
+	
+	/**
+	 * Returns the completions of a word of a partially typed command line. Completion 
+	 * indexes are created once per configuration so a resident executor, see 
+	 * {@link #serve(SharedMemoryChannel)}, answers each keystroke without scanning the
+	 * commands and options.
+	 * 
+	 * @param args		words of the command line typed so far
+	 * @param cursor	index of the word completed
+	 * @return List<String>	completions of the word
+	 */
+	public List<String> complete(String[] args, int cursor) {
+		return CommandLineCompletion.complete(snapshot.config, args, cursor);
+	}
+	
+	/**
+	 * Sets the maximum number of handlers executed at the same time by 
+	 * {@link #executeScript(Reader)}. Defaults to the number of available processors.
+	 * 
+	 * @param scriptConcurrency	number of handlers executed at the same time
+	 */
+	public void setScriptConcurrency(int scriptConcurrency) {
+		this.scriptConcurrency = scriptConcurrency;
+	}
+	
+	public int getScriptConcurrency() {
+		return scriptConcurrency;
+	}
+	
+	/**
+	 * Sets the policy applied when a command of a script fails. Defaults to 
+	 * {@link ScriptFailurePolicy#CONTINUE}.
+	 * 
+	 * @param scriptFailurePolicy	failure policy
+	 */
+	public void setScriptFailurePolicy(ScriptFailurePolicy scriptFailurePolicy) {
+		this.scriptFailurePolicy = scriptFailurePolicy;
+	}
+	
+	public ScriptFailurePolicy getScriptFailurePolicy() {
+		return scriptFailurePolicy;
+	}
+	
+	/**
+	 * Sets the number of times the handler of a failed command is executed again
+	 * if the failure policy is {@link ScriptFailurePolicy#RETRY}. Defaults to 3.
+	 * 
+	 * @param scriptRetryCount	retry count
+	 */
+	public void setScriptRetryCount(int scriptRetryCount) {
+		this.scriptRetryCount = scriptRetryCount;
+	}
+	
+	public int getScriptRetryCount() {
+		return scriptRetryCount;
+	}
+	
+	/**
+	 * Parses the script options of a command line and applies them to this executor. 
+	 * A command line executes a script if it is empty or starts with the script option,
+	 * the script file and the other script options fall back to their system properties.
+	 * 
+	 * @param args	command line arguments
+	 * @return File	script file, or null if the command line does not execute a script
+	 * @throws InvalidInputException	thrown if a script option is invalid
+	 */
+	public File parseScriptOptions(String... args) throws InvalidInputException {
+		
+		CommandLineConfiguration current = snapshot.config;
+		CommandLineProperties properties = current.getCommandLineProperties();
+		if(args.length > 0 && !args[0].startsWith(properties.getOptionLongPrefix() + OPTION_SCRIPT)) {
+			return null;
 		}
 		
+		CommandLineConfiguration scriptConfig = new CommandLineConfiguration(current.getName(), 
+				current.getDescription(), properties);
+		scriptConfig.getOptionConfiguration()
+			.addOption(createScriptOption(OPTION_SCRIPT, ParameterType.FILE, 
+					Configuration.PROPERTY_JCLIF_SCRIPT_FILE, "Script file, one command line per line"))
+			.addOption(createScriptOption(OPTION_SCRIPT_CONCURRENCY, ParameterType.INTEGER, 
+					Configuration.PROPERTY_JCLIF_SCRIPT_CONCURRENCY, "Maximum number of commands executed at the same time"))
+			.addOption(createScriptOption(OPTION_SCRIPT_FAILURE_POLICY, ParameterType.STRING, 
+					Configuration.PROPERTY_JCLIF_SCRIPT_FAILURE_POLICY, "Policy applied when a command fails: stop, continue or retry"))
+			.addOption(createScriptOption(OPTION_SCRIPT_RETRY_COUNT, ParameterType.INTEGER, 
+					Configuration.PROPERTY_JCLIF_SCRIPT_RETRY_COUNT, "Number of retries of a failed command"));
+		CommandLineParseResult result = CommandLineParser.getInstance().parse(scriptConfig, environment, args);
+		
+		File script = (File) getScriptOption(result, OPTION_SCRIPT);
+		if(script==null) {
+			return null;
+		}
+		Integer concurrency = (Integer) getScriptOption(result, OPTION_SCRIPT_CONCURRENCY);
+		if(concurrency!=null) {
+			setScriptConcurrency(concurrency);
+		}
+		String failurePolicy = (String) getScriptOption(result, OPTION_SCRIPT_FAILURE_POLICY);
+		if(failurePolicy!=null) {
+			try {
+				setScriptFailurePolicy(ScriptFailurePolicy.valueOf(failurePolicy.toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				throw new InvalidInputException("Invalid script failure policy " + failurePolicy, e);
+			}
+		}
+		Integer retryCount = (Integer) getScriptOption(result, OPTION_SCRIPT_RETRY_COUNT);
+		if(retryCount!=null) {
+			setScriptRetryCount(retryCount);
+		}
+		return script;
+	}
+	
+	private static Object getScriptOption(CommandLineParseResult result, String identifier) 
+			throws InvalidInputException {
+		try {
+			return HandlerBinderSupport.getOptionValue(result, identifier);
+		} catch (IllegalArgumentException e) {
+			InvalidInputException invalidInput = getInvalidInput(e);
+			if(invalidInput==null) {
+				throw e;
+			}
+			throw invalidInput;
+		}
+	}
+	
+	private static OptionMetadata createScriptOption(String identifier, ParameterType type, 
+			String systemProperty, String description) {
+		OptionMetadataImpl option = new OptionMetadataImpl(identifier, identifier, 
+				new ParameterMetadataImpl(identifier, type), false, false, description, "");
+		option.setSystemProperty(systemProperty);
+		return option;
+	}
+	
+	/**
+	 * Executes each command line of a script file.
+	 * 
+	 * @param script	script file, one command line per line
+	 * @return ScriptSummary	summary of executed commands
+	 * @throws IOException	thrown if the script cannot be read
+	 * @see #executeScript(Reader)
+	 */
+	public ScriptSummary executeScript(Path script) throws IOException {
+		Reader reader = Files.newBufferedReader(script, Charset.defaultCharset());
+		try {
+			return executeScript(reader);
+		} finally {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * Executes each command line of a script. The script is streamed, each line is 
+	 * parsed and its handler is executed by a pool of at most script concurrency threads. 
+	 * Errors are written to the output stream of this executor prefixed with the line 
+	 * number and handled according to the script failure policy.
+	 * 
+	 * @param script	script reader, one command line per line
+	 * @return ScriptSummary	summary of executed commands
+	 * @throws IOException	thrown if the script cannot be read
+	 */
+	public ScriptSummary executeScript(Reader script) throws IOException {
+		ScriptRunner runner = new ScriptRunner(this, scriptConcurrency, scriptFailurePolicy, scriptRetryCount);
+		return runner.run(script, outputStream);
+	}
+	
+	/**
+	 * Executes the requests sent through a shared memory channel until the channel
+	 * is closed. The output of each request, including the output handlers write to 
+	 * {@link ExecutionContext#getOut()}, is written back to the channel. Since the handlers and 
+	 * configuration are loaded once, the cost of each request is only the cost of 
+	 * parsing and running its handler.
+	 * 
+	 * @param channel	channel where requests are read
+	 * @throws IOException	thrown if a response cannot be written to the channel
+	 */
+	public void serve(SharedMemoryChannel channel) throws IOException {
+		
+		LOGGER.info("Serving requests from channel " + channel.getFile());
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(output, true, "UTF-8");
+		while(true) {
+			String[] args;
+			try {
+				args = channel.awaitRequest();
+			} catch (IOException e) {
+				// request cannot be decoded, its client gets the error and the daemon keeps serving
+				LOGGER.log(Level.WARNING, "Invalid request from channel " + channel.getFile(), e);
+				channel.respondError(e.getMessage());
+				continue;
+			}
+			if(args == null) {
+				break;
+			}
+			output.reset();
+			if(args.length >= 2 && SharedMemoryChannel.COMPLETION_REQUEST.equals(args[0])) {
+				List<String> completions;
+				try {
+					completions = complete(Arrays.copyOfRange(args, 2, args.length), Integer.parseInt(args[1]));
+				} catch (IllegalArgumentException e) {
+					// includes NumberFormatException, the daemon keeps serving other requests
+					channel.respondError(e.getMessage());
+					continue;
+				}
+				for(String completion : completions) {
+					out.print(completion);
+					out.print('\n');
+				}
+			} else {
+				executeRedirected(out, args);
+			}
+			out.flush();
+			channel.respond(output.toByteArray());
+		}
+		
+		LOGGER.info("Channel " + channel.getFile() + " closed");
+	}
+	
+	/**
+	 * Executes a command line with the output of the execution context redirected to an
+	 * output stream so the output of handlers is written with the usage and errors.
+	 */
+	private void executeRedirected(PrintStream out, String... args) {
+		PrintStream previous = ExecutionContext.bind(out);
+		try {
+			execute(out, args);
+		} finally {
+			ExecutionContext.bind(previous);
+		}
+	}
+	
+	/**
+	 * Sets the file where the lines entered in shell mode are saved. History is not
+	 * saved if file is null.
+	 * 
+	 * @param shellHistoryFile	history file
+	 */
+	public void setShellHistoryFile(File shellHistoryFile) {
+		this.shellHistoryFile = shellHistoryFile;
+	}
+	
+	public File getShellHistoryFile() {
+		return shellHistoryFile;
+	}
+	
+	/**
+	 * Sets the maximum number of lines kept in shell history. Defaults to 500.
+	 * 
+	 * @param shellHistorySize	maximum number of history lines
+	 */
+	public void setShellHistorySize(int shellHistorySize) {
+		this.shellHistorySize = shellHistorySize;
+	}
+	
+	public int getShellHistorySize() {
+		return shellHistorySize;
+	}
+	
+	/**
+	 * Runs an interactive shell which reads command lines from an input and executes them
+	 * until the end of input or until <code>exit</code> is entered. Prompt, usage and errors
+	 * are written to the output stream of this executor.
+	 * 
+	 * @param in	input where command lines are read
+	 * @throws IOException	thrown if input or history file cannot be read
+	 */
+	public void shell(Reader in) throws IOException {
+		String name = appConfig.getName();
+		String prompt = ((name==null || name.isEmpty())?"jclif":name) + "> ";
+		Shell shell = new Shell(this, new ShellHistory(shellHistoryFile, shellHistorySize), prompt);
+		shell.run(in, outputStream);
+	}
+	
+	/**
+	 * Executes a training set of command lines so the classes used by representative
+	 * invocations of the application are loaded. Each line of the training set is a 
+	 * command line, empty lines and lines starting with # are skipped. Output written
+	 * to the executor output stream or by handlers to {@link ExecutionContext#getOut()}
+	 * is discarded and failed command lines are skipped.
+	 * <p>
+	 * Training is used with the JVM option -XX:DumpLoadedClassList to record the class 
+	 * list of a class data sharing archive of the application, see 
+	 * {@link org.jclif.plugin.CodeGenerator#generateClassList(File, String, File)}.
+	 * 
+	 * @param trainingSet	command lines to execute
+	 * @return int	number of command lines executed
+	 * @throws IOException	thrown if the training set cannot be read
+	 */
+	public int train(Reader trainingSet) throws IOException {
+		warmUp();
+		PrintStream discard = new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		});
+		BufferedReader reader = new BufferedReader(trainingSet);
+		int count = 0;
+		String line;
+		while((line = reader.readLine()) != null) {
+			line = line.trim();
+			if(line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			try {
+				executeRedirected(discard, StringUtil.tokenize(line));
+				count++;
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Training command line failed: " + line, e);
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Initializes the parser and usage text so the first command executed does not
+	 * pay for their initialization.
+	 */
+	void warmUp() {
+		getUsage();
+		try {
+			CommandLineParser.getInstance().parse(snapshot.config, new String[0]);
+		} catch (InvalidInputException e) {
+			LOGGER.fine("Warm up parse failed: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Returns the usage text of the configuration. Usage text is formatted once and 
+	 * formatted again only if a handler is registered or the operating system is changed.
+	 * 
+	 * @return String usage text
+	 */
+	String getUsage() {
+		Snapshot current = snapshot;
+		String text = current.usage;
+		if(text==null) {
+			text = CommandLineFormat.getInstance().format(current.config);
+			current.usage = text;
+		}
+		return text;
 	}
 	
 	void printUsage(InvalidInputException e) {
+		printUsage(outputStream, e);
+	}
+	
+	void printUsage(PrintStream out, InvalidInputException e) {
 		if(null==e) {
-			outputStream.println(CommandLineFormat.getInstance().format(config));
+			out.println(getUsage());
 		} else {
-			outputStream.println(CommandLineFormat.getInstance().format(config, e));
+			out.println(CommandLineFormat.getInstance().format(snapshot.config, e));
 		}
 	}
 	
 	void printUsage(String error) {
-		String usage = CommandLineFormat.getInstance().format(config, error);
-		outputStream.println(usage);
+		printUsage(outputStream, error);
+	}
+	
+	void printUsage(PrintStream out, String error) {
+		String usage = CommandLineFormat.getInstance().format(snapshot.config, error);
+		out.println(usage);
 	}
 	
 	/**
@@ -228,8 +1176,65 @@ public final class Executor {
 			
 			Executor executor = new Executor(System.out);
 			executor.setOperatingSystem(osName);
-			executor.loadHandlers();
-			executor.execute(args);
+			String pluginDir = System.getProperty(Configuration.PROPERTY_JCLIF_PLUGIN_DIR);
+			if(pluginDir!=null) {
+				executor.setPluginDirectory(new File(pluginDir));
+			}
+			boolean watch = Boolean.getBoolean(Configuration.PROPERTY_JCLIF_WATCH);
+			if(watch) {
+				File configFile = Configuration.getDefaultConfigFile();
+				if(configFile.isFile()) {
+					executor.setConfigurationFile(configFile);
+				}
+				watch = executor.getConfigurationFile()!=null || pluginDir!=null;
+			}
+			executor.loadConfiguration();
+			// index is opt-in since the classes it lists are loaded by name
+			String indexFile = System.getProperty(Configuration.PROPERTY_JCLIF_INDEX_FILE);
+			if(indexFile!=null && !indexFile.isEmpty()) {
+				executor.setHandlerIndexFile(new File(indexFile));
+			}
+			String compiledFile = System.getProperty(Configuration.PROPERTY_JCLIF_COMPILED_FILE);
+			if(compiledFile!=null) {
+				executor.loadCompiledConfiguration(new File(compiledFile));
+			} else {
+				executor.loadHandlers();
+			}
+			if(watch && compiledFile==null) {
+				executor.watch();
+			}
+			
+			String channelFile = System.getProperty(Configuration.PROPERTY_JCLIF_CHANNEL_FILE);
+			File scriptFile = executor.parseScriptOptions(args);
+			String trainingFile = System.getProperty(Configuration.PROPERTY_JCLIF_TRAINING_FILE);
+			if(Boolean.getBoolean(Configuration.PROPERTY_JCLIF_SHELL)) {
+				String name = executor.appConfig.getName();
+				String historyFile = System.getProperty(Configuration.PROPERTY_JCLIF_SHELL_HISTORY_FILE, 
+						new File(System.getProperty("user.home"), "." + ((name==null)?"jclif":name) + "_history").getPath());
+				executor.setShellHistoryFile(new File(historyFile));
+				executor.setShellHistorySize(Integer.getInteger(Configuration.PROPERTY_JCLIF_SHELL_HISTORY_SIZE, 
+						executor.getShellHistorySize()));
+				executor.shell(new InputStreamReader(System.in));
+			} else if(scriptFile!=null) {
+				ScriptSummary summary = executor.executeScript(scriptFile.toPath());
+				System.out.print(summary);
+			} else if(channelFile!=null) {
+				SharedMemoryChannel channel = SharedMemoryChannel.create(new File(channelFile));
+				try {
+					executor.serve(channel);
+				} finally {
+					channel.close();
+				}
+			} else if(trainingFile!=null) {
+				Reader reader = Files.newBufferedReader(Paths.get(trainingFile), Charset.forName("UTF-8"));
+				try {
+					executor.train(reader);
+				} finally {
+					reader.close();
+				}
+			} else {
+				executor.execute(args);
+			}
 			
 		} catch (Exception e) {
 			e.printStackTrace(System.err);
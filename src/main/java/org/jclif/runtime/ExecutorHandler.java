@@ -5,13 +5,12 @@ import java.lang.reflect.Method;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.jclif.annotation.Command;
 import org.jclif.annotation.Option;
 import org.jclif.annotation.Parameter;
 import org.jclif.parser.CommandLineParseResult;
 import org.jclif.type.CommandMetadata;
-import org.jclif.type.OptionConfiguration;
-import org.jclif.type.OptionInput;
-import org.jclif.type.OptionMetadata;
+import org.jclif.type.InputMetadata;
 import org.jclif.util.ReflectionUtil;
 
 
@@ -27,6 +26,8 @@ public class ExecutorHandler {
 	private CommandMetadata metadata;
 	private Class<?> handlerClass;
 	private Method handlerMethod;
+	private HandlerBinder binder;
+	private LazyCommandMetadata lazyMetadata;
 	
 	/**
 	 * Creates an instance of ExecutorHandler.
@@ -52,6 +53,28 @@ public class ExecutorHandler {
 		this.handlerMethod = handlerMethod;
 	}
 
+	/**
+	 * Creates an instance of ExecutorHandler which uses a binder generated at compile time
+	 * instead of reflection.
+	 * 
+	 * @param binder	handler binder
+	 */
+	public ExecutorHandler(HandlerBinder binder) {
+		this(binder.createMetadata(), binder.getHandlerClass(), null);
+		this.binder = binder;
+	}
+
+	/**
+	 * Creates an instance of ExecutorHandler of a handler registered by name. Handler
+	 * class is loaded on first execution or when its metadata is first needed.
+	 * 
+	 * @param metadata	metadata of handler registered by name
+	 */
+	ExecutorHandler(LazyCommandMetadata metadata) {
+		this(metadata, null, null);
+		this.lazyMetadata = metadata;
+	}
+
 	/**
 	 * Returns metadata of a handler class.
 	 * 
@@ -61,20 +84,55 @@ public class ExecutorHandler {
 		return metadata;
 	}
 	
+	/**
+	 * Returns true if this handler handles the command of a metadata, which is the metadata
+	 * of this handler or the compiled metadata of a handler of a compiled configuration.
+	 * 
+	 * @param metadata	command metadata of a parse result
+	 * @return boolean	true if this handler handles the command, otherwise false
+	 */
+	boolean isHandlerOf(InputMetadata metadata) {
+		return this.metadata==metadata || (lazyMetadata!=null && lazyMetadata.wraps(metadata));
+	}
+	
 	/**
 	 * Returns handler class.
 	 * 
 	 * @return
 	 */
 	public Class<?> getHandlerClass() {
+		if(handlerClass==null && lazyMetadata!=null) {
+			return lazyMetadata.getHandlerClass();
+		}
 		return handlerClass;
 	}
 	
+	/**
+	 * Returns the identifiers of the parent commands of a subcommand handler separated by 
+	 * a space. Handler class of a handler registered by name is not loaded.
+	 * 
+	 * @return String	parent command identifiers or empty if command is not a subcommand
+	 */
+	public String getParent() {
+		if(lazyMetadata!=null) {
+			return lazyMetadata.getParent();
+		}
+		if(binder!=null) {
+			return binder.getParent();
+		}
+		Class<?> handlerClass = getHandlerClass();
+		Command command = (handlerClass==null)?null:handlerClass.getAnnotation(Command.class);
+		return (command==null)?"":command.parent();
+	}
+	
 	/**
 	 * Returns handler method of handler class.
 	 * @return
 	 */
 	public Method getHandlerMethod() {
+		if(handlerMethod==null && lazyMetadata!=null) {
+			return lazyMetadata.getHandlerMethod();
+		}
 		return handlerMethod;
 	}
 	
@@ -87,7 +145,18 @@ public class ExecutorHandler {
 	 */
 	public void execute(CommandLineParseResult result) {
 		
+		if(binder!=null) {
+			try {
+				binder.execute(result);
+			} catch (Exception e) {
+				throw new RuntimeException("Handler method of handler class " 
+						+ this.getHandlerClass().getCanonicalName() + " failed", e);
+			}
+			return;
+		}
+		
 		Object handlerInstance;
+		Class<?> handlerClass = getHandlerClass();
 		
 		try {
 			handlerInstance = handlerClass.newInstance();
@@ -96,19 +165,6 @@ public class ExecutorHandler {
 					+ handlerClass.getCanonicalName(), e);
 		}
 		
-		CommandMetadata cmdMetadata = null;
-		OptionConfiguration optionConfig = null;
-		
-		if(result.isCommandMatch()) {
-			cmdMetadata = (CommandMetadata) result.getMatchingCommand().getMetadata();
-		}
-		
-		if(cmdMetadata==null) {
-			optionConfig = result.getConfiguration().getOptionConfiguration();
-		} else {
-			optionConfig = cmdMetadata.getOptionConfigurations();
-		}
-		
 		for(Field field: handlerClass.getDeclaredFields()) {
 		
 			Object value = null;
@@ -119,22 +175,14 @@ public class ExecutorHandler {
 			if(field.isAnnotationPresent(Option.class)) {
 				
 				Option option = field.getAnnotation(Option.class);
-				OptionMetadata optMetadata = optionConfig.get(option.identifier());
-				if(optMetadata.isParameterAccepted()) {
-					OptionInput optionValue = result.getOptionInput().get(option.identifier());
-					value = (optionValue == null) ? null : optionValue.getParameter().getValue();
-				} else {
-					value = result.getOptionInput().contains(option.identifier());
-				}
+				value = HandlerBinderSupport.getOptionValue(result, option.identifier());
 				
 				LOGGER.fine(String.format("Setting field = " + field.getName() + ", value = " +  value));
 				
 			} else if(field.isAnnotationPresent(Parameter.class)) {
 				
 				Parameter parameter = field.getAnnotation(Parameter.class);
-				if(result.getParameterInput().contains(parameter.identifier())) {
-					value = result.getParameterInput().get(parameter.identifier()).getValue();
-				}
+				value = HandlerBinderSupport.getParameterValue(result, parameter.identifier());
 				
 				LOGGER.fine(String.format("Setting parameter =" + field.getName() + ", value = " +  value));
 			}
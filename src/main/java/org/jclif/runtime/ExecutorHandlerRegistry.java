@@ -20,6 +20,7 @@
 package org.jclif.runtime;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -30,7 +31,11 @@ import org.jclif.type.InputMetadata;
 
 /**
  * This class is used by Executor class as container of all command handlers detected at runtime.
- * 
+ * Command handlers are stored in a table indexed by the command ordinal assigned by
+ * {@link org.jclif.type.CommandConfiguration} so a parsed command is dispatched with a
+ * single array access. Handlers are also stored by command path, see 
+ * {@link org.jclif.type.CommandConfiguration#getCommandPath(CommandMetadata)}, so 
+ * subcommands having the same identifier under different parents are kept apart.
  * 
  * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
  *
@@ -39,9 +44,27 @@ public class ExecutorHandlerRegistry {
 	
 	private static final Logger LOGGER = Logger.getLogger(ExecutorHandlerRegistry.class.getCanonicalName());
 	
-	private InputMetadata defaultMetadata;
-	private Map<InputMetadata, ExecutorHandler> handlerRegistry = new HashMap<InputMetadata,ExecutorHandler>();
+	private ExecutorHandler defaultHandler;
+	private ExecutorHandler[] commandHandlers = new ExecutorHandler[16];
+	private int nextOrdinal;
+	private Map<String, ExecutorHandler> handlerRegistry = new HashMap<String, ExecutorHandler>();
 
+	/**
+	 * Returns a copy of this registry. Executor registers handlers to a copy of its
+	 * registry then publishes the copy, so the registry read while executing a command
+	 * is never modified.
+	 * 
+	 * @return ExecutorHandlerRegistry	copy of this registry
+	 */
+	ExecutorHandlerRegistry copy() {
+		ExecutorHandlerRegistry copy = new ExecutorHandlerRegistry();
+		copy.defaultHandler = defaultHandler;
+		copy.commandHandlers = commandHandlers.clone();
+		copy.nextOrdinal = nextOrdinal;
+		copy.handlerRegistry.putAll(handlerRegistry);
+		return copy;
+	}
+	
 	/**
 	 * Registers a handler to the registry identified by its metadata information.
 	 * 
@@ -54,26 +77,93 @@ public class ExecutorHandlerRegistry {
 	}
 	
 	/**
-	 * Adds an executor handler.
+	 * Adds an executor handler of a top level command. An ordinal following the ordinals
+	 * of this registry is assigned to the command.
 	 * 
 	 * @param handler handler instance
+	 * @return int	ordinal assigned or -1 if handler is the default handler
 	 */
-	public void add(ExecutorHandler handler) {
-		handlerRegistry.put(handler.getMetadata(), handler);
-		LOGGER.info("Added handler for " + handler.getMetadata());
-		if(handler.getMetadata().getIdentifier().equals(Command.DEFAULT_COMMAND_IDENTIFIER)) {
-			defaultMetadata = handler.getMetadata();
+	public int add(ExecutorHandler handler) {
+		return add(handler, -1);
+	}
+	
+	/**
+	 * Adds an executor handler of a top level command.
+	 * 
+	 * @param handler	handler instance
+	 * @param ordinal	command ordinal, or -1 to assign an ordinal following the ordinals
+	 * 		of this registry
+	 * @return int	command ordinal or -1 if handler is the default handler
+	 */
+	public int add(ExecutorHandler handler, int ordinal) {
+		return add(handler, ordinal, handler.getMetadata().getIdentifier());
+	}
+	
+	/**
+	 * Adds an executor handler of a command.
+	 * 
+	 * @param handler		handler instance
+	 * @param ordinal		command ordinal, or -1 to assign an ordinal following the 
+	 * 		ordinals of this registry
+	 * @param commandPath	command path, the identifiers of the parent commands and of the 
+	 * 		command separated by a space
+	 * @return int	command ordinal or -1 if handler is the default handler
+	 */
+	public int add(ExecutorHandler handler, int ordinal, String commandPath) {
+		String identifier = handler.getMetadata().getIdentifier();
+		LOGGER.fine("Added handler for " + handler.getMetadata());
+		if(identifier.equals(Command.DEFAULT_COMMAND_IDENTIFIER)) {
+			handlerRegistry.put(identifier, handler);
+			defaultHandler = handler;
+			return -1;
+		}
+		handlerRegistry.put(commandPath, handler);
+		if(ordinal < 0) {
+			ordinal = nextOrdinal;
 		}
+		nextOrdinal = Math.max(nextOrdinal, ordinal + 1);
+		if(ordinal >= commandHandlers.length) {
+			commandHandlers = Arrays.copyOf(commandHandlers, 
+					Math.max(ordinal + 1, commandHandlers.length * 2));
+		}
+		commandHandlers[ordinal] = handler;
+		return ordinal;
 	}
 	
 	/**
-	 * Returns the handler of a metadata.
+	 * Returns the handler of a top level command metadata.
 	 * 
 	 * @param metadata	metadata of handler
 	 * @return ExecutorHandler 	handler			
 	 */
 	public ExecutorHandler getHandler(InputMetadata metadata) {
-		return handlerRegistry.get(metadata);
+		return getHandler(metadata.getIdentifier(), metadata);
+	}
+	
+	/**
+	 * Returns the handler of a command metadata.
+	 * 
+	 * @param commandPath	command path
+	 * @param metadata		metadata of handler
+	 * @return ExecutorHandler 	handler or null if the handler of the path does not handle
+	 * 		the metadata
+	 */
+	public ExecutorHandler getHandler(String commandPath, InputMetadata metadata) {
+		ExecutorHandler handler = handlerRegistry.get(commandPath);
+		return (handler!=null && handler.isHandlerOf(metadata))?handler:null;
+	}
+	
+	/**
+	 * Returns the handler of a command ordinal.
+	 * 
+	 * @param ordinal	command ordinal
+	 * @return ExecutorHandler	handler or null if no handler is registered
+	 */
+	public ExecutorHandler getHandler(int ordinal) {
+		if(ordinal < 0 || ordinal >= commandHandlers.length) {
+			return null;
+		}
+		return commandHandlers[ordinal];
 	}
 	
 	/**
@@ -82,7 +172,7 @@ public class ExecutorHandlerRegistry {
 	 * @return ExecutorHandler 	handler
 	 */
 	public ExecutorHandler getDefaultHandler() {
-		return getHandler(defaultMetadata);
+		return defaultHandler;
 	}
 	
 }
@@ -0,0 +1,65 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.type.CommandMetadata;
+
+/**
+ * HandlerBinder interface is implemented by the classes generated at compile time by 
+ * {@link org.jclif.plugin.HandlerAnnotationProcessor} for each Command annotated class. 
+ * A binder creates the metadata of a handler and binds parse results to a new handler 
+ * instance without using reflection.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public interface HandlerBinder {
+	
+	/**
+	 * Creates the command metadata of the handler class.
+	 * 
+	 * @return CommandMetadata	command metadata
+	 */
+	public CommandMetadata createMetadata();
+	
+	/**
+	 * Returns the handler class bound by this binder.
+	 * 
+	 * @return Class<?> handler class
+	 */
+	public Class<?> getHandlerClass();
+	
+	/**
+	 * Returns the parent command identifiers of the handler.
+	 * 
+	 * @return String	parent command identifiers or empty if command is not a subcommand
+	 */
+	public String getParent();
+	
+	/**
+	 * Creates a new handler instance, sets its option and parameter fields from
+	 * the parse result and calls its handler method.
+	 * 
+	 * @param result	parse result
+	 */
+	public void execute(CommandLineParseResult result);
+	
+}
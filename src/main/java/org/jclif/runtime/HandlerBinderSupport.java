@@ -0,0 +1,148 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.parser.ParameterParserFactory;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionInput;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.ParameterInput;
+import org.jclif.type.ParameterMetadata;
+import org.jclif.type.ParameterParser;
+
+/**
+ * This class provides the methods used by handlers and generated binders to retrieve 
+ * option and parameter values from a parse result.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class HandlerBinderSupport {
+	
+	private HandlerBinderSupport() {
+		// Helper class
+	}
+	
+	/**
+	 * Returns the value of an option. Value of an option which accepts a parameter is 
+	 * the parameter value, otherwise the value is true if option is present or false 
+	 * if not present. Value of an option which is not present is its fallback value from
+	 * the environment of the parse result if it has one, converted when the value is
+	 * retrieved.
+	 * 
+	 * @param result		parse result
+	 * @param identifier	option identifier
+	 * @return Object	option value or null if option accepts a parameter but is not present
+	 * @throws IllegalArgumentException thrown if the fallback value is not valid for the 
+	 * 		option, its cause is the InvalidInputException describing the error
+	 */
+	public static Object getOptionValue(CommandLineParseResult result, String identifier) {
+		
+		OptionMetadata optMetadata = getOptionMetadata(result, identifier);
+		if(optMetadata!=null && !result.getOptionInput().contains(identifier)) {
+			String fallbackValue = result.getEnvironment().getValue(optMetadata);
+			if(fallbackValue!=null) {
+				try {
+					return getFallbackValue(optMetadata, fallbackValue);
+				} catch (InvalidInputException e) {
+					throw new IllegalArgumentException(e.getMessage(), e);
+				}
+			}
+		}
+		if(optMetadata!=null && optMetadata.isParameterAccepted()) {
+			OptionInput optionValue = result.getOptionInput().get(identifier);
+			return (optionValue == null) ? null : optionValue.getParameter().getValue();
+		}
+		return result.getOptionInput().contains(identifier);
+	}
+	
+	/**
+	 * Converts the fallback value of an option with the parser of its parameter type. Value
+	 * of an option which accepts no parameter is either "true" or "false", values of a 
+	 * multi-valued option are separated by commas.
+	 * 
+	 * @param option	option metadata
+	 * @param value		fallback value
+	 * @return Object	option value
+	 * @throws InvalidInputException thrown if the value is not valid for the option
+	 */
+	static Object getFallbackValue(OptionMetadata option, String value) throws InvalidInputException {
+		if(!option.isParameterAccepted()) {
+			String flag = value.trim();
+			if(!flag.equalsIgnoreCase("true") && !flag.equalsIgnoreCase("false")) {
+				throw new InvalidInputException("Invalid fallback value '" + value + "' for option " 
+						+ option.getIdentifier() + ", value must be true or false.");
+			}
+			return Boolean.valueOf(flag);
+		}
+		ParameterMetadata parameter = option.getParameterMetadata();
+		try {
+			ParameterParser parser = ParameterParserFactory.getInstance().createParser(parameter);
+			if(option.isMultiValued()) {
+				List<Object> values = new ArrayList<Object>();
+				for(String token : value.split(",")) {
+					values.add(parser.parseValue(parameter, token.trim()));
+				}
+				return values;
+			}
+			return parser.parseValue(parameter, value);
+		} catch (RuntimeException e) {
+			throw new InvalidInputException("Invalid fallback value '" + value + "' for option " 
+					+ option.getIdentifier() + ".", e);
+		}
+	}
+	
+	/**
+	 * Returns the metadata of an option of the matching command, or of the application
+	 * if no command matched.
+	 * 
+	 * @param result		parse result
+	 * @param identifier	option identifier
+	 * @return OptionMetadata	option metadata or null if there is no such option
+	 */
+	static OptionMetadata getOptionMetadata(CommandLineParseResult result, String identifier) {
+		OptionConfiguration optionConfig;
+		if(result.isCommandMatch()) {
+			optionConfig = ((CommandMetadata) result.getMatchingCommand().getMetadata()).getOptionConfigurations();
+		} else {
+			optionConfig = result.getConfiguration().getOptionConfiguration();
+		}
+		return optionConfig.get(identifier);
+	}
+	
+	/**
+	 * Returns the value of a parameter.
+	 * 
+	 * @param result		parse result
+	 * @param identifier	parameter identifier
+	 * @return Object	parameter value or null if parameter is not present
+	 */
+	public static Object getParameterValue(CommandLineParseResult result, String identifier) {
+		ParameterInput parameter = result.getParameterInput().get(identifier);
+		return (parameter == null) ? null : parameter.getValue();
+	}
+	
+}
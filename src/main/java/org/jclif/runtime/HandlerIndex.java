@@ -0,0 +1,285 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jclif.annotation.Command;
+
+/**
+ * This class is a persistent index of the handlers found in a handler package. The index
+ * is keyed by a fingerprint of the jar file or class directory of the package, an index 
+ * whose fingerprint matches the current fingerprint lists the same handlers as a scan of 
+ * the package so the package does not need to be scanned again.
+ * <p>
+ * Index file format is a sequence of: magic number, version, handler package, location 
+ * path, fingerprint, handler count then the class name, command identifier, description
+ * and parent command identifiers of each handler.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class HandlerIndex {
+	
+	private static final int MAGIC = 0x4A434C49;
+	private static final short VERSION = 2;
+	
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	/**
+	 * Index entry of a handler class.
+	 */
+	static class Entry {
+		
+		private final String className;
+		private final String identifier;
+		private final String description;
+		private final String parent;
+		
+		Entry(String className, String identifier, String description, String parent) {
+			this.className = className;
+			this.identifier = identifier;
+			this.description = description;
+			this.parent = parent;
+		}
+		
+		String getClassName() {
+			return className;
+		}
+		
+		String getIdentifier() {
+			return identifier;
+		}
+		
+		String getDescription() {
+			return description;
+		}
+		
+		String getParent() {
+			return parent;
+		}
+		
+	}
+	
+	private final String handlerPackage;
+	private final String location;
+	private final long fingerprint;
+	private final List<Entry> entries;
+	
+	HandlerIndex(String handlerPackage, File location, long fingerprint, Collection<Class<?>> handlerClasses) {
+		this.handlerPackage = handlerPackage;
+		this.location = (location==null)?"":location.getPath();
+		this.fingerprint = fingerprint;
+		this.entries = new ArrayList<Entry>(handlerClasses.size());
+		for(Class<?> handlerClass : handlerClasses) {
+			Command command = handlerClass.getAnnotation(Command.class);
+			entries.add(new Entry(handlerClass.getName(), 
+					(command==null)?"":command.identifier(), 
+					(command==null)?"":command.description(),
+					(command==null)?"":command.parent()));
+		}
+	}
+	
+	private HandlerIndex(String handlerPackage, String location, long fingerprint, List<Entry> entries) {
+		this.handlerPackage = handlerPackage;
+		this.location = location;
+		this.fingerprint = fingerprint;
+		this.entries = entries;
+	}
+	
+	List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+	
+	long getFingerprint() {
+		return fingerprint;
+	}
+	
+	/**
+	 * Returns true if this index was created for the same handler package, location and
+	 * fingerprint and all its handlers are in the handler package. Handler classes are 
+	 * loaded by name so an index listing classes of another package is never used.
+	 * 
+	 * @param handlerPackage	handler package
+	 * @param location			jar file or class directory of handler package
+	 * @param fingerprint		current fingerprint of location
+	 * @return boolean	true if index is up to date, otherwise false
+	 */
+	boolean matches(String handlerPackage, File location, long fingerprint) {
+		if(this.fingerprint != fingerprint || !this.handlerPackage.equals(handlerPackage) 
+				|| !this.location.equals(location.getPath())) {
+			return false;
+		}
+		String prefix = handlerPackage.isEmpty()?"":handlerPackage + ".";
+		for(Entry entry : entries) {
+			if(!entry.getClassName().startsWith(prefix)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Loads the handler classes of this index.
+	 * 
+	 * @param classLoader	class loader of the handler classes
+	 * @return List<Class<?>> handler classes
+	 * @throws ClassNotFoundException	thrown if a handler class is not found
+	 */
+	List<Class<?>> loadClasses(ClassLoader classLoader) throws ClassNotFoundException {
+		List<Class<?>> handlerClasses = new ArrayList<Class<?>>(entries.size());
+		for(Entry entry : entries) {
+			handlerClasses.add(Class.forName(entry.getClassName(), true, classLoader));
+		}
+		return handlerClasses;
+	}
+	
+	/**
+	 * Reads an index file.
+	 * 
+	 * @param file	index file
+	 * @return HandlerIndex	index or null if file does not exist
+	 * @throws IOException	thrown if the file cannot be read or is not a valid index file
+	 */
+	static HandlerIndex read(File file) throws IOException {
+		if(!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if(in.readInt() != MAGIC || in.readShort() != VERSION) {
+				throw new IOException("Invalid handler index file " + file);
+			}
+			String handlerPackage = in.readUTF();
+			String location = in.readUTF();
+			long fingerprint = in.readLong();
+			int count = in.readInt();
+			List<Entry> entries = new ArrayList<Entry>(count);
+			for(int i = 0; i < count; i++) {
+				entries.add(new Entry(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+			}
+			return new HandlerIndex(handlerPackage, location, fingerprint, entries);
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Writes this index to a file. The index is written to a temporary file which is
+	 * then moved to the index file so a concurrent reader never reads a partial index.
+	 * On file systems with POSIX permissions, the index file is only readable and 
+	 * writable by its owner.
+	 * 
+	 * @param file	index file
+	 * @throws IOException	thrown if the index cannot be written
+	 */
+	void write(File file) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		File tempFile = Files.createTempFile(dir.toPath(), file.getName(), ".tmp").toFile();
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeShort(VERSION);
+				out.writeUTF(handlerPackage);
+				out.writeUTF(location);
+				out.writeLong(fingerprint);
+				out.writeInt(entries.size());
+				for(Entry entry : entries) {
+					out.writeUTF(entry.getClassName());
+					out.writeUTF(entry.getIdentifier());
+					out.writeUTF(entry.getDescription());
+					out.writeUTF(entry.getParent());
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tempFile.delete();
+		}
+	}
+	
+	/**
+	 * Returns the fingerprint of a jar file or of the package directory tree of a class 
+	 * directory. Fingerprint of a jar is computed from its size and modification time, 
+	 * fingerprint of a directory is computed from the relative path, size and modification 
+	 * time of each of its files.
+	 * 
+	 * @param location		jar file or class directory
+	 * @param packagePath	handler package path, '/' separated
+	 * @return long	fingerprint
+	 */
+	static long fingerprint(File location, String packagePath) {
+		if(location.isFile()) {
+			return hash(hash(hash(FNV_OFFSET_BASIS, location.getPath()), location.length()), 
+					location.lastModified());
+		}
+		return fingerprintDirectory(new File(location, packagePath), packagePath);
+	}
+	
+	private static long fingerprintDirectory(File dir, String path) {
+		long fingerprint = hash(FNV_OFFSET_BASIS, path);
+		File[] files = dir.listFiles();
+		if(files==null) {
+			return fingerprint;
+		}
+		// combined with a sum so the fingerprint does not depend on listing order
+		for(File file : files) {
+			String filePath = path + "/" + file.getName();
+			if(file.isDirectory()) {
+				fingerprint += fingerprintDirectory(file, filePath);
+			} else {
+				fingerprint += hash(hash(hash(FNV_OFFSET_BASIS, filePath), file.length()), file.lastModified());
+			}
+		}
+		return fingerprint;
+	}
+	
+	private static long hash(long hash, String value) {
+		for(int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+		}
+		return hash;
+	}
+	
+	private static long hash(long hash, long value) {
+		for(int i = 0; i < 8; i++) {
+			hash = (hash ^ (value & 0xFF)) * FNV_PRIME;
+			value >>>= 8;
+		}
+		return hash;
+	}
+	
+}
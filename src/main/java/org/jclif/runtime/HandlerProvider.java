@@ -0,0 +1,52 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.util.List;
+
+/**
+ * HandlerProvider interface is the service interface of the handler registries generated
+ * at compile time by {@link org.jclif.plugin.HandlerAnnotationProcessor}. Providers are 
+ * loaded using ServiceLoader and the Executor registers their binders instead of 
+ * processing the annotations of the handler classes they bind. The handler package is
+ * not scanned if a provider covers it, handlers of a package which is not covered are 
+ * still registered.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public interface HandlerProvider {
+	
+	/**
+	 * Returns the binders of all handlers of this provider.
+	 * 
+	 * @return List<HandlerBinder>	handler binders
+	 */
+	public List<HandlerBinder> getBinders();
+	
+	/**
+	 * Returns the packages whose handlers all have a binder of this provider. The Executor
+	 * neither scans these packages nor loads their handler classes by name.
+	 * 
+	 * @return List<String>	covered packages
+	 */
+	public List<String> getPackages();
+	
+}
@@ -0,0 +1,211 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.lang.reflect.Method;
+
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.InputMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.ParameterConfiguration;
+
+/**
+ * This class is the metadata of a command handler registered by name. Identifier and 
+ * description are read from the handler index, the handler class is loaded and its
+ * annotations are processed only when the options, parameters or any other property of
+ * the command are needed, i.e. when the command is dispatched or when help is printed.
+ * The handler class is loaded with the class loader which owns the handler, e.g. the 
+ * class loader of the application configuration or of the plugins.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class LazyCommandMetadata implements CommandMetadata {
+	
+	private final String className;
+	private final String identifier;
+	private final String description;
+	private final String parent;
+	private final ClassLoader classLoader;
+	
+	private volatile CommandMetadata metadata;
+	private volatile Class<?> handlerClass;
+	private volatile Method handlerMethod;
+	
+	LazyCommandMetadata(String className, String identifier, String description) {
+		this(className, identifier, description, "", LazyCommandMetadata.class.getClassLoader());
+	}
+	
+	LazyCommandMetadata(String className, String identifier, String description, String parent, 
+			ClassLoader classLoader) {
+		this.className = className;
+		this.identifier = identifier;
+		this.description = description;
+		this.parent = parent;
+		this.classLoader = classLoader;
+	}
+	
+	LazyCommandMetadata(HandlerIndex.Entry entry, ClassLoader classLoader) {
+		this(entry.getClassName(), entry.getIdentifier(), entry.getDescription(), entry.getParent(), classLoader);
+	}
+	
+	/**
+	 * Creates the metadata of a handler of a compiled configuration. Options and parameters 
+	 * are read from the compiled metadata, the handler class is loaded only when the 
+	 * command is executed.
+	 * 
+	 * @param className	handler class name
+	 * @param metadata	compiled command metadata
+	 * @param classLoader	class loader of the handler class
+	 */
+	LazyCommandMetadata(String className, CommandMetadata metadata, ClassLoader classLoader) {
+		this(className, metadata.getIdentifier(), null, "", classLoader);
+		this.metadata = metadata;
+	}
+	
+	String getClassName() {
+		return className;
+	}
+	
+	/**
+	 * Returns the identifiers of the parent commands, see {@link org.jclif.annotation.Command#parent()}.
+	 * 
+	 * @return String	parent command identifiers or empty if command is not a subcommand
+	 */
+	String getParent() {
+		return parent;
+	}
+	
+	/**
+	 * Returns true if the handler class has been loaded.
+	 * 
+	 * @return boolean	true if handler class is loaded, otherwise false
+	 */
+	boolean isLoaded() {
+		return handlerClass!=null;
+	}
+	
+	/**
+	 * Returns true if this is the metadata of a handler of a compiled configuration which 
+	 * reads its options and parameters from the specified compiled metadata.
+	 * 
+	 * @param compiledMetadata	compiled command metadata
+	 * @return boolean	true if this metadata wraps the compiled metadata, otherwise false
+	 */
+	boolean wraps(InputMetadata compiledMetadata) {
+		return metadata==compiledMetadata;
+	}
+	
+	Class<?> getHandlerClass() {
+		loadClass();
+		return handlerClass;
+	}
+	
+	Method getHandlerMethod() {
+		loadClass();
+		return handlerMethod;
+	}
+	
+	private void load() {
+		if(metadata!=null) {
+			return;
+		}
+		loadClass();
+	}
+	
+	private void loadClass() {
+		if(handlerClass!=null) {
+			return;
+		}
+		synchronized(this) {
+			if(handlerClass!=null) {
+				return;
+			}
+			Class<?> loadedClass;
+			try {
+				loadedClass = Class.forName(className, true, classLoader);
+			} catch (ClassNotFoundException e) {
+				throw new IllegalArgumentException("Handler class " + className + " not found", e);
+			}
+			handlerMethod = AnnotationProcessor.getHandlerMethod(loadedClass);
+			if(metadata==null) {
+				metadata = AnnotationProcessor.getHandlerMetadata(loadedClass);
+			}
+			handlerClass = loadedClass;
+		}
+	}
+
+	@Override
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	@Override
+	public String getDescription() {
+		if(description==null) {
+			load();
+			return metadata.getDescription();
+		}
+		return description;
+	}
+
+	@Override
+	public String getLongDescription() {
+		load();
+		return metadata.getLongDescription();
+	}
+
+	@Override
+	public boolean isMultiValued() {
+		load();
+		return metadata.isMultiValued();
+	}
+
+	@Override
+	public boolean isRequired() {
+		load();
+		return metadata.isRequired();
+	}
+
+	@Override
+	public OptionConfiguration getOptionConfigurations() {
+		load();
+		return metadata.getOptionConfigurations();
+	}
+
+	@Override
+	public ParameterConfiguration getParameterConfigurations() {
+		load();
+		return metadata.getParameterConfigurations();
+	}
+
+	@Override
+	public String getPartitionKey() {
+		load();
+		return metadata.getPartitionKey();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("LazyCommand[id=%s,desc=%s,class=%s,loaded=%b]", 
+				identifier, description, className, isLoaded());
+	}
+	
+}
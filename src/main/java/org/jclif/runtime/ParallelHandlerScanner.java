@@ -0,0 +1,316 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class discovers and processes handler classes using a fork/join pool. Directory 
+ * trees are traversed by forking a task per sub directory, class files of a directory or
+ * jar are read by tasks of at most {@value #BATCH_SIZE} files and handler annotations are 
+ * processed by tasks of at most {@value #BATCH_SIZE} classes. Results are merged in a 
+ * deterministic order regardless of the order tasks complete.
+ * <p>
+ * Scanning and processing share a single pool, see {@link #getPool()}, so discovering 
+ * handlers does not start and stop threads each time.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+final class ParallelHandlerScanner {
+	
+	private static final Logger LOGGER = Logger.getLogger(ParallelHandlerScanner.class.getCanonicalName());
+	
+	static final int BATCH_SIZE = 64;
+	
+	private ParallelHandlerScanner() {
+		// Helper class
+	}
+	
+	/**
+	 * Holder of the shared pool, created on first use.
+	 */
+	private static class PoolHolder {
+		
+		static final ForkJoinPool POOL = new ForkJoinPool();
+		
+	}
+	
+	/**
+	 * Returns the fork/join pool shared by all handler scans. Its threads are daemon
+	 * threads created on demand with one thread per available processor at most.
+	 * 
+	 * @return ForkJoinPool	shared pool
+	 */
+	static ForkJoinPool getPool() {
+		return PoolHolder.POOL;
+	}
+	
+	/**
+	 * Returns the names of classes annotated with Command found under a directory and
+	 * its sub directories.
+	 * 
+	 * @param pool	fork/join pool
+	 * @param dir	directory of class files
+	 * @return List<String>	sorted binary class names
+	 */
+	static List<String> scanDirectory(ForkJoinPool pool, File dir) {
+		List<String> classNames = pool.invoke(new DirectoryTask(dir));
+		Collections.sort(classNames);
+		return classNames;
+	}
+	
+	/**
+	 * Returns the names of classes annotated with Command found in a jar under a path.
+	 * 
+	 * @param pool			fork/join pool
+	 * @param jar			jar file
+	 * @param packagePath	path prefix of jar entries, '/' separated
+	 * @return List<String>	sorted binary class names
+	 */
+	static List<String> scanJar(ForkJoinPool pool, JarFile jar, String packagePath) {
+		List<JarEntry> entries = new ArrayList<JarEntry>();
+		for(Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ) {
+			JarEntry entry = e.nextElement();
+			if(entry.getName().startsWith(packagePath) && !entry.isDirectory() 
+					&& entry.getName().endsWith(".class")) {
+				entries.add(entry);
+			}
+		}
+		List<String> classNames = pool.invoke(new JarEntryTask(jar, entries, 0, entries.size()));
+		Collections.sort(classNames);
+		return classNames;
+	}
+	
+	/**
+	 * Creates the executor handlers of handler classes. Classes which are not valid handlers 
+	 * are logged and skipped.
+	 * 
+	 * @param pool		fork/join pool
+	 * @param classes	handler classes
+	 * @return List<ExecutorHandler>	handlers in the same order as their classes
+	 */
+	static List<ExecutorHandler> createHandlers(ForkJoinPool pool, List<Class<?>> classes) {
+		ExecutorHandler[] handlers = new ExecutorHandler[classes.size()];
+		pool.invoke(new HandlerTask(classes, handlers, 0, handlers.length));
+		List<ExecutorHandler> handlerList = new ArrayList<ExecutorHandler>(handlers.length);
+		for(ExecutorHandler handler : handlers) {
+			if(handler!=null) {
+				handlerList.add(handler);
+			}
+		}
+		return handlerList;
+	}
+	
+	/**
+	 * Scans class files of a directory and forks a task for each sub directory.
+	 */
+	private static class DirectoryTask extends RecursiveTask<List<String>> {
+		
+		private static final long serialVersionUID = -3527126813454335012L;
+		
+		private final File dir;
+		
+		DirectoryTask(File dir) {
+			this.dir = dir;
+		}
+		
+		@Override
+		protected List<String> compute() {
+			
+			File[] files = dir.listFiles();
+			if(files==null) {
+				return new ArrayList<String>();
+			}
+			
+			List<RecursiveTask<List<String>>> tasks = new ArrayList<RecursiveTask<List<String>>>();
+			List<File> classFiles = new ArrayList<File>();
+			for(File file : files) {
+				if(file.isDirectory()) {
+					tasks.add(new DirectoryTask(file));
+				} else if(file.getName().endsWith(".class")) {
+					classFiles.add(file);
+				}
+			}
+			for(int i = 0; i < classFiles.size(); i += BATCH_SIZE) {
+				tasks.add(new ClassFileTask(classFiles.subList(i, Math.min(i + BATCH_SIZE, classFiles.size()))));
+			}
+			
+			return joinAll(tasks);
+		}
+		
+	}
+	
+	/**
+	 * Scans a batch of class files.
+	 */
+	private static class ClassFileTask extends RecursiveTask<List<String>> {
+		
+		private static final long serialVersionUID = 8794137465617938290L;
+		
+		private final List<File> files;
+		
+		ClassFileTask(List<File> files) {
+			this.files = files;
+		}
+		
+		@Override
+		protected List<String> compute() {
+			List<String> classNames = new ArrayList<String>();
+			for(File file : files) {
+				try {
+					String className = ClassFileScanner.getCommandClassName(file);
+					if(className!=null) {
+						classNames.add(className);
+					}
+				} catch (IOException e) {
+					LOGGER.log(Level.WARNING, "Reading Handler from local path failed for " + file, e);
+				}
+			}
+			return classNames;
+		}
+		
+	}
+	
+	/**
+	 * Scans a range of jar entries, ranges larger than the batch size are split in half.
+	 */
+	private static class JarEntryTask extends RecursiveTask<List<String>> {
+		
+		private static final long serialVersionUID = 2209164455390370717L;
+		
+		private final JarFile jar;
+		private final List<JarEntry> entries;
+		private final int start;
+		private final int end;
+		
+		JarEntryTask(JarFile jar, List<JarEntry> entries, int start, int end) {
+			this.jar = jar;
+			this.entries = entries;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected List<String> compute() {
+			
+			if(end - start > BATCH_SIZE) {
+				int middle = (start + end) >>> 1;
+				JarEntryTask left = new JarEntryTask(jar, entries, start, middle);
+				left.fork();
+				List<String> classNames = new JarEntryTask(jar, entries, middle, end).compute();
+				classNames.addAll(left.join());
+				return classNames;
+			}
+			
+			List<String> classNames = new ArrayList<String>();
+			for(int i = start; i < end; i++) {
+				JarEntry entry = entries.get(i);
+				try {
+					InputStream in = jar.getInputStream(entry);
+					try {
+						String className = ClassFileScanner.getCommandClassName(in);
+						if(className!=null) {
+							classNames.add(className);
+						}
+					} finally {
+						in.close();
+					}
+				} catch (IOException e) {
+					LOGGER.log(Level.WARNING, "Reading Handler from jar path " + entry.getName() + " failed", e);
+				}
+			}
+			return classNames;
+		}
+		
+	}
+	
+	/**
+	 * Creates the handlers of a range of classes, ranges larger than the batch size are 
+	 * split in half.
+	 */
+	private static class HandlerTask extends RecursiveTask<Void> {
+		
+		private static final long serialVersionUID = -5810624957384622453L;
+		
+		private final List<Class<?>> classes;
+		private final ExecutorHandler[] handlers;
+		private final int start;
+		private final int end;
+		
+		HandlerTask(List<Class<?>> classes, ExecutorHandler[] handlers, int start, int end) {
+			this.classes = classes;
+			this.handlers = handlers;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected Void compute() {
+			
+			if(end - start > BATCH_SIZE) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new HandlerTask(classes, handlers, start, middle), 
+						new HandlerTask(classes, handlers, middle, end));
+				return null;
+			}
+			
+			for(int i = start; i < end; i++) {
+				Class<?> handlerClass = classes.get(i);
+				try {
+					handlers[i] = AnnotationProcessor.createExecutorHandler(handlerClass);
+				} catch (IllegalArgumentException e) {
+					LOGGER.log(Level.WARNING, "Handler " + handlerClass.getCanonicalName() 
+							+ " is not a valid handler, skipping.", e);
+				}
+			}
+			return null;
+		}
+		
+	}
+	
+	private static List<String> joinAll(List<RecursiveTask<List<String>>> tasks) {
+		List<String> classNames = new ArrayList<String>();
+		if(tasks.isEmpty()) {
+			return classNames;
+		}
+		for(int i = 1; i < tasks.size(); i++) {
+			tasks.get(i).fork();
+		}
+		classNames.addAll(tasks.get(0).invoke());
+		for(int i = tasks.size() - 1; i > 0; i--) {
+			classNames.addAll(tasks.get(i).join());
+		}
+		return classNames;
+	}
+	
+}
@@ -0,0 +1,180 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.ParameterInput;
+
+/**
+ * This class schedules tasks by partition key. Tasks with the same key are executed
+ * one at a time in the order they were submitted, tasks with different keys are
+ * executed concurrently by the threads of an ExecutorService. Tasks without a key are
+ * not ordered.
+ * <p>
+ * Keys are hashed into a fixed number of lanes. Each lane is a lock-free queue with a 
+ * pending task counter, the thread submitting the first pending task of a lane schedules 
+ * the lane which then drains its queue until the counter drops to zero. Keys sharing
+ * a lane are executed serially but never out of order.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class PartitionedScheduler {
+	
+	/**
+	 * Maximum number of tasks a lane executes before it is rescheduled so other lanes 
+	 * get a chance to run.
+	 */
+	private static final int LANE_BATCH_SIZE = 64;
+	
+	private final ExecutorService executorService;
+	private final Lane[] lanes;
+	private final int laneMask;
+	
+	/**
+	 * Creates a scheduler with four lanes per available processor.
+	 * 
+	 * @param executorService	executor service running the lanes
+	 */
+	PartitionedScheduler(ExecutorService executorService) {
+		this(executorService, 4 * Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a scheduler. Lane count is rounded up to a power of two.
+	 * 
+	 * @param executorService	executor service running the lanes
+	 * @param laneCount			number of lanes
+	 */
+	PartitionedScheduler(ExecutorService executorService, int laneCount) {
+		if(laneCount < 1) {
+			throw new IllegalArgumentException("Lane count must be at least 1, value is " + laneCount);
+		}
+		int size = Integer.highestOneBit(laneCount);
+		if(size < laneCount) {
+			size <<= 1;
+		}
+		this.executorService = executorService;
+		this.lanes = new Lane[size];
+		this.laneMask = size - 1;
+		for(int i = 0; i < size; i++) {
+			lanes[i] = new Lane();
+		}
+	}
+	
+	int getLaneCount() {
+		return lanes.length;
+	}
+	
+	/**
+	 * Submits a task for execution.
+	 * 
+	 * @param key	partition key or null if task is not ordered
+	 * @param task	task to execute
+	 */
+	void submit(Object key, Runnable task) {
+		if(key==null) {
+			executorService.execute(task);
+			return;
+		}
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		lanes[h & laneMask].submit(task);
+	}
+	
+	/**
+	 * Returns the partition key of a parse result. The key is the value of the option
+	 * or parameter declared as partition key of the command, the value of an option 
+	 * which is not in the command line is its fallback value so commands resolving to 
+	 * the same value are ordered.
+	 * 
+	 * @param metadata	command metadata of handler
+	 * @param result	parse result
+	 * @return Object partition key or null if command is not partitioned or key is not specified
+	 */
+	static Object getPartitionKey(CommandMetadata metadata, CommandLineParseResult result) {
+		
+		String identifier = (metadata==null)?null:metadata.getPartitionKey();
+		if(identifier==null) {
+			return null;
+		}
+		
+		if(HandlerBinderSupport.getOptionMetadata(result, identifier)!=null) {
+			return HandlerBinderSupport.getOptionValue(result, identifier);
+		}
+		
+		ParameterInput parameter = result.getParameterInput().get(identifier);
+		return (parameter==null)?null:parameter.getValue();
+	}
+	
+	/**
+	 * Serial queue of tasks.
+	 */
+	private class Lane implements Runnable {
+		
+		private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+		private final AtomicInteger pending = new AtomicInteger();
+		
+		void submit(Runnable task) {
+			queue.offer(task);
+			if(pending.getAndIncrement()==0) {
+				executorService.execute(this);
+			}
+		}
+		
+		@Override
+		public void run() {
+			int executed = 0;
+			while(true) {
+				Runnable task = queue.poll();
+				boolean completed = false;
+				boolean idle;
+				try {
+					task.run();
+					completed = true;
+				} catch (RuntimeException e) {
+					completed = true;
+					Thread t = Thread.currentThread();
+					t.getUncaughtExceptionHandler().uncaughtException(t, e);
+				} finally {
+					idle = pending.decrementAndGet()==0;
+					if(!completed && !idle) {
+						// task threw an Error which is propagated, remaining tasks are run by a new execution
+						executorService.execute(this);
+					}
+				}
+				if(idle) {
+					return;
+				}
+				if(++executed >= LANE_BATCH_SIZE) {
+					executorService.execute(this);
+					return;
+				}
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,48 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+/**
+ * ScriptFailurePolicy enum defines what an Executor does when a command of a script
+ * fails while the script is being executed.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public enum ScriptFailurePolicy {
+	
+	/**
+	 * Stops reading the script, commands already running are completed.
+	 */
+	STOP,
+	
+	/**
+	 * Reports the failure and continues with the next command.
+	 */
+	CONTINUE,
+	
+	/**
+	 * Executes the handler of a failed command again up to the retry count of the 
+	 * executor then continues with the next command. Commands which cannot be parsed 
+	 * are never retried.
+	 */
+	RETRY
+	
+}
@@ -0,0 +1,264 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jclif.annotation.Command;
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.util.StringUtil;
+
+/**
+ * This class executes a script of command lines using the handlers of an Executor. 
+ * The script is read one line at a time and each line is parsed against the configuration 
+ * of the executor before its handler is dispatched to a pool of threads. The number of 
+ * handlers running at the same time is bounded by the concurrency of the runner, once 
+ * the limit is reached the script is not read until a handler completes.
+ * <p>
+ * Lines of a command with a partition key are executed in script order relative to 
+ * the other lines having the same key value.
+ * <p>
+ * Failed lines are retried with the RETRY policy unless the failure is caused by an 
+ * Error. A line failing with an Error is never retried and stops the script whatever
+ * the policy since the JVM may not be usable anymore.
+ * <p>
+ * Empty lines and lines starting with <code>#</code> are ignored.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class ScriptRunner {
+	
+	private static final Logger LOGGER = Logger.getLogger(ScriptRunner.class.getCanonicalName());
+	
+	private final Executor executor;
+	private final int concurrency;
+	private final ScriptFailurePolicy failurePolicy;
+	private final int retryCount;
+	
+	ScriptRunner(Executor executor, int concurrency, ScriptFailurePolicy failurePolicy, int retryCount) {
+		if(concurrency < 1) {
+			throw new IllegalArgumentException("Script concurrency must be at least 1, value is " + concurrency);
+		}
+		this.executor = executor;
+		this.concurrency = concurrency;
+		this.failurePolicy = failurePolicy;
+		this.retryCount = (failurePolicy==ScriptFailurePolicy.RETRY)?retryCount:0;
+	}
+	
+	ScriptSummary run(Reader script, PrintStream out) throws IOException {
+		
+		final ScriptSummary summary = new ScriptSummary();
+		final Semaphore permits = new Semaphore(concurrency);
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final long start = System.nanoTime();
+		
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+		PartitionedScheduler scheduler = new PartitionedScheduler(pool);
+		BufferedReader reader = new BufferedReader(script);
+		try {
+			
+			String line;
+			int lineNumber = 0;
+			while((line = reader.readLine()) != null) {
+				
+				lineNumber++;
+				line = line.trim();
+				if(line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				
+				if(stopped.get()) {
+					summary.skip();
+					continue;
+				}
+				
+				// parse and dispatch with the same snapshot
+				Executor.Snapshot snapshot = executor.getSnapshot();
+				CommandLineParseResult result;
+				long parseStart = System.nanoTime();
+				try {
+					result = parse(snapshot.getConfig(), line);
+				} catch (InvalidInputException e) {
+					String identifier = (e.isCommandError())?e.getCommandMetadata().getIdentifier():Command.DEFAULT_COMMAND_IDENTIFIER;
+					out.println(String.format("Error: line %d: %s", lineNumber, e.getMessage()));
+					summary.record(identifier, false, 0, System.nanoTime() - parseStart);
+					if(failurePolicy==ScriptFailurePolicy.STOP) {
+						stopped.set(true);
+					}
+					continue;
+				}
+				
+				ExecutorHandler handler = snapshot.getHandler(result);
+				Object key = (handler==null)?null:PartitionedScheduler.getPartitionKey(handler.getMetadata(), result);
+				acquire(permits);
+				scheduler.submit(key, new ScriptCommand(lineNumber, result, handler, parseStart, 
+						summary, stopped, permits, out));
+			}
+			
+		} finally {
+			try {
+				acquire(permits, concurrency);
+			} finally {
+				pool.shutdown();
+			}
+		}
+		
+		if(stopped.get()) {
+			summary.stop();
+		}
+		summary.setElapsedNanos(System.nanoTime() - start);
+		return summary;
+	}
+	
+	CommandLineParseResult parse(CommandLineConfiguration config, String line) throws InvalidInputException {
+		String[] args;
+		try {
+			args = StringUtil.tokenize(line);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidInputException(e.getMessage(), e);
+		}
+		return CommandLineParser.getInstance().parse(config, executor.getEnvironment(), args);
+	}
+	
+	/**
+	 * Returns true if a handler failure is an Error or is caused by an Error. Handlers
+	 * throw their exceptions wrapped in a RuntimeException.
+	 */
+	static boolean isCausedByError(Throwable failure) {
+		for(Throwable cause = failure; cause!=null; cause = cause.getCause()) {
+			if(cause instanceof Error) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static void acquire(Semaphore permits) {
+		acquire(permits, 1);
+	}
+	
+	private static void acquire(Semaphore permits, int count) {
+		try {
+			permits.acquire(count);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Script execution interrupted", e);
+		}
+	}
+	
+	/**
+	 * Task which executes the handler of a parsed script line.
+	 */
+	private class ScriptCommand implements Runnable {
+		
+		private final int lineNumber;
+		private final CommandLineParseResult result;
+		private final ExecutorHandler handler;
+		private final long start;
+		private final ScriptSummary summary;
+		private final AtomicBoolean stopped;
+		private final Semaphore permits;
+		private final PrintStream out;
+		
+		ScriptCommand(int lineNumber, CommandLineParseResult result, ExecutorHandler handler, long start, 
+				ScriptSummary summary, AtomicBoolean stopped, Semaphore permits, PrintStream out) {
+			this.lineNumber = lineNumber;
+			this.result = result;
+			this.handler = handler;
+			this.start = start;
+			this.summary = summary;
+			this.stopped = stopped;
+			this.permits = permits;
+			this.out = out;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				execute();
+			} finally {
+				permits.release();
+			}
+		}
+		
+		private void execute() {
+			
+			String identifier = (result.isCommandMatch())?result.getMatchingCommand().getIdentifier():Command.DEFAULT_COMMAND_IDENTIFIER;
+			if(stopped.get()) {
+				summary.skip();
+				return;
+			}
+			
+			if(handler==null) {
+				out.println(String.format("Error: line %d: no handler found for command %s", lineNumber, identifier));
+				summary.record(identifier, false, 0, System.nanoTime() - start);
+				if(failurePolicy==ScriptFailurePolicy.STOP) {
+					stopped.set(true);
+				}
+				return;
+			}
+			
+			int retries = 0;
+			while(true) {
+				Throwable failure;
+				try {
+					handler.execute(result);
+					summary.record(identifier, true, retries, System.nanoTime() - start);
+					return;
+				} catch (RuntimeException e) {
+					failure = e;
+				} catch (Error e) {
+					failure = e;
+				}
+				boolean error = isCausedByError(failure);
+				if(!error && retries < retryCount) {
+					retries++;
+					LOGGER.log(Level.FINE, "Retrying line " + lineNumber + ", attempt " + retries, failure);
+					continue;
+				}
+				out.println(String.format("Error: line %d: %s", lineNumber, failure.getMessage()));
+				summary.record(identifier, false, retries, System.nanoTime() - start);
+				if(error) {
+					// JVM may not be usable anymore, script stops whatever the failure policy
+					LOGGER.log(Level.SEVERE, "Line " + lineNumber + " failed with an error, stopping script", failure);
+					stopped.set(true);
+				} else if(failurePolicy==ScriptFailurePolicy.STOP) {
+					stopped.set(true);
+				}
+				return;
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,210 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class contains the statistics of a script executed by an Executor. Statistics
+ * are collected per command identifier and contains the number of commands executed,
+ * failed and retried as well as the latencies of each command.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public class ScriptSummary {
+	
+	/**
+	 * Statistics of a single command identifier.
+	 */
+	public static class CommandStatistics {
+		
+		private final String identifier;
+		private int count;
+		private int failures;
+		private int retries;
+		private long totalNanos;
+		private long maxNanos;
+		
+		CommandStatistics(String identifier) {
+			this.identifier = identifier;
+		}
+		
+		public String getIdentifier() {
+			return identifier;
+		}
+		
+		public int getCount() {
+			return count;
+		}
+		
+		public int getFailures() {
+			return failures;
+		}
+		
+		public int getRetries() {
+			return retries;
+		}
+		
+		public long getTotalTime(TimeUnit unit) {
+			return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+		}
+		
+		public long getMaxTime(TimeUnit unit) {
+			return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+		}
+		
+		public double getAverageMillis() {
+			return (count==0)?0:(totalNanos / 1000000.0 / count);
+		}
+		
+	}
+	
+	private final Map<String, CommandStatistics> statistics = new TreeMap<String, CommandStatistics>();
+	private int skipped;
+	private boolean stopped;
+	private long elapsedNanos;
+	
+	synchronized void record(String identifier, boolean success, int retries, long nanos) {
+		CommandStatistics stats = statistics.get(identifier);
+		if(stats==null) {
+			stats = new CommandStatistics(identifier);
+			statistics.put(identifier, stats);
+		}
+		stats.count++;
+		if(!success) {
+			stats.failures++;
+		}
+		stats.retries += retries;
+		stats.totalNanos += nanos;
+		stats.maxNanos = Math.max(stats.maxNanos, nanos);
+	}
+	
+	synchronized void skip() {
+		skipped++;
+	}
+	
+	synchronized void stop() {
+		stopped = true;
+	}
+	
+	synchronized void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+	
+	/**
+	 * Returns the statistics of each command identifier sorted by identifier.
+	 * 
+	 * @return List<CommandStatistics> command statistics
+	 */
+	public synchronized List<CommandStatistics> getCommandStatistics() {
+		return new ArrayList<CommandStatistics>(statistics.values());
+	}
+	
+	/**
+	 * Returns the statistics of a command.
+	 * 
+	 * @param identifier	command identifier
+	 * @return CommandStatistics	statistics of command or null if command was not executed
+	 */
+	public synchronized CommandStatistics getCommandStatistics(String identifier) {
+		return statistics.get(identifier);
+	}
+	
+	/**
+	 * Returns the number of commands executed, including failed commands.
+	 * 
+	 * @return int number of commands
+	 */
+	public synchronized int getCount() {
+		int count = 0;
+		for(CommandStatistics stats : statistics.values()) {
+			count += stats.count;
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the number of commands failed.
+	 * 
+	 * @return int number of failed commands
+	 */
+	public synchronized int getFailures() {
+		int failures = 0;
+		for(CommandStatistics stats : statistics.values()) {
+			failures += stats.failures;
+		}
+		return failures;
+	}
+	
+	/**
+	 * Returns the number of commands read but not executed because the script was stopped.
+	 * 
+	 * @return int number of skipped commands
+	 */
+	public synchronized int getSkipped() {
+		return skipped;
+	}
+	
+	/**
+	 * Returns true if the script was stopped due to a failed command.
+	 * 
+	 * @return boolean true if script was stopped, otherwise false
+	 */
+	public synchronized boolean isStopped() {
+		return stopped;
+	}
+	
+	/**
+	 * Returns the time it took to execute the script.
+	 * 
+	 * @param unit	time unit of returned value
+	 * @return long	elapsed time 
+	 */
+	public synchronized long getElapsedTime(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		int count = getCount();
+		int failures = getFailures();
+		sb.append(String.format("Script %s: %d commands, %d succeeded, %d failed, %d skipped in %d ms%n", 
+				(stopped)?"stopped":"completed", count, count - failures, failures, skipped,
+				getElapsedTime(TimeUnit.MILLISECONDS)));
+		int maxIdLength = "Command".length();
+		for(CommandStatistics stats : statistics.values()) {
+			maxIdLength = Math.max(maxIdLength, stats.identifier.length());
+		}
+		String rowFormat = "%-" + (maxIdLength + 2) + "s%10s%10s%10s%12s%12s%n";
+		sb.append(String.format(rowFormat, "Command", "Count", "Failed", "Retries", "Avg(ms)", "Max(ms)"));
+		for(CommandStatistics stats : statistics.values()) {
+			sb.append(String.format(rowFormat, stats.identifier, stats.count, stats.failures, stats.retries, 
+					String.format("%.3f", stats.getAverageMillis()), 
+					String.format("%.3f", stats.maxNanos / 1000000.0)));
+		}
+		return sb.toString();
+	}
+	
+}
@@ -0,0 +1,678 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import sun.misc.Unsafe;
+
+/**
+ * This class is a request/response channel between a thin client and an Executor
+ * running in another process. The channel is a memory mapped file divided into
+ * a fixed number of slots used as a ring buffer. A client writes the tokenized
+ * command line arguments into a slot and the executor writes the command output
+ * back into the same slot.
+ * <p>
+ * Requests are numbered by a counter in the file header which is shared by all clients,
+ * the n-th request uses slot <code>n % slotCount</code>. Each slot starts with a sequence 
+ * number which hands off the slot between the client and the executor. For the n-th 
+ * request written in a slot (its lap), the sequence number is <code>4*lap</code> if the 
+ * slot is free, <code>4*lap+1</code> if a client is writing its request, <code>4*lap+2</code>
+ * if a request is ready and <code>4*lap+3</code> if a response is ready. 
+ * <p>
+ * The request counter is incremented and the sequence numbers are claimed with atomic 
+ * operations on the mapped buffer and published with ordered writes, the payload of a 
+ * slot is written before its sequence number is published and read after it is seen. 
+ * No lock is taken, unless the JVM does not provide atomic operations on a mapped buffer
+ * in which case the counter and the sequence numbers are accessed under a lock of the 
+ * channel file.
+ * <p>
+ * A request whose number is claimed but which is not written within the request timeout,
+ * e.g. because its client died, is skipped by the executor so the requests of other 
+ * clients are still served. 
+ * <p>
+ * A channel file is served by exactly one executor and may be used by several client
+ * processes, each with several threads having requests in flight.
+ *
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public class SharedMemoryChannel implements Closeable {
+
+	public static final int DEFAULT_SLOT_COUNT = 16;
+	public static final int DEFAULT_SLOT_SIZE = 64 * 1024;
+	
+	/**
+	 * Default time after which a claimed request which is not written is skipped.
+	 */
+	public static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 10000;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int MAGIC = 0x4a434c46;
+	private static final int HEADER_SIZE = 64;
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_SLOT_COUNT = 4;
+	private static final int HEADER_SLOT_SIZE = 8;
+	private static final int HEADER_CLOSED = 12;
+	private static final int HEADER_NEXT_SEQUENCE = 16;
+
+	private static final int SLOT_SEQUENCE = 0;
+	private static final int SLOT_LENGTH = 8;
+	private static final int SLOT_STATUS = 12;
+	private static final int SLOT_PAYLOAD = 16;
+	
+	private static final int SEQUENCE_FREE = 0;
+	private static final int SEQUENCE_WRITING = 1;
+	private static final int SEQUENCE_REQUEST = 2;
+	private static final int SEQUENCE_RESPONSE = 3;
+	private static final int SEQUENCE_LAP = 4;
+
+	/**
+	 * Response status written if the output fits the slot.
+	 */
+	public static final int STATUS_OK = 0;
+
+	/**
+	 * Response status written if the output was truncated to fit the slot.
+	 */
+	public static final int STATUS_TRUNCATED = 1;
+	
+	/**
+	 * Response status written if the executor rejected the request, the output is the
+	 * error message.
+	 */
+	public static final int STATUS_ERROR = 2;
+
+	/**
+	 * First argument of a completion request. Command line arguments cannot contain a NUL
+	 * character so a completion request is never mistaken for a command.
+	 */
+	static final String COMPLETION_REQUEST = "\u0000complete";
+
+	private static final long SPIN_LIMIT = 1000;
+	private static final long PARK_NANOS = 50000;
+
+	/**
+	 * File locks are held on behalf of the whole JVM and overlapping locks of the same 
+	 * JVM fail instead of waiting, so the threads of this process take turns to lock
+	 * a channel file.
+	 */
+	private static final Object PROCESS_LOCK = new Object();
+	
+	/**
+	 * Atomic operations on the memory of mapped buffers, null if the JVM does not 
+	 * provide them.
+	 */
+	private static final Unsafe UNSAFE;
+	private static final long BUFFER_ADDRESS_OFFSET;
+	
+	static {
+		Unsafe unsafe;
+		long addressOffset;
+		try {
+			Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = (Unsafe) field.get(null);
+			addressOffset = unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+		} catch (Exception e) {
+			unsafe = null;
+			addressOffset = -1;
+		}
+		UNSAFE = unsafe;
+		BUFFER_ADDRESS_OFFSET = addressOffset;
+	}
+
+	private final File file;
+	private final FileChannel fileChannel;
+	private final MappedByteBuffer buffer;
+	private final long address;
+	private final int slotCount;
+	private final int slotSize;
+	private long serverSequence = 0;
+	private volatile long requestTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_REQUEST_TIMEOUT_MILLIS);
+
+	private SharedMemoryChannel(File file, FileChannel fileChannel, MappedByteBuffer buffer,
+			int slotCount, int slotSize) {
+		this.file = file;
+		this.fileChannel = fileChannel;
+		this.buffer = buffer;
+		this.address = (UNSAFE==null)?0:UNSAFE.getLong(buffer, BUFFER_ADDRESS_OFFSET);
+		this.slotCount = slotCount;
+		this.slotSize = slotSize;
+	}
+
+	/**
+	 * Returns the directory where channel files are created by default. The directory
+	 * is <code>/dev/shm</code> if it exists and is writable, otherwise it is the
+	 * temporary directory of the JVM.
+	 *
+	 * @return File	default channel directory
+	 */
+	public static File getDefaultDirectory() {
+		File shm = new File("/dev/shm");
+		if(shm.isDirectory() && shm.canWrite()) {
+			return shm;
+		}
+		return new File(System.getProperty("java.io.tmpdir"));
+	}
+
+	/**
+	 * Creates a new channel file, replacing any existing file, using the default slot
+	 * count and slot size.
+	 *
+	 * @param file	channel file
+	 * @return SharedMemoryChannel	channel
+	 * @throws IOException	thrown if the file cannot be created or mapped
+	 */
+	public static SharedMemoryChannel create(File file) throws IOException {
+		return create(file, DEFAULT_SLOT_COUNT, DEFAULT_SLOT_SIZE);
+	}
+
+	/**
+	 * Creates a new channel file, replacing any existing file.
+	 *
+	 * @param file		channel file
+	 * @param slotCount	number of requests which can be in flight
+	 * @param slotSize	size in bytes of each slot including the slot header, a multiple 
+	 * 		of 8 so the sequence numbers are aligned
+	 * @return SharedMemoryChannel	channel
+	 * @throws IOException	thrown if the file cannot be created or mapped
+	 */
+	public static SharedMemoryChannel create(File file, int slotCount, int slotSize) throws IOException {
+		if(slotCount <= 0 || slotSize <= SLOT_PAYLOAD || slotSize % 8 != 0) {
+			throw new IllegalArgumentException("Invalid slot count " + slotCount + " or slot size " + slotSize);
+		}
+		FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long size = HEADER_SIZE + (long) slotCount * slotSize;
+		MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		buffer.putInt(HEADER_SLOT_COUNT, slotCount);
+		buffer.putInt(HEADER_SLOT_SIZE, slotSize);
+		buffer.putInt(HEADER_CLOSED, 0);
+		for(int i = 0; i < slotCount; i++) {
+			buffer.putLong(slotOffset(i, slotSize) + SLOT_SEQUENCE, 0);
+		}
+		buffer.putLong(HEADER_NEXT_SEQUENCE, 0);
+		SharedMemoryChannel channel = new SharedMemoryChannel(file, fileChannel, buffer, slotCount, slotSize);
+		channel.putIntOrdered(HEADER_MAGIC, MAGIC);
+		return channel;
+	}
+
+	/**
+	 * Opens an existing channel file created by {@link #create(File, int, int)}.
+	 *
+	 * @param file	channel file
+	 * @return SharedMemoryChannel	channel
+	 * @throws IOException	thrown if the file does not exist or is not a channel file
+	 */
+	public static SharedMemoryChannel open(File file) throws IOException {
+		FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if(fileChannel.size() < HEADER_SIZE) {
+			fileChannel.close();
+			throw new IOException("File " + file + " is not a channel file.");
+		}
+		MappedByteBuffer header = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		// header is written before the magic number is published
+		SharedMemoryChannel headerChannel = new SharedMemoryChannel(file, fileChannel, header, 0, 0);
+		if(headerChannel.getIntVolatile(HEADER_MAGIC) != MAGIC) {
+			fileChannel.close();
+			throw new IOException("File " + file + " is not a channel file.");
+		}
+		int slotCount = header.getInt(HEADER_SLOT_COUNT);
+		int slotSize = header.getInt(HEADER_SLOT_SIZE);
+		if(slotCount <= 0 || slotSize <= SLOT_PAYLOAD || slotSize % 8 != 0) {
+			fileChannel.close();
+			throw new IOException("File " + file + " has an invalid slot count or slot size.");
+		}
+		MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+				HEADER_SIZE + (long) slotCount * slotSize);
+		return new SharedMemoryChannel(file, fileChannel, buffer, slotCount, slotSize);
+	}
+
+	/**
+	 * Returns the channel file.
+	 *
+	 * @return File channel file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns true if the channel has been closed by either end.
+	 *
+	 * @return boolean	true if channel is closed, otherwise false
+	 */
+	public boolean isClosed() {
+		return getIntVolatile(HEADER_CLOSED) != 0;
+	}
+	
+	/**
+	 * Sets the time after which the executor skips a request whose number is claimed by
+	 * a client but which is not written. Defaults to {@link #DEFAULT_REQUEST_TIMEOUT_MILLIS}.
+	 * 
+	 * @param timeout	request timeout
+	 * @param unit		unit of timeout
+	 */
+	public void setRequestTimeout(long timeout, TimeUnit unit) {
+		this.requestTimeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Sends the command line arguments to the executor and waits for its output.
+	 * This method may be called by several threads of the client process.
+	 *
+	 * @param args	command line arguments
+	 * @return String	output written by the executor
+	 * @throws IOException	thrown if the channel is closed while waiting
+	 * @throws IllegalArgumentException	thrown if the executor rejected the request
+	 */
+	public String request(String... args) throws IOException {
+		return request(encodeArguments(args));
+	}
+	
+	String request(byte[] payload) throws IOException {
+
+		if(payload.length > slotSize - SLOT_PAYLOAD) {
+			throw new IllegalArgumentException("Arguments size " + payload.length
+					+ " exceeds channel slot size " + (slotSize - SLOT_PAYLOAD));
+		}
+
+		long sequence = claimSequence();
+		int offset = slotOffset((int) (sequence % slotCount), slotSize);
+		long base = SEQUENCE_LAP * (sequence / slotCount);
+
+		await(offset, base + SEQUENCE_FREE);
+		if(!compareAndSwapLong(offset + SLOT_SEQUENCE, base + SEQUENCE_FREE, base + SEQUENCE_WRITING)) {
+			throw new IOException("Request to channel " + file + " was skipped after timeout.");
+		}
+		write(offset, payload, STATUS_OK);
+		if(!compareAndSwapLong(offset + SLOT_SEQUENCE, base + SEQUENCE_WRITING, base + SEQUENCE_REQUEST)) {
+			throw new IOException("Request to channel " + file + " was skipped after timeout.");
+		}
+
+		await(offset, base + SEQUENCE_RESPONSE);
+		byte[] response = read(offset);
+		int status = buffer.getInt(offset + SLOT_STATUS);
+		// slot may already be freed by the executor if this client was too slow
+		compareAndSwapLong(offset + SLOT_SEQUENCE, base + SEQUENCE_RESPONSE, base + SEQUENCE_LAP);
+
+		if(status == STATUS_ERROR) {
+			throw new IllegalArgumentException(new String(response, UTF8));
+		}
+		return new String(response, UTF8);
+	}
+	
+	/**
+	 * Claims the number of the next request.
+	 * 
+	 * @return long	request number
+	 * @throws IOException	thrown if the channel file cannot be locked
+	 */
+	long claimSequence() throws IOException {
+		return getAndIncrementLong(HEADER_NEXT_SEQUENCE);
+	}
+
+	/**
+	 * Sends a partially typed command line to the executor and waits for the completions
+	 * of the word at the cursor, see {@link Executor#complete(String[], int)}.
+	 *
+	 * @param cursor	index of the word completed
+	 * @param args		words of the command line typed so far
+	 * @return List<String>	completions of the word
+	 * @throws IOException	thrown if the channel is closed while waiting
+	 * @throws IllegalArgumentException	thrown if the cursor is not a word of the command line
+	 */
+	public List<String> complete(int cursor, String... args) throws IOException {
+		String[] request = new String[args.length + 2];
+		request[0] = COMPLETION_REQUEST;
+		request[1] = Integer.toString(cursor);
+		System.arraycopy(args, 0, request, 2, args.length);
+		String output = request(request);
+		if(output.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Arrays.asList(output.split("\n"));
+	}
+
+	/**
+	 * Waits for the next request written by the client and returns its arguments.
+	 * This method is called by the single thread serving this channel. Requests which
+	 * are claimed but not written within the request timeout are skipped. If the request
+	 * cannot be decoded, the request must still be answered with {@link #respondError(String)}.
+	 *
+	 * @return String[]	command line arguments, or null if the channel is closed
+	 * @throws IOException	thrown if the request cannot be decoded
+	 */
+	String[] awaitRequest() throws IOException {
+		while(true) {
+			int offset = slotOffset((int) (serverSequence % slotCount), slotSize);
+			long base = SEQUENCE_LAP * (serverSequence / slotCount);
+			try {
+				if(awaitRequest(offset, base)) {
+					return decodeArguments(read(offset));
+				}
+			} catch (ClosedChannelException e) {
+				return null;
+			}
+			serverSequence++;
+		}
+	}
+	
+	/**
+	 * Waits until the request of a slot is ready.
+	 * 
+	 * @return boolean	true if request is ready, false if it was skipped
+	 */
+	private boolean awaitRequest(int offset, long base) throws IOException {
+		long spins = 0;
+		long seen = -1;
+		long deadline = 0;
+		while(true) {
+			long sequence = getLongVolatile(offset + SLOT_SEQUENCE);
+			if(sequence == base + SEQUENCE_REQUEST) {
+				return true;
+			}
+			if(getIntVolatile(HEADER_CLOSED) != 0) {
+				throw new ClosedChannelException(file);
+			}
+			if(getLongVolatile(HEADER_NEXT_SEQUENCE) > serverSequence) {
+				// request is claimed, its client must progress within the timeout
+				long now = System.nanoTime();
+				if(sequence != seen) {
+					seen = sequence;
+					deadline = now + requestTimeoutNanos;
+				} else if(now - deadline > 0) {
+					if(sequence < base) {
+						// response of the previous lap was not read, the slot is freed
+						compareAndSwapLong(offset + SLOT_SEQUENCE, sequence, base + SEQUENCE_FREE);
+					} else if(compareAndSwapLong(offset + SLOT_SEQUENCE, sequence, base + SEQUENCE_LAP)) {
+						return false;
+					}
+					spins = 0;
+					continue;
+				}
+			}
+			if(++spins > SPIN_LIMIT) {
+				LockSupport.parkNanos(PARK_NANOS);
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * Writes the output of the last request returned by {@link #awaitRequest()}
+	 * and hands the slot back to the client.
+	 *
+	 * @param output	output of command
+	 * @throws IOException	thrown if the channel file cannot be locked
+	 */
+	void respond(byte[] output) throws IOException {
+		respond(output, STATUS_OK);
+	}
+	
+	/**
+	 * Writes the error message of the last request returned by {@link #awaitRequest()}
+	 * and hands the slot back to the client.
+	 * 
+	 * @param message	error message
+	 * @throws IOException	thrown if the channel file cannot be locked
+	 */
+	void respondError(String message) throws IOException {
+		respond(String.valueOf(message).getBytes(UTF8), STATUS_ERROR);
+	}
+	
+	private void respond(byte[] output, int status) throws IOException {
+		int offset = slotOffset((int) (serverSequence % slotCount), slotSize);
+		long base = SEQUENCE_LAP * (serverSequence / slotCount);
+		int capacity = slotSize - SLOT_PAYLOAD;
+		if(output.length > capacity) {
+			byte[] truncated = new byte[capacity];
+			System.arraycopy(output, 0, truncated, 0, capacity);
+			write(offset, truncated, (status == STATUS_OK)?STATUS_TRUNCATED:status);
+		} else {
+			write(offset, output, status);
+		}
+		putLongOrdered(offset + SLOT_SEQUENCE, base + SEQUENCE_RESPONSE);
+		serverSequence++;
+	}
+
+	/**
+	 * Marks the channel as closed, waking up both ends, and releases the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		putIntOrdered(HEADER_CLOSED, 1);
+		buffer.force();
+		fileChannel.close();
+	}
+
+	/**
+	 * Waits until the sequence number of a slot is the expected number. A greater number
+	 * means the executor skipped the request after timeout.
+	 */
+	private void await(int offset, long expected) throws IOException {
+		long spins = 0;
+		while(true) {
+			long sequence = getLongVolatile(offset + SLOT_SEQUENCE);
+			if(sequence == expected) {
+				return;
+			}
+			if(sequence > expected) {
+				throw new IOException("Request to channel " + file + " was skipped after timeout.");
+			}
+			if(getIntVolatile(HEADER_CLOSED) != 0) {
+				throw new ClosedChannelException(file);
+			}
+			if(++spins > SPIN_LIMIT) {
+				LockSupport.parkNanos(PARK_NANOS);
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+	
+	private long getLongVolatile(int position) throws IOException {
+		if(UNSAFE!=null) {
+			return UNSAFE.getLongVolatile(null, address + position);
+		}
+		synchronized(PROCESS_LOCK) {
+			FileLock lock = fileChannel.lock(position, 8, false);
+			try {
+				return buffer.getLong(position);
+			} finally {
+				lock.release();
+			}
+		}
+	}
+	
+	private void putLongOrdered(int position, long value) throws IOException {
+		if(UNSAFE!=null) {
+			UNSAFE.putOrderedLong(null, address + position, value);
+			return;
+		}
+		synchronized(PROCESS_LOCK) {
+			FileLock lock = fileChannel.lock(position, 8, false);
+			try {
+				buffer.putLong(position, value);
+			} finally {
+				lock.release();
+			}
+		}
+	}
+	
+	private boolean compareAndSwapLong(int position, long expected, long value) throws IOException {
+		if(UNSAFE!=null) {
+			return UNSAFE.compareAndSwapLong(null, address + position, expected, value);
+		}
+		synchronized(PROCESS_LOCK) {
+			FileLock lock = fileChannel.lock(position, 8, false);
+			try {
+				if(buffer.getLong(position) != expected) {
+					return false;
+				}
+				buffer.putLong(position, value);
+				return true;
+			} finally {
+				lock.release();
+			}
+		}
+	}
+	
+	private long getAndIncrementLong(int position) throws IOException {
+		if(UNSAFE!=null) {
+			return UNSAFE.getAndAddLong(null, address + position, 1);
+		}
+		synchronized(PROCESS_LOCK) {
+			FileLock lock = fileChannel.lock(position, 8, false);
+			try {
+				long value = buffer.getLong(position);
+				buffer.putLong(position, value + 1);
+				return value;
+			} finally {
+				lock.release();
+			}
+		}
+	}
+	
+	/**
+	 * Flags of the header are single words, a plain access is atomic and is only ordered
+	 * when atomic operations are available.
+	 */
+	private int getIntVolatile(int position) {
+		return (UNSAFE!=null)?UNSAFE.getIntVolatile(null, address + position):buffer.getInt(position);
+	}
+	
+	private void putIntOrdered(int position, int value) {
+		if(UNSAFE!=null) {
+			UNSAFE.putOrderedInt(null, address + position, value);
+		} else {
+			buffer.putInt(position, value);
+		}
+	}
+
+	private void write(int offset, byte[] payload, int status) {
+		buffer.putInt(offset + SLOT_LENGTH, payload.length);
+		buffer.putInt(offset + SLOT_STATUS, status);
+		ByteBuffer slot = buffer.duplicate();
+		slot.position(offset + SLOT_PAYLOAD);
+		slot.put(payload);
+	}
+
+	private byte[] read(int offset) throws IOException {
+		int length = buffer.getInt(offset + SLOT_LENGTH);
+		if(length < 0 || length > slotSize - SLOT_PAYLOAD) {
+			throw new IOException("Invalid channel payload size " + length);
+		}
+		byte[] payload = new byte[length];
+		ByteBuffer slot = buffer.duplicate();
+		slot.position(offset + SLOT_PAYLOAD);
+		slot.get(payload);
+		return payload;
+	}
+
+	private static int slotOffset(int slot, int slotSize) {
+		return HEADER_SIZE + slot * slotSize;
+	}
+
+	static byte[] encodeArguments(String... args) {
+		byte[][] encoded = new byte[args.length][];
+		int size = 4;
+		for(int i = 0; i < args.length; i++) {
+			encoded[i] = args[i].getBytes(UTF8);
+			size += 4 + encoded[i].length;
+		}
+		byte[] payload = new byte[size];
+		int pos = putInt(payload, 0, args.length);
+		for(byte[] arg : encoded) {
+			pos = putInt(payload, pos, arg.length);
+			System.arraycopy(arg, 0, payload, pos, arg.length);
+			pos += arg.length;
+		}
+		return payload;
+	}
+
+	static String[] decodeArguments(byte[] payload) throws IOException {
+		if(payload.length < 4) {
+			throw new IOException("Invalid channel request of size " + payload.length);
+		}
+		int count = getInt(payload, 0);
+		// each argument has at least its length
+		if(count < 0 || count > (payload.length - 4) / 4) {
+			throw new IOException("Invalid channel request argument count " + count);
+		}
+		int pos = 4;
+		String[] args = new String[count];
+		for(int i = 0; i < count; i++) {
+			int length = getInt(payload, pos);
+			pos += 4;
+			if(length < 0 || pos + length > payload.length) {
+				throw new IOException("Invalid channel request argument " + i);
+			}
+			args[i] = new String(payload, pos, length, UTF8);
+			pos += length;
+		}
+		return args;
+	}
+
+	/**
+	 * Exception thrown while waiting when the channel is closed.
+	 */
+	private static class ClosedChannelException extends IOException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		ClosedChannelException(File file) {
+			super("Channel " + file + " is closed.");
+		}
+		
+	}
+
+	private static int putInt(byte[] data, int pos, int value) {
+		data[pos] = (byte) (value >>> 24);
+		data[pos + 1] = (byte) (value >>> 16);
+		data[pos + 2] = (byte) (value >>> 8);
+		data[pos + 3] = (byte) value;
+		return pos + 4;
+	}
+
+	private static int getInt(byte[] data, int pos) {
+		return ((data[pos] & 0xff) << 24) | ((data[pos + 1] & 0xff) << 16)
+				| ((data[pos + 2] & 0xff) << 8) | (data[pos + 3] & 0xff);
+	}
+
+}
@@ -0,0 +1,176 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.jclif.text.CommandLineFormat;
+import org.jclif.text.CommandLineFormatType;
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.util.StringUtil;
+
+/**
+ * This class implements an interactive shell which reads command lines and executes 
+ * them using the handlers of an Executor. The handlers and configuration are loaded once 
+ * so the cost of each command line is only the cost of parsing and running its handler.
+ * <p>
+ * The shell supports the built-in commands <code>help</code>, <code>history</code>, 
+ * <code>exit</code> and <code>quit</code> unless a command with the same identifier is
+ * registered in the executor. <code>help</code> followed by a command prints the usage 
+ * of that command.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class Shell {
+	
+	private static final Logger LOGGER = Logger.getLogger(Shell.class.getCanonicalName());
+	
+	static final String COMMAND_HELP = "help";
+	static final String COMMAND_HISTORY = "history";
+	static final String COMMAND_EXIT = "exit";
+	static final String COMMAND_QUIT = "quit";
+	
+	private final Executor executor;
+	private final ShellHistory history;
+	private final String prompt;
+	
+	Shell(Executor executor, ShellHistory history, String prompt) {
+		this.executor = executor;
+		this.history = history;
+		this.prompt = prompt;
+	}
+	
+	/**
+	 * Reads and executes command lines until the end of input or an exit command.
+	 * 
+	 * @param in	input where command lines are read
+	 * @param out	output where prompt, usage and errors are written
+	 * @throws IOException	thrown if input or history cannot be read
+	 */
+	void run(Reader in, PrintStream out) throws IOException {
+		
+		executor.warmUp();
+		history.load();
+		
+		BufferedReader reader = new BufferedReader(in);
+		try {
+			
+			while(true) {
+				
+				out.print(prompt);
+				out.flush();
+				
+				String line = reader.readLine();
+				if(line==null) {
+					out.println();
+					break;
+				}
+				
+				line = line.trim();
+				if(line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				history.add(line);
+				
+				String[] args;
+				try {
+					args = StringUtil.tokenize(line);
+				} catch (IllegalArgumentException e) {
+					out.println("Error: " + e.getMessage());
+					continue;
+				}
+				
+				if(isBuiltIn(args[0])) {
+					if(!executeBuiltIn(args, out)) {
+						break;
+					}
+					continue;
+				}
+				
+				long start = System.nanoTime();
+				executor.execute(out, args);
+				LOGGER.fine("Executed " + args[0] + " in " + (System.nanoTime() - start) / 1000 + " us");
+			}
+			
+		} finally {
+			history.close();
+		}
+		
+	}
+	
+	private boolean isBuiltIn(String identifier) {
+		return (COMMAND_HELP.equals(identifier) || COMMAND_HISTORY.equals(identifier) 
+				|| COMMAND_EXIT.equals(identifier) || COMMAND_QUIT.equals(identifier))
+				&& !executor.getConfig().getCommandConfiguration().contains(identifier);
+	}
+	
+	/**
+	 * Executes a built-in command. The arguments of <code>help</code> are the path of 
+	 * the command whose usage is printed.
+	 * 
+	 * @param args	built-in command identifier and its arguments
+	 * @param out	output stream
+	 * @return boolean	false if the shell must exit, otherwise true
+	 */
+	private boolean executeBuiltIn(String[] args, PrintStream out) {
+		String identifier = args[0];
+		if(COMMAND_EXIT.equals(identifier) || COMMAND_QUIT.equals(identifier)) {
+			return false;
+		} else if(COMMAND_HELP.equals(identifier) && args.length > 1) {
+			printCommandUsage(args, out);
+		} else if(COMMAND_HELP.equals(identifier)) {
+			out.println(executor.getUsage());
+			out.println("Shell commands: " + COMMAND_HELP + ", " + COMMAND_HISTORY + ", " 
+					+ COMMAND_EXIT + ", " + COMMAND_QUIT);
+		} else if(COMMAND_HISTORY.equals(identifier)) {
+			List<String> lines = history.getLines();
+			for(int i = 0; i < lines.size(); i++) {
+				out.println(String.format("%5d  %s", i + 1, lines.get(i)));
+			}
+		}
+		return true;
+	}
+	
+	private void printCommandUsage(String[] args, PrintStream out) {
+		CommandLineConfiguration config = executor.getConfig();
+		CommandConfiguration commandConfig = config.getCommandConfiguration();
+		CommandMetadata metadata = null;
+		for(int i = 1; i < args.length; i++) {
+			if(metadata!=null) {
+				commandConfig = commandConfig.getSubcommandConfiguration(metadata.getIdentifier());
+			}
+			metadata = (commandConfig==null)?null:commandConfig.get(args[i]);
+			if(metadata==null) {
+				out.println("Error: Unknown command " + args[i]);
+				return;
+			}
+		}
+		out.println(CommandLineFormat.getInstance().format(config, metadata, CommandLineFormatType.FULL));
+	}
+	
+}
@@ -0,0 +1,215 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * This class contains the lines entered in an interactive shell. History is bounded, once
+ * the maximum size is reached the oldest line is discarded. If a file is set the history
+ * is loaded from the file and each new line is appended to it while holding a lock of 
+ * the file, so shells running at the same time keep the lines of each other. Appending a
+ * line does not read the file, the file is compacted to its last lines when the shell is
+ * closed or once this shell appended enough lines for the file to exceed twice the 
+ * maximum size, so compacting costs at most one read per maximum size lines.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class ShellHistory {
+	
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+	
+	private final File file;
+	private final int maxSize;
+	private final Deque<String> lines = new ArrayDeque<String>();
+	private int fileLineCount;
+	
+	/**
+	 * Creates a history.
+	 * 
+	 * @param file		history file or null if history is not persisted
+	 * @param maxSize	maximum number of lines kept
+	 */
+	ShellHistory(File file, int maxSize) {
+		if(maxSize < 1) {
+			throw new IllegalArgumentException("History size must be at least 1, value is " + maxSize);
+		}
+		this.file = file;
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Loads the lines of the history file.
+	 * 
+	 * @throws IOException	thrown if the history file cannot be read
+	 */
+	void load() throws IOException {
+		if(file==null || !file.isFile()) {
+			return;
+		}
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			FileLock lock = channel.lock();
+			try {
+				List<String> fileLines = readLines(channel);
+				for(String line : fileLines) {
+					addLine(line);
+				}
+				fileLineCount = fileLines.size();
+			} finally {
+				lock.release();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Adds a line to the history. A line equal to the last line is not added.
+	 * 
+	 * @param line	line entered
+	 * @throws IOException	thrown if the line cannot be written to the history file
+	 */
+	void add(String line) throws IOException {
+		if(line.isEmpty() || line.equals(lines.peekLast())) {
+			return;
+		}
+		addLine(line);
+		if(file!=null) {
+			append(line);
+		}
+	}
+	
+	private void addLine(String line) {
+		if(lines.size()==maxSize) {
+			lines.removeFirst();
+		}
+		lines.addLast(line);
+	}
+	
+	List<String> getLines() {
+		return new ArrayList<String>(lines);
+	}
+	
+	int getMaxSize() {
+		return maxSize;
+	}
+	
+	/**
+	 * Compacts the history file if it has more lines than the maximum size.
+	 * 
+	 * @throws IOException	thrown if the history file cannot be written
+	 */
+	void close() throws IOException {
+		if(file==null || !file.isFile()) {
+			return;
+		}
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			FileLock lock = channel.lock();
+			try {
+				fileLineCount = compact(channel, readLines(channel));
+			} finally {
+				lock.release();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Appends a line to the history file. The file is only read and compacted if the
+	 * lines known to this shell exceed twice the maximum size, lines appended by other 
+	 * shells are counted when the file is compacted.
+	 */
+	private void append(String line) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, 
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			FileLock lock = channel.lock();
+			try {
+				write(channel, channel.size(), line + "\n");
+				if(++fileLineCount > 2 * maxSize) {
+					fileLineCount = compact(channel, readLines(channel));
+				}
+			} finally {
+				lock.release();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Rewrites a locked history file with its last lines if it has more lines than 
+	 * the maximum size.
+	 * 
+	 * @return int	number of lines of the file
+	 */
+	private int compact(FileChannel channel, List<String> fileLines) throws IOException {
+		if(fileLines.size() <= maxSize) {
+			return fileLines.size();
+		}
+		fileLines = fileLines.subList(fileLines.size() - maxSize, fileLines.size());
+		StringBuilder text = new StringBuilder();
+		for(String line : fileLines) {
+			text.append(line).append('\n');
+		}
+		channel.truncate(0);
+		write(channel, 0, text.toString());
+		return fileLines.size();
+	}
+	
+	private static List<String> readLines(FileChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, buffer.position()) < 0) {
+				break;
+			}
+		}
+		buffer.flip();
+		List<String> fileLines = new ArrayList<String>();
+		for(String line : CHARSET.decode(buffer).toString().split("\n")) {
+			if(!line.isEmpty()) {
+				fileLines.add(line);
+			}
+		}
+		return fileLines;
+	}
+	
+	private static void write(FileChannel channel, long position, String text) throws IOException {
+		ByteBuffer buffer = CHARSET.encode(text);
+		while(buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+	
+}
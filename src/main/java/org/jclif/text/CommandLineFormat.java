@@ -1,5 +1,7 @@
 package org.jclif.text;
 
+import java.io.IOException;
+
 import org.jclif.parser.InvalidInputException;
 import org.jclif.type.CommandLineConfiguration;
 import org.jclif.type.CommandMetadata;
@@ -26,4 +28,46 @@ public abstract class CommandLineFormat {
 	
 	public abstract  String format(CommandLineConfiguration config, CommandLineFormatType formatType);
 	
+	/**
+	 * Writes the usage text of a configuration to an appendable, e.g. a Writer or a 
+	 * PrintStream. Usage text is streamed so memory used does not depend on the number 
+	 * of commands and options of the configuration.
+	 * 
+	 * @param out			appendable to write to
+	 * @param config		command line configuration
+	 * @param formatType	format type
+	 * @throws IOException	thrown if the appendable fails
+	 */
+	public void formatTo(Appendable out, CommandLineConfiguration config, CommandLineFormatType formatType) 
+			throws IOException {
+		out.append(format(config, formatType));
+	}
+	
+	/**
+	 * Writes the usage text of a command to an appendable.
+	 * 
+	 * @param out			appendable to write to
+	 * @param config		command line configuration
+	 * @param metadata		command metadata
+	 * @param formatType	format type
+	 * @throws IOException	thrown if the appendable fails
+	 */
+	public void formatTo(Appendable out, CommandLineConfiguration config, CommandMetadata metadata, 
+			CommandLineFormatType formatType) throws IOException {
+		out.append(format(config, metadata, formatType));
+	}
+	
+	/**
+	 * Writes the error message and usage text of an invalid input to an appendable.
+	 * 
+	 * @param out		appendable to write to
+	 * @param config	command line configuration
+	 * @param e			invalid input error
+	 * @throws IOException	thrown if the appendable fails
+	 */
+	public void formatTo(Appendable out, CommandLineConfiguration config, InvalidInputException e) 
+			throws IOException {
+		out.append(format(config, e));
+	}
+	
 }
@@ -21,12 +21,46 @@ package org.jclif.text;
 
 /**
  * CommandLineFormatType enum defines the different command line help text formatting 
- * types.
+ * types. SHORT and FULL are plain text usage, JSON, MAN and MARKDOWN are documents
+ * read by tools and documentation generators.
  * 
  * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
  *
  */
 public enum CommandLineFormatType {
-	SHORT,
-	FULL
+	
+	SHORT("txt"),
+	
+	FULL("txt"),
+	
+	/**
+	 * JSON document of the commands, options and parameters.
+	 */
+	JSON("json"),
+	
+	/**
+	 * Manual page in roff format, section 1.
+	 */
+	MAN("1"),
+	
+	/**
+	 * Markdown document, command pages are linked from the application page.
+	 */
+	MARKDOWN("md");
+	
+	private final String fileExtension;
+	
+	private CommandLineFormatType(String fileExtension) {
+		this.fileExtension = fileExtension;
+	}
+	
+	/**
+	 * Returns the extension of a file of this format.
+	 * 
+	 * @return String	file extension without the dot
+	 */
+	public String getFileExtension() {
+		return fileExtension;
+	}
+	
 }
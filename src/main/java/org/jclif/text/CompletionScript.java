@@ -0,0 +1,225 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandLineProperties;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.type.ParameterConfiguration;
+import org.jclif.type.ParameterMetadata;
+
+/**
+ * This class generates the shell completion script of a command line configuration. 
+ * Commands and options are written as word lists in the script so a completion does not
+ * start a JVM, options and parameters of type FILE and DIRECTORY are completed by the 
+ * shell with file and directory names. Subcommands are completed after their parent 
+ * command.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class CompletionScript {
+	
+	/**
+	 * Shells a completion script can be generated for.
+	 */
+	public enum Shell {
+		BASH,
+		ZSH
+	}
+	
+	private static final String LINE_SEPARATOR = "\n";
+	
+	private CompletionScript() {
+	}
+	
+	/**
+	 * Generates the completion script of a configuration. Script of bash is loaded with
+	 * <code>source</code>, script of zsh uses the bash completion emulation of zsh and
+	 * is either loaded with <code>source</code> or installed as _&lt;name&gt; in fpath.
+	 * 
+	 * @param config	command line configuration
+	 * @param shell		shell of the script
+	 * @return String	completion script
+	 */
+	public static String generate(CommandLineConfiguration config, Shell shell) {
+		
+		String name = config.getName();
+		if(name==null || name.isEmpty()) {
+			throw new IllegalArgumentException("Command line configuration has no name");
+		}
+		String function = "_" + name.replaceAll("\\W", "_") + "_complete";
+		CommandLineProperties properties = config.getCommandLineProperties();
+		
+		StringBuilder script = new StringBuilder();
+		if(shell==Shell.ZSH) {
+			line(script, "#compdef " + name);
+			line(script, "autoload -U +X bashcompinit && bashcompinit");
+		}
+		line(script, "# " + shell.name().toLowerCase() + " completion of " + name + ", generated by JCLIF");
+		line(script, function + "() {");
+		line(script, "    local cur prev cmd i");
+		line(script, "    cur=\"${COMP_WORDS[COMP_CWORD]}\"");
+		line(script, "    prev=\"${COMP_WORDS[COMP_CWORD-1]}\"");
+		line(script, "    cmd=\"\"");
+		
+		// option values, keyed by command path and previous word
+		List<String> valueCases = new ArrayList<String>();
+		List<String> commandCases = new ArrayList<String>();
+		List<String> subcommandPaths = new ArrayList<String>();
+		addValueCases(valueCases, "", config.getOptionConfiguration(), properties);
+		addCommandCases(valueCases, commandCases, subcommandPaths, config.getCommandConfiguration(), "", properties);
+		
+		if(!config.getCommandConfiguration().isEmpty()) {
+			line(script, "    for ((i=1; i<COMP_CWORD; i++)); do");
+			line(script, "        case \"${COMP_WORDS[i]}\" in");
+			line(script, "            " + join(config.getCommandConfiguration().keySet(), "|") 
+					+ ") cmd=\"${COMP_WORDS[i]}\"; break ;;");
+			line(script, "        esac");
+			line(script, "    done");
+		}
+		if(!subcommandPaths.isEmpty()) {
+			// subcommands directly follow their parent command
+			line(script, "    for ((i++; i<COMP_CWORD; i++)); do");
+			line(script, "        case \"$cmd/${COMP_WORDS[i]}\" in");
+			line(script, "            " + join(subcommandPaths, "|") + ") cmd=\"$cmd/${COMP_WORDS[i]}\" ;;");
+			line(script, "            *) break ;;");
+			line(script, "        esac");
+			line(script, "    done");
+		}
+		
+		if(!valueCases.isEmpty()) {
+			line(script, "    case \"$cmd:$prev\" in");
+			for(String valueCase : valueCases) {
+				line(script, "        " + valueCase);
+			}
+			line(script, "    esac");
+		}
+		
+		line(script, "    case \"$cmd\" in");
+		for(String commandCase : commandCases) {
+			line(script, "        " + commandCase);
+		}
+		line(script, "        *) " + getReply(new ArrayList<String>(config.getCommandConfiguration().keySet()),
+				config.getOptionConfiguration(), config.getParameterConfiguration(), properties) + " ;;");
+		line(script, "    esac");
+		line(script, "}");
+		line(script, "complete -o filenames -F " + function + " " + name);
+		return script.toString();
+	}
+	
+	/**
+	 * Adds the cases of the commands of a command configuration and of their subcommands.
+	 * Path of a command is the identifiers of its parent commands and its identifier 
+	 * separated by '/'.
+	 */
+	private static void addCommandCases(List<String> valueCases, List<String> commandCases, 
+			List<String> subcommandPaths, CommandConfiguration commandConfig, String parentPath, 
+			CommandLineProperties properties) {
+		for(CommandMetadata command : commandConfig.values()) {
+			String path = parentPath.isEmpty()?command.getIdentifier():parentPath + "/" + command.getIdentifier();
+			if(!parentPath.isEmpty()) {
+				subcommandPaths.add(path);
+			}
+			addValueCases(valueCases, path, command.getOptionConfigurations(), properties);
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			List<String> words = (subcommandConfig==null)?new ArrayList<String>()
+					:new ArrayList<String>(subcommandConfig.keySet());
+			commandCases.add(path + ") " + getReply(words, command.getOptionConfigurations(), 
+					command.getParameterConfigurations(), properties) + " ;;");
+			if(subcommandConfig!=null) {
+				addCommandCases(valueCases, commandCases, subcommandPaths, subcommandConfig, path, properties);
+			}
+		}
+	}
+	
+	private static void addValueCases(List<String> valueCases, String command, OptionConfiguration options, 
+			CommandLineProperties properties) {
+		for(OptionMetadata option : options.getOptions()) {
+			if(!option.isParameterAccepted()) {
+				continue;
+			}
+			List<String> patterns = new ArrayList<String>();
+			patterns.add(command + ":" + properties.getOptionPrefix() + option.getIdentifier());
+			String longIdentifier = option.getIdentifier(IdentifierType.LONG);
+			if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+				patterns.add(command + ":" + properties.getOptionLongPrefix() + longIdentifier);
+			}
+			ParameterType type = option.getParameterMetadata().getParameterType();
+			String reply = (type==ParameterType.FILE || type==ParameterType.DIRECTORY)
+					?"COMPREPLY=( $(compgen " + getFlag(type) + " -- \"$cur\") )":"COMPREPLY=()";
+			valueCases.add(join(patterns, "|") + ") " + reply + "; return ;;");
+		}
+	}
+	
+	private static String getReply(List<String> words, OptionConfiguration options, ParameterConfiguration parameters,
+			CommandLineProperties properties) {
+		for(OptionMetadata option : options.getOptions()) {
+			words.add(properties.getOptionPrefix() + option.getIdentifier());
+			String longIdentifier = option.getIdentifier(IdentifierType.LONG);
+			if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+				words.add(properties.getOptionLongPrefix() + longIdentifier);
+			}
+		}
+		String flag = "";
+		for(ParameterMetadata parameter : parameters.values()) {
+			String parameterFlag = getFlag(parameter.getParameterType());
+			// file completion includes directories
+			if(parameterFlag.equals("-f") || flag.isEmpty()) {
+				flag = parameterFlag;
+			}
+		}
+		return "COMPREPLY=( $(compgen " + (flag.isEmpty()?"":flag + " ") 
+				+ "-W \"" + join(words, " ") + "\" -- \"$cur\") )";
+	}
+	
+	private static String getFlag(ParameterType type) {
+		if(type==ParameterType.FILE) {
+			return "-f";
+		} else if(type==ParameterType.DIRECTORY) {
+			return "-d";
+		}
+		return "";
+	}
+	
+	private static String join(Iterable<String> values, String separator) {
+		StringBuilder sb = new StringBuilder();
+		for(String value : values) {
+			if(sb.length() > 0) {
+				sb.append(separator);
+			}
+			sb.append(value);
+		}
+		return sb.toString();
+	}
+	
+	private static void line(StringBuilder script, String line) {
+		script.append(line).append(LINE_SEPARATOR);
+	}
+	
+}
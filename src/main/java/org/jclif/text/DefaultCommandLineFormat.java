@@ -1,14 +1,17 @@
 package org.jclif.text;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.logging.Logger;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jclif.annotation.ParameterType;
 import org.jclif.parser.InvalidInputException;
+import org.jclif.type.CommandConfiguration;
 import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandLineProperties;
 import org.jclif.type.CommandMetadata;
 import org.jclif.type.OptionConfiguration;
 import org.jclif.type.OptionMetadata;
@@ -19,24 +22,79 @@ import org.jclif.util.StringUtil;
 
 public class DefaultCommandLineFormat extends CommandLineFormat {
 	
-	private final static Logger LOGGER = Logger.getLogger(DefaultCommandLineFormat.class.getName());
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	private static final String SPACES = "                                                                ";
 	
-	DefaultCommandLineFormat() {
+	/**
+	 * Rendered help text of a configuration. Texts are keyed by format type and command,
+	 * all texts are discarded when the configuration or its command line properties change.
+	 */
+	private static class RenderedHelp {
+		
+		private final long modificationCount;
+		private final CommandLineProperties properties;
+		private final Map<String, String> texts = new ConcurrentHashMap<String, String>();
+		
+		RenderedHelp(CommandLineConfiguration config) {
+			this.modificationCount = config.getModificationCount();
+			this.properties = (CommandLineProperties) config.getCommandLineProperties().clone();
+		}
 		
+		boolean isValid(CommandLineConfiguration config) {
+			CommandLineProperties current = config.getCommandLineProperties();
+			return modificationCount == config.getModificationCount()
+					&& properties.getOptionPrefix().equals(current.getOptionPrefix())
+					&& properties.getOptionLongPrefix().equals(current.getOptionLongPrefix())
+					&& properties.getOptionParameterDelim().equals(current.getOptionParameterDelim());
+		}
+		
+	}
+	
+	private final Map<CommandLineConfiguration, RenderedHelp> renderedHelpCache = 
+			Collections.synchronizedMap(new WeakHashMap<CommandLineConfiguration, RenderedHelp>());
+	
+	private final Map<CommandLineFormatType, HelpDocumentWriter> documentWriters = 
+			new EnumMap<CommandLineFormatType, HelpDocumentWriter>(CommandLineFormatType.class);
+	
+	DefaultCommandLineFormat() {
+		for(CommandLineFormatType formatType : CommandLineFormatType.values()) {
+			HelpDocumentWriter writer = HelpDocumentWriter.getInstance(formatType, this);
+			if(writer!=null) {
+				documentWriters.put(formatType, writer);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the rendered help of a configuration, a new empty one is returned if the 
+	 * configuration changed since its help was rendered.
+	 */
+	private RenderedHelp getRenderedHelp(CommandLineConfiguration config) {
+		RenderedHelp renderedHelp = renderedHelpCache.get(config);
+		if(renderedHelp==null || !renderedHelp.isValid(config)) {
+			renderedHelp = new RenderedHelp(config);
+			renderedHelpCache.put(config, renderedHelp);
+		}
+		return renderedHelp;
 	}
 	
 	public String format(CommandLineConfiguration config, InvalidInputException e) {
+		if(!e.getSuggestions().isEmpty()) {
+			StringBuilder out = new StringBuilder();
+			appendUnchecked(out, config, e);
+			return out.toString();
+		}
 		String usage;
 		if(e.isCommandError()) {
 			usage = format(config, e.getCommandMetadata(), CommandLineFormatType.SHORT);
 		} else {
 			usage = format(config, CommandLineFormatType.SHORT);
 		}
-		return String.format("Error: %s%n%s",  e.getMessage(), usage);
+		return "Error: " + e.getMessage() + LINE_SEPARATOR + usage;
 	}
 	
 	public String format(CommandLineConfiguration config, String errorMessage) {
-		return String.format("Error: %s%n%s",  errorMessage, format(config));
+		return "Error: " + errorMessage + LINE_SEPARATOR + format(config);
 	}
 	
 	public String format(CommandLineConfiguration config) {
@@ -45,174 +103,416 @@ public class DefaultCommandLineFormat extends CommandLineFormat {
 	
 	public String format(CommandLineConfiguration config, CommandMetadata commandMetadata, CommandLineFormatType formatType) {
 		
-		List<OptionMetadata> optionMetaDataList = commandMetadata.getOptionConfigurations().getOptions();
-		Map<String, OptionMetadata> optionFormatMap = new LinkedHashMap<String, OptionMetadata>();
-		Integer maxIdLength = 0;
-		for(OptionMetadata metadata : optionMetaDataList) {
-			String optionFormatStr = formatOption(metadata, config);
-			maxIdLength = Math.max(optionFormatStr.length(), maxIdLength);
-			optionFormatMap.put(optionFormatStr, metadata);
+		RenderedHelp renderedHelp = getRenderedHelp(config);
+		String key = getCacheKey(config, commandMetadata, formatType);
+		String text = renderedHelp.texts.get(key);
+		if(text==null) {
+			StringBuilder sb = new StringBuilder();
+			appendUnchecked(sb, config, commandMetadata, formatType);
+			text = sb.toString();
+			renderedHelp.texts.put(key, text);
 		}
+		return text;
+	}
+	
+	public String format(CommandLineConfiguration config, CommandLineFormatType formatType) {
 		
-		String parameterFormatList = formatParameterList(config, commandMetadata.getParameterConfigurations());
-		StringBuffer sb = new StringBuffer();
-		if(!commandMetadata.getDescription().isEmpty()) {
-			sb.append(String.format("Description: %s%n", commandMetadata.getDescription()));
+		RenderedHelp renderedHelp = getRenderedHelp(config);
+		String key = formatType.name();
+		String text = renderedHelp.texts.get(key);
+		if(text==null) {
+			StringBuilder sb = new StringBuilder();
+			appendUnchecked(sb, config, formatType);
+			text = sb.toString();
+			renderedHelp.texts.put(key, text);
 		}
-		sb.append(String.format("Usage:    %s %s [options] %s%n", config.getName(), commandMetadata.getIdentifier(), parameterFormatList));
-		sb.append(formatOptionList(config, commandMetadata.getOptionConfigurations(), formatType));
-		
-		return sb.toString();
+		return text;
 	}
 	
-	public String format(CommandLineConfiguration config, CommandLineFormatType formatType) {
+	@Override
+	public void formatTo(Appendable out, CommandLineConfiguration config, CommandLineFormatType formatType) 
+			throws IOException {
+		String text = getCachedText(config, formatType.name());
+		if(text!=null) {
+			out.append(text);
+			return;
+		}
+		HelpDocumentWriter documentWriter = documentWriters.get(formatType);
+		if(documentWriter!=null) {
+			documentWriter.write(out, config);
+			return;
+		}
 		
-		String parameterFormatList = formatParameterList(config, config.getParameterConfiguration());
-		StringBuffer sb = new StringBuffer();
+		ParameterConfiguration parameters = config.getParameterConfiguration();
 		if(!config.getDescription().isEmpty()) {
-			sb.append(String.format("Description: %s%n", config.getDescription()));
+			out.append("Description: ").append(config.getDescription()).append(LINE_SEPARATOR);
 		}
 		
-		sb.append("Usage:");
-		boolean defaultCommandExist = (!config.getOptionConfiguration().isEmpty() || !config.getParameterConfiguration().isEmpty());
+		out.append("Usage:");
+		boolean defaultCommandExist = (!config.getOptionConfiguration().isEmpty() || !parameters.isEmpty());
 		if(defaultCommandExist){
-			sb.append(String.format("  %s [options] %s%n", config.getName(), parameterFormatList));
+			out.append("  ").append(config.getName()).append(" [options] ");
+			appendParameterList(out, parameters);
+			out.append(LINE_SEPARATOR);
 		}
 		if(defaultCommandExist && !config.getCommandConfiguration().isEmpty()) {
-			sb.append(String.format("   or   %s [command] [options] parameters...%n", config.getName()));
+			out.append("   or   ");
 		} else {
-			sb.append(String.format("  %s [command] [options] parameters...%n", config.getName()));
+			out.append("  ");
 		}
+		out.append(config.getName()).append(" [command] [options] parameters...").append(LINE_SEPARATOR);
 		
-		sb.append(formatOptionList(config, config.getOptionConfiguration(), formatType));
-		sb.append(formatCommands(config));
+		appendOptionList(out, config, config.getOptionConfiguration(), formatType);
+		appendCommands(out, config);
+	}
+	
+	@Override
+	public void formatTo(Appendable out, CommandLineConfiguration config, CommandMetadata commandMetadata, 
+			CommandLineFormatType formatType) throws IOException {
+		String text = getCachedText(config, getCacheKey(config, commandMetadata, formatType));
+		if(text!=null) {
+			out.append(text);
+			return;
+		}
+		HelpDocumentWriter documentWriter = documentWriters.get(formatType);
+		if(documentWriter!=null) {
+			documentWriter.write(out, config, commandMetadata);
+			return;
+		}
 		
-		return sb.toString();
+		if(!commandMetadata.getDescription().isEmpty()) {
+			out.append("Description: ").append(commandMetadata.getDescription()).append(LINE_SEPARATOR);
+		}
+		String commandPath = getCommandPath(config, commandMetadata);
+		out.append("Usage:    ").append(config.getName()).append(' ')
+			.append(commandPath).append(" [options] ");
+		appendParameterList(out, commandMetadata.getParameterConfigurations());
+		out.append(LINE_SEPARATOR);
+		appendOptionList(out, config, commandMetadata.getOptionConfigurations(), formatType);
+		CommandConfiguration subcommandConfig = getSubcommandConfiguration(config.getCommandConfiguration(), 
+				commandPath.split(" "));
+		if(subcommandConfig!=null) {
+			appendCommands(out, subcommandConfig, commandPath + " ");
+		}
+	}
+	
+	/**
+	 * Returns the words of a command, the identifiers of its parent commands then its 
+	 * identifier separated by a space.
+	 */
+	static String getCommandPath(CommandLineConfiguration config, CommandMetadata commandMetadata) {
+		String path = config.getCommandConfiguration().getCommandPath(commandMetadata);
+		return (path==null)?commandMetadata.getIdentifier():path;
+	}
+	
+	private static CommandConfiguration getSubcommandConfiguration(CommandConfiguration commandConfig, String[] path) {
+		for(int i = 0; commandConfig!=null && i < path.length; i++) {
+			commandConfig = commandConfig.getSubcommandConfiguration(path[i]);
+		}
+		return commandConfig;
+	}
+	
+	@Override
+	public void formatTo(Appendable out, CommandLineConfiguration config, InvalidInputException e) 
+			throws IOException {
+		out.append("Error: ").append(e.getMessage()).append(LINE_SEPARATOR);
+		if(!e.getSuggestions().isEmpty()) {
+			// suggestions replace the usage since the input is most likely a typo
+			out.append(LINE_SEPARATOR).append("Did you mean one of these?").append(LINE_SEPARATOR);
+			for(String suggestion : e.getSuggestions()) {
+				out.append("    ").append(suggestion).append(LINE_SEPARATOR);
+			}
+		} else if(e.isCommandError()) {
+			formatTo(out, config, e.getCommandMetadata(), CommandLineFormatType.SHORT);
+		} else {
+			formatTo(out, config, CommandLineFormatType.SHORT);
+		}
+	}
+	
+	private String getCachedText(CommandLineConfiguration config, String key) {
+		RenderedHelp renderedHelp = renderedHelpCache.get(config);
+		if(renderedHelp==null || !renderedHelp.isValid(config)) {
+			return null;
+		}
+		return renderedHelp.texts.get(key);
+	}
+	
+	private static String getCacheKey(CommandLineConfiguration config, CommandMetadata commandMetadata, 
+			CommandLineFormatType formatType) {
+		return formatType.name() + " " + getCommandPath(config, commandMetadata) 
+				+ " " + commandMetadata.getOptionConfigurations().getModificationCount()
+				+ " " + commandMetadata.getParameterConfigurations().getModificationCount();
+	}
+	
+	private void appendUnchecked(StringBuilder sb, CommandLineConfiguration config, CommandLineFormatType formatType) {
+		try {
+			formatTo(sb, config, formatType);
+		} catch (IOException e) {
+			// StringBuilder does not throw IOException
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private void appendUnchecked(StringBuilder sb, CommandLineConfiguration config, CommandMetadata commandMetadata, 
+			CommandLineFormatType formatType) {
+		try {
+			formatTo(sb, config, commandMetadata, formatType);
+		} catch (IOException e) {
+			// StringBuilder does not throw IOException
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private void appendUnchecked(StringBuilder sb, CommandLineConfiguration config, InvalidInputException e) {
+		try {
+			formatTo(sb, config, e);
+		} catch (IOException ioe) {
+			// StringBuilder does not throw IOException
+			throw new IllegalStateException(ioe);
+		}
 	}
 	
 	String formatOptionList(CommandLineConfiguration config, OptionConfiguration optionConfig, CommandLineFormatType formatType) { 
-		
-		StringBuffer sb = new StringBuffer();
-		List<OptionMetadata> optionMetaDataList = optionConfig.getOptions();
-		Map<String, OptionMetadata> optionFormatMap = new LinkedHashMap<String, OptionMetadata>();
-		Integer maxIdLength = 0;
-		for(OptionMetadata metadata : optionMetaDataList) {
-			String optionFormatStr = formatOption(metadata, config);
-			LOGGER.info("formatOption: " + optionFormatStr + "-->"+ metadata);
-			maxIdLength = Math.max(optionFormatStr.length(), maxIdLength);
-			optionFormatMap.put(optionFormatStr, metadata);
+		StringBuilder sb = new StringBuilder();
+		try {
+			appendOptionList(sb, config, optionConfig, formatType);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
 		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Appends the option list. Option column width is computed in a first pass which 
+	 * only counts the characters of each option so no option text is kept in memory.
+	 */
+	void appendOptionList(Appendable out, CommandLineConfiguration config, OptionConfiguration optionConfig, 
+			CommandLineFormatType formatType) throws IOException { 
 		
-		final String optionStrFormat = "    %-" + (maxIdLength + 5) + "s%s%n";
+		if(optionConfig.isEmpty()) {
+			return;
+		}
 		
-		if(!optionFormatMap.isEmpty()) {
-			sb.append(String.format("Options:%n"));
+		CharCounter counter = new CharCounter();
+		int maxIdLength = 0;
+		for(OptionMetadata metadata : optionConfig.values()) {
+			counter.count = 0;
+			appendOption(counter, metadata, config);
+			maxIdLength = Math.max(counter.count, maxIdLength);
 		}
 		
-		switch(formatType) {
-		case FULL:
-			for(Map.Entry<String,OptionMetadata> optionEntry : optionFormatMap.entrySet()) {
-				OptionMetadata metadata = optionEntry.getValue();
-				String desc = (metadata.getLongDescription().isEmpty())?metadata.getDescription():metadata.getLongDescription();
-				sb.append(String.format(optionStrFormat, optionEntry.getKey(), desc));
-			}
-			break;
-		case SHORT:
-		default:
-			for(Map.Entry<String,OptionMetadata> optionEntry : optionFormatMap.entrySet()) {
-				sb.append(String.format(optionStrFormat, optionEntry.getKey(), optionEntry.getValue().getDescription()));
+		out.append("Options:").append(LINE_SEPARATOR);
+		for(OptionMetadata metadata : optionConfig.values()) {
+			counter.count = 0;
+			out.append("    ");
+			appendOption(new TeeAppendable(out, counter), metadata, config);
+			appendPadding(out, maxIdLength + 5 - counter.count);
+			String desc = metadata.getDescription();
+			if(formatType==CommandLineFormatType.FULL && !metadata.getLongDescription().isEmpty()) {
+				desc = metadata.getLongDescription();
 			}
-			break;
+			out.append(desc).append(LINE_SEPARATOR);
 		}
-		
-		return sb.toString();
 	}
 	
 	String formatParameterList(CommandLineConfiguration config, ParameterConfiguration paramConfig) {
-		StringBuffer sb = new StringBuffer();
-		for(ParameterMetadata metadata: paramConfig.values()) {
-			sb.append(formatParameter(metadata));
+		StringBuilder sb = new StringBuilder();
+		try {
+			appendParameterList(sb, paramConfig);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
 		}
 		return sb.toString();
 	}
 	
+	void appendParameterList(Appendable out, ParameterConfiguration paramConfig) throws IOException {
+		for(ParameterMetadata metadata: paramConfig.values()) {
+			appendParameter(out, metadata);
+		}
+	}
+	
 	String formatParameter(ParameterMetadata metadata) {
-		String multipleSuffix = (metadata.isMultiValued())?"...":"";
-		if(metadata.isRequired()) {
-			return String.format("<%s>%s ", metadata.getIdentifier(), multipleSuffix);
-		} else {
-			return String.format("[%s]%s ", metadata.getIdentifier(), multipleSuffix);
+		StringBuilder sb = new StringBuilder();
+		try {
+			appendParameter(sb, metadata);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sb.toString();
+	}
+	
+	void appendParameter(Appendable out, ParameterMetadata metadata) throws IOException {
+		out.append(metadata.isRequired()?'<':'[').append(metadata.getIdentifier()).append(metadata.isRequired()?'>':']');
+		if(metadata.isMultiValued()) {
+			out.append("...");
 		}
+		out.append(' ');
 	}
 	
 	String formatOption(OptionMetadata metadata, CommandLineConfiguration config) {
-		String formattedOption = null;
-		if(metadata.isParameterAccepted()) {
-			boolean isParamRequired = (metadata.getParameterMetadata()!=null && metadata.getParameterMetadata().isRequired());
-			String paramDelim = StringUtil.formatDelimValue(config.getCommandLineProperties().getOptionParameterDelim());
-			String paramUsageStr = "";
-			if(metadata.getParameterMetadata()!=null && metadata.getParameterMetadata().getParameterType()!=ParameterType.NONE) {
-				String paramName =  "";
-				if(metadata.getParameterMetadata().getParameterType()==ParameterType.CUSTOM) {
-					paramName = metadata.getParameterMetadata().getIdentifier();
-				} else {
-					paramName = metadata.getParameterMetadata().getParameterType().name();
-				}
-				paramUsageStr = String.format((isParamRequired)?"%s<%s>":"[%s<%s>]", paramDelim, paramName);
-				if(metadata.isMultiValued()) {
-					paramUsageStr += "...";
-				}
-			}
-			String longIdentifier = metadata.getIdentifier(IdentifierType.LONG);
-			if(longIdentifier!=null && !longIdentifier.isEmpty()) {
-				formattedOption = String.format("%s%s, %s%s%s", 
-						config.getCommandLineProperties().getOptionPrefix(), 
-						metadata.getIdentifier(), 
-						config.getCommandLineProperties().getOptionLongPrefix(), 
-						metadata.getIdentifier(IdentifierType.LONG),
-						paramUsageStr);
+		StringBuilder sb = new StringBuilder();
+		try {
+			appendOption(sb, metadata, config);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sb.toString();
+	}
+	
+	void appendOption(Appendable out, OptionMetadata metadata, CommandLineConfiguration config) throws IOException {
+		CommandLineProperties properties = config.getCommandLineProperties();
+		out.append(properties.getOptionPrefix()).append(metadata.getIdentifier());
+		String longIdentifier = metadata.getIdentifier(IdentifierType.LONG);
+		if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+			out.append(", ").append(properties.getOptionLongPrefix()).append(longIdentifier);
+		}
+		if(metadata.isParameterAccepted() && metadata.getParameterMetadata()!=null 
+				&& metadata.getParameterMetadata().getParameterType()!=ParameterType.NONE) {
+			boolean isParamRequired = metadata.getParameterMetadata().isRequired();
+			String paramName;
+			if(metadata.getParameterMetadata().getParameterType()==ParameterType.CUSTOM) {
+				paramName = metadata.getParameterMetadata().getIdentifier();
 			} else {
-				formattedOption = String.format("%s%s%s", 
-						config.getCommandLineProperties().getOptionPrefix(), 
-						metadata.getIdentifier(), 
-						paramUsageStr);
+				paramName = metadata.getParameterMetadata().getParameterType().name();
 			}
-		} else {
-			String longIdentifier = metadata.getIdentifier(IdentifierType.LONG);
-			if(longIdentifier!=null && !longIdentifier.isEmpty()) {
-				formattedOption = String.format("%s%s, %s%s", 
-						config.getCommandLineProperties().getOptionPrefix(), 
-						metadata.getIdentifier(), 
-						config.getCommandLineProperties().getOptionLongPrefix(), 
-						metadata.getIdentifier(IdentifierType.LONG));
-			} else {
-				formattedOption = String.format("%s%s", 
-						config.getCommandLineProperties().getOptionPrefix(), 
-						metadata.getIdentifier());
+			if(!isParamRequired) {
+				out.append('[');
+			}
+			out.append(StringUtil.formatDelimValue(properties.getOptionParameterDelim()))
+				.append('<').append(paramName).append('>');
+			if(!isParamRequired) {
+				out.append(']');
+			}
+			if(metadata.isMultiValued()) {
+				out.append("...");
 			}
 		}
-		return formattedOption;
 	}
 	
 	String formatCommands(CommandLineConfiguration commandConfig) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			appendCommands(sb, commandConfig);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sb.toString();
+	}
+	
+	void appendCommands(Appendable out, CommandLineConfiguration commandConfig) throws IOException {
+		appendCommands(out, commandConfig.getCommandConfiguration(), "");
+	}
+	
+	/**
+	 * Appends the commands of a configuration and their subcommands, each preceded by the
+	 * words of its parent commands.
+	 */
+	private void appendCommands(Appendable out, CommandConfiguration commandConfig, String prefix) throws IOException {
 		
-		List<String> commands = new ArrayList<String>();
+		if(commandConfig.isEmpty()) {
+			return;
+		}
+		
+		int maxCmdLength = getMaxCommandLength(commandConfig, prefix.length());
+		out.append("Commands:").append(LINE_SEPARATOR);
+		appendCommandList(out, commandConfig, prefix, maxCmdLength);
+	}
+	
+	private static int getMaxCommandLength(CommandConfiguration commandConfig, int prefixLength) {
 		int maxCmdLength = 0;
-		for(CommandMetadata metadata: commandConfig.getCommandConfiguration().values()) {
-			commands.add(metadata.getIdentifier());
-			maxCmdLength = Math.max(maxCmdLength, metadata.getIdentifier().length());
+		for(CommandMetadata metadata: commandConfig.values()) {
+			int length = prefixLength + metadata.getIdentifier().length();
+			maxCmdLength = Math.max(maxCmdLength, length);
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(metadata.getIdentifier());
+			if(subcommandConfig!=null) {
+				maxCmdLength = Math.max(maxCmdLength, getMaxCommandLength(subcommandConfig, length + 1));
+			}
+		}
+		return maxCmdLength;
+	}
+	
+	private static void appendCommandList(Appendable out, CommandConfiguration commandConfig, String prefix, 
+			int maxCmdLength) throws IOException {
+		for(CommandMetadata metadata: commandConfig.values()) {
+			out.append("   ").append(prefix).append(metadata.getIdentifier());
+			appendPadding(out, maxCmdLength + 5 - prefix.length() - metadata.getIdentifier().length());
+			out.append(metadata.getDescription()).append(LINE_SEPARATOR);
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(metadata.getIdentifier());
+			if(subcommandConfig!=null) {
+				appendCommandList(out, subcommandConfig, prefix + metadata.getIdentifier() + " ", maxCmdLength);
+			}
+		}
+	}
+	
+	private static void appendPadding(Appendable out, int count) throws IOException {
+		while(count > 0) {
+			int length = Math.min(count, SPACES.length());
+			out.append(SPACES, 0, length);
+			count -= length;
+		}
+	}
+	
+	/**
+	 * Appendable counting the characters appended to it.
+	 */
+	private static class CharCounter implements Appendable {
+		
+		private int count;
+		
+		@Override
+		public Appendable append(CharSequence csq) {
+			count += String.valueOf(csq).length();
+			return this;
 		}
 		
-		final String cmdStrFormat = "   %-" + (maxCmdLength + 5) + "s%s%n";
-		StringBuffer sb = new StringBuffer();
-		if(!commands.isEmpty()) {
-			sb.append(String.format("Commands:%n"));
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			count += end - start;
+			return this;
 		}
-		for(String cmdStr : commands) {
-			sb.append(String.format(cmdStrFormat, cmdStr, commandConfig.getCommandMetadata(cmdStr).getDescription()));
+		
+		@Override
+		public Appendable append(char c) {
+			count++;
+			return this;
 		}
-		return sb.toString();
+		
 	}
 	
+	/**
+	 * Appendable writing to an appendable and counting the characters written.
+	 */
+	private static class TeeAppendable implements Appendable {
+		
+		private final Appendable out;
+		private final CharCounter counter;
+		
+		TeeAppendable(Appendable out, CharCounter counter) {
+			this.out = out;
+			this.counter = counter;
+		}
+		
+		@Override
+		public Appendable append(CharSequence csq) throws IOException {
+			out.append(csq);
+			counter.append(csq);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) throws IOException {
+			out.append(csq, start, end);
+			counter.append(csq, start, end);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(char c) throws IOException {
+			out.append(c);
+			counter.append(c);
+			return this;
+		}
+		
+	}
 	
 }
@@ -0,0 +1,159 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+
+/**
+ * This class writes the help documents of an application and of each of its commands 
+ * to a directory, e.g. to generate the manual pages or the Markdown documentation of
+ * an application. Documents are rendered in parallel and streamed to their file.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class HelpDocumentGenerator {
+	
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	private HelpDocumentGenerator() {
+	}
+	
+	/**
+	 * Returns the file name of the document of the application or of a command, e.g. 
+	 * app.md, app-list.md and app-remote-add.md for subcommand add of command remote.
+	 * 
+	 * @param config		command line configuration
+	 * @param command		command metadata or null for the application document
+	 * @param formatType	format type
+	 * @return String	file name
+	 */
+	public static String getFileName(CommandLineConfiguration config, CommandMetadata command, 
+			CommandLineFormatType formatType) {
+		return getDocumentName(config, command) + "." + formatType.getFileExtension();
+	}
+	
+	/**
+	 * Returns the name of the document of the application or of a command, the name of 
+	 * the application followed by the words of the command separated by '-'.
+	 */
+	static String getDocumentName(CommandLineConfiguration config, CommandMetadata command) {
+		if(command==null) {
+			return config.getName();
+		}
+		return config.getName() + "-" + DefaultCommandLineFormat.getCommandPath(config, command).replace(' ', '-');
+	}
+	
+	/**
+	 * Writes the documents of the application and of each command and subcommand to a 
+	 * directory.
+	 * 
+	 * @param config		command line configuration
+	 * @param formatType	format type
+	 * @param dir			target directory, created if it does not exist
+	 * @return List<File>	documents written, application document first
+	 * @throws IOException	thrown if a document cannot be written
+	 */
+	public static List<File> generate(final CommandLineConfiguration config, final CommandLineFormatType formatType, 
+			File dir) throws IOException {
+		
+		if(!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+		
+		final CommandLineFormat format = CommandLineFormat.getInstance();
+		List<Callable<File>> tasks = new ArrayList<Callable<File>>();
+		final File applicationFile = new File(dir, getFileName(config, null, formatType));
+		tasks.add(new Callable<File>() {
+			@Override
+			public File call() throws IOException {
+				Writer out = open(applicationFile);
+				try {
+					format.formatTo(out, config, formatType);
+				} finally {
+					out.close();
+				}
+				return applicationFile;
+			}
+		});
+		addCommandTasks(tasks, config, config.getCommandConfiguration(), formatType, dir);
+		
+		List<File> files = new ArrayList<File>(tasks.size());
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			for(Future<File> result : pool.invokeAll(tasks)) {
+				files.add(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Writing help documents interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Writing help documents failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return files;
+	}
+	
+	private static void addCommandTasks(List<Callable<File>> tasks, final CommandLineConfiguration config, 
+			CommandConfiguration commandConfig, final CommandLineFormatType formatType, File dir) {
+		final CommandLineFormat format = CommandLineFormat.getInstance();
+		for(final CommandMetadata command : commandConfig.values()) {
+			final File commandFile = new File(dir, getFileName(config, command, formatType));
+			tasks.add(new Callable<File>() {
+				@Override
+				public File call() throws IOException {
+					Writer out = open(commandFile);
+					try {
+						format.formatTo(out, config, command, formatType);
+					} finally {
+						out.close();
+					}
+					return commandFile;
+				}
+			});
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			if(subcommandConfig!=null) {
+				addCommandTasks(tasks, config, subcommandConfig, formatType, dir);
+			}
+		}
+	}
+	
+	private static Writer open(File file) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF8));
+	}
+	
+}
@@ -0,0 +1,128 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.io.IOException;
+
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadata.IdentifierType;
+
+/**
+ * This class writes the help of a configuration as a document, e.g. JSON, a manual
+ * page or Markdown. Documents are written directly to an appendable so a document of
+ * a large configuration is never held in memory.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+abstract class HelpDocumentWriter {
+	
+	protected static final String LINE_SEPARATOR = "\n";
+	
+	private final DefaultCommandLineFormat format;
+	
+	protected HelpDocumentWriter(DefaultCommandLineFormat format) {
+		this.format = format;
+	}
+	
+	/**
+	 * Returns the document writer of a format type.
+	 * 
+	 * @param formatType	format type
+	 * @param format		format used to write the option and parameter syntax
+	 * @return HelpDocumentWriter	writer or null if format type is plain text
+	 */
+	static HelpDocumentWriter getInstance(CommandLineFormatType formatType, DefaultCommandLineFormat format) {
+		switch(formatType) {
+		case JSON:
+			return new JsonHelpDocumentWriter(format);
+		case MAN:
+			return new ManHelpDocumentWriter(format);
+		case MARKDOWN:
+			return new MarkdownHelpDocumentWriter(format);
+		default:
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the document of the application, i.e. the default command and the list 
+	 * of commands.
+	 * 
+	 * @param out		appendable to write to
+	 * @param config	command line configuration
+	 * @throws IOException	thrown if the appendable fails
+	 */
+	abstract void write(Appendable out, CommandLineConfiguration config) throws IOException;
+	
+	/**
+	 * Writes the document of a command.
+	 * 
+	 * @param out		appendable to write to
+	 * @param config	command line configuration
+	 * @param command	command metadata
+	 * @throws IOException	thrown if the appendable fails
+	 */
+	abstract void write(Appendable out, CommandLineConfiguration config, CommandMetadata command) throws IOException;
+	
+	/**
+	 * Returns the option syntax, e.g. <code>-f, --file &lt;FILE&gt;</code>, as shown in the 
+	 * usage text.
+	 */
+	protected String getOptionSyntax(CommandLineConfiguration config, OptionMetadata option) {
+		return format.formatOption(option, config);
+	}
+	
+	/**
+	 * Returns the usage line of the application or of a command without the leading
+	 * "Usage:".
+	 */
+	protected String getUsage(CommandLineConfiguration config, CommandMetadata command) {
+		if(command==null) {
+			return config.getName() + " [options] " + format.formatParameterList(config, config.getParameterConfiguration());
+		}
+		return config.getName() + " " + getCommandPath(config, command) + " [options] " 
+				+ format.formatParameterList(config, command.getParameterConfigurations());
+	}
+	
+	/**
+	 * Returns the words of a command, the identifiers of its parent commands then its 
+	 * identifier separated by a space.
+	 */
+	protected static String getCommandPath(CommandLineConfiguration config, CommandMetadata command) {
+		return DefaultCommandLineFormat.getCommandPath(config, command);
+	}
+	
+	/**
+	 * Returns the long description of an input, or its description if it has none.
+	 */
+	protected static String getLongDescription(OptionMetadata option) {
+		String description = option.getLongDescription();
+		return (description==null || description.isEmpty())?option.getDescription():description;
+	}
+	
+	protected static String getLongIdentifier(OptionMetadata option) {
+		String longIdentifier = option.getIdentifier(IdentifierType.LONG);
+		return (longIdentifier==null || longIdentifier.isEmpty())?null:longIdentifier;
+	}
+	
+}
@@ -0,0 +1,189 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.io.IOException;
+
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.ParameterConfiguration;
+import org.jclif.type.ParameterMetadata;
+
+/**
+ * This class writes the help of a configuration as a JSON document. The application
+ * document has the name, description, options, parameters and commands of the application,
+ * a command document has the name, command, description, options and parameters of the 
+ * command. Subcommands are listed with the commands and are identified by their words, 
+ * e.g. "remote add".
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class JsonHelpDocumentWriter extends HelpDocumentWriter {
+	
+	JsonHelpDocumentWriter(DefaultCommandLineFormat format) {
+		super(format);
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config) throws IOException {
+		out.append('{').append(LINE_SEPARATOR);
+		appendField(out, "  ", "name", config.getName()).append(',').append(LINE_SEPARATOR);
+		appendField(out, "  ", "description", config.getDescription()).append(',').append(LINE_SEPARATOR);
+		appendField(out, "  ", "usage", getUsage(config, null).trim()).append(',').append(LINE_SEPARATOR);
+		appendOptions(out, "  ", config, config.getOptionConfiguration());
+		out.append(',').append(LINE_SEPARATOR);
+		appendParameters(out, "  ", config.getParameterConfiguration());
+		out.append(',').append(LINE_SEPARATOR);
+		out.append("  \"commands\": [");
+		boolean first = appendCommands(out, config, config.getCommandConfiguration(), true);
+		out.append(first?"":LINE_SEPARATOR + "  ").append(']').append(LINE_SEPARATOR);
+		out.append('}').append(LINE_SEPARATOR);
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config, CommandMetadata command) throws IOException {
+		out.append('{').append(LINE_SEPARATOR);
+		appendField(out, "  ", "name", config.getName()).append(',').append(LINE_SEPARATOR);
+		appendField(out, "  ", "command", getCommandPath(config, command)).append(',').append(LINE_SEPARATOR);
+		appendCommandBody(out, "  ", config, command);
+		out.append(LINE_SEPARATOR).append('}').append(LINE_SEPARATOR);
+	}
+	
+	/**
+	 * Appends the commands of a command configuration and their subcommands.
+	 * 
+	 * @return boolean	true if no command was appended before and by this call
+	 */
+	private boolean appendCommands(Appendable out, CommandLineConfiguration config, CommandConfiguration commandConfig,
+			boolean first) throws IOException {
+		for(CommandMetadata command : commandConfig.values()) {
+			out.append(first?"":",").append(LINE_SEPARATOR).append("    {").append(LINE_SEPARATOR);
+			appendCommand(out, "      ", config, command);
+			out.append(LINE_SEPARATOR).append("    }");
+			first = false;
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			if(subcommandConfig!=null) {
+				first = appendCommands(out, config, subcommandConfig, first);
+			}
+		}
+		return first;
+	}
+	
+	private void appendCommand(Appendable out, String indent, CommandLineConfiguration config, 
+			CommandMetadata command) throws IOException {
+		appendField(out, indent, "identifier", getCommandPath(config, command)).append(',').append(LINE_SEPARATOR);
+		appendCommandBody(out, indent, config, command);
+	}
+	
+	private void appendCommandBody(Appendable out, String indent, CommandLineConfiguration config, 
+			CommandMetadata command) throws IOException {
+		appendField(out, indent, "description", command.getDescription()).append(',').append(LINE_SEPARATOR);
+		appendField(out, indent, "usage", getUsage(config, command).trim()).append(',').append(LINE_SEPARATOR);
+		appendOptions(out, indent, config, command.getOptionConfigurations());
+		out.append(',').append(LINE_SEPARATOR);
+		appendParameters(out, indent, command.getParameterConfigurations());
+	}
+	
+	private void appendOptions(Appendable out, String indent, CommandLineConfiguration config, 
+			OptionConfiguration options) throws IOException {
+		out.append(indent).append("\"options\": [");
+		boolean first = true;
+		for(OptionMetadata option : options.values()) {
+			String itemIndent = indent + "    ";
+			out.append(first?"":",").append(LINE_SEPARATOR).append(indent).append("  {").append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "identifier", option.getIdentifier()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "longIdentifier", getLongIdentifier(option)).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "syntax", getOptionSyntax(config, option)).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "description", option.getDescription()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "longDescription", getLongDescription(option)).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "required", option.isRequired()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "multiValued", option.isMultiValued()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "parameterType", option.isParameterAccepted()
+					?option.getParameterMetadata().getParameterType().name():null);
+			out.append(LINE_SEPARATOR).append(indent).append("  }");
+			first = false;
+		}
+		out.append(first?"":LINE_SEPARATOR + indent).append(']');
+	}
+	
+	private void appendParameters(Appendable out, String indent, ParameterConfiguration parameters) 
+			throws IOException {
+		out.append(indent).append("\"parameters\": [");
+		boolean first = true;
+		for(ParameterMetadata parameter : parameters.values()) {
+			String itemIndent = indent + "    ";
+			out.append(first?"":",").append(LINE_SEPARATOR).append(indent).append("  {").append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "identifier", parameter.getIdentifier()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "description", parameter.getDescription()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "required", parameter.isRequired()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "multiValued", parameter.isMultiValued()).append(',').append(LINE_SEPARATOR);
+			appendField(out, itemIndent, "type", parameter.getParameterType().name());
+			out.append(LINE_SEPARATOR).append(indent).append("  }");
+			first = false;
+		}
+		out.append(first?"":LINE_SEPARATOR + indent).append(']');
+	}
+	
+	private static Appendable appendField(Appendable out, String indent, String name, boolean value) 
+			throws IOException {
+		return out.append(indent).append('"').append(name).append("\": ").append(String.valueOf(value));
+	}
+	
+	private static Appendable appendField(Appendable out, String indent, String name, String value) 
+			throws IOException {
+		out.append(indent).append('"').append(name).append("\": ");
+		if(value==null) {
+			return out.append("null");
+		}
+		out.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch(c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if(c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		return out.append('"');
+	}
+	
+}
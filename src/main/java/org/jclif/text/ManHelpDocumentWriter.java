@@ -0,0 +1,154 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.io.IOException;
+
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.ParameterConfiguration;
+import org.jclif.type.ParameterMetadata;
+
+/**
+ * This class writes the help of a configuration as a manual page in roff format. Page
+ * of a command is named after the application and the command words, e.g. app-list(1)
+ * and app-remote-add(1), as done by git.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class ManHelpDocumentWriter extends HelpDocumentWriter {
+	
+	ManHelpDocumentWriter(DefaultCommandLineFormat format) {
+		super(format);
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config) throws IOException {
+		appendHeader(out, config.getName(), config.getDescription(), getUsage(config, null));
+		appendOptions(out, config, config.getOptionConfiguration());
+		appendParameters(out, config.getParameterConfiguration());
+		if(!config.getCommandConfiguration().isEmpty()) {
+			out.append(".SH COMMANDS").append(LINE_SEPARATOR);
+			appendCommands(out, config, config.getCommandConfiguration());
+			out.append(".SH SEE ALSO").append(LINE_SEPARATOR);
+			appendSeeAlso(out, config, config.getCommandConfiguration(), true);
+			out.append(LINE_SEPARATOR);
+		}
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config, CommandMetadata command) throws IOException {
+		String path = getCommandPath(config, command);
+		appendHeader(out, HelpDocumentGenerator.getDocumentName(config, command), command.getDescription(), 
+				getUsage(config, command));
+		appendOptions(out, config, command.getOptionConfigurations());
+		appendParameters(out, command.getParameterConfigurations());
+		out.append(".SH SEE ALSO").append(LINE_SEPARATOR);
+		int index = path.lastIndexOf(' ');
+		String parentName = config.getName() + ((index < 0)?"":"-" + path.substring(0, index).replace(' ', '-'));
+		out.append(".BR ").append(escape(parentName)).append(" (1)").append(LINE_SEPARATOR);
+	}
+	
+	private void appendCommands(Appendable out, CommandLineConfiguration config, CommandConfiguration commandConfig) 
+			throws IOException {
+		for(CommandMetadata command : commandConfig.values()) {
+			out.append(".TP").append(LINE_SEPARATOR);
+			out.append(".B ").append(escape(getCommandPath(config, command))).append(LINE_SEPARATOR);
+			appendText(out, command.getDescription());
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			if(subcommandConfig!=null) {
+				appendCommands(out, config, subcommandConfig);
+			}
+		}
+	}
+	
+	private boolean appendSeeAlso(Appendable out, CommandLineConfiguration config, CommandConfiguration commandConfig, 
+			boolean first) throws IOException {
+		for(CommandMetadata command : commandConfig.values()) {
+			out.append(first?"":"," + LINE_SEPARATOR).append(".BR ")
+				.append(escape(HelpDocumentGenerator.getDocumentName(config, command))).append(" (1)");
+			first = false;
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			if(subcommandConfig!=null) {
+				first = appendSeeAlso(out, config, subcommandConfig, first);
+			}
+		}
+		return first;
+	}
+	
+	private void appendHeader(Appendable out, String name, String description, String usage) throws IOException {
+		out.append(".TH ").append(escape(name.toUpperCase())).append(" 1").append(LINE_SEPARATOR);
+		out.append(".SH NAME").append(LINE_SEPARATOR);
+		out.append(escape(name));
+		if(description!=null && !description.isEmpty()) {
+			out.append(" \\- ").append(escape(description));
+		}
+		out.append(LINE_SEPARATOR);
+		out.append(".SH SYNOPSIS").append(LINE_SEPARATOR);
+		appendText(out, usage.trim());
+	}
+	
+	private void appendOptions(Appendable out, CommandLineConfiguration config, OptionConfiguration options) 
+			throws IOException {
+		if(options.isEmpty()) {
+			return;
+		}
+		out.append(".SH OPTIONS").append(LINE_SEPARATOR);
+		for(OptionMetadata option : options.values()) {
+			out.append(".TP").append(LINE_SEPARATOR);
+			out.append(".B ").append(escape(getOptionSyntax(config, option))).append(LINE_SEPARATOR);
+			appendText(out, getLongDescription(option));
+		}
+	}
+	
+	private void appendParameters(Appendable out, ParameterConfiguration parameters) throws IOException {
+		if(parameters.isEmpty()) {
+			return;
+		}
+		out.append(".SH PARAMETERS").append(LINE_SEPARATOR);
+		for(ParameterMetadata parameter : parameters.values()) {
+			out.append(".TP").append(LINE_SEPARATOR);
+			out.append(".I ").append(escape(parameter.getIdentifier())).append(LINE_SEPARATOR);
+			appendText(out, parameter.getDescription());
+		}
+	}
+	
+	/**
+	 * Appends a paragraph, lines starting with a control character are escaped so they
+	 * are not read as requests.
+	 */
+	private static void appendText(Appendable out, String text) throws IOException {
+		for(String line : escape(text).split("\n")) {
+			if(line.startsWith(".") || line.startsWith("'")) {
+				out.append("\\&");
+			}
+			out.append(line).append(LINE_SEPARATOR);
+		}
+	}
+	
+	private static String escape(String text) {
+		return (text==null)?"":text.replace("\\", "\\e").replace("-", "\\-");
+	}
+	
+}
@@ -0,0 +1,138 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.text;
+
+import java.io.IOException;
+
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.ParameterConfiguration;
+import org.jclif.type.ParameterMetadata;
+
+/**
+ * This class writes the help of a configuration as a Markdown document. Commands of the
+ * application document link to the command documents written by {@link HelpDocumentGenerator}.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+class MarkdownHelpDocumentWriter extends HelpDocumentWriter {
+	
+	MarkdownHelpDocumentWriter(DefaultCommandLineFormat format) {
+		super(format);
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config) throws IOException {
+		appendHeader(out, config.getName(), config.getDescription(), getUsage(config, null));
+		appendOptions(out, config, config.getOptionConfiguration());
+		appendParameters(out, config.getParameterConfiguration());
+		if(!config.getCommandConfiguration().isEmpty()) {
+			out.append(LINE_SEPARATOR).append("## Commands").append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+			out.append("| Command | Description |").append(LINE_SEPARATOR);
+			out.append("| --- | --- |").append(LINE_SEPARATOR);
+			appendCommands(out, config, config.getCommandConfiguration());
+		}
+	}
+	
+	@Override
+	void write(Appendable out, CommandLineConfiguration config, CommandMetadata command) throws IOException {
+		appendHeader(out, config.getName() + " " + getCommandPath(config, command), command.getDescription(), 
+				getUsage(config, command));
+		appendOptions(out, config, command.getOptionConfigurations());
+		appendParameters(out, command.getParameterConfigurations());
+	}
+	
+	private void appendCommands(Appendable out, CommandLineConfiguration config, CommandConfiguration commandConfig) 
+			throws IOException {
+		for(CommandMetadata command : commandConfig.values()) {
+			out.append("| [`").append(getCommandPath(config, command)).append("`](")
+				.append(HelpDocumentGenerator.getFileName(config, command, CommandLineFormatType.MARKDOWN))
+				.append(") | ").append(escape(command.getDescription())).append(" |").append(LINE_SEPARATOR);
+			CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+			if(subcommandConfig!=null) {
+				appendCommands(out, config, subcommandConfig);
+			}
+		}
+	}
+	
+	private void appendHeader(Appendable out, String title, String description, String usage) throws IOException {
+		out.append("# ").append(escape(title)).append(LINE_SEPARATOR);
+		if(description!=null && !description.isEmpty()) {
+			out.append(LINE_SEPARATOR).append(escape(description)).append(LINE_SEPARATOR);
+		}
+		out.append(LINE_SEPARATOR).append("## Usage").append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+		out.append("```").append(LINE_SEPARATOR).append(usage.trim()).append(LINE_SEPARATOR)
+			.append("```").append(LINE_SEPARATOR);
+	}
+	
+	private void appendOptions(Appendable out, CommandLineConfiguration config, OptionConfiguration options) 
+			throws IOException {
+		if(options.isEmpty()) {
+			return;
+		}
+		out.append(LINE_SEPARATOR).append("## Options").append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+		out.append("| Option | Description |").append(LINE_SEPARATOR);
+		out.append("| --- | --- |").append(LINE_SEPARATOR);
+		for(OptionMetadata option : options.values()) {
+			out.append("| `").append(getOptionSyntax(config, option)).append("` | ")
+				.append(escape(getLongDescription(option))).append(" |").append(LINE_SEPARATOR);
+		}
+	}
+	
+	private void appendParameters(Appendable out, ParameterConfiguration parameters) throws IOException {
+		if(parameters.isEmpty()) {
+			return;
+		}
+		out.append(LINE_SEPARATOR).append("## Parameters").append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+		out.append("| Parameter | Description |").append(LINE_SEPARATOR);
+		out.append("| --- | --- |").append(LINE_SEPARATOR);
+		for(ParameterMetadata parameter : parameters.values()) {
+			out.append("| `").append(parameter.getIdentifier()).append("` | ")
+				.append(escape(parameter.getDescription())).append(" |").append(LINE_SEPARATOR);
+		}
+	}
+	
+	/**
+	 * Escapes the characters of a text which would end a table cell or start markup.
+	 */
+	private static String escape(String text) {
+		if(text==null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(text.length());
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c=='\n' || c=='\r') {
+				sb.append(' ');
+				continue;
+			}
+			if("\\`*_[]<>|#".indexOf(c) >= 0) {
+				sb.append('\\');
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+	
+}
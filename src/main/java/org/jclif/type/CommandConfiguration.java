@@ -20,11 +20,23 @@
 package org.jclif.type;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * This class is collection class used to register all the commands supported by 
  * a command line application. This class is backed by a LinkedHashMap<String,CommandMetadata>
  * and requires that only one instance of the same CommandMetadata exist in a collection.
+ * <p>
+ * Each command is assigned an ordinal when it is added. Ordinals are dense, starting from 0
+ * in the order the commands are added, and are not reused when a command is removed so
+ * they can be used as index of a table of command handlers.
+ * <p>
+ * A command may have subcommands, e.g. <code>remote add</code>. Subcommands of a command 
+ * are stored in a child configuration so the configurations form a trie of the command
+ * words which is walked one word at a time. Ordinals are assigned by the root 
+ * configuration so they are unique in the whole trie.
  * 
  * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
  *
@@ -36,15 +48,189 @@ public class CommandConfiguration extends Configuration<CommandMetadata> {
 	 */
 	private static final long serialVersionUID = 7791557861511435195L;
 
+	private final Map<String, Integer> ordinals = new HashMap<String, Integer>();
+	private final Map<String, CommandConfiguration> subcommands = new HashMap<String, CommandConfiguration>();
+	private final CommandConfiguration root;
+	private final String parentPath;
+	private final Map<CommandMetadata, String> commandPaths;
+	private int nextOrdinal;
+
 	public CommandConfiguration() {
-		super("command", "Command configuration");		
+		this(null, "");
+	}
+	
+	private CommandConfiguration(CommandConfiguration root, String parentPath) {
+		super("command", "Command configuration");
+		this.root = (root==null)?this:root;
+		this.parentPath = parentPath;
+		this.commandPaths = (root==null)?new IdentityHashMap<CommandMetadata, String>():root.commandPaths;
 	}
 
+	/**
+	 * Returns a mutable copy of this configuration. Commands keep their ordinal in the 
+	 * copy and command metadata are shared with this configuration. Subcommand 
+	 * configurations are copied.
+	 * 
+	 * @return CommandConfiguration	copy of this configuration
+	 */
+	public CommandConfiguration copy() {
+		return copy(null);
+	}
+	
+	private CommandConfiguration copy(CommandConfiguration copyRoot) {
+		CommandConfiguration copy = new CommandConfiguration(copyRoot, parentPath);
+		copy.copyFrom(this);
+		for(CommandMetadata metadata : values()) {
+			copy.commandPaths.put(metadata, parentPath + metadata.getIdentifier());
+		}
+		copy.ordinals.putAll(ordinals);
+		copy.nextOrdinal = root.nextOrdinal;
+		for(Map.Entry<String, CommandConfiguration> entry : subcommands.entrySet()) {
+			copy.subcommands.put(entry.getKey(), entry.getValue().copy(copy.root));
+		}
+		return copy;
+	}
+	
+	/**
+	 * Adds a subcommand to a command of this configuration.
+	 * 
+	 * @param identifier	identifier of the parent command
+	 * @param metadata		subcommand metadata
+	 * @return CommandConfiguration	this configuration
+	 * @throws InvalidIdentifierException thrown if parent command does not exist or 
+	 * 		subcommand identifier is invalid
+	 */
+	public CommandConfiguration addSubcommand(String identifier, CommandMetadata metadata) {
+		createSubcommandConfiguration(identifier).addCommand(metadata);
+		return this;
+	}
+	
+	/**
+	 * Returns the subcommands of a command of this configuration.
+	 * 
+	 * @param identifier	command identifier
+	 * @return CommandConfiguration	subcommand configuration or null if the command has 
+	 * 		no subcommand
+	 */
+	public CommandConfiguration getSubcommandConfiguration(String identifier) {
+		return subcommands.get(identifier);
+	}
+	
+	CommandConfiguration createSubcommandConfiguration(String identifier) {
+		checkNotFrozen();
+		if(!containsKey(identifier)) {
+			throw new InvalidIdentifierException(getId() + " identifer '" + identifier + "' does not exist.");
+		}
+		CommandConfiguration subcommandConfig = subcommands.get(identifier);
+		if(subcommandConfig==null) {
+			subcommandConfig = new CommandConfiguration(root, parentPath + identifier + " ");
+			subcommands.put(identifier, subcommandConfig);
+		}
+		return subcommandConfig;
+	}
+	
+	/**
+	 * Makes this configuration and its subcommand configurations immutable.
+	 */
+	@Override
+	public void freeze() {
+		for(CommandConfiguration subcommandConfig : subcommands.values()) {
+			subcommandConfig.freeze();
+		}
+		super.freeze();
+	}
+	
+	/**
+	 * Returns the modification count of this configuration and its subcommand configurations.
+	 */
+	@Override
+	public int getModificationCount() {
+		int count = super.getModificationCount();
+		for(CommandConfiguration subcommandConfig : subcommands.values()) {
+			count += subcommandConfig.getModificationCount();
+		}
+		return count;
+	}
+	
 	public CommandConfiguration addCommand(CommandMetadata metadata) {
 		add(metadata);
 		return this;
 	}
 	
+	@Override
+	public CommandMetadata add(CommandMetadata metadata) {
+		CommandMetadata previous = super.add(metadata);
+		ordinals.put(metadata.getIdentifier(), root.nextOrdinal++);
+		if(previous!=null) {
+			commandPaths.remove(previous);
+		}
+		commandPaths.put(metadata, parentPath + metadata.getIdentifier());
+		return previous;
+	}
+	
+	@Override
+	void addCompiled(CommandMetadata metadata) {
+		super.addCompiled(metadata);
+		ordinals.put(metadata.getIdentifier(), root.nextOrdinal++);
+		commandPaths.put(metadata, parentPath + metadata.getIdentifier());
+	}
+	
+	@Override
+	public CommandMetadata remove(Object identifier) {
+		checkNotFrozen();
+		ordinals.remove(identifier);
+		CommandConfiguration subcommandConfig = subcommands.remove(identifier);
+		if(subcommandConfig!=null) {
+			subcommandConfig.removeCommandPaths();
+		}
+		CommandMetadata metadata = super.remove(identifier);
+		if(metadata!=null) {
+			commandPaths.remove(metadata);
+		}
+		return metadata;
+	}
+	
+	@Override
+	public void clear() {
+		checkNotFrozen();
+		removeCommandPaths();
+		ordinals.clear();
+		subcommands.clear();
+		super.clear();
+	}
+	
+	private void removeCommandPaths() {
+		for(CommandMetadata metadata : values()) {
+			commandPaths.remove(metadata);
+		}
+		for(CommandConfiguration subcommandConfig : subcommands.values()) {
+			subcommandConfig.removeCommandPaths();
+		}
+	}
+	
+	/**
+	 * Returns the words of a command of this configuration or of a subcommand configuration
+	 * of its root configuration, the identifiers of its parent commands then its identifier 
+	 * separated by a space. Path is stored when the command is added.
+	 * 
+	 * @param metadata	command metadata
+	 * @return String	command path or null if command is not in the configuration
+	 */
+	public String getCommandPath(CommandMetadata metadata) {
+		return commandPaths.get(metadata);
+	}
+	
+	/**
+	 * Returns the ordinal assigned to a command when it was added.
+	 * 
+	 * @param identifier	command identifier
+	 * @return int	command ordinal or -1 if command does not exist
+	 */
+	public int getOrdinal(String identifier) {
+		Integer ordinal = ordinals.get(identifier);
+		return (ordinal==null)?-1:ordinal.intValue();
+	}
+	
 	public CommandConfiguration addCommand(String keyword, OptionConfiguration optionConfiguration, String description) {
 		CommandMetadata metadata = new CommandMetadataImpl( keyword, optionConfiguration, description, null);
 		addCommand(metadata);
@@ -30,4 +30,12 @@ public interface CommandInput extends Input {
 	
 	public String getIdentifier();
 	
+	/**
+	 * Returns the ordinal of the command in the command configuration.
+	 * 
+	 * @return int	command ordinal or -1 if ordinal is unknown
+	 * @see CommandConfiguration#getOrdinal(String)
+	 */
+	public int getOrdinal();
+	
 }
@@ -29,16 +29,26 @@ public class CommandInputImpl implements CommandInput {
 
 	private String command;
 	private CommandMetadata metadata;
+	private int ordinal;
 	
 	public CommandInputImpl(String command, CommandMetadata metadata) {
+		this(command, metadata, -1);
+	}
+	
+	public CommandInputImpl(String command, CommandMetadata metadata, int ordinal) {
 		this.command = command;
 		this.metadata = metadata;
+		this.ordinal = ordinal;
 	}
 	
 	public String getIdentifier() {
 		return this.command;
 	}
 	
+	public int getOrdinal() {
+		return ordinal;
+	}
+	
 	@Override
 	public InputMetadata getMetadata() {
 		return metadata;
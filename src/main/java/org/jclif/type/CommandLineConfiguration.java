@@ -45,6 +45,8 @@ public class CommandLineConfiguration {
 	private ParameterConfiguration parameterConfiguration = new ParameterConfiguration();
 	private CommandConfiguration commandConfiguration = new CommandConfiguration();
 	private CommandLineProperties commandLineProperties = null;
+	private int modificationCount;
+	private volatile boolean frozen;
 	
 	/**
 	 * Creates a new command line configuration using systems default command line properties.
@@ -101,7 +103,9 @@ public class CommandLineConfiguration {
 	 * @param name		name of console based application
 	 */
 	public void setName(String name) {
+		checkNotFrozen();
 		this.name = name;
+		modificationCount++;
 	}
 	
 	/**
@@ -137,7 +141,9 @@ public class CommandLineConfiguration {
 	 * @param commandLineProperties	command line properties
 	 */
 	public void setCommandLineProperties(CommandLineProperties commandLineProperties) {
+		checkNotFrozen();
 		this.commandLineProperties =  (CommandLineProperties) commandLineProperties.clone();
+		modificationCount++;
 	}
 
 	/**
@@ -158,6 +164,58 @@ public class CommandLineConfiguration {
 		return commandConfiguration;
 	}
 	
+	/**
+	 * Makes this configuration immutable, including its command line properties, options,
+	 * parameters and commands. Options and parameters of a command belong to its metadata
+	 * and are not frozen, they are not loaded until needed by a lazily loaded command. A
+	 * frozen configuration is a snapshot which several threads parse with, without locking.
+	 * To change a frozen configuration, change a {@link #copy()} of it then publish the 
+	 * copy once frozen, e.g. through a volatile field.
+	 */
+	public void freeze() {
+		commandLineProperties.freeze();
+		optionConfiguration.freeze();
+		parameterConfiguration.freeze();
+		commandConfiguration.freeze();
+		frozen = true;
+	}
+	
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
+	/**
+	 * Returns a mutable copy of this configuration. Copy is shallow, metadata of the
+	 * options, parameters and commands are shared with this configuration.
+	 * 
+	 * @return CommandLineConfiguration	copy of this configuration
+	 */
+	public CommandLineConfiguration copy() {
+		CommandLineConfiguration copy = new CommandLineConfiguration(name, description, commandLineProperties);
+		copy.optionConfiguration = optionConfiguration.copy();
+		copy.parameterConfiguration = parameterConfiguration.copy();
+		copy.commandConfiguration = commandConfiguration.copy();
+		return copy;
+	}
+	
+	private void checkNotFrozen() {
+		if(frozen) {
+			throw new UnsupportedOperationException("Command line configuration " + name + " is frozen.");
+		}
+	}
+	
+	/**
+	 * Returns a count which changes whenever the name or command line properties of this
+	 * configuration are set or an option, parameter or command is added or removed. 
+	 * 
+	 * @return long	modification count
+	 */
+	public long getModificationCount() {
+		return (long) modificationCount + optionConfiguration.getModificationCount() 
+				+ parameterConfiguration.getModificationCount() 
+				+ commandConfiguration.getModificationCount();
+	}
+	
 	/**
 	 * Returns the option metadata.
 	 * 
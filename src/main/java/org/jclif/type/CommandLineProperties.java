@@ -73,6 +73,9 @@ public class CommandLineProperties implements Cloneable {
 	private String optionPrefix;
 	private String optionLongPrefix;
 	private String optionParameterDelim;
+	private boolean optionBundling;
+	private boolean optionAbbreviation;
+	private volatile boolean frozen;
 	
 	/**
 	 * Creates a new instance of command line properties. 
@@ -125,6 +128,7 @@ public class CommandLineProperties implements Cloneable {
 	 * @param optionPrefix delimiter string
 	 */
 	public void setOptionPrefix(String optionPrefix) {
+		checkNotFrozen();
 		this.optionPrefix = optionPrefix;
 	}
 
@@ -143,6 +147,7 @@ public class CommandLineProperties implements Cloneable {
 	 * @param optionLongPrefix delimiter string
 	 */
 	public void setOptionLongPrefix(String optionLongPrefix) {
+		checkNotFrozen();
 		this.optionLongPrefix = optionLongPrefix;
 	}
 
@@ -161,12 +166,76 @@ public class CommandLineProperties implements Cloneable {
 	 * @param optionParameterDelim delimiter string
 	 */
 	public void setOptionParameterDelim(String optionParameterDelim) {
+		checkNotFrozen();
 		this.optionParameterDelim = optionParameterDelim;
 	}
 	
+	/**
+	 * Returns true if short options can be bundled and take attached values, e.g. 
+	 * <code>-abc</code> for <code>-a -b -c</code> and <code>-ofile</code> for 
+	 * <code>-o file</code>.
+	 * 
+	 * @return boolean true if option bundling is enabled
+	 */
+	public boolean isOptionBundling() {
+		return optionBundling;
+	}
+
+	/**
+	 * Enables bundling of short options. Bundling is disabled by default, a short option 
+	 * prefix followed by a long option identifier is then an invalid option. Bundling is
+	 * ignored if the short and long option prefix are the same.
+	 * 
+	 * @param optionBundling true to enable option bundling
+	 */
+	public void setOptionBundling(boolean optionBundling) {
+		checkNotFrozen();
+		this.optionBundling = optionBundling;
+	}
+	
+	/**
+	 * Returns true if long options can be abbreviated, e.g. <code>--verb</code> for 
+	 * <code>--verbose</code>.
+	 * 
+	 * @return boolean true if option abbreviation is enabled
+	 */
+	public boolean isOptionAbbreviation() {
+		return optionAbbreviation;
+	}
+
+	/**
+	 * Enables abbreviation of long options. An abbreviation is accepted if no other long
+	 * option starts with it, an abbreviation shared by several long options is an invalid
+	 * option. Abbreviation is disabled by default.
+	 * 
+	 * @param optionAbbreviation true to enable option abbreviation
+	 */
+	public void setOptionAbbreviation(boolean optionAbbreviation) {
+		checkNotFrozen();
+		this.optionAbbreviation = optionAbbreviation;
+	}
+	
+	/**
+	 * Makes these properties immutable, see {@link CommandLineConfiguration#freeze()}.
+	 * A clone of frozen properties is not frozen.
+	 */
+	void freeze() {
+		frozen = true;
+	}
+	
+	private void checkNotFrozen() {
+		if(frozen) {
+			throw new UnsupportedOperationException("Command line properties are frozen.");
+		}
+	}
+	
 	@Override
 	public Object clone() {
-		return new CommandLineProperties(this.getOptionPrefix(), this.getOptionLongPrefix(), this.getOptionParameterDelim());
+		CommandLineProperties properties = new CommandLineProperties(this.getOptionPrefix(), 
+				this.getOptionLongPrefix(), this.getOptionParameterDelim());
+		properties.optionBundling = this.optionBundling;
+		properties.optionAbbreviation = this.optionAbbreviation;
+		return properties;
 	}
 	
 }
@@ -32,4 +32,12 @@ public interface CommandMetadata extends InputMetadata {
 	public OptionConfiguration getOptionConfigurations();
 	public ParameterConfiguration getParameterConfigurations();
 	
+	/**
+	 * Returns the identifier of the option or parameter used to partition concurrent
+	 * executions of the command.
+	 * 
+	 * @return String partition key identifier or null if command is not partitioned
+	 */
+	public String getPartitionKey();
+	
 }
@@ -33,6 +33,7 @@ public class CommandMetadataImpl extends InputMetadataImpl implements CommandMet
 
 	private OptionConfiguration optionConfiguration;
 	private ParameterConfiguration parameterConfiguration = new ParameterConfiguration();
+	private String partitionKey;
 	
 	public CommandMetadataImpl(String keyword, OptionConfiguration optionConfiguration, ParameterConfiguration parameterConfiguration, 
 			String description, String longDescription) {
@@ -69,6 +70,21 @@ public class CommandMetadataImpl extends InputMetadataImpl implements CommandMet
 		return parameterConfiguration;
 	}
 
+	@Override
+	public String getPartitionKey() {
+		return partitionKey;
+	}
+	
+	/**
+	 * Sets the identifier of the option or parameter used to partition concurrent executions
+	 * of the command.
+	 * 
+	 * @param partitionKey	option or parameter identifier, null or empty if not partitioned
+	 */
+	public void setPartitionKey(String partitionKey) {
+		this.partitionKey = (partitionKey==null || partitionKey.isEmpty())?null:partitionKey;
+	}
+
 	@Override
 	public boolean isMultiValued() {
 		return false;
@@ -0,0 +1,750 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.type;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.ParameterType;
+
+/**
+ * This class is a compiled command line configuration stored in a compact binary format
+ * which is read through a memory mapped buffer. Commands, options and parameters are 
+ * fixed size records of tables indexed by offset and their strings are stored once in
+ * a string table, so metadata are flyweight views which read the buffer when a property
+ * is needed. Loading a compiled configuration only creates a view per command and reads
+ * its identifier, options and parameters of a command are read when first needed, i.e.
+ * when the command is parsed or its help is printed. Several JVMs mapping the same file 
+ * share its pages in the page cache.
+ * <p>
+ * File format, all values are big endian 32 bit integers: a header of magic number, 
+ * version, the string index of the name, description, option prefix, option long prefix,
+ * option parameter delimiter and default handler class name, the range of root options 
+ * and root parameters, the count and offset of the command, option, parameter and string
+ * tables, the range of root commands, then the command line flags. A command record is 
+ * the string index of its identifier, description, long description, partition key and 
+ * handler class name, flags, then its range of options, of parameters and of subcommands.
+ * An option record is the string index of its identifier, long identifier, description 
+ * and long description, flags, the index of its parameter and the string index of its
+ * environment variable and system property. A parameter record is the string index of 
+ * its identifier, description, long description and validator class name, its type and
+ * flags. String table is the offset of each string followed by the UTF-8 bytes of the 
+ * strings. String index -1 is null.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class CompiledConfiguration {
+	
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	private static final int MAGIC = 0x4A434C43;
+	private static final int VERSION = 4;
+	
+	private static final int FLAG_REQUIRED = 1;
+	private static final int FLAG_MULTI_VALUED = 2;
+	private static final int FLAG_OPTION_BUNDLING = 1;
+	private static final int FLAG_OPTION_ABBREVIATION = 2;
+	
+	private static final int HEADER_NAME = 8;
+	private static final int HEADER_DESCRIPTION = 12;
+	private static final int HEADER_OPTION_PREFIX = 16;
+	private static final int HEADER_OPTION_LONG_PREFIX = 20;
+	private static final int HEADER_OPTION_PARAMETER_DELIM = 24;
+	private static final int HEADER_DEFAULT_HANDLER = 28;
+	private static final int HEADER_ROOT_OPTIONS = 32;
+	private static final int HEADER_ROOT_PARAMETERS = 40;
+	private static final int HEADER_COMMANDS = 48;
+	private static final int HEADER_OPTIONS = 56;
+	private static final int HEADER_PARAMETERS = 64;
+	private static final int HEADER_STRINGS = 72;
+	private static final int HEADER_ROOT_COMMANDS = 80;
+	private static final int HEADER_FLAGS = 88;
+	private static final int HEADER_SIZE = 92;
+	
+	private static final int COMMAND_IDENTIFIER = 0;
+	private static final int COMMAND_DESCRIPTION = 4;
+	private static final int COMMAND_LONG_DESCRIPTION = 8;
+	private static final int COMMAND_PARTITION_KEY = 12;
+	private static final int COMMAND_HANDLER = 16;
+	private static final int COMMAND_FLAGS = 20;
+	private static final int COMMAND_OPTIONS = 24;
+	private static final int COMMAND_PARAMETERS = 32;
+	private static final int COMMAND_SUBCOMMANDS = 40;
+	private static final int COMMAND_SIZE = 48;
+	
+	private static final int OPTION_IDENTIFIER = 0;
+	private static final int OPTION_LONG_IDENTIFIER = 4;
+	private static final int OPTION_DESCRIPTION = 8;
+	private static final int OPTION_LONG_DESCRIPTION = 12;
+	private static final int OPTION_FLAGS = 16;
+	private static final int OPTION_PARAMETER = 20;
+	private static final int OPTION_ENVIRONMENT_VARIABLE = 24;
+	private static final int OPTION_SYSTEM_PROPERTY = 28;
+	private static final int OPTION_SIZE = 32;
+	
+	private static final int PARAMETER_IDENTIFIER = 0;
+	private static final int PARAMETER_DESCRIPTION = 4;
+	private static final int PARAMETER_LONG_DESCRIPTION = 8;
+	private static final int PARAMETER_VALIDATOR = 12;
+	private static final int PARAMETER_TYPE = 16;
+	private static final int PARAMETER_FLAGS = 20;
+	private static final int PARAMETER_SIZE = 24;
+	
+	private static final ParameterType[] PARAMETER_TYPES = ParameterType.values();
+	
+	private final ByteBuffer buffer;
+	private final int commandTable;
+	private final int optionTable;
+	private final int parameterTable;
+	private final int stringCount;
+	private final int stringTable;
+	private final int stringData;
+	private volatile ClassLoader classLoader;
+	
+	private CompiledConfiguration(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Invalid compiled configuration");
+		}
+		this.commandTable = buffer.getInt(HEADER_COMMANDS + 4);
+		this.optionTable = buffer.getInt(HEADER_OPTIONS + 4);
+		this.parameterTable = buffer.getInt(HEADER_PARAMETERS + 4);
+		this.stringCount = buffer.getInt(HEADER_STRINGS);
+		this.stringTable = buffer.getInt(HEADER_STRINGS + 4);
+		this.stringData = stringTable + 4 * (stringCount + 1);
+		if(stringData + buffer.getInt(stringTable + 4 * stringCount) > buffer.limit()) {
+			throw new IOException("Compiled configuration is truncated");
+		}
+	}
+	
+	/**
+	 * Maps a compiled configuration file to memory. File is mapped read only and is not
+	 * kept open, the mapping remains valid until the configuration is garbage collected.
+	 * 
+	 * @param file	compiled configuration file
+	 * @return CompiledConfiguration	compiled configuration
+	 * @throws IOException	thrown if the file cannot be mapped or is not a valid compiled configuration
+	 */
+	public static CompiledConfiguration map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			return new CompiledConfiguration(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Reads a compiled configuration from a buffer. Buffer must not be modified afterwards.
+	 * 
+	 * @param buffer	buffer of compiled configuration
+	 * @return CompiledConfiguration	compiled configuration
+	 * @throws IOException	thrown if buffer is not a valid compiled configuration
+	 */
+	public static CompiledConfiguration wrap(ByteBuffer buffer) throws IOException {
+		return new CompiledConfiguration(buffer.duplicate());
+	}
+	
+	/**
+	 * Sets the class loader of the parameter validator classes, e.g. a class loader of 
+	 * plugin jars. Defaults to the class loader of this class.
+	 * 
+	 * @param classLoader	class loader of parameter validator classes
+	 */
+	public void setClassLoader(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+	
+	public ClassLoader getClassLoader() {
+		return (classLoader==null)?CompiledConfiguration.class.getClassLoader():classLoader;
+	}
+	
+	/**
+	 * Returns a new command line configuration whose options, parameters and commands are
+	 * views of this compiled configuration. Identifiers are not validated again, they 
+	 * were validated when the configuration was compiled.
+	 * 
+	 * @return CommandLineConfiguration	command line configuration
+	 */
+	public CommandLineConfiguration getConfiguration() {
+		CommandLineProperties properties = new CommandLineProperties(getString(buffer.getInt(HEADER_OPTION_PREFIX)),
+				getString(buffer.getInt(HEADER_OPTION_LONG_PREFIX)), 
+				getString(buffer.getInt(HEADER_OPTION_PARAMETER_DELIM)));
+		int flags = buffer.getInt(HEADER_FLAGS);
+		properties.setOptionBundling((flags & FLAG_OPTION_BUNDLING) != 0);
+		properties.setOptionAbbreviation((flags & FLAG_OPTION_ABBREVIATION) != 0);
+		CommandLineConfiguration config = new CommandLineConfiguration(
+				getString(buffer.getInt(HEADER_NAME)), 
+				getString(buffer.getInt(HEADER_DESCRIPTION)), 
+				properties);
+		addOptions(config.getOptionConfiguration(), HEADER_ROOT_OPTIONS);
+		addParameters(config.getParameterConfiguration(), HEADER_ROOT_PARAMETERS);
+		addCommands(config.getCommandConfiguration(), HEADER_ROOT_COMMANDS);
+		return config;
+	}
+	
+	private void addCommands(CommandConfiguration commandConfig, int rangeOffset) {
+		int start = buffer.getInt(rangeOffset);
+		int count = buffer.getInt(rangeOffset + 4);
+		for(int i = start; i < start + count; i++) {
+			int offset = commandTable + i * COMMAND_SIZE;
+			String identifier = getString(buffer.getInt(offset + COMMAND_IDENTIFIER));
+			commandConfig.addCompiled(new CompiledCommandMetadata(this, offset, identifier));
+			if(buffer.getInt(offset + COMMAND_SUBCOMMANDS + 4) > 0) {
+				addCommands(commandConfig.createSubcommandConfiguration(identifier), offset + COMMAND_SUBCOMMANDS);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of commands, including subcommands.
+	 * 
+	 * @return int	command count
+	 */
+	public int getCommandCount() {
+		return buffer.getInt(HEADER_COMMANDS);
+	}
+	
+	/**
+	 * Returns the handler class name of a command of a configuration returned by 
+	 * {@link #getConfiguration()}.
+	 * 
+	 * @param metadata	command metadata
+	 * @return String	handler class name or null if command has no handler or is not a 
+	 * 		command of this compiled configuration
+	 */
+	public String getHandlerClassName(CommandMetadata metadata) {
+		if(!(metadata instanceof CompiledCommandMetadata) 
+				|| ((CompiledCommandMetadata) metadata).compiled != this) {
+			return null;
+		}
+		return getString(buffer.getInt(((CompiledCommandMetadata) metadata).offset + COMMAND_HANDLER));
+	}
+	
+	/**
+	 * Returns the class name of the handler of the root options and parameters.
+	 * 
+	 * @return String	default handler class name or null if there is no default handler
+	 */
+	public String getDefaultHandlerClassName() {
+		return getString(buffer.getInt(HEADER_DEFAULT_HANDLER));
+	}
+	
+	private void addOptions(OptionConfiguration optionConfig, int rangeOffset) {
+		int start = buffer.getInt(rangeOffset);
+		int count = buffer.getInt(rangeOffset + 4);
+		for(int i = start; i < start + count; i++) {
+			int offset = optionTable + i * OPTION_SIZE;
+			optionConfig.addCompiled(new CompiledOptionMetadata(this, offset, 
+					getString(buffer.getInt(offset + OPTION_IDENTIFIER)),
+					getString(buffer.getInt(offset + OPTION_LONG_IDENTIFIER))));
+		}
+	}
+	
+	private void addParameters(ParameterConfiguration parameterConfig, int rangeOffset) {
+		int start = buffer.getInt(rangeOffset);
+		int count = buffer.getInt(rangeOffset + 4);
+		for(int i = start; i < start + count; i++) {
+			parameterConfig.addCompiled(getParameter(i));
+		}
+	}
+	
+	private CompiledParameterMetadata getParameter(int index) {
+		int offset = parameterTable + index * PARAMETER_SIZE;
+		return new CompiledParameterMetadata(this, offset, getString(buffer.getInt(offset + PARAMETER_IDENTIFIER)));
+	}
+	
+	/**
+	 * Returns a string of the string table.
+	 * 
+	 * @param index	string index
+	 * @return String	string or null if index is -1
+	 */
+	String getString(int index) {
+		if(index < 0) {
+			return null;
+		}
+		if(index >= stringCount) {
+			throw new IllegalStateException("Invalid string index " + index);
+		}
+		int start = buffer.getInt(stringTable + 4 * index);
+		int end = buffer.getInt(stringTable + 4 * (index + 1));
+		byte[] bytes = new byte[end - start];
+		// duplicate so concurrent readers do not share the buffer position
+		ByteBuffer data = buffer.duplicate();
+		data.position(stringData + start);
+		data.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+	
+	private static boolean hasFlag(int flags, int flag) {
+		return (flags & flag) != 0;
+	}
+	
+	private static int getFlags(InputMetadata metadata) {
+		return (metadata.isRequired()?FLAG_REQUIRED:0) | (metadata.isMultiValued()?FLAG_MULTI_VALUED:0);
+	}
+	
+	/**
+	 * Writes a compiled configuration file. The file is written to a temporary file which 
+	 * is then moved to the compiled configuration file so a concurrent reader never maps a
+	 * partial file.
+	 * 
+	 * @param config				command line configuration
+	 * @param handlerClassNames		handler class names keyed by command identifier, the key
+	 * 		of a subcommand is its parent command identifiers and its identifier separated by
+	 * 		a space, e.g. "remote add". Handler of the root options is keyed by 
+	 * 		{@link Command#DEFAULT_COMMAND_IDENTIFIER}
+	 * @param file					compiled configuration file
+	 * @throws IOException	thrown if the file cannot be written
+	 */
+	public static void write(CommandLineConfiguration config, Map<String, String> handlerClassNames, 
+			File file) throws IOException {
+		
+		RecordWriter writer = new RecordWriter();
+		CommandLineProperties properties = config.getCommandLineProperties();
+		int[] header = new int[HEADER_SIZE / 4];
+		header[0] = MAGIC;
+		header[1] = VERSION;
+		header[HEADER_NAME / 4] = writer.addString(config.getName());
+		header[HEADER_DESCRIPTION / 4] = writer.addString(config.getDescription());
+		header[HEADER_OPTION_PREFIX / 4] = writer.addString(properties.getOptionPrefix());
+		header[HEADER_OPTION_LONG_PREFIX / 4] = writer.addString(properties.getOptionLongPrefix());
+		header[HEADER_OPTION_PARAMETER_DELIM / 4] = writer.addString(properties.getOptionParameterDelim());
+		header[HEADER_FLAGS / 4] = (properties.isOptionBundling()?FLAG_OPTION_BUNDLING:0)
+				| (properties.isOptionAbbreviation()?FLAG_OPTION_ABBREVIATION:0);
+		header[HEADER_DEFAULT_HANDLER / 4] = writer.addString(handlerClassNames.get(Command.DEFAULT_COMMAND_IDENTIFIER));
+		writer.addParameters(config.getParameterConfiguration().values(), header, HEADER_ROOT_PARAMETERS / 4);
+		writer.addOptions(config.getOptionConfiguration().values(), header, HEADER_ROOT_OPTIONS / 4);
+		writer.addCommands(config.getCommandConfiguration(), "", handlerClassNames, header, HEADER_ROOT_COMMANDS / 4);
+		
+		int offset = HEADER_SIZE;
+		header[HEADER_COMMANDS / 4] = writer.commands.size();
+		header[HEADER_COMMANDS / 4 + 1] = offset;
+		offset += writer.commands.size() * COMMAND_SIZE;
+		header[HEADER_OPTIONS / 4] = writer.options.size();
+		header[HEADER_OPTIONS / 4 + 1] = offset;
+		offset += writer.options.size() * OPTION_SIZE;
+		header[HEADER_PARAMETERS / 4] = writer.parameters.size();
+		header[HEADER_PARAMETERS / 4 + 1] = offset;
+		offset += writer.parameters.size() * PARAMETER_SIZE;
+		header[HEADER_STRINGS / 4] = writer.strings.size();
+		header[HEADER_STRINGS / 4 + 1] = offset;
+		
+		File dir = file.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile(file.getName(), ".tmp", dir);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				writeRecord(out, header);
+				writeRecords(out, writer.commands);
+				writeRecords(out, writer.options);
+				writeRecords(out, writer.parameters);
+				int stringOffset = 0;
+				out.writeInt(stringOffset);
+				for(byte[] string : writer.strings) {
+					stringOffset += string.length;
+					out.writeInt(stringOffset);
+				}
+				for(byte[] string : writer.strings) {
+					out.write(string);
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tempFile.delete();
+		}
+	}
+	
+	private static void writeRecords(DataOutputStream out, List<int[]> records) throws IOException {
+		for(int[] record : records) {
+			writeRecord(out, record);
+		}
+	}
+	
+	private static void writeRecord(DataOutputStream out, int[] record) throws IOException {
+		for(int value : record) {
+			out.writeInt(value);
+		}
+	}
+	
+	/**
+	 * Records and string table of a configuration being compiled.
+	 */
+	private static class RecordWriter {
+		
+		private final List<int[]> commands = new ArrayList<int[]>();
+		private final List<int[]> options = new ArrayList<int[]>();
+		private final List<int[]> parameters = new ArrayList<int[]>();
+		private final List<byte[]> strings = new ArrayList<byte[]>();
+		private final Map<String, Integer> stringIndexes = new HashMap<String, Integer>();
+		
+		/**
+		 * Adds the commands of a configuration then stores their range in the record of 
+		 * the parent command or header. Records of the commands are added before the 
+		 * records of their subcommands so the commands of a range are contiguous.
+		 */
+		void addCommands(CommandConfiguration commandConfig, String parentPath, 
+				Map<String, String> handlerClassNames, int[] record, int rangeIndex) {
+			int start = commands.size();
+			record[rangeIndex] = start;
+			record[rangeIndex + 1] = commandConfig.size();
+			for(int i = 0; i < commandConfig.size(); i++) {
+				commands.add(new int[COMMAND_SIZE / 4]);
+			}
+			int index = start;
+			for(CommandMetadata command : commandConfig.values()) {
+				String path = parentPath + command.getIdentifier();
+				int[] commandRecord = commands.get(index++);
+				commandRecord[COMMAND_IDENTIFIER / 4] = addString(command.getIdentifier());
+				commandRecord[COMMAND_DESCRIPTION / 4] = addString(command.getDescription());
+				commandRecord[COMMAND_LONG_DESCRIPTION / 4] = addString(command.getLongDescription());
+				commandRecord[COMMAND_PARTITION_KEY / 4] = addString(command.getPartitionKey());
+				commandRecord[COMMAND_HANDLER / 4] = addString(handlerClassNames.get(path));
+				commandRecord[COMMAND_FLAGS / 4] = getFlags(command);
+				addParameters(command.getParameterConfigurations().values(), commandRecord, COMMAND_PARAMETERS / 4);
+				addOptions(command.getOptionConfigurations().values(), commandRecord, COMMAND_OPTIONS / 4);
+				CommandConfiguration subcommandConfig = commandConfig.getSubcommandConfiguration(command.getIdentifier());
+				if(subcommandConfig!=null) {
+					addCommands(subcommandConfig, path + " ", handlerClassNames, commandRecord, COMMAND_SUBCOMMANDS / 4);
+				}
+			}
+		}
+		
+		int addString(String value) {
+			if(value==null) {
+				return -1;
+			}
+			Integer index = stringIndexes.get(value);
+			if(index==null) {
+				index = strings.size();
+				strings.add(value.getBytes(UTF_8));
+				stringIndexes.put(value, index);
+			}
+			return index;
+		}
+		
+		/**
+		 * Adds the parameters of a command or root then stores their range in the record
+		 * of the command or header. Parameters of a range are contiguous.
+		 */
+		void addParameters(Collection<ParameterMetadata> metadataList, int[] record, int rangeIndex) {
+			record[rangeIndex] = parameters.size();
+			record[rangeIndex + 1] = metadataList.size();
+			for(ParameterMetadata metadata : metadataList) {
+				addParameter(metadata);
+			}
+		}
+		
+		int addParameter(ParameterMetadata metadata) {
+			int[] record = new int[PARAMETER_SIZE / 4];
+			record[PARAMETER_IDENTIFIER / 4] = addString(metadata.getIdentifier());
+			record[PARAMETER_DESCRIPTION / 4] = addString(metadata.getDescription());
+			record[PARAMETER_LONG_DESCRIPTION / 4] = addString(metadata.getLongDescription());
+			record[PARAMETER_VALIDATOR / 4] = addString((metadata.getParameterValidator()==null)?null
+					:metadata.getParameterValidator().getClass().getName());
+			record[PARAMETER_TYPE / 4] = (metadata.getParameterType()==null)?-1:metadata.getParameterType().ordinal();
+			record[PARAMETER_FLAGS / 4] = getFlags(metadata);
+			parameters.add(record);
+			return parameters.size() - 1;
+		}
+		
+		/**
+		 * Adds the options of a command or root then stores their range in the record of
+		 * the command or header. Parameter of an option is added after the parameters of 
+		 * its command.
+		 */
+		void addOptions(Collection<OptionMetadata> metadataList, int[] record, int rangeIndex) {
+			record[rangeIndex] = options.size();
+			record[rangeIndex + 1] = metadataList.size();
+			List<int[]> optionRecords = new ArrayList<int[]>(metadataList.size());
+			for(OptionMetadata metadata : metadataList) {
+				int[] optionRecord = new int[OPTION_SIZE / 4];
+				optionRecord[OPTION_IDENTIFIER / 4] = addString(metadata.getIdentifier());
+				optionRecord[OPTION_LONG_IDENTIFIER / 4] = addString(
+						metadata.getIdentifier(OptionMetadata.IdentifierType.LONG));
+				optionRecord[OPTION_DESCRIPTION / 4] = addString(metadata.getDescription());
+				optionRecord[OPTION_LONG_DESCRIPTION / 4] = addString(metadata.getLongDescription());
+				optionRecord[OPTION_FLAGS / 4] = getFlags(metadata);
+				optionRecord[OPTION_PARAMETER / 4] = (metadata.getParameterMetadata()==null)?-1
+						:addParameter(metadata.getParameterMetadata());
+				optionRecord[OPTION_ENVIRONMENT_VARIABLE / 4] = addString(metadata.getEnvironmentVariable());
+				optionRecord[OPTION_SYSTEM_PROPERTY / 4] = addString(metadata.getSystemProperty());
+				optionRecords.add(optionRecord);
+			}
+			options.addAll(optionRecords);
+		}
+		
+	}
+	
+	/**
+	 * Flyweight view of a command record.
+	 */
+	static final class CompiledCommandMetadata implements CommandMetadata {
+		
+		private final CompiledConfiguration compiled;
+		private final int offset;
+		private final String identifier;
+		private volatile OptionConfiguration optionConfiguration;
+		private volatile ParameterConfiguration parameterConfiguration;
+		
+		CompiledCommandMetadata(CompiledConfiguration compiled, int offset, String identifier) {
+			this.compiled = compiled;
+			this.offset = offset;
+			this.identifier = identifier;
+		}
+
+		@Override
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		@Override
+		public String getDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + COMMAND_DESCRIPTION));
+		}
+
+		@Override
+		public String getLongDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + COMMAND_LONG_DESCRIPTION));
+		}
+
+		@Override
+		public boolean isMultiValued() {
+			return hasFlag(compiled.buffer.getInt(offset + COMMAND_FLAGS), FLAG_MULTI_VALUED);
+		}
+
+		@Override
+		public boolean isRequired() {
+			return hasFlag(compiled.buffer.getInt(offset + COMMAND_FLAGS), FLAG_REQUIRED);
+		}
+
+		@Override
+		public OptionConfiguration getOptionConfigurations() {
+			OptionConfiguration config = optionConfiguration;
+			if(config==null) {
+				config = new OptionConfiguration();
+				compiled.addOptions(config, offset + COMMAND_OPTIONS);
+				config.freeze();
+				optionConfiguration = config;
+			}
+			return config;
+		}
+
+		@Override
+		public ParameterConfiguration getParameterConfigurations() {
+			ParameterConfiguration config = parameterConfiguration;
+			if(config==null) {
+				config = new ParameterConfiguration();
+				compiled.addParameters(config, offset + COMMAND_PARAMETERS);
+				config.freeze();
+				parameterConfiguration = config;
+			}
+			return config;
+		}
+
+		@Override
+		public String getPartitionKey() {
+			return compiled.getString(compiled.buffer.getInt(offset + COMMAND_PARTITION_KEY));
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("CompiledCommand[id=%s,offset=%d]", identifier, offset);
+		}
+		
+	}
+	
+	/**
+	 * Flyweight view of an option record.
+	 */
+	static final class CompiledOptionMetadata implements OptionMetadata {
+		
+		private final CompiledConfiguration compiled;
+		private final int offset;
+		private final String identifier;
+		private final String longIdentifier;
+		
+		CompiledOptionMetadata(CompiledConfiguration compiled, int offset, String identifier, 
+				String longIdentifier) {
+			this.compiled = compiled;
+			this.offset = offset;
+			this.identifier = identifier;
+			this.longIdentifier = (longIdentifier==null)?"":longIdentifier;
+		}
+
+		@Override
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		@Override
+		public String getIdentifier(IdentifierType type) {
+			return (type==IdentifierType.LONG)?longIdentifier:identifier;
+		}
+
+		@Override
+		public String getDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + OPTION_DESCRIPTION));
+		}
+
+		@Override
+		public String getLongDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + OPTION_LONG_DESCRIPTION));
+		}
+
+		@Override
+		public boolean isMultiValued() {
+			return hasFlag(compiled.buffer.getInt(offset + OPTION_FLAGS), FLAG_MULTI_VALUED);
+		}
+
+		@Override
+		public boolean isRequired() {
+			return hasFlag(compiled.buffer.getInt(offset + OPTION_FLAGS), FLAG_REQUIRED);
+		}
+
+		@Override
+		public ParameterMetadata getParameterMetadata() {
+			int index = compiled.buffer.getInt(offset + OPTION_PARAMETER);
+			return (index < 0)?null:compiled.getParameter(index);
+		}
+
+		@Override
+		public boolean isParameterAccepted() {
+			ParameterMetadata parameter = getParameterMetadata();
+			return parameter!=null && parameter.getParameterType()!=ParameterType.NONE;
+		}
+		
+		@Override
+		public String getEnvironmentVariable() {
+			return compiled.getString(compiled.buffer.getInt(offset + OPTION_ENVIRONMENT_VARIABLE));
+		}
+		
+		@Override
+		public String getSystemProperty() {
+			return compiled.getString(compiled.buffer.getInt(offset + OPTION_SYSTEM_PROPERTY));
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("CompiledOption[id=%s,lid=%s,offset=%d]", identifier, longIdentifier, offset);
+		}
+		
+	}
+	
+	/**
+	 * Flyweight view of a parameter record.
+	 */
+	static final class CompiledParameterMetadata implements ParameterMetadata {
+		
+		private final CompiledConfiguration compiled;
+		private final int offset;
+		private final String identifier;
+		private volatile ParameterParser validator;
+		
+		CompiledParameterMetadata(CompiledConfiguration compiled, int offset, String identifier) {
+			this.compiled = compiled;
+			this.offset = offset;
+			this.identifier = identifier;
+		}
+
+		@Override
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		@Override
+		public String getDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + PARAMETER_DESCRIPTION));
+		}
+
+		@Override
+		public String getLongDescription() {
+			return compiled.getString(compiled.buffer.getInt(offset + PARAMETER_LONG_DESCRIPTION));
+		}
+
+		@Override
+		public boolean isMultiValued() {
+			return hasFlag(compiled.buffer.getInt(offset + PARAMETER_FLAGS), FLAG_MULTI_VALUED);
+		}
+
+		@Override
+		public boolean isRequired() {
+			return hasFlag(compiled.buffer.getInt(offset + PARAMETER_FLAGS), FLAG_REQUIRED);
+		}
+
+		@Override
+		public ParameterType getParameterType() {
+			int type = compiled.buffer.getInt(offset + PARAMETER_TYPE);
+			return (type < 0)?null:PARAMETER_TYPES[type];
+		}
+
+		/**
+		 * Returns the validator of the parameter. Validator class is loaded with the class
+		 * loader of the compiled configuration and is created with its no argument 
+		 * constructor on first call, the same validator is returned afterwards.
+		 */
+		@Override
+		public ParameterParser getParameterValidator() {
+			ParameterParser parser = validator;
+			if(parser!=null) {
+				return parser;
+			}
+			String className = compiled.getString(compiled.buffer.getInt(offset + PARAMETER_VALIDATOR));
+			if(className==null) {
+				return null;
+			}
+			try {
+				parser = (ParameterParser) Class.forName(className, true, compiled.getClassLoader())
+						.getDeclaredConstructor().newInstance();
+			} catch (Exception e) {
+				throw new IllegalStateException("Unable to create parameter validator " + className, e);
+			}
+			validator = parser;
+			return parser;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("CompiledParameter[id=%s,offset=%d]", identifier, offset);
+		}
+		
+	}
+	
+}
@@ -20,11 +20,17 @@
 package org.jclif.type;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
+import org.jclif.util.BKTree;
+import org.jclif.util.PrefixTree;
+
 /**
  * This class is a collection class used to store command line input
  * configuration metadata information. Class is a LinkedHashMap<String, InputMetadata>
@@ -50,6 +56,12 @@ public abstract class Configuration<T extends InputMetadata> extends LinkedHashM
 	
 	private String id;
 	private String description = "";
+	private int modificationCount;
+	private volatile boolean frozen;
+	private transient volatile BKTree suggestionTree;
+	private transient volatile int suggestionTreeModificationCount;
+	private transient volatile PrefixTree completionTree;
+	private transient volatile int completionTreeModificationCount;
 	
 	protected Configuration(String id, String desc) {
 		this.id = id;
@@ -65,11 +77,13 @@ public abstract class Configuration<T extends InputMetadata> extends LinkedHashM
 	}
 	
 	public T add(T metadata) {
+		checkNotFrozen();
 		LOGGER.info("Add identifier: " + metadata.getIdentifier() + ", metadata-desc:" + metadata.getDescription());
 		validateIdentifier(metadata.getIdentifier(), true);
 		if (null != get(metadata.getIdentifier())) {
 			throw new InvalidIdentifierException(this.getId() + " identifer '" + metadata.getIdentifier() + "' already exist.");
 		}
+		modificationCount++;
 		return super.put(metadata.getIdentifier(), metadata);
 	}
 	
@@ -104,6 +118,166 @@ public abstract class Configuration<T extends InputMetadata> extends LinkedHashM
 		return remove(metadata.getIdentifier());
 	}
 	
+	@Override
+	public T remove(Object identifier) {
+		checkNotFrozen();
+		modificationCount++;
+		return super.remove(identifier);
+	}
+	
+	@Override
+	public void clear() {
+		checkNotFrozen();
+		modificationCount++;
+		super.clear();
+	}
+	
+	/**
+	 * Returns the identifiers of this collection. View is unmodifiable once this 
+	 * collection is frozen.
+	 */
+	@Override
+	public Set<String> keySet() {
+		return frozen?Collections.unmodifiableSet(super.keySet()):super.keySet();
+	}
+	
+	/**
+	 * Returns the metadata of this collection. View is unmodifiable once this 
+	 * collection is frozen.
+	 */
+	@Override
+	public Collection<T> values() {
+		return frozen?Collections.unmodifiableCollection(super.values()):super.values();
+	}
+	
+	/**
+	 * Returns the entries of this collection. View is unmodifiable once this 
+	 * collection is frozen.
+	 */
+	@Override
+	public Set<Map.Entry<String, T>> entrySet() {
+		return frozen?Collections.unmodifiableSet(super.entrySet()):super.entrySet();
+	}
+	
+	/**
+	 * Makes this collection immutable. A frozen collection is safely read by several 
+	 * threads without locking, adding or removing metadata, including through its key, 
+	 * value and entry views, throws UnsupportedOperationException.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+	
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
+	/**
+	 * Copies the metadata of a collection to this collection without validating the
+	 * identifiers again.
+	 * 
+	 * @param source	collection to copy
+	 */
+	protected void copyFrom(Configuration<T> source) {
+		checkNotFrozen();
+		for(Map.Entry<String, T> entry : source.entrySet()) {
+			super.put(entry.getKey(), entry.getValue());
+		}
+		modificationCount++;
+	}
+	
+	/**
+	 * Adds metadata of a compiled configuration. Identifier is not validated again, it 
+	 * was validated when the configuration was compiled.
+	 * 
+	 * @param metadata	metadata to add
+	 */
+	void addCompiled(T metadata) {
+		checkNotFrozen();
+		super.put(metadata.getIdentifier(), metadata);
+		modificationCount++;
+	}
+	
+	void checkNotFrozen() {
+		if(frozen) {
+			throw new UnsupportedOperationException(getId() + " configuration is frozen.");
+		}
+	}
+	
+	/**
+	 * Returns the number of times metadata was added to or removed from this collection.
+	 * Count is used to detect changes of a collection, e.g. to invalidate a cached help text.
+	 * 
+	 * @return int	modification count
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+	
+	/**
+	 * Returns the identifiers similar to an unknown identifier sorted by edit distance. 
+	 * Identifiers are indexed in a BK-tree which is created on first call and created 
+	 * again only if the collection changed.
+	 * 
+	 * @param identifier	unknown identifier
+	 * @return List<String>	similar identifiers
+	 */
+	public List<String> getSuggestions(String identifier) {
+		BKTree tree = suggestionTree;
+		if(tree==null || suggestionTreeModificationCount!=modificationCount) {
+			int count = modificationCount;
+			tree = new BKTree();
+			for(String suggestion : getSuggestionIdentifiers()) {
+				tree.add(suggestion);
+			}
+			suggestionTree = tree;
+			suggestionTreeModificationCount = count;
+		}
+		return tree.search(identifier, getSuggestionDistance(identifier));
+	}
+	
+	/**
+	 * Returns the identifiers starting with a prefix in lexicographic order. Identifiers
+	 * are indexed in a prefix tree which is created on first call and created again only
+	 * if the collection changed.
+	 * 
+	 * @param prefix	prefix of the identifiers
+	 * @return List<String>	identifiers starting with prefix
+	 */
+	public List<String> getCompletions(String prefix) {
+		PrefixTree tree = completionTree;
+		if(tree==null || completionTreeModificationCount!=modificationCount) {
+			int count = modificationCount;
+			tree = new PrefixTree();
+			for(String completion : getSuggestionIdentifiers()) {
+				tree.add(completion);
+			}
+			completionTree = tree;
+			completionTreeModificationCount = count;
+		}
+		return tree.find(prefix);
+	}
+	
+	/**
+	 * Returns the identifiers indexed for suggestions and completions.
+	 * 
+	 * @return Collection<String>	identifiers
+	 */
+	protected Collection<String> getSuggestionIdentifiers() {
+		return keySet();
+	}
+	
+	/**
+	 * Returns the maximum edit distance of a suggestion. Identifiers of a single character
+	 * get no suggestion since every other single character identifier would match.
+	 */
+	static int getSuggestionDistance(String identifier) {
+		if(identifier.length() <= 1) {
+			return 0;
+		}
+		return (identifier.length() <= 3)?1:2;
+	}
+	
 	void validateIdentifier(String identifier, boolean required) {
 		if(!required && (identifier==null || identifier.isEmpty())) { 
 			return;
@@ -0,0 +1,98 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.type;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This class is an immutable copy of the environment variables and system properties 
+ * used as fallback values of options which are not in the command line, see 
+ * {@link OptionMetadata#getEnvironmentVariable()} and {@link OptionMetadata#getSystemProperty()}.
+ * A snapshot is taken once so resolving a fallback reads a map instead of the process
+ * environment and system properties changed later do not change the values of options.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class EnvironmentSnapshot {
+	
+	/**
+	 * Snapshot with no environment variable and no system property.
+	 */
+	public static final EnvironmentSnapshot EMPTY = new EnvironmentSnapshot(
+			Collections.<String, String>emptyMap(), Collections.<String, String>emptyMap());
+	
+	private final Map<String, String> environment;
+	private final Map<String, String> properties;
+	
+	/**
+	 * Creates a snapshot of environment variables and system properties.
+	 * 
+	 * @param environment	environment variables
+	 * @param properties	system properties
+	 */
+	public EnvironmentSnapshot(Map<String, String> environment, Map<String, String> properties) {
+		this.environment = Collections.unmodifiableMap(new HashMap<String, String>(environment));
+		this.properties = Collections.unmodifiableMap(new HashMap<String, String>(properties));
+	}
+	
+	/**
+	 * Takes a snapshot of the environment variables and system properties of this process.
+	 * 
+	 * @return EnvironmentSnapshot	snapshot of the current environment
+	 */
+	public static EnvironmentSnapshot capture() {
+		Map<String, String> properties = new HashMap<String, String>();
+		Properties systemProperties = System.getProperties();
+		for(String name : systemProperties.stringPropertyNames()) {
+			properties.put(name, systemProperties.getProperty(name));
+		}
+		return new EnvironmentSnapshot(System.getenv(), properties);
+	}
+	
+	/**
+	 * Returns the fallback value of an option, the value of its system property if set 
+	 * otherwise the value of its environment variable.
+	 * 
+	 * @param option	option metadata
+	 * @return String	fallback value or null if option has no fallback or none is set
+	 */
+	public String getValue(OptionMetadata option) {
+		String name = option.getSystemProperty();
+		String value = (name==null)?null:properties.get(name);
+		if(value==null) {
+			name = option.getEnvironmentVariable();
+			value = (name==null)?null:environment.get(name);
+		}
+		return value;
+	}
+	
+	public Map<String, String> getEnvironment() {
+		return environment;
+	}
+	
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+	
+}
@@ -74,10 +74,13 @@ public abstract class InputMetadataImpl implements InputMetadata {
 	}
 	
 	public boolean equals(Object obj) {
-		if(!(obj instanceof OptionMetadataImpl)) {
+		if(obj==this) {
+			return true;
+		}
+		if(obj==null || obj.getClass()!=getClass()) {
 			return false;
 		}
-		return (((OptionMetadataImpl) obj).getIdentifier().equals(getIdentifier()));
+		return (((InputMetadataImpl) obj).getIdentifier().equals(getIdentifier()));
 	}
 	
 	public String toString() {
@@ -20,12 +20,14 @@
 package org.jclif.type;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.jclif.annotation.ParameterType;
 import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.util.RadixTree;
 
 
 /**
@@ -44,12 +46,27 @@ public class OptionConfiguration extends Configuration<OptionMetadata>{
 	private static final long serialVersionUID = -6514260728828963130L;
 
 	private Map<String, OptionMetadata> optionLongMap = new HashMap<String, OptionMetadata>();
+	private transient volatile RadixTree<OptionMetadata> longIdentifierTree;
+	private transient volatile int longIdentifierTreeModificationCount;
 
 	
 	public OptionConfiguration() {
 		super("option", "Option configuration");
 	}
 
+	/**
+	 * Returns a mutable copy of this configuration. Option metadata are shared with
+	 * this configuration.
+	 * 
+	 * @return OptionConfiguration	copy of this configuration
+	 */
+	public OptionConfiguration copy() {
+		OptionConfiguration copy = new OptionConfiguration();
+		copy.copyFrom(this);
+		copy.optionLongMap.putAll(optionLongMap);
+		return copy;
+	}
+
 	/**
 	 * Adds a new option metadata which describes the option's identifier and other information.
 	 * 
@@ -59,6 +76,7 @@ public class OptionConfiguration extends Configuration<OptionMetadata>{
 	public OptionConfiguration addOption(OptionMetadata option) {
 		
 		String longIdentfier = option.getIdentifier(IdentifierType.LONG);
+		checkNotFrozen();
 		validateIdentifier(longIdentfier, false);
 		if (longIdentfier!=null 
 				&& !longIdentfier.isEmpty() 
@@ -73,6 +91,15 @@ public class OptionConfiguration extends Configuration<OptionMetadata>{
 		return this;
 	}
 	
+	@Override
+	void addCompiled(OptionMetadata option) {
+		super.addCompiled(option);
+		String longIdentifier = option.getIdentifier(IdentifierType.LONG);
+		if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+			optionLongMap.put(longIdentifier, option);
+		}
+	}
+	
 	/**
 	 * Adds a new option with no description and no parameter.
 	 * 
@@ -225,6 +252,55 @@ public class OptionConfiguration extends Configuration<OptionMetadata>{
 		return super.get(identifier);
 	}
 	
+	/**
+	 * Returns the option whose long identifier is equal to an abbreviation or is the only
+	 * long identifier starting with it, e.g. <code>verb</code> for <code>verbose</code>.
+	 * Exact identifiers are found by {@link #getOption(String, IdentifierType)} without 
+	 * resolving abbreviations.
+	 * 
+	 * @param abbreviation	abbreviation of a long identifier
+	 * @return OptionMetadata	metadata of option or null if no or several long identifiers
+	 * 		start with the abbreviation
+	 */
+	public OptionMetadata getOptionByAbbreviation(String abbreviation) {
+		return getLongIdentifierTree().getUnique(abbreviation);
+	}
+	
+	/**
+	 * Returns the long identifiers of the options indexed in a radix tree. Tree is created
+	 * on first call and created again only if the collection changed.
+	 */
+	RadixTree<OptionMetadata> getLongIdentifierTree() {
+		RadixTree<OptionMetadata> tree = longIdentifierTree;
+		int count = getModificationCount();
+		if(tree==null || longIdentifierTreeModificationCount!=count) {
+			tree = new RadixTree<OptionMetadata>();
+			for(OptionMetadata option : values()) {
+				String longIdentifier = option.getIdentifier(IdentifierType.LONG);
+				if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+					tree.put(longIdentifier, option);
+				}
+			}
+			longIdentifierTree = tree;
+			longIdentifierTreeModificationCount = count;
+		}
+		return tree;
+	}
+	
+	/**
+	 * Returns the short and long identifiers of the options.
+	 */
+	@Override
+	protected Collection<String> getSuggestionIdentifiers() {
+		List<String> identifiers = new ArrayList<String>(keySet());
+		for(String longIdentifier : optionLongMap.keySet()) {
+			if(longIdentifier!=null && !longIdentifier.isEmpty()) {
+				identifiers.add(longIdentifier);
+			}
+		}
+		return identifiers;
+	}
+	
 	/**
 	 * Returns the list of options registered to this configuration.
 	 * 
@@ -35,19 +35,29 @@ public class OptionInputSet extends InputSet<OptionInput, OptionMetadata> {
 	 */
 	private static final long serialVersionUID = -2671453277762411033L;
 	
-	private OptionConfiguration configuration;
+	private OptionScope scope;
 	
 	public OptionInputSet(OptionConfiguration config) {
-		this.configuration = config;
+		this(new OptionScope(config, null));
+	}
+	
+	/**
+	 * Creates an option input set whose options are looked up in a command option scope,
+	 * including options inherited from parent commands.
+	 * 
+	 * @param scope	option scope of the matching command
+	 */
+	public OptionInputSet(OptionScope scope) {
+		this.scope = scope;
 	}
 	
 	public boolean contains(String identifier) {
-		OptionMetadata optionMetadata = configuration.getOption(identifier);
+		OptionMetadata optionMetadata = scope.getOption(identifier);
 		return (optionMetadata!=null && super.contains(optionMetadata.getIdentifier()));
 	}
 	
 	public OptionInput get(String identifier) {
-		OptionMetadata optionMetadata = configuration.getOption(identifier);
+		OptionMetadata optionMetadata = scope.getOption(identifier);
 		if(optionMetadata!=null) {
 			return super.get(optionMetadata);
 		}
@@ -72,5 +72,21 @@ public interface OptionMetadata extends InputMetadata {
 	 */
 	public boolean isParameterAccepted();
 	
+	/**
+	 * Returns the name of the environment variable used as value of the option when the
+	 * option is not in the command line.
+	 * 
+	 * @return String	environment variable name or null if option has no fallback
+	 */
+	public String getEnvironmentVariable();
+	
+	/**
+	 * Returns the name of the system property used as value of the option when the 
+	 * option is not in the command line.
+	 * 
+	 * @return String	system property name or null if option has no fallback
+	 */
+	public String getSystemProperty();
+	
 	
 }
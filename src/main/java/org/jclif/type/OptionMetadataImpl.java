@@ -34,6 +34,8 @@ public class OptionMetadataImpl extends InputMetadataImpl implements OptionMetad
 
 	private String longIdentifier;
 	private ParameterMetadata parameterMetadata;
+	private String environmentVariable;
+	private String systemProperty;
 	
 	public OptionMetadataImpl(Option optionAnnotation, ParameterMetadata parameterMetadata, 
 			boolean multiValued) {
@@ -45,6 +47,8 @@ public class OptionMetadataImpl extends InputMetadataImpl implements OptionMetad
 			multiValued,
 			optionAnnotation.description(),
 			optionAnnotation.longDescription());
+		setEnvironmentVariable(optionAnnotation.environmentVariable());
+		setSystemProperty(optionAnnotation.systemProperty());
 	}
 	
 	public OptionMetadataImpl(String identifier, ParameterMetadata parameterMetadata, 
@@ -77,6 +81,35 @@ public class OptionMetadataImpl extends InputMetadataImpl implements OptionMetad
 		return parameterMetadata;
 	}
 	
+	@Override
+	public String getEnvironmentVariable() {
+		return environmentVariable;
+	}
+	
+	/**
+	 * Sets the name of the environment variable used when the option is not in the 
+	 * command line.
+	 * 
+	 * @param environmentVariable	environment variable name, null or empty if none
+	 */
+	public void setEnvironmentVariable(String environmentVariable) {
+		this.environmentVariable = (environmentVariable==null || environmentVariable.isEmpty())?null:environmentVariable;
+	}
+	
+	@Override
+	public String getSystemProperty() {
+		return systemProperty;
+	}
+	
+	/**
+	 * Sets the name of the system property used when the option is not in the command line.
+	 * 
+	 * @param systemProperty	system property name, null or empty if none
+	 */
+	public void setSystemProperty(String systemProperty) {
+		this.systemProperty = (systemProperty==null || systemProperty.isEmpty())?null:systemProperty;
+	}
+	
 	public String toString() {
 		return String.format("OptionMetadataImpl[id=%s,lid=%s,desc=%s,ldesc=%s,required=%b,multi-valued=%b,parameter-accepted=%b,parameter=%s]", 
 				getIdentifier(), getIdentifier(IdentifierType.LONG), this.getDescription(), 
@@ -0,0 +1,187 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.type;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.util.RadixTree;
+
+/**
+ * This class is a scope of options of a command path. A scope refers to the options of 
+ * a command and to the scope of its parent command, options of the parent commands are
+ * accepted by their subcommands without being copied to the option configuration of each
+ * subcommand. Option of a subcommand hides the option of a parent with the same identifier.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class OptionScope {
+	
+	private final OptionConfiguration optionConfiguration;
+	private final OptionScope parent;
+	
+	/**
+	 * Creates a scope of options.
+	 * 
+	 * @param optionConfiguration	options of the scope
+	 * @param parent				parent scope or null if scope has no parent
+	 */
+	public OptionScope(OptionConfiguration optionConfiguration, OptionScope parent) {
+		this.optionConfiguration = optionConfiguration;
+		this.parent = parent;
+	}
+	
+	public OptionConfiguration getOptionConfiguration() {
+		return optionConfiguration;
+	}
+	
+	public OptionScope getParent() {
+		return parent;
+	}
+	
+	/**
+	 * Returns true if this scope and its parents have no option.
+	 * 
+	 * @return boolean	true if scope has no option
+	 */
+	public boolean isEmpty() {
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			if(!scope.optionConfiguration.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the option of a short or long identifier, the innermost scope is searched first.
+	 * 
+	 * @param identifier	short or long identifier
+	 * @return OptionMetadata	option or null if no scope has the option
+	 */
+	public OptionMetadata getOption(String identifier) {
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			OptionMetadata option = scope.optionConfiguration.getOption(identifier);
+			if(option!=null) {
+				return option;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the option of an identifier, the innermost scope is searched first.
+	 * 
+	 * @param identifier	identifier
+	 * @param type			identifier type
+	 * @return OptionMetadata	option or null if no scope has the option
+	 */
+	public OptionMetadata getOption(String identifier, IdentifierType type) {
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			OptionMetadata option = scope.optionConfiguration.getOption(identifier, type);
+			if(option!=null) {
+				return option;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the option whose long identifier is the only long identifier of every scope
+	 * starting with an abbreviation. A long identifier of an inner scope hides the same 
+	 * long identifier of its parents.
+	 * 
+	 * @param abbreviation	abbreviation of a long identifier
+	 * @return OptionMetadata	option or null if no or several long identifiers start with
+	 * 		the abbreviation
+	 */
+	public OptionMetadata getOptionByAbbreviation(String abbreviation) {
+		OptionMetadata option = null;
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			RadixTree<OptionMetadata> tree = scope.optionConfiguration.getLongIdentifierTree();
+			int count = tree.count(abbreviation);
+			if(count > 1) {
+				return null;
+			} else if(count==1) {
+				OptionMetadata match = tree.getUnique(abbreviation);
+				if(option==null) {
+					option = match;
+				} else if(!option.getIdentifier(IdentifierType.LONG).equals(match.getIdentifier(IdentifierType.LONG))) {
+					return null;
+				}
+			}
+		}
+		return option;
+	}
+	
+	/**
+	 * Returns the long identifiers of every scope starting with an abbreviation.
+	 * 
+	 * @param abbreviation	abbreviation of a long identifier
+	 * @return List<String>	long identifiers in lexicographic order
+	 */
+	public List<String> getLongIdentifiers(String abbreviation) {
+		Set<String> identifiers = new TreeSet<String>();
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			identifiers.addAll(scope.optionConfiguration.getLongIdentifierTree().keys(abbreviation));
+		}
+		return new ArrayList<String>(identifiers);
+	}
+	
+	/**
+	 * Returns the options of this scope and of its parents which are not hidden by an 
+	 * option of an inner scope.
+	 * 
+	 * @return List<OptionMetadata>	options, innermost scope first
+	 */
+	public List<OptionMetadata> getOptions() {
+		List<OptionMetadata> options = new ArrayList<OptionMetadata>();
+		Set<String> identifiers = new HashSet<String>();
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			for(OptionMetadata option : scope.optionConfiguration.values()) {
+				if(identifiers.add(option.getIdentifier())) {
+					options.add(option);
+				}
+			}
+		}
+		return options;
+	}
+	
+	/**
+	 * Returns the identifiers of every scope similar to an unknown identifier.
+	 * 
+	 * @param identifier	unknown identifier
+	 * @return List<String>	similar identifiers, innermost scope first
+	 */
+	public List<String> getSuggestions(String identifier) {
+		Set<String> suggestions = new LinkedHashSet<String>();
+		for(OptionScope scope = this; scope != null; scope = scope.parent) {
+			suggestions.addAll(scope.optionConfiguration.getSuggestions(identifier));
+		}
+		return new ArrayList<String>(suggestions);
+	}
+	
+}
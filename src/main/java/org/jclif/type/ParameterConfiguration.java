@@ -37,6 +37,18 @@ public class ParameterConfiguration extends Configuration<ParameterMetadata> {
 		super("parameter", "Parameter configuration");
 	}
 	
+	/**
+	 * Returns a mutable copy of this configuration. Parameter metadata are shared with
+	 * this configuration.
+	 * 
+	 * @return ParameterConfiguration	copy of this configuration
+	 */
+	public ParameterConfiguration copy() {
+		ParameterConfiguration copy = new ParameterConfiguration();
+		copy.copyFrom(this);
+		return copy;
+	}
+	
 	public ParameterConfiguration addParameter(ParameterMetadata metadata) {
 		add(metadata);
 		return this;
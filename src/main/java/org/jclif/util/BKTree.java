@@ -0,0 +1,176 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is a BK-tree of terms indexed by their Levenshtein distance. Terms within a 
+ * distance of a query term are found by visiting only the children whose distance to 
+ * their parent is within the query distance of the distance of the parent to the query,
+ * so a query does not compute the distance of every term.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class BKTree {
+	
+	private static class Node {
+		
+		private final String term;
+		private Map<Integer, Node> children;
+		
+		Node(String term) {
+			this.term = term;
+		}
+		
+	}
+	
+	/**
+	 * Term found by a query and its distance to the query term.
+	 */
+	private static class Match {
+		
+		private final String term;
+		private final int distance;
+		
+		Match(String term, int distance) {
+			this.term = term;
+			this.distance = distance;
+		}
+		
+	}
+	
+	private Node root;
+	private int size;
+	
+	/**
+	 * Adds a term to the tree, terms already in the tree are ignored.
+	 * 
+	 * @param term	term to add
+	 */
+	public void add(String term) {
+		if(root==null) {
+			root = new Node(term);
+			size++;
+			return;
+		}
+		Node node = root;
+		while(true) {
+			int distance = distance(node.term, term);
+			if(distance==0) {
+				return;
+			}
+			if(node.children==null) {
+				node.children = new HashMap<Integer, Node>();
+			}
+			Node child = node.children.get(distance);
+			if(child==null) {
+				node.children.put(distance, new Node(term));
+				size++;
+				return;
+			}
+			node = child;
+		}
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the terms within a distance of a term sorted by distance then by term.
+	 * 
+	 * @param term			query term
+	 * @param maxDistance	maximum Levenshtein distance
+	 * @return List<String>	terms found
+	 */
+	public List<String> search(String term, int maxDistance) {
+		List<Match> matches = new ArrayList<Match>();
+		if(root!=null) {
+			List<Node> nodes = new ArrayList<Node>();
+			nodes.add(root);
+			while(!nodes.isEmpty()) {
+				Node node = nodes.remove(nodes.size() - 1);
+				int distance = distance(node.term, term);
+				if(distance <= maxDistance) {
+					matches.add(new Match(node.term, distance));
+				}
+				if(node.children==null) {
+					continue;
+				}
+				for(int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+					Node child = node.children.get(d);
+					if(child!=null) {
+						nodes.add(child);
+					}
+				}
+			}
+		}
+		Collections.sort(matches, new Comparator<Match>() {
+			@Override
+			public int compare(Match m1, Match m2) {
+				if(m1.distance!=m2.distance) {
+					return (m1.distance < m2.distance)?-1:1;
+				}
+				return m1.term.compareTo(m2.term);
+			}
+		});
+		List<String> terms = new ArrayList<String>(matches.size());
+		for(Match match : matches) {
+			terms.add(match.term);
+		}
+		return terms;
+	}
+	
+	/**
+	 * Returns the Levenshtein distance of two strings.
+	 * 
+	 * @param s1	first string
+	 * @param s2	second string
+	 * @return int	minimum number of single character insertions, deletions and 
+	 * 				substitutions to change one string into the other
+	 */
+	public static int distance(String s1, String s2) {
+		int[] previous = new int[s2.length() + 1];
+		int[] current = new int[s2.length() + 1];
+		for(int j = 0; j <= s2.length(); j++) {
+			previous[j] = j;
+		}
+		for(int i = 1; i <= s1.length(); i++) {
+			current[0] = i;
+			char c = s1.charAt(i - 1);
+			for(int j = 1; j <= s2.length(); j++) {
+				int cost = (c==s2.charAt(j - 1))?0:1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+			}
+			int[] row = previous;
+			previous = current;
+			current = row;
+		}
+		return previous[s2.length()];
+	}
+	
+}
@@ -0,0 +1,107 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is a trie of terms used to find the terms starting with a prefix. Finding
+ * the terms of a prefix visits only the nodes of the prefix and of the terms found, so
+ * the cost of a query does not depend on the number of terms which do not match.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ */
+public final class PrefixTree {
+	
+	private static class Node {
+		
+		private Map<Character, Node> children;
+		private boolean term;
+		
+	}
+	
+	private final Node root = new Node();
+	private int size;
+	
+	/**
+	 * Adds a term to the tree, terms already in the tree are ignored.
+	 * 
+	 * @param term	term to add
+	 */
+	public void add(String term) {
+		Node node = root;
+		for(int i = 0; i < term.length(); i++) {
+			if(node.children==null) {
+				node.children = new TreeMap<Character, Node>();
+			}
+			Node child = node.children.get(term.charAt(i));
+			if(child==null) {
+				child = new Node();
+				node.children.put(term.charAt(i), child);
+			}
+			node = child;
+		}
+		if(!node.term) {
+			node.term = true;
+			size++;
+		}
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the terms starting with a prefix in lexicographic order.
+	 * 
+	 * @param prefix		prefix of the terms
+	 * @return List<String>	terms found
+	 */
+	public List<String> find(String prefix) {
+		List<String> terms = new ArrayList<String>();
+		Node node = root;
+		for(int i = 0; i < prefix.length() && node!=null; i++) {
+			node = (node.children==null)?null:node.children.get(prefix.charAt(i));
+		}
+		if(node!=null) {
+			collect(node, new StringBuilder(prefix), terms);
+		}
+		return terms;
+	}
+	
+	private static void collect(Node node, StringBuilder term, List<String> terms) {
+		if(node.term) {
+			terms.add(term.toString());
+		}
+		if(node.children==null) {
+			return;
+		}
+		for(Map.Entry<Character, Node> child : node.children.entrySet()) {
+			term.append(child.getKey().charValue());
+			collect(child.getValue(), term, terms);
+			term.setLength(term.length() - 1);
+		}
+	}
+	
+}
@@ -0,0 +1,230 @@
+/** 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclif.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is a compressed radix tree of keys used to resolve abbreviations. Each edge
+ * is labelled with the longest run of characters shared by its keys and each node counts
+ * the keys below it, so finding the key abbreviated by a prefix and detecting an 
+ * ambiguous prefix visit only the nodes of the prefix, the cost is linear in the length
+ * of the prefix whatever the number of keys.
+ * 
+ * @author Stephen Lou Banal &lt;stephen.banal@gmail.com&gt;
+ *
+ * @param <V> type of value of a key
+ */
+public final class RadixTree<V> {
+	
+	private static class Node<V> {
+		
+		private String label;
+		private V value;
+		private int size;
+		private Map<Character, Node<V>> children;
+		
+		Node(String label) {
+			this.label = label;
+		}
+		
+		void addChild(Node<V> child) {
+			if(children==null) {
+				children = new TreeMap<Character, Node<V>>();
+			}
+			children.put(child.label.charAt(0), child);
+		}
+		
+		Node<V> getChild(char c) {
+			return (children==null)?null:children.get(c);
+		}
+		
+	}
+	
+	private final Node<V> root = new Node<V>("");
+	
+	/**
+	 * Adds a key and its value to the tree, value of a key already in the tree is replaced.
+	 * 
+	 * @param key	key to add
+	 * @param value	value of the key, must not be null
+	 * @return V	previous value of the key or null
+	 */
+	public V put(String key, V value) {
+		if(value==null) {
+			throw new IllegalArgumentException("Value of key '" + key + "' is null.");
+		}
+		Node<V> existing = find(key, true);
+		if(existing!=null && existing.value!=null) {
+			V previous = existing.value;
+			existing.value = value;
+			return previous;
+		}
+		
+		Node<V> node = root;
+		node.size++;
+		int i = 0;
+		while(i < key.length()) {
+			Node<V> child = node.getChild(key.charAt(i));
+			if(child==null) {
+				child = new Node<V>(key.substring(i));
+				node.addChild(child);
+				i = key.length();
+			} else {
+				int common = 1;
+				while(common < child.label.length() && i + common < key.length() 
+						&& child.label.charAt(common)==key.charAt(i + common)) {
+					common++;
+				}
+				if(common < child.label.length()) {
+					// split the edge at the end of the shared characters
+					Node<V> split = new Node<V>(child.label.substring(0, common));
+					split.size = child.size;
+					child.label = child.label.substring(common);
+					split.addChild(child);
+					node.addChild(split);
+					child = split;
+				}
+				i += common;
+			}
+			child.size++;
+			node = child;
+		}
+		node.value = value;
+		return null;
+	}
+	
+	/**
+	 * Returns the value of a key.
+	 * 
+	 * @param key	key
+	 * @return V	value of key or null if key is not in the tree
+	 */
+	public V get(String key) {
+		Node<V> node = find(key, true);
+		return (node==null)?null:node.value;
+	}
+	
+	/**
+	 * Returns the value of a key equal to a prefix, or else of the only key starting with 
+	 * the prefix.
+	 * 
+	 * @param prefix	prefix of a key
+	 * @return V	value of the key or null if no key or several keys start with the prefix
+	 */
+	public V getUnique(String prefix) {
+		Node<V> node = find(prefix, true);
+		if(node!=null && node.value!=null) {
+			return node.value;
+		}
+		node = find(prefix, false);
+		if(node==null || node.size!=1) {
+			return null;
+		}
+		while(node.value==null) {
+			node = node.children.values().iterator().next();
+		}
+		return node.value;
+	}
+	
+	/**
+	 * Returns the number of keys starting with a prefix.
+	 * 
+	 * @param prefix	prefix of the keys
+	 * @return int	number of keys
+	 */
+	public int count(String prefix) {
+		Node<V> node = find(prefix, false);
+		return (node==null)?0:node.size;
+	}
+	
+	/**
+	 * Returns the keys starting with a prefix in lexicographic order.
+	 * 
+	 * @param prefix	prefix of the keys
+	 * @return List<String>	keys found
+	 */
+	public List<String> keys(String prefix) {
+		List<String> keys = new ArrayList<String>();
+		StringBuilder key = new StringBuilder();
+		Node<V> node = root;
+		int i = 0;
+		while(node!=null && i < prefix.length()) {
+			node = node.getChild(prefix.charAt(i));
+			if(node!=null && !matches(node.label, prefix, i)) {
+				node = null;
+			}
+			if(node!=null) {
+				key.append(node.label);
+				i += node.label.length();
+			}
+		}
+		if(node!=null) {
+			collect(node, key, keys);
+		}
+		return keys;
+	}
+	
+	public int size() {
+		return root.size;
+	}
+	
+	/**
+	 * Returns the node of a key, or the first node whose keys all start with a prefix.
+	 */
+	private Node<V> find(String key, boolean exact) {
+		Node<V> node = root;
+		int i = 0;
+		while(i < key.length()) {
+			node = node.getChild(key.charAt(i));
+			if(node==null || !matches(node.label, key, i) || (exact && i + node.label.length() > key.length())) {
+				return null;
+			}
+			i += node.label.length();
+		}
+		return node;
+	}
+	
+	/**
+	 * Returns true if a label and the characters of a key from an offset are the same, up
+	 * to the end of the shortest.
+	 */
+	private static boolean matches(String label, String key, int offset) {
+		return label.regionMatches(0, key, offset, Math.min(label.length(), key.length() - offset));
+	}
+	
+	private static <V> void collect(Node<V> node, StringBuilder key, List<String> keys) {
+		if(node.value!=null) {
+			keys.add(key.toString());
+		}
+		if(node.children==null) {
+			return;
+		}
+		for(Node<V> child : node.children.values()) {
+			key.append(child.label);
+			collect(child, key, keys);
+			key.setLength(key.length() - child.label.length());
+		}
+	}
+	
+}
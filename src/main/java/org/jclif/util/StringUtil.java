@@ -19,6 +19,8 @@
 
 package org.jclif.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -72,4 +74,54 @@ public final class StringUtil {
 		}
 	}
 	
+	/**
+	 * Splits a command line into arguments the same way a shell does. Arguments are
+	 * separated by whitespace, single and double quotes group words into one argument
+	 * and a backslash escapes the next character outside single quotes.
+	 * 
+	 * @param line	command line
+	 * @return String[]	arguments of command line
+	 * @throws IllegalArgumentException thrown if a quote is not terminated
+	 */
+	public static String[] tokenize(String line) {
+		List<String> tokens = new ArrayList<String>();
+		StringBuilder token = new StringBuilder();
+		boolean inToken = false;
+		char quote = 0;
+		for(int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if(quote != 0) {
+				if(c == quote) {
+					quote = 0;
+				} else if(c == '\\' && quote == '"' && i + 1 < line.length()) {
+					token.append(line.charAt(++i));
+				} else {
+					token.append(c);
+				}
+			} else if(Character.isWhitespace(c)) {
+				if(inToken) {
+					tokens.add(token.toString());
+					token.setLength(0);
+					inToken = false;
+				}
+			} else if(c == '"' || c == '\'') {
+				quote = c;
+				inToken = true;
+			} else if(c == '\\' && i + 1 < line.length()) {
+				token.append(line.charAt(++i));
+				inToken = true;
+			} else {
+				token.append(c);
+				inToken = true;
+			}
+		}
+		if(quote != 0) {
+			throw new IllegalArgumentException("Unterminated quote " + quote + " in line: " + line);
+		}
+		if(inToken) {
+			tokens.add(token.toString());
+		}
+		return tokens.toArray(new String[tokens.size()]);
+	}
+	
 }
@@ -22,6 +22,7 @@ package examples;
 import org.jclif.annotation.Command;
 import org.jclif.annotation.Handler;
 import org.jclif.annotation.Option;
+import org.jclif.runtime.ExecutionContext;
 
 @Command(description="Default handler")
 public class DefaultCommand {
@@ -35,7 +36,7 @@ public class DefaultCommand {
 	
 	@Handler
 	public void execute() {
-		System.out.println("Default handler called: x=" + x);
+		ExecutionContext.getOut().println("Default handler called: x=" + x);
 	}
 	
 }
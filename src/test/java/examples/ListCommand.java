@@ -27,6 +27,7 @@ import org.jclif.annotation.Handler;
 import org.jclif.annotation.Option;
 import org.jclif.annotation.Parameter;
 import org.jclif.annotation.ParameterType;
+import org.jclif.runtime.ExecutionContext;
 
 @Command(identifier="list",description="List files")
 public class ListCommand {
@@ -45,7 +46,7 @@ public class ListCommand {
 	
 	@Handler
 	public void execute() {
-		System.out.println("List handler called. showAll=" + showAll + ",name=" + name + ",dir=" + dir + ", counts=" + counts);
+		ExecutionContext.getOut().println("List handler called. showAll=" + showAll + ",name=" + name + ",dir=" + dir + ", counts=" + counts);
 	}
 	
 	public void setShowAll(Boolean showAll) {
@@ -0,0 +1,107 @@
+package org.jclif;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineCompletion;
+import org.jclif.text.CompletionScript;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadataImpl;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.ParameterMetadataImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommandLineCompletionTest {
+
+	private CommandLineConfiguration createTestCommandLineConfiguration() {
+		CommandLineConfiguration config = new CommandLineConfiguration("linux");
+		config.setName("app");
+		config.getOptionConfiguration().addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Verbose");
+		OptionConfiguration listOptions = new OptionConfiguration();
+		listOptions.addOption("a", "all", ParameterType.NONE, false, false, "All", "All files");
+		listOptions.addOption("d", "directory", ParameterType.DIRECTORY, false, false, "Directory", "Directory");
+		listOptions.addOption("n", "name", ParameterType.STRING, false, false, "Name", "Name");
+		config.getCommandConfiguration().addCommand("list", listOptions, "Shows list of files");
+		config.getCommandConfiguration().addCommand("link", new OptionConfiguration(), "Link files");
+		config.getCommandConfiguration().addCommand("copy", new OptionConfiguration(), "Copy files",
+				new ParameterMetadataImpl("source", false, false, ParameterType.FILE, "Source file"));
+		return config;
+	}
+
+	@Test
+	public void testCompleteCommand() {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		Assert.assertEquals(Arrays.asList("link", "list"), 
+				CommandLineCompletion.complete(config, new String[] {"li"}, 0));
+		Assert.assertEquals(Arrays.asList("copy", "link", "list"), 
+				CommandLineCompletion.complete(config, new String[0], 0));
+		Assert.assertEquals(Arrays.asList("list"), 
+				CommandLineCompletion.complete(config, new String[] {"-v", "lis"}, 1));
+		config.getCommandConfiguration().addCommand("lint", new OptionConfiguration(), "Lint files");
+		Assert.assertEquals(Arrays.asList("link", "lint", "list"), 
+				CommandLineCompletion.complete(config, new String[] {"li"}, 0));
+	}
+
+	@Test
+	public void testCompleteOption() {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		Assert.assertEquals(Arrays.asList("--verbose"), 
+				CommandLineCompletion.complete(config, new String[] {"--v"}, 0));
+		Assert.assertEquals(Arrays.asList("--all", "--directory", "--name", "-a", "-d", "-n"), 
+				CommandLineCompletion.complete(config, new String[] {"list", "-"}, 1));
+		Assert.assertEquals(Collections.emptyList(), 
+				CommandLineCompletion.complete(config, new String[] {"list", "-n", ""}, 2));
+	}
+
+	@Test
+	public void testCompleteFile() throws IOException {
+		File dir = Files.createTempDirectory("jclif-completion").toFile();
+		new File(dir, "sub").mkdir();
+		new File(dir, "source.txt").createNewFile();
+		new File(dir, ".hidden").createNewFile();
+		String path = dir.getPath() + File.separator;
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		Assert.assertEquals(Arrays.asList(path + "source.txt", path + "sub" + File.separator), 
+				CommandLineCompletion.complete(config, new String[] {"copy", path + "s"}, 1));
+		Assert.assertEquals(Arrays.asList(path + "sub" + File.separator), 
+				CommandLineCompletion.complete(config, new String[] {"list", "--directory", path}, 2));
+		new File(dir, "source.txt").delete();
+		new File(dir, ".hidden").delete();
+		new File(dir, "sub").delete();
+		dir.delete();
+	}
+
+	@Test
+	public void testGenerateScript() {
+		String script = CompletionScript.generate(createTestCommandLineConfiguration(), CompletionScript.Shell.BASH);
+		Assert.assertTrue(script, script.contains("list|link|copy) cmd=\"${COMP_WORDS[i]}\"; break ;;"));
+		Assert.assertTrue(script, script.contains("list:-d|list:--directory) COMPREPLY=( $(compgen -d -- \"$cur\") ); return ;;"));
+		Assert.assertTrue(script, script.contains("copy) COMPREPLY=( $(compgen -f -W \"\" -- \"$cur\") ) ;;"));
+		Assert.assertTrue(script, script.contains("*) COMPREPLY=( $(compgen -W \"list link copy -v --verbose\" -- \"$cur\") ) ;;"));
+		Assert.assertTrue(script, script.endsWith("complete -o filenames -F _app_complete app\n"));
+		script = CompletionScript.generate(createTestCommandLineConfiguration(), CompletionScript.Shell.ZSH);
+		Assert.assertTrue(script, script.startsWith("#compdef app\n"));
+	}
+	
+	@Test
+	public void testGenerateScriptSubcommands() {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		OptionConfiguration addOptions = new OptionConfiguration();
+		addOptions.addOption("u", "url", ParameterType.STRING, false, false, "Url", "Url");
+		config.getCommandConfiguration().addCommand("remote", new OptionConfiguration(), "Remotes");
+		config.getCommandConfiguration().addSubcommand("remote", new CommandMetadataImpl("add", addOptions, "Add remote", null));
+		config.getCommandConfiguration().getSubcommandConfiguration("remote")
+			.addSubcommand("add", new CommandMetadataImpl("fetch", new OptionConfiguration(), "Fetch remote", null));
+		String script = CompletionScript.generate(config, CompletionScript.Shell.BASH);
+		Assert.assertTrue(script, script.contains("remote/add|remote/add/fetch) cmd=\"$cmd/${COMP_WORDS[i]}\" ;;"));
+		Assert.assertTrue(script, script.contains("remote) COMPREPLY=( $(compgen -W \"add\" -- \"$cur\") ) ;;"));
+		Assert.assertTrue(script, script.contains("remote/add) COMPREPLY=( $(compgen -W \"fetch -u --url\" -- \"$cur\") ) ;;"));
+		Assert.assertTrue(script, script.contains("remote/add:-u|remote/add:--url) COMPREPLY=(); return ;;"));
+	}
+
+}
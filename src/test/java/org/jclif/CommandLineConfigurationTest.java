@@ -19,9 +19,14 @@
 
 package org.jclif;
 
+import java.util.Iterator;
+
 import org.jclif.annotation.ParameterType;
 import org.jclif.type.CommandLineConfiguration;
 import org.jclif.type.InvalidIdentifierException;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadata.IdentifierType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -210,4 +215,64 @@ public class CommandLineConfigurationTest {
 	}
 
 
+	@Test
+	public void testFreeze() {
+		CommandLineConfiguration conf = new CommandLineConfiguration("app1", "testdesc");
+		conf.getOptionConfiguration().addOption("a", "all", ParameterType.NONE, false, false, "All", "All");
+		conf.getCommandConfiguration().addCommand("list", new OptionConfiguration(), "List");
+		conf.getCommandConfiguration().addCommand("copy", new OptionConfiguration(), "Copy");
+		conf.getCommandConfiguration().remove("list");
+		conf.freeze();
+		Assert.assertTrue(conf.isFrozen());
+		try {
+			conf.getOptionConfiguration().addOption("b");
+			Assert.fail("Frozen option configuration modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			conf.getCommandLineProperties().setOptionPrefix("+");
+			Assert.fail("Frozen command line properties modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			conf.setName("app2");
+			Assert.fail("Frozen configuration modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			conf.getCommandConfiguration().keySet().remove("copy");
+			Assert.fail("Frozen command configuration modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			Iterator<OptionMetadata> options = conf.getOptionConfiguration().values().iterator();
+			options.next();
+			options.remove();
+			Assert.fail("Frozen option configuration modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			conf.getCommandConfiguration().entrySet().clear();
+			Assert.fail("Frozen command configuration modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		Assert.assertTrue(conf.getCommandConfiguration().contains("copy"));
+		
+		CommandLineConfiguration copy = conf.copy();
+		Assert.assertFalse(copy.isFrozen());
+		copy.getOptionConfiguration().addOption("b");
+		copy.getCommandConfiguration().addCommand("move", new OptionConfiguration(), "Move");
+		Assert.assertNotNull(copy.getOptionConfiguration().getOption("all", IdentifierType.LONG));
+		Assert.assertEquals(1, copy.getCommandConfiguration().getOrdinal("copy"));
+		Assert.assertEquals(2, copy.getCommandConfiguration().getOrdinal("move"));
+		Assert.assertFalse(conf.getOptionConfiguration().contains("b"));
+		Assert.assertFalse(conf.getCommandConfiguration().contains("move"));
+	}
+	
 }
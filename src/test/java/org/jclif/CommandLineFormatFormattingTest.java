@@ -19,14 +19,25 @@
 
 package org.jclif;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
 import org.jclif.annotation.ParameterType;
 import org.jclif.parser.InvalidInputException;
 import org.jclif.text.CommandLineFormat;
 import org.jclif.text.CommandLineFormatType;
+import org.jclif.text.HelpDocumentGenerator;
 import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.CommandMetadataImpl;
 import org.jclif.type.OptionConfiguration;
 import org.jclif.type.ParameterMetadata;
 import org.jclif.type.ParameterMetadataImpl;
+import org.junit.Assert;
 import org.junit.Test;
 
 
@@ -171,4 +182,152 @@ public class CommandLineFormatFormattingTest {
 		System.out.printf("LongFormatValue:%n%s", formatValue);
 	}
 	
+	@Test
+	public void testFormatCache() {
+		CommandLineConfiguration config = new CommandLineConfiguration();
+		config.setName("mysampleapp");
+		config.getOptionConfiguration().addOption("i", "input file");
+		OptionConfiguration argConfig = new OptionConfiguration();
+		argConfig.addOption("a", "All files");
+		config.getCommandConfiguration().addCommand("list", argConfig, "List all modified files");
+		
+		String formatValue = CommandLineFormat.getInstance().format(config, CommandLineFormatType.SHORT);
+		Assert.assertSame(formatValue, CommandLineFormat.getInstance().format(config, CommandLineFormatType.SHORT));
+		Assert.assertNotSame(formatValue, CommandLineFormat.getInstance().format(config, CommandLineFormatType.FULL));
+		
+		config.getOptionConfiguration().addOption("o", "output file");
+		formatValue = CommandLineFormat.getInstance().format(config, CommandLineFormatType.SHORT);
+		Assert.assertTrue(formatValue, formatValue.contains("output file"));
+		
+		config.getCommandLineProperties().setOptionPrefix("/");
+		formatValue = CommandLineFormat.getInstance().format(config, CommandLineFormatType.SHORT);
+		Assert.assertTrue(formatValue, formatValue.contains("/o"));
+		
+		String commandValue = CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.SHORT);
+		Assert.assertSame(commandValue, CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.SHORT));
+		argConfig.addOption("b", "Backup files");
+		commandValue = CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.SHORT);
+		Assert.assertTrue(commandValue, commandValue.contains("Backup files"));
+	}
+	
+	@Test
+	public void testFormatTo() throws IOException {
+		CommandLineConfiguration config = new CommandLineConfiguration();
+		config.setName("mysampleapp");
+		config.getOptionConfiguration().addOption("a", "All files").addOption("d", "delim", ParameterType.STRING, true, false, "Delimitter value", "");
+		config.getParameterConfiguration().addParameter("sourcedirectory", true, "Source directory");
+		OptionConfiguration argConfig = new OptionConfiguration();
+		argConfig.addOption("i", "input", ParameterType.FILE, false, true, "input file", "some long desc1");
+		config.getCommandConfiguration().addCommand("list", argConfig, "List all modified files", 
+				new ParameterMetadataImpl("dir1", true, "dir 1"));
+		
+		StringWriter writer = new StringWriter();
+		CommandLineFormat.getInstance().formatTo(writer, config, CommandLineFormatType.FULL);
+		Assert.assertEquals(CommandLineFormat.getInstance().format(config, CommandLineFormatType.FULL), writer.toString());
+		Assert.assertTrue(writer.toString(), writer.toString().contains("-d, --delim[<space><STRING>]     Delimitter value"));
+		
+		writer = new StringWriter();
+		CommandLineFormat.getInstance().formatTo(writer, config, config.getCommandMetadata("list"), CommandLineFormatType.FULL);
+		Assert.assertEquals(CommandLineFormat.getInstance().format(config, config.getCommandMetadata("list"), 
+				CommandLineFormatType.FULL), writer.toString());
+		Assert.assertTrue(writer.toString(), writer.toString().contains("-i, --input[<space><FILE>]...     some long desc1"));
+		
+		writer = new StringWriter();
+		InvalidInputException e = new InvalidInputException("Option -x is invalid.");
+		CommandLineFormat.getInstance().formatTo(writer, config, e);
+		Assert.assertEquals(CommandLineFormat.getInstance().format(config, e), writer.toString());
+	}
+	
+	private CommandLineConfiguration createDocumentConfiguration() {
+		CommandLineConfiguration config = new CommandLineConfiguration("linux");
+		config.setName("app");
+		config.getOptionConfiguration().addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Prints \"all\" messages");
+		OptionConfiguration listOptions = new OptionConfiguration();
+		listOptions.addOption("d", "dir", ParameterType.FILE, false, false, "Directory", "Directory | folder");
+		config.getCommandConfiguration().addCommand("list", listOptions, "List files",
+				new ParameterMetadataImpl("pattern", false, true, ParameterType.STRING, "Name pattern"));
+		return config;
+	}
+	
+	@Test
+	public void testJsonFormat() {
+		CommandLineConfiguration config = createDocumentConfiguration();
+		String json = CommandLineFormat.getInstance().format(config, CommandLineFormatType.JSON);
+		Assert.assertTrue(json, json.startsWith("{\n  \"name\": \"app\",\n"));
+		Assert.assertTrue(json, json.contains("\"longDescription\": \"Prints \\\"all\\\" messages\""));
+		Assert.assertTrue(json, json.contains("\"identifier\": \"list\""));
+		Assert.assertTrue(json, json.contains("\"parameterType\": \"FILE\""));
+		String commandJson = CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.JSON);
+		Assert.assertTrue(commandJson, commandJson.contains("\"command\": \"list\""));
+		Assert.assertTrue(commandJson, commandJson.contains("\"multiValued\": true"));
+	}
+	
+	@Test
+	public void testManFormat() {
+		CommandLineConfiguration config = createDocumentConfiguration();
+		String man = CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.MAN);
+		Assert.assertTrue(man, man.startsWith(".TH APP\\-LIST 1\n.SH NAME\napp\\-list \\- List files\n"));
+		Assert.assertTrue(man, man.contains(".TP\n.B \\-d, \\-\\-dir[<space><FILE>]\nDirectory | folder\n"));
+		Assert.assertTrue(man, man.contains(".BR app (1)"));
+	}
+	
+	@Test
+	public void testMarkdownFormat() {
+		CommandLineConfiguration config = createDocumentConfiguration();
+		String markdown = CommandLineFormat.getInstance().format(config, CommandLineFormatType.MARKDOWN);
+		Assert.assertTrue(markdown, markdown.startsWith("# app\n"));
+		Assert.assertTrue(markdown, markdown.contains("| [`list`](app-list.md) | List files |"));
+		String commandMarkdown = CommandLineFormat.getInstance().format(config, 
+				config.getCommandMetadata("list"), CommandLineFormatType.MARKDOWN);
+		Assert.assertTrue(commandMarkdown, commandMarkdown.contains("Directory \\| folder"));
+	}
+	
+	@Test
+	public void testSubcommandDocuments() throws IOException {
+		CommandLineConfiguration config = createDocumentConfiguration();
+		config.getCommandConfiguration().addCommand("remote", new OptionConfiguration(), "Manage remotes");
+		config.getCommandConfiguration().addSubcommand("remote", new CommandMetadataImpl("add", 
+				new OptionConfiguration(), "Add a remote", null));
+		CommandMetadata add = config.getCommandConfiguration().getSubcommandConfiguration("remote").get("add");
+		
+		String json = CommandLineFormat.getInstance().format(config, CommandLineFormatType.JSON);
+		Assert.assertTrue(json, json.contains("\"identifier\": \"remote add\""));
+		String man = CommandLineFormat.getInstance().format(config, CommandLineFormatType.MAN);
+		Assert.assertTrue(man, man.contains(".BR app\\-remote\\-add (1)"));
+		String addMan = CommandLineFormat.getInstance().format(config, add, CommandLineFormatType.MAN);
+		Assert.assertTrue(addMan, addMan.startsWith(".TH APP\\-REMOTE\\-ADD 1\n"));
+		Assert.assertTrue(addMan, addMan.contains("app remote add [options]"));
+		Assert.assertTrue(addMan, addMan.contains(".BR app\\-remote (1)"));
+		String markdown = CommandLineFormat.getInstance().format(config, CommandLineFormatType.MARKDOWN);
+		Assert.assertTrue(markdown, markdown.contains("| [`remote add`](app-remote-add.md) | Add a remote |"));
+		
+		File dir = Files.createTempDirectory("jclif-help").toFile();
+		List<File> files = HelpDocumentGenerator.generate(config, CommandLineFormatType.MAN, dir);
+		Assert.assertEquals(Arrays.asList(new File(dir, "app.1"), new File(dir, "app-list.1"), 
+				new File(dir, "app-remote.1"), new File(dir, "app-remote-add.1")), files);
+		for(File file : files) {
+			file.delete();
+		}
+		dir.delete();
+	}
+	
+	@Test
+	public void testGenerateHelpDocuments() throws IOException {
+		CommandLineConfiguration config = createDocumentConfiguration();
+		File dir = Files.createTempDirectory("jclif-help").toFile();
+		List<File> files = HelpDocumentGenerator.generate(config, CommandLineFormatType.MAN, dir);
+		Assert.assertEquals(Arrays.asList(new File(dir, "app.1"), new File(dir, "app-list.1")), files);
+		Assert.assertEquals(CommandLineFormat.getInstance().format(config, config.getCommandMetadata("list"), 
+				CommandLineFormatType.MAN), new String(Files.readAllBytes(files.get(1).toPath()), "UTF-8"));
+		for(File file : files) {
+			file.delete();
+		}
+		dir.delete();
+	}
+	
 }
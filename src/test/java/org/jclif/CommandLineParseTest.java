@@ -293,6 +293,7 @@ public class CommandLineParseTest {
 		Assert.assertTrue(parseResult.isCommandMatch());
 		Assert.assertNotNull(parseResult.getMatchingCommand());
 		Assert.assertEquals("list", parseResult.getMatchingCommand().getIdentifier());
+		Assert.assertEquals(0, parseResult.getMatchingCommand().getOrdinal());
 		Assert.assertTrue(parseResult.getOptionInput().contains("i"));
 		Assert.assertTrue(parseResult.getOptionInput().contains("o"));
 		Assert.assertEquals("input.txt", parseResult.getOptionInput().get("i").getParameter().getStringValue());
@@ -300,4 +301,159 @@ public class CommandLineParseTest {
 		Assert.assertEquals("directory1", parseResult.getParameterInput().get("dir1").getStringValue());
 	}
 	
+	@Test
+	public void testCommandOrdinal() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();;
+		config.getCommandConfiguration().addCommand("list", new OptionConfiguration(), "Shows list of files");
+		config.getCommandConfiguration().addCommand("copy", new OptionConfiguration(), "Copy files");
+		config.getCommandConfiguration().addCommand("move", new OptionConfiguration(), "Move files");
+		config.getCommandConfiguration().remove("copy");
+		Assert.assertEquals(-1, config.getCommandConfiguration().getOrdinal("copy"));
+		Assert.assertEquals(2, config.getCommandConfiguration().getOrdinal("move"));
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, new String[] {"move"});
+		Assert.assertEquals(2, parseResult.getMatchingCommand().getOrdinal());
+	}
+	
+	@Test
+	public void testSuggestions() {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();;
+		config.getCommandConfiguration().addCommand("list", new OptionConfiguration(), "Shows list of files");
+		config.getCommandConfiguration().addCommand("copy", new OptionConfiguration(), "Copy files");
+		try {
+			CommandLineParser.getInstance().parse(config, new String[] {"lsit"});
+			Assert.fail("Command lsit should be invalid");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals(Arrays.asList("list"), e.getSuggestions());
+			String text = CommandLineFormat.getInstance().format(config, e);
+			Assert.assertTrue(text, text.startsWith("Error: Command lsit is invalid."));
+			Assert.assertTrue(text, text.contains("Did you mean one of these?"));
+		}
+		
+		config = createTestCommandLineConfiguration();
+		config.getOptionConfiguration().addOption("i", "input", ParameterType.FILE, false, false, "Input file", "Input file");
+		try {
+			CommandLineParser.getInstance().parse(config, new String[] {"--inptu"});
+			Assert.fail("Option --inptu should be invalid");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals(Arrays.asList("--input"), e.getSuggestions());
+		}
+	}
+	
+	@Test
+	public void testParseBundledOptions() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		config.getCommandLineProperties().setOptionBundling(true);
+		config.getOptionConfiguration().addOption("a", "all", ParameterType.NONE, false, false, "All", "All")
+			.addOption("l", "long", ParameterType.NONE, false, false, "Long", "Long")
+			.addOption("o", "output", ParameterType.STRING, false, false, "Output", "Output");
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "-al", "-ofile.txt");
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+		Assert.assertTrue(parseResult.getOptionInput().contains("l"));
+		Assert.assertEquals("file.txt", parseResult.getOptionInput().get("o").getParameter().getStringValue());
+		
+		parseResult = CommandLineParser.getInstance().parse(config, "-lao", "out.txt");
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+		Assert.assertEquals("out.txt", parseResult.getOptionInput().get("o").getParameter().getStringValue());
+		
+		try {
+			CommandLineParser.getInstance().parse(config, "-axl");
+			Assert.fail("Option -x should be invalid");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals("Option -x is invalid.", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testParseOptionalValueFollowedByOption() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		config.getOptionConfiguration().addOption("l", "level", 
+				new ParameterMetadataImpl("level", false, false, ParameterType.STRING, "Level"), 
+				false, false, "Level", "Level")
+			.addOption("a", "all", ParameterType.NONE, false, false, "All", "All");
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "--level", "-a");
+		Assert.assertNull(parseResult.getOptionInput().get("l").getParameter().getValue());
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+		
+		parseResult = CommandLineParser.getInstance().parse(config, "-l", "--all");
+		Assert.assertNull(parseResult.getOptionInput().get("l").getParameter().getValue());
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+		
+		parseResult = CommandLineParser.getInstance().parse(config, "--level", "debug", "-a");
+		Assert.assertEquals("debug", parseResult.getOptionInput().get("l").getParameter().getStringValue());
+	}
+	
+	@Test
+	public void testParseOptionalValueNegativeNumber() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		config.getOptionConfiguration().addOption("l", "level", 
+				new ParameterMetadataImpl("level", false, false, ParameterType.STRING, "Level"), 
+				false, false, "Level", "Level")
+			.addOption("a", "all", ParameterType.NONE, false, false, "All", "All");
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "--level", "-1", "-a");
+		Assert.assertEquals("-1", parseResult.getOptionInput().get("l").getParameter().getStringValue());
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+		
+		parseResult = CommandLineParser.getInstance().parse(config, "-l", "-2.5");
+		Assert.assertEquals("-2.5", parseResult.getOptionInput().get("l").getParameter().getStringValue());
+		
+		parseResult = CommandLineParser.getInstance().parse(config, "--level", "-a");
+		Assert.assertNull(parseResult.getOptionInput().get("l").getParameter().getValue());
+		Assert.assertTrue(parseResult.getOptionInput().contains("a"));
+	}
+	
+	@Test
+	public void testParseLongOptionWithAttachedValue() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		config.getOptionConfiguration().addOption("o", "output", ParameterType.STRING, false, false, "Output", "Output")
+			.addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Verbose");
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "--output=a=b.txt", "--verbose");
+		Assert.assertEquals("a=b.txt", parseResult.getOptionInput().get("o").getParameter().getStringValue());
+		Assert.assertTrue(parseResult.getOptionInput().contains("v"));
+		try {
+			CommandLineParser.getInstance().parse(config, "--verbose=yes");
+			Assert.fail("Option --verbose should not accept a parameter");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals("Option --verbose does not accept a parameter.", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testParseEndOfOptions() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		OptionConfiguration options = new OptionConfiguration();
+		options.addOption("f", "force", ParameterType.NONE, false, false, "Force", "Force");
+		config.getCommandConfiguration().addCommand("rm", options, "Remove files", 
+				new ParameterMetadataImpl("file", false, true, ParameterType.STRING, "Files"));
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "rm", "-f", "--", "-f", "--x");
+		Assert.assertTrue(parseResult.getOptionInput().contains("f"));
+		Assert.assertEquals(Arrays.asList("-f", "--x"), parseResult.getParameterInput().get("file").getValue());
+	}
+	
+	@Test
+	public void testParseAbbreviatedLongOption() throws InvalidInputException {
+		CommandLineConfiguration config = createTestCommandLineConfiguration();
+		config.getOptionConfiguration().addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Verbose")
+			.addOption("r", "version", ParameterType.NONE, false, false, "Version", "Version")
+			.addOption("o", "output", ParameterType.STRING, false, false, "Output", "Output");
+		try {
+			CommandLineParser.getInstance().parse(config, "--verb");
+			Assert.fail("Abbreviation should be disabled by default");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals("Option --verb is invalid.", e.getMessage());
+		}
+		
+		config.getCommandLineProperties().setOptionAbbreviation(true);
+		CommandLineParseResult parseResult = CommandLineParser.getInstance().parse(config, "--verb", "--out=a.txt");
+		Assert.assertTrue(parseResult.getOptionInput().contains("verbose"));
+		Assert.assertFalse(parseResult.getOptionInput().contains("version"));
+		Assert.assertEquals("a.txt", parseResult.getOptionInput().get("o").getParameter().getStringValue());
+		try {
+			CommandLineParser.getInstance().parse(config, "--ver");
+			Assert.fail("Option --ver should be ambiguous");
+		} catch (InvalidInputException e) {
+			Assert.assertEquals("Option --ver is ambiguous.", e.getMessage());
+			Assert.assertEquals(Arrays.asList("--verbose", "--version"), e.getSuggestions());
+		}
+	}
+	
 }
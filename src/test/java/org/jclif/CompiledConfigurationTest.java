@@ -0,0 +1,232 @@
+package org.jclif;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.runtime.Executor;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandLineProperties;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.CommandMetadataImpl;
+import org.jclif.type.CompiledConfiguration;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.OptionMetadata;
+import org.jclif.type.OptionMetadata.IdentifierType;
+import org.jclif.type.ParameterMetadata;
+import org.jclif.type.ParameterMetadataImpl;
+import org.jclif.type.ParameterParser;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import examples.DefaultCommand;
+import examples.ListCommand;
+
+public class CompiledConfigurationTest {
+
+	public static class NameParser implements ParameterParser {
+		@Override
+		public Object parseValue(ParameterMetadata option, String value) {
+			return value.toUpperCase();
+		}
+	}
+
+	private CommandLineConfiguration createConfiguration() {
+		CommandLineConfiguration config = new CommandLineConfiguration("app", "Sample app");
+		config.getOptionConfiguration().addOption("v", "verbose", ParameterType.NONE, false, false,
+				"Verbose output", "Prints more détails");
+		config.getParameterConfiguration().addParameter("file", false, "Input file");
+		OptionConfiguration copyOptions = new OptionConfiguration();
+		copyOptions.addOption("f", "force", ParameterType.NONE, false, false, "Force copy", null);
+		copyOptions.addOption("n", "", ParameterType.INTEGER, true, true, "Count", null);
+		CommandMetadataImpl copy = new CommandMetadataImpl("copy", copyOptions, "Copy files", "Copies files");
+		copy.setPartitionKey("n");
+		config.getCommandConfiguration().addCommand(copy);
+		config.getCommandConfiguration().addCommand("move", new OptionConfiguration(), "Move files",
+				new ParameterMetadataImpl("source", true, true, ParameterType.FILE, "Source file"));
+		return config;
+	}
+
+	@Test
+	public void testWriteAndMap() throws IOException, InvalidInputException {
+
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		Map<String, String> handlerClassNames = new HashMap<String, String>();
+		handlerClassNames.put("copy", "example.CopyCommand");
+		CompiledConfiguration.write(createConfiguration(), handlerClassNames, file);
+
+		CompiledConfiguration compiled = CompiledConfiguration.map(file);
+		Assert.assertEquals(2, compiled.getCommandCount());
+		Assert.assertNull(compiled.getDefaultHandlerClassName());
+		CommandLineConfiguration config = compiled.getConfiguration();
+		Assert.assertEquals("app", config.getName());
+		Assert.assertEquals("Sample app", config.getDescription());
+
+		OptionMetadata verbose = config.getOption("verbose");
+		Assert.assertEquals("v", verbose.getIdentifier());
+		Assert.assertEquals("Prints more détails", verbose.getLongDescription());
+		Assert.assertFalse(verbose.isParameterAccepted());
+		Assert.assertNotNull(config.getParameterConfiguration().get("file"));
+
+		CommandMetadata copy = config.getCommandMetadata("copy");
+		Assert.assertEquals("Copy files", copy.getDescription());
+		Assert.assertEquals("Copies files", copy.getLongDescription());
+		Assert.assertEquals("n", copy.getPartitionKey());
+		Assert.assertEquals("example.CopyCommand", compiled.getHandlerClassName(copy));
+		Assert.assertEquals("force", copy.getOptionConfigurations().get("f").getIdentifier(IdentifierType.LONG));
+		OptionMetadata count = copy.getOptionConfigurations().get("n");
+		Assert.assertTrue(count.isRequired());
+		Assert.assertTrue(count.isMultiValued());
+		Assert.assertEquals(ParameterType.INTEGER, count.getParameterMetadata().getParameterType());
+
+		CommandMetadata move = config.getCommandMetadata("move");
+		Assert.assertNull(compiled.getHandlerClassName(move));
+		Assert.assertEquals(0, move.getOptionConfigurations().size());
+		Assert.assertEquals(ParameterType.FILE,
+				move.getParameterConfigurations().get("source").getParameterType());
+		Assert.assertEquals(1, config.getCommandConfiguration().getOrdinal("move"));
+
+		CommandLineParseResult result = CommandLineParser.getInstance().parse(config,
+				new String[] {"copy", "-f", "-n", "1", "-n", "2"});
+		Assert.assertEquals("copy", result.getMatchingCommand().getIdentifier());
+		Assert.assertEquals(0, result.getMatchingCommand().getOrdinal());
+		Assert.assertTrue(result.getOptionInput().contains("f"));
+		Assert.assertTrue(result.getOptionInput().contains("n"));
+	}
+
+	@Test
+	public void testExecutorLoadCompiledConfiguration() throws IOException {
+
+		Executor compiler = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		compiler.registerHandler(ListCommand.class);
+		compiler.registerHandler(DefaultCommand.class);
+		Map<String, String> handlerClassNames = new HashMap<String, String>();
+		handlerClassNames.put("list", ListCommand.class.getName());
+		handlerClassNames.put(Command.DEFAULT_COMMAND_IDENTIFIER, DefaultCommand.class.getName());
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(compiler.getConfig(), handlerClassNames, file);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.loadCompiledConfiguration(file);
+		Assert.assertNotNull(executor.getConfig().getOption("x"));
+		executor.execute("list", "-x");
+		Assert.assertTrue(output.toString(), output.toString().contains("Option -x is invalid."));
+		Assert.assertTrue(output.toString(), output.toString().contains("list"));
+	}
+
+	@Test
+	public void testExecutorLoadsCompiledPluginHandler() throws IOException {
+
+		JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(javaCompiler);
+
+		File dir = Files.createTempDirectory("jclif-compiled-plugin").toFile();
+		File sourceFile = new File(dir, "PingCommand.java");
+		Files.write(sourceFile.toPath(), Arrays.asList("package plugin;\n"
+				+ "@org.jclif.annotation.Command(identifier=\"ping\", description=\"Ping\")\n"
+				+ "public class PingCommand {\n"
+				+ "	@org.jclif.annotation.Handler\n"
+				+ "	public void execute() { System.setProperty(\"jclif.test.compiled.ping\", \"pong\"); }\n"
+				+ "}\n"), Charset.forName("UTF-8"));
+		Assert.assertEquals(0, javaCompiler.run(null, null, null, "-proc:none",
+				"-cp", System.getProperty("java.class.path"), "-d", dir.getPath(), sourceFile.getPath()));
+		File pluginDir = new File(dir, "plugins");
+		pluginDir.mkdir();
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(new File(pluginDir, "ping.jar")));
+		try {
+			out.putNextEntry(new JarEntry("plugin/PingCommand.class"));
+			out.write(Files.readAllBytes(new File(dir, "plugin/PingCommand.class").toPath()));
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+
+		CommandLineConfiguration config = new CommandLineConfiguration("app", "Sample app");
+		config.getCommandConfiguration().addCommand(new CommandMetadataImpl("ping", new OptionConfiguration(), 
+				"Ping", null));
+		File file = new File(dir, "plugin.cfg");
+		CompiledConfiguration.write(config, Collections.singletonMap("ping", "plugin.PingCommand"), file);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.setPluginDirectory(pluginDir);
+		executor.loadCompiledConfiguration(file);
+		System.clearProperty("jclif.test.compiled.ping");
+		executor.execute("ping");
+		Assert.assertEquals(output.toString(), "pong", System.getProperty("jclif.test.compiled.ping"));
+		System.clearProperty("jclif.test.compiled.ping");
+	}
+
+	@Test
+	public void testExecutorKeepsCompiledProperties() throws IOException {
+
+		CommandLineConfiguration config = new CommandLineConfiguration("app", "Sample app",
+				new CommandLineProperties("/", "//", ":"));
+		config.getOptionConfiguration().addOption("v", "verbose", ParameterType.NONE, false, false,
+				"Verbose output", null);
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(config, new HashMap<String, String>(), file);
+
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.loadCompiledConfiguration(file);
+		CommandLineProperties properties = executor.getConfig().getCommandLineProperties();
+		Assert.assertEquals("/", properties.getOptionPrefix());
+		Assert.assertEquals("//", properties.getOptionLongPrefix());
+		Assert.assertEquals(":", properties.getOptionParameterDelim());
+	}
+
+	@Test
+	public void testParameterValidator() throws IOException {
+
+		CommandLineConfiguration config = new CommandLineConfiguration("app", "Sample app");
+		config.getParameterConfiguration().addParameter(new ParameterMetadataImpl("name", true, false, "Name", null,
+				ParameterType.CUSTOM, new NameParser()));
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(config, new HashMap<String, String>(), file);
+
+		final List<String> loadedClassNames = new ArrayList<String>();
+		CompiledConfiguration compiled = CompiledConfiguration.map(file);
+		compiled.setClassLoader(new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				loadedClassNames.add(name);
+				return super.loadClass(name, resolve);
+			}
+		});
+		ParameterMetadata name = compiled.getConfiguration().getParameterConfiguration().get("name");
+		ParameterParser validator = name.getParameterValidator();
+		Assert.assertTrue(validator instanceof NameParser);
+		Assert.assertSame(validator, name.getParameterValidator());
+		Assert.assertEquals(Arrays.asList(NameParser.class.getName()), loadedClassNames);
+	}
+
+}
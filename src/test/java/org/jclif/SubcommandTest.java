@@ -0,0 +1,209 @@
+package org.jclif;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.annotation.Option;
+import org.jclif.annotation.Parameter;
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineCompletion;
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.runtime.Executor;
+import org.jclif.text.CommandLineFormat;
+import org.jclif.text.CommandLineFormatType;
+import org.jclif.type.CommandConfiguration;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.CommandMetadataImpl;
+import org.jclif.type.CompiledConfiguration;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.ParameterMetadata;
+import org.jclif.type.ParameterMetadataImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubcommandTest {
+
+	@Command(identifier="remote",description="Manage remotes")
+	public static class RemoteCommand {
+
+		@Option(identifier="v",description="Verbose output")
+		private Boolean verbose;
+
+		@Handler
+		public void execute() {
+		}
+
+		public void setVerbose(Boolean verbose) {
+			this.verbose = verbose;
+		}
+
+	}
+
+	@Command(identifier="add",parent="remote",description="Add a remote")
+	public static class RemoteAddCommand {
+
+		static String lastUrl;
+
+		@Parameter(identifier="url",type=ParameterType.STRING,required=true)
+		private String url;
+
+		@Handler
+		public void execute() {
+			lastUrl = url;
+		}
+
+		public void setUrl(String url) {
+			this.url = url;
+		}
+
+	}
+
+	private CommandLineConfiguration createConfiguration() {
+		CommandLineConfiguration config = new CommandLineConfiguration("git");
+		config.setName("git");
+		OptionConfiguration remoteOptions = new OptionConfiguration();
+		remoteOptions.addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Verbose");
+		config.getCommandConfiguration().addCommand("remote", remoteOptions, "Manage remotes");
+		config.getCommandConfiguration().addCommand("status", new OptionConfiguration(), "Show status");
+		OptionConfiguration addOptions = new OptionConfiguration();
+		addOptions.addOption("f", "fetch", ParameterType.NONE, false, false, "Fetch", "Fetch after add");
+		config.getCommandConfiguration().addSubcommand("remote", new CommandMetadataImpl("add", addOptions, 
+				Arrays.<ParameterMetadata>asList(new ParameterMetadataImpl("url", true, false, ParameterType.STRING, "Url")),
+				"Add a remote", null));
+		config.getCommandConfiguration().addSubcommand("remote", new CommandMetadataImpl("remove", 
+				new OptionConfiguration(), "Remove a remote", null));
+		return config;
+	}
+
+	@Test
+	public void testParseSubcommand() throws InvalidInputException {
+		CommandLineConfiguration config = createConfiguration();
+		CommandLineParseResult result = CommandLineParser.getInstance().parse(config, 
+				new String[] {"remote", "add", "-v", "-f", "http://host/repo"});
+		Assert.assertEquals("add", result.getMatchingCommand().getIdentifier());
+		Assert.assertEquals(2, result.getMatchingCommand().getOrdinal());
+		Assert.assertTrue(result.getOptionInput().contains("v"));
+		Assert.assertTrue(result.getOptionInput().contains("f"));
+		Assert.assertEquals("http://host/repo", result.getParameterInput().get("url").getStringValue());
+
+		result = CommandLineParser.getInstance().parse(config, new String[] {"remote", "add", "--verbose", "x"});
+		Assert.assertTrue(result.getOptionInput().contains("v"));
+
+		result = CommandLineParser.getInstance().parse(config, new String[] {"remote", "-v"});
+		Assert.assertEquals("remote", result.getMatchingCommand().getIdentifier());
+	}
+
+	@Test
+	public void testInvalidSubcommand() {
+		CommandLineConfiguration config = createConfiguration();
+		try {
+			CommandLineParser.getInstance().parse(config, new String[] {"remote", "ad", "x"});
+			Assert.fail("Expected invalid subcommand");
+		} catch(InvalidInputException e) {
+			Assert.assertEquals("Command ad is invalid.", e.getMessage());
+			Assert.assertEquals(Arrays.asList("add"), e.getSuggestions());
+			Assert.assertEquals("remote", e.getCommandMetadata().getIdentifier());
+		}
+		try {
+			CommandLineParser.getInstance().parse(config, new String[] {"remote", "add", "-x", "url"});
+			Assert.fail("Expected invalid option");
+		} catch(InvalidInputException e) {
+			Assert.assertEquals("Option -x is invalid.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCommandPaths() {
+		CommandConfiguration commandConfig = createConfiguration().getCommandConfiguration();
+		CommandMetadata add = commandConfig.getSubcommandConfiguration("remote").get("add");
+		Assert.assertEquals("remote", commandConfig.getCommandPath(commandConfig.get("remote")));
+		Assert.assertEquals("remote add", commandConfig.getCommandPath(add));
+
+		CommandConfiguration copy = commandConfig.copy();
+		Assert.assertEquals("remote add", copy.getCommandPath(add));
+		copy.remove("remote");
+		Assert.assertNull(copy.getCommandPath(add));
+		Assert.assertEquals("remote add", commandConfig.getCommandPath(add));
+	}
+
+	@Test
+	public void testOrdinals() {
+		CommandConfiguration commandConfig = createConfiguration().getCommandConfiguration();
+		CommandConfiguration remoteConfig = commandConfig.getSubcommandConfiguration("remote");
+		Assert.assertEquals(0, commandConfig.getOrdinal("remote"));
+		Assert.assertEquals(1, commandConfig.getOrdinal("status"));
+		Assert.assertEquals(2, remoteConfig.getOrdinal("add"));
+		Assert.assertEquals(3, remoteConfig.getOrdinal("remove"));
+		Assert.assertEquals(3, commandConfig.copy().getSubcommandConfiguration("remote").getOrdinal("remove"));
+		Assert.assertNull(commandConfig.getSubcommandConfiguration("status"));
+	}
+
+	@Test
+	public void testFormat() {
+		CommandLineConfiguration config = createConfiguration();
+		String commands = CommandLineFormat.getInstance().format(config);
+		Assert.assertTrue(commands, commands.contains("   remote add "));
+		Assert.assertTrue(commands, commands.contains("   remote remove "));
+		CommandMetadata add = config.getCommandConfiguration().getSubcommandConfiguration("remote").get("add");
+		String usage = CommandLineFormat.getInstance().format(config, add, CommandLineFormatType.FULL);
+		Assert.assertTrue(usage, usage.contains("git remote add [options] <url>"));
+	}
+
+	@Test
+	public void testComplete() {
+		CommandLineConfiguration config = createConfiguration();
+		Assert.assertEquals(Arrays.asList("add"), 
+				CommandLineCompletion.complete(config, new String[] {"remote", "a"}, 1));
+		Assert.assertEquals(Arrays.asList("--fetch", "--verbose", "-f", "-v"), 
+				CommandLineCompletion.complete(config, new String[] {"remote", "add", "-"}, 2));
+	}
+
+	@Test
+	public void testExecuteSubcommandHandler() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(RemoteCommand.class);
+		executor.registerHandler(RemoteAddCommand.class);
+		executor.execute("remote", "add", "-v", "origin");
+		Assert.assertEquals(output.toString(), "origin", RemoteAddCommand.lastUrl);
+
+		Map<String, String> handlerClassNames = new HashMap<String, String>();
+		handlerClassNames.put("remote", RemoteCommand.class.getName());
+		handlerClassNames.put("remote add", RemoteAddCommand.class.getName());
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(executor.getConfig(), handlerClassNames, file);
+
+		CompiledConfiguration compiled = CompiledConfiguration.map(file);
+		CommandConfiguration remoteConfig = compiled.getConfiguration().getCommandConfiguration()
+				.getSubcommandConfiguration("remote");
+		Assert.assertEquals(RemoteAddCommand.class.getName(), compiled.getHandlerClassName(remoteConfig.get("add")));
+
+		Executor compiledExecutor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		compiledExecutor.loadCompiledConfiguration(file);
+		compiledExecutor.execute("remote", "add", "upstream");
+		Assert.assertEquals(output.toString(), "upstream", RemoteAddCommand.lastUrl);
+	}
+
+	@Test
+	public void testRegisterHandlers() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		// subcommand handlers are registered after their parent in a batch
+		executor.registerHandlers(RemoteAddCommand.class, RemoteCommand.class);
+		executor.execute("remote", "add", "mirror");
+		Assert.assertEquals(output.toString(), "mirror", RemoteAddCommand.lastUrl);
+	}
+
+}
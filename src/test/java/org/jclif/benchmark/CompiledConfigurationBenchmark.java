@@ -0,0 +1,64 @@
+package org.jclif.benchmark;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CompiledConfiguration;
+import org.jclif.type.OptionConfiguration;
+
+/**
+ * Load time benchmark of compiled configurations. A configuration of 3,000 commands with
+ * 20 options each is built from metadata objects, as the executor does from the handler
+ * annotations, then compiled, mapped and parsed once. Best time of the runs is printed.
+ * <p>
+ * Usage: java -cp target/classes:target/test-classes org.jclif.benchmark.CompiledConfigurationBenchmark
+ */
+public class CompiledConfigurationBenchmark {
+	
+	private static final int COMMANDS = 3000;
+	private static final int OPTIONS = 20;
+	private static final int RUNS = 10;
+	
+	public static void main(String[] args) throws Exception {
+		
+		Logger.getLogger("org.jclif").setLevel(Level.WARNING);
+		
+		File file = File.createTempFile("jclif-benchmark", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(createConfiguration(), Collections.<String, String>emptyMap(), file);
+		System.out.println("Compiled configuration: " + file.length() + " bytes");
+		
+		long built = Long.MAX_VALUE;
+		long mapped = Long.MAX_VALUE;
+		String[] commandLine = {"command2999", "-o1", "value"};
+		for(int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			CommandLineParser.getInstance().parse(createConfiguration(), commandLine);
+			built = Math.min(built, System.nanoTime() - start);
+			start = System.nanoTime();
+			CommandLineParser.getInstance().parse(CompiledConfiguration.map(file).getConfiguration(), commandLine);
+			mapped = Math.min(mapped, System.nanoTime() - start);
+		}
+		
+		System.out.println(String.format("Build and parse: %.2f ms, map and parse: %.2f ms", 
+				built / 1e6, mapped / 1e6));
+	}
+	
+	private static CommandLineConfiguration createConfiguration() {
+		CommandLineConfiguration config = new CommandLineConfiguration("linux");
+		for(int i = 0; i < COMMANDS; i++) {
+			OptionConfiguration options = new OptionConfiguration();
+			for(int j = 0; j < OPTIONS; j++) {
+				options.addOption("o" + j, "option" + j, ParameterType.STRING, false, false, "Option", "Option");
+			}
+			config.getCommandConfiguration().addCommand("command" + i, options, "Command");
+		}
+		return config;
+	}
+	
+}
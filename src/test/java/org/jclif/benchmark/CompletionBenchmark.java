@@ -0,0 +1,54 @@
+package org.jclif.benchmark;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineCompletion;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.OptionConfiguration;
+
+/**
+ * Latency benchmark of command line completion. A configuration of 1,000 commands with
+ * 20 options each is completed repeatedly as a resident process would, the average and
+ * worst latency of a completion after warm up are printed.
+ * <p>
+ * Usage: java -cp target/classes:target/test-classes org.jclif.benchmark.CompletionBenchmark
+ */
+public class CompletionBenchmark {
+	
+	private static final int COMMANDS = 1000;
+	private static final int OPTIONS = 20;
+	private static final int ITERATIONS = 100000;
+	
+	public static void main(String[] args) {
+		
+		CommandLineConfiguration config = new CommandLineConfiguration("linux");
+		for(int i = 0; i < COMMANDS; i++) {
+			OptionConfiguration options = new OptionConfiguration();
+			for(int j = 0; j < OPTIONS; j++) {
+				options.addOption("o" + j, "option" + j, ParameterType.STRING, false, false, "Option", "Option");
+			}
+			config.getCommandConfiguration().addCommand("command" + i, options, "Command");
+		}
+		
+		String[][] queries = {{"command5"}, {"command42", "--option1"}, {"command999", "-o"}};
+		int[] cursors = {0, 1, 1};
+		
+		long total = 0;
+		long worst = 0;
+		int completions = 0;
+		for(int i = 0; i < 2 * ITERATIONS; i++) {
+			int query = i % queries.length;
+			long start = System.nanoTime();
+			completions += CommandLineCompletion.complete(config, queries[query], cursors[query]).size();
+			long elapsed = System.nanoTime() - start;
+			// first half warms up the completion indexes and the JIT
+			if(i >= ITERATIONS) {
+				total += elapsed;
+				worst = Math.max(worst, elapsed);
+			}
+		}
+		
+		System.out.println(String.format("Completions: %d, average: %.1f us, worst: %.1f us", 
+				completions, total / 1000.0 / ITERATIONS, worst / 1000.0));
+	}
+	
+}
@@ -0,0 +1,192 @@
+package org.jclif.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jclif.runtime.Configuration;
+import org.jclif.runtime.Executor;
+
+/**
+ * Startup benchmark of handler discovery. Synthetic handler packages of 100, 1,000 and 
+ * 10,000 classes, one in four annotated with Command, are compiled to a class directory 
+ * and a jar. For each package a new JVM runs Executor.loadHandlers, once limited to a 
+ * single processor and once with all processors.
+ * <p>
+ * Usage: java -cp target/classes:target/test-classes org.jclif.benchmark.HandlerDiscoveryBenchmark [sizes...]
+ */
+public class HandlerDiscoveryBenchmark {
+	
+	private static final String HANDLER_PACKAGE = "bench.handlers";
+	private static final int RUNS = 3;
+	
+	public static void main(String[] args) throws Exception {
+		
+		if(args.length > 0 && args[0].equals("run")) {
+			run();
+			return;
+		}
+		
+		List<Integer> sizes = new ArrayList<Integer>();
+		for(String arg : args) {
+			sizes.add(Integer.valueOf(arg));
+		}
+		if(sizes.isEmpty()) {
+			sizes.addAll(Arrays.asList(100, 1000, 10000));
+		}
+		
+		System.out.println(String.format("%8s %6s %14s %14s", "Classes", "Layout", "1 cpu (ms)", 
+				Runtime.getRuntime().availableProcessors() + " cpus (ms)"));
+		for(int size : sizes) {
+			File dir = generate(size);
+			File jar = new File(dir.getParentFile(), dir.getName() + ".jar");
+			jar(dir, jar);
+			System.out.println(String.format("%8d %6s %14d %14d", size, "dir", 
+					launch(dir, true), launch(dir, false)));
+			System.out.println(String.format("%8d %6s %14d %14d", size, "jar", 
+					launch(jar, true), launch(jar, false)));
+		}
+	}
+	
+	/**
+	 * Child JVM entry point, prints the time taken by loadHandlers in milliseconds.
+	 */
+	private static void run() throws IOException {
+		InputStream config = Executor.class.getClassLoader().getResourceAsStream(Configuration.DEFAULT_EXECUTOR_CONFIG_FILE);
+		long start = System.nanoTime();
+		Executor executor = new Executor(config, new PrintStream(new NullOutputStream()));
+		executor.loadHandlers();
+		long elapsed = System.nanoTime() - start;
+		System.out.println((elapsed / 1000000) + " " + executor.getConfig().getCommandConfiguration().size());
+	}
+	
+	private static long launch(File location, boolean singleProcessor) throws IOException, InterruptedException {
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < RUNS; i++) {
+			List<String> command = new ArrayList<String>();
+			command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+			if(singleProcessor) {
+				command.add("-XX:ActiveProcessorCount=1");
+			}
+			command.add("-Djava.util.logging.config.file=" + File.createTempFile("jclif-logging", ".properties").getPath());
+			command.add("-cp");
+			command.add(location.getPath() + File.pathSeparator + System.getProperty("java.class.path"));
+			command.add(HandlerDiscoveryBenchmark.class.getName());
+			command.add("run");
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			String output = new String(readAll(process.getInputStream()), Charset.forName("UTF-8")).trim();
+			if(process.waitFor()!=0) {
+				throw new IllegalStateException("Benchmark run failed: " + output);
+			}
+			String[] lines = output.split("\n");
+			best = Math.min(best, Long.parseLong(lines[lines.length - 1].split(" ")[0]));
+		}
+		return best;
+	}
+	
+	private static File generate(int size) throws IOException {
+		
+		File dir = Files.createTempDirectory("jclif-bench-" + size).toFile();
+		File packageDir = new File(dir, HANDLER_PACKAGE.replace('.', File.separatorChar));
+		packageDir.mkdirs();
+		
+		List<File> sources = new ArrayList<File>();
+		for(int i = 0; i < size; i++) {
+			String name = "Class" + i;
+			StringBuilder source = new StringBuilder("package " + HANDLER_PACKAGE + ";\n");
+			if(i % 4 == 0) {
+				source.append("@org.jclif.annotation.Command(identifier=\"cmd" + i + "\",description=\"Command " + i + "\")\n");
+			}
+			source.append("public class " + name + " {\n")
+				.append("	static final String VALUE = String.valueOf(" + i + ");\n")
+				.append("	@org.jclif.annotation.Option(identifier=\"n\",type=org.jclif.annotation.ParameterType.STRING)\n")
+				.append("	private String name;\n")
+				.append("	@org.jclif.annotation.Handler\n")
+				.append("	public void execute() {\n")
+				.append("	}\n")
+				.append("	public void setName(String name) {\n")
+				.append("		this.name = name;\n")
+				.append("	}\n")
+				.append("}\n");
+			File sourceFile = new File(packageDir, name + ".java");
+			Files.write(sourceFile.toPath(), source.toString().getBytes(Charset.forName("UTF-8")));
+			sources.add(sourceFile);
+		}
+		
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StringWriter diagnostics = new StringWriter();
+		boolean success = compiler.getTask(diagnostics, null, null, 
+				Arrays.asList("-proc:none", "-d", dir.getPath(), "-classpath", System.getProperty("java.class.path")), 
+				null, compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources)).call();
+		if(!success) {
+			throw new IllegalStateException("Compilation failed: " + diagnostics);
+		}
+		for(File source : sources) {
+			source.delete();
+		}
+		
+		String properties = Configuration.CONFIG_PROPERTY_APP_NAME + "=bench\n" 
+				+ Configuration.CONFIG_PROPERTY_APP_HANDLER_PACKAGE + "=" + HANDLER_PACKAGE + "\n";
+		Files.write(new File(dir, Configuration.DEFAULT_EXECUTOR_CONFIG_FILE).toPath(), 
+				properties.getBytes(Charset.forName("UTF-8")));
+		return dir;
+	}
+	
+	private static void jar(File dir, File jar) throws IOException {
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			addEntries(out, dir, "");
+		} finally {
+			out.close();
+		}
+	}
+	
+	private static void addEntries(JarOutputStream out, File dir, String path) throws IOException {
+		for(File file : dir.listFiles()) {
+			if(file.isDirectory()) {
+				out.putNextEntry(new JarEntry(path + file.getName() + "/"));
+				out.closeEntry();
+				addEntries(out, file, path + file.getName() + "/");
+			} else {
+				out.putNextEntry(new JarEntry(path + file.getName()));
+				out.write(Files.readAllBytes(file.toPath()));
+				out.closeEntry();
+			}
+		}
+	}
+	
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Output stream discarding the usage text written by the executor.
+	 */
+	private static class NullOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+	}
+	
+}
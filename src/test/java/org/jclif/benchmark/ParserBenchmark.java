@@ -0,0 +1,78 @@
+package org.jclif.benchmark;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.OptionConfiguration;
+import org.jclif.type.ParameterMetadataImpl;
+
+/**
+ * Throughput benchmark of command line parsing. The common forms, separate short and long 
+ * options with separate values, are parsed first, then the same input written with bundled 
+ * flags, attached values, <code>--option=value</code> and the <code>--</code> marker, then
+ * with abbreviated long options. The average time of a parse after warm up is printed for
+ * each form.
+ * <p>
+ * Usage: java -cp target/classes:target/test-classes org.jclif.benchmark.ParserBenchmark
+ */
+public class ParserBenchmark {
+	
+	private static final int ITERATIONS = 200000;
+	
+	public static void main(String[] args) throws InvalidInputException {
+		
+		// parse logging is not part of the measurement
+		Logger.getLogger("org.jclif").setLevel(Level.WARNING);
+		
+		CommandLineConfiguration config = new CommandLineConfiguration("linux");
+		OptionConfiguration options = new OptionConfiguration();
+		options.addOption("a", "all", ParameterType.NONE, false, false, "All", "All");
+		options.addOption("l", "long", ParameterType.NONE, false, false, "Long", "Long");
+		options.addOption("v", "verbose", ParameterType.NONE, false, false, "Verbose", "Verbose");
+		options.addOption("o", "output", ParameterType.STRING, false, false, "Output", "Output");
+		options.addOption("n", "count", ParameterType.INTEGER, false, false, "Count", "Count");
+		config.getCommandConfiguration().addCommand("list", options, "List files", 
+				new ParameterMetadataImpl("file", false, true, ParameterType.STRING, "Files"));
+		config.getCommandLineProperties().setOptionBundling(true);
+		config.getCommandLineProperties().setOptionAbbreviation(true);
+		
+		String[][] common = {
+			{"list", "-a", "-l", "-v", "-o", "out.txt", "-n", "10", "a.txt", "b.txt"},
+			{"list", "--all", "--long", "--verbose", "--output", "out.txt", "--count", "10", "a.txt", "b.txt"},
+		};
+		String[][] posix = {
+			{"list", "-alv", "-oout.txt", "-n10", "a.txt", "b.txt"},
+			{"list", "--all", "--long", "--verbose", "--output=out.txt", "--count=10", "--", "a.txt", "b.txt"},
+		};
+		String[][] abbreviated = {
+			{"list", "--a", "--l", "--verb", "--out", "out.txt", "--co", "10", "a.txt", "b.txt"},
+		};
+		
+		System.out.println(String.format("Common forms: %.2f us/parse", run(config, common)));
+		System.out.println(String.format("POSIX/GNU forms: %.2f us/parse", run(config, posix)));
+		System.out.println(String.format("Abbreviated forms: %.2f us/parse", run(config, abbreviated)));
+	}
+	
+	private static double run(CommandLineConfiguration config, String[][] inputs) throws InvalidInputException {
+		CommandLineParser parser = CommandLineParser.getInstance();
+		int options = 0;
+		long start = 0;
+		for(int i = 0; i < 2 * ITERATIONS; i++) {
+			// first half warms up the JIT
+			if(i == ITERATIONS) {
+				start = System.nanoTime();
+			}
+			options += parser.parse(config, inputs[i % inputs.length]).getOptionInput().size();
+		}
+		long elapsed = System.nanoTime() - start;
+		if(options == 0) {
+			throw new IllegalStateException("No option parsed");
+		}
+		return elapsed / 1000.0 / ITERATIONS;
+	}
+	
+}
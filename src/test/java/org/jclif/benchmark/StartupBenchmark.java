@@ -0,0 +1,126 @@
+package org.jclif.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jclif.plugin.CodeGenerator;
+import org.jclif.runtime.Configuration;
+import org.jclif.runtime.Executor;
+
+/**
+ * Startup benchmark of class data sharing. The main and test class directories are 
+ * packaged in a jar, a class list is recorded by training the example application with
+ * representative command lines and a shared archive is dumped. Each command line is then 
+ * launched in a new JVM with and without the archive and the best wall clock time of
+ * the launches is reported.
+ * <p>
+ * Usage: java -cp target/classes:target/test-classes org.jclif.benchmark.StartupBenchmark [classDirs...]
+ */
+public class StartupBenchmark {
+	
+	private static final int RUNS = 10;
+	private static final List<String> TRAINING_SET = Arrays.asList("list -s -n name", "list -x");
+	
+	public static void main(String[] args) throws Exception {
+		
+		List<File> classDirs = new ArrayList<File>();
+		for(String arg : args) {
+			classDirs.add(new File(arg));
+		}
+		if(classDirs.isEmpty()) {
+			classDirs.addAll(Arrays.asList(new File("target/classes"), new File("target/test-classes")));
+		}
+		
+		File dir = Files.createTempDirectory("jclif-startup").toFile();
+		File jar = new File(dir, "app.jar");
+		jar(classDirs, jar);
+		File trainingFile = new File(dir, "training.txt");
+		Files.write(trainingFile.toPath(), TRAINING_SET, Charset.forName("UTF-8"));
+		
+		CodeGenerator codeGen = new CodeGenerator("startup", dir.getPath());
+		File classList = codeGen.generateClassList(trainingFile, jar.getPath(), new File(dir, "app.classlist"));
+		File archive = codeGen.generateSharedArchive(classList, jar.getPath(), new File(dir, "app.jsa"));
+		System.out.println("Class list: " + Files.readAllLines(classList.toPath(), Charset.forName("UTF-8")).size() 
+				+ " classes, archive: " + archive.length() + " bytes");
+		
+		System.out.println(String.format("%-20s %16s %16s", "Command line", "no archive (ms)", "archive (ms)"));
+		for(String commandLine : TRAINING_SET) {
+			System.out.println(String.format("%-20s %16d %16d", commandLine, 
+					launch(jar, null, commandLine), launch(jar, archive, commandLine)));
+		}
+	}
+	
+	private static long launch(File jar, File archive, String commandLine) throws IOException, InterruptedException {
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < RUNS; i++) {
+			List<String> command = new ArrayList<String>();
+			command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+			if(archive!=null) {
+				command.add("-XX:SharedArchiveFile=" + archive.getPath());
+			}
+			command.add("-Djava.util.logging.config.file=" + File.createTempFile("jclif-logging", ".properties").getPath());
+			command.add("-D" + Configuration.PROPERTY_JCLIF_INDEX_FILE + "=");
+			command.add("-cp");
+			command.add(jar.getPath());
+			command.add(Executor.class.getName());
+			command.addAll(Arrays.asList(commandLine.split(" ")));
+			long start = System.nanoTime();
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			drain(process.getInputStream());
+			process.waitFor();
+			best = Math.min(best, (System.nanoTime() - start) / 1000000);
+		}
+		return best;
+	}
+	
+	private static void jar(List<File> classDirs, File jar) throws IOException {
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			Set<String> names = new HashSet<String>();
+			for(File classDir : classDirs) {
+				addEntries(out, classDir, "", names);
+			}
+		} finally {
+			out.close();
+		}
+	}
+	
+	private static void addEntries(JarOutputStream out, File dir, String path, Set<String> names) throws IOException {
+		for(File file : dir.listFiles()) {
+			String name = path + file.getName() + (file.isDirectory()?"/":"");
+			if(!names.add(name)) {
+				if(file.isDirectory()) {
+					addEntries(out, file, name, names);
+				}
+				continue;
+			}
+			out.putNextEntry(new JarEntry(name));
+			if(!file.isDirectory()) {
+				out.write(Files.readAllBytes(file.toPath()));
+			}
+			out.closeEntry();
+			if(file.isDirectory()) {
+				addEntries(out, file, name, names);
+			}
+		}
+	}
+	
+	private static void drain(InputStream in) throws IOException {
+		byte[] buffer = new byte[8192];
+		while(in.read(buffer) != -1) {
+		}
+		in.close();
+	}
+	
+}
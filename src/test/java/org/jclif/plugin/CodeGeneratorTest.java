@@ -1,14 +1,25 @@
 package org.jclif.plugin;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jclif.runtime.Configuration;
+import org.jclif.runtime.Executor;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
+import examples.ListCommand;
+
 public class CodeGeneratorTest {
 
 	@Test
@@ -38,4 +49,100 @@ public class CodeGeneratorTest {
 		file.delete();
 	}
 	
+	@Test
+	public void testGenerateClassList() throws IOException {
+		
+		// -XX:DumpLoadedClassList is available on JDK 9 and later
+		Assume.assumeFalse(System.getProperty("java.specification.version").startsWith("1."));
+		
+		File trainingFile = File.createTempFile("jclif-training", ".txt");
+		File classListFile = File.createTempFile("jclif", ".classlist");
+		Files.write(trainingFile.toPath(), Arrays.asList("# training set", "list -s -n name", "list -x", ""), 
+				Charset.forName("UTF-8"));
+		
+		CodeGenerator codeGen = new CodeGenerator("app1", "src/test/java");
+		codeGen.generateClassList(trainingFile, System.getProperty("java.class.path"), classListFile);
+		
+		List<String> classList = Files.readAllLines(classListFile.toPath(), Charset.forName("UTF-8"));
+		Assert.assertTrue(classList.contains("org/jclif/runtime/Executor"));
+		Assert.assertTrue(classList.contains("examples/ListCommand"));
+		
+		trainingFile.delete();
+		classListFile.delete();
+	}
+	
+	@Test
+	public void testTrainDiscardsOutput() throws IOException {
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(ListCommand.class);
+		
+		PrintStream stdout = System.out;
+		ByteArrayOutputStream handlerOutput = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(handlerOutput));
+		try {
+			Assert.assertEquals(2, executor.train(new StringReader("# training set\nlist -s 1\nlist -x\n")));
+		} finally {
+			System.setOut(stdout);
+		}
+		Assert.assertEquals(0, output.size());
+		Assert.assertEquals(0, handlerOutput.size());
+	}
+	
+	@Test
+	public void testGenerateNativeImageConfig() throws IOException {
+		File dir = Files.createTempDirectory("jclif-native").toFile();
+		CodeGenerator codeGen = new CodeGenerator("app1", "src/test/java");
+		File configDir = codeGen.generateNativeImageConfig("examples", dir.getPath());
+		
+		String reflectConfig = new String(Files.readAllBytes(new File(configDir, "reflect-config.json").toPath()), 
+				Charset.forName("UTF-8"));
+		Assert.assertTrue(reflectConfig, reflectConfig.contains("{\"name\":\"examples.ListCommand\",\"allDeclaredFields\":true,"));
+		Assert.assertFalse(reflectConfig, reflectConfig.contains("examples.MyClass"));
+		String resourceConfig = new String(Files.readAllBytes(new File(configDir, "resource-config.json").toPath()), 
+				Charset.forName("UTF-8"));
+		Assert.assertTrue(resourceConfig, resourceConfig.contains("{\"pattern\":\"\\\\Qjclif.properties\\\\E\"}"));
+	}
+	
+	@Test
+	public void testGenerateMainIncremental() throws IOException {
+		
+		File dir = Files.createTempDirectory("jclif-codegen").toFile();
+		File file = new File(dir, Configuration.DEFAULT_EXECUTOR_CONFIG_FILE);
+		
+		CodeGenerator codeGen = new CodeGenerator("app1", "src/test/java");
+		codeGen.generateMain("org.jclif", dir.getPath());
+		Assert.assertTrue(new File(dir, CodeGenerator.CACHE_FILE).isFile());
+		Assert.assertEquals(Arrays.asList("# JCLIF Generated file", "org.jclif.app.name=app1", 
+				"org.jclif.app.handler.1=org.jclif.runtime.Handler1"), 
+				Files.readAllLines(file.toPath(), Charset.forName("UTF-8")));
+		
+		Assert.assertTrue(file.setLastModified(1000));
+		codeGen.generateMain("org.jclif", dir.getPath());
+		Assert.assertEquals(1000, file.lastModified());
+		
+		new CodeGenerator("app2", "src/test/java").generateMain("org.jclif", dir.getPath());
+		Assert.assertTrue(file.lastModified() > 1000);
+	}
+	
+	@Test
+	public void testLoadFailureNotCached() throws IOException {
+		
+		File sourceDir = Files.createTempDirectory("jclif-source").toFile();
+		File packageDir = new File(sourceDir, "uncompiled");
+		packageDir.mkdir();
+		Files.write(new File(packageDir, "Missing.java").toPath(), 
+				Arrays.asList("package uncompiled;", "public class Missing {}"), Charset.forName("UTF-8"));
+		File cacheFile = new File(sourceDir, CodeGenerator.CACHE_FILE);
+		
+		CodeGenerator codeGen = new CodeGenerator("app1", sourceDir.getPath());
+		Assert.assertTrue(codeGen.getHandlerClassNames("uncompiled", cacheFile).isEmpty());
+		Assert.assertFalse(cacheFile.exists());
+		
+		new File(packageDir, "Missing.java").delete();
+		packageDir.delete();
+		sourceDir.delete();
+	}
+	
 }
@@ -0,0 +1,167 @@
+package org.jclif.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jclif.runtime.Executor;
+import org.jclif.runtime.HandlerBinder;
+import org.jclif.runtime.HandlerProvider;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.EnvironmentSnapshot;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class HandlerAnnotationProcessorTest {
+	
+	public static final List<String> CALLS = new ArrayList<String>();
+	
+	private static final String HANDLER_SOURCE = 
+			"package generated;\n"
+			+ "import java.util.List;\n"
+			+ "import org.jclif.annotation.*;\n"
+			+ "@Command(identifier=\"copy\",description=\"Copy \\\"files\\\"\",partitionKey=\"n\")\n"
+			+ "public class CopyCommand {\n"
+			+ "	@Option(identifier=\"f\")\n"
+			+ "	private boolean force;\n"
+			+ "	@Option(identifier=\"n\",type=ParameterType.STRING,environmentVariable=\"COPY_NAME\")\n"
+			+ "	private String name;\n"
+			+ "	@Parameter(identifier=\"count\",type=ParameterType.INTEGER,multiValued=true)\n"
+			+ "	private List<Integer> counts;\n"
+			+ "	@Handler\n"
+			+ "	public void run() {\n"
+			+ "		org.jclif.plugin.HandlerAnnotationProcessorTest.CALLS.add(force + \",\" + name + \",\" + counts);\n"
+			+ "	}\n"
+			+ "	public void setForce(boolean force) { this.force = force; }\n"
+			+ "	public void setName(String name) { this.name = name; }\n"
+			+ "	public void setCounts(List<Integer> counts) { this.counts = counts; }\n"
+			+ "}\n";
+	
+	@Test
+	public void testGeneratedBinder() throws Exception {
+		
+		File outputDir = compile(HANDLER_SOURCE, true);
+		
+		URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader());
+		Iterator<HandlerProvider> providers = ServiceLoader.load(HandlerProvider.class, loader).iterator();
+		Assert.assertTrue(providers.hasNext());
+		HandlerProvider provider = providers.next();
+		Assert.assertEquals("generated." + HandlerAnnotationProcessor.PROVIDER_CLASS_NAME, 
+				provider.getClass().getName());
+		
+		Assert.assertEquals(Arrays.asList("generated"), provider.getPackages());
+		List<HandlerBinder> binders = provider.getBinders();
+		Assert.assertEquals(1, binders.size());
+		HandlerBinder binder = binders.get(0);
+		Assert.assertEquals("generated.CopyCommand", binder.getHandlerClass().getName());
+		Assert.assertEquals("", binder.getParent());
+		
+		CommandMetadata metadata = binder.createMetadata();
+		Assert.assertEquals("copy", metadata.getIdentifier());
+		Assert.assertEquals("Copy \"files\"", metadata.getDescription());
+		Assert.assertEquals("n", metadata.getPartitionKey());
+		Assert.assertEquals(2, metadata.getOptionConfigurations().size());
+		Assert.assertEquals("COPY_NAME", metadata.getOptionConfigurations().get("n").getEnvironmentVariable());
+		Assert.assertNull(metadata.getOptionConfigurations().get("n").getSystemProperty());
+		Assert.assertTrue(metadata.getParameterConfigurations().get("count").isMultiValued());
+		
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(binder);
+		CALLS.clear();
+		executor.execute("copy", "-f", "-n", "abc", "1", "2");
+		executor.execute("copy", "3");
+		executor.setEnvironment(new EnvironmentSnapshot(Collections.singletonMap("COPY_NAME", "env"), 
+				Collections.<String, String>emptyMap()));
+		executor.execute("copy", "4");
+		Assert.assertEquals(Arrays.asList("true,abc,[1, 2]", "false,null,[3]", "false,env,[4]"), CALLS);
+	}
+	
+	@Test
+	public void testLoadHandlersWithProvider() throws Exception {
+		File outputDir = compile(HANDLER_SOURCE, true);
+		
+		URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader());
+		ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(loader);
+		try {
+			Executor executor = new Executor(new ByteArrayInputStream(
+					"org.jclif.app.handler.package=examples\n".getBytes("UTF-8")), 
+					new PrintStream(new ByteArrayOutputStream()));
+			executor.loadHandlers();
+			Assert.assertNotNull(executor.getConfig().getCommandMetadata("copy"));
+			Assert.assertNotNull(executor.getConfig().getCommandMetadata("list"));
+		} finally {
+			Thread.currentThread().setContextClassLoader(contextLoader);
+		}
+	}
+	
+	@Test
+	public void testLoadHandlersOfCoveredPackage() throws Exception {
+		File outputDir = compile(HANDLER_SOURCE, true);
+		
+		URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader());
+		ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(loader);
+		try {
+			Executor executor = new Executor(new ByteArrayInputStream(
+					("org.jclif.app.handler.package=generated\n"
+					+ "org.jclif.app.handler.1=generated.CopyCommand\n").getBytes("UTF-8")), 
+					new PrintStream(new ByteArrayOutputStream()));
+			executor.loadHandlers();
+			Assert.assertNotNull(executor.getConfig().getCommandMetadata("copy"));
+			Assert.assertEquals(1, executor.getConfig().getCommandConfiguration().size());
+		} finally {
+			Thread.currentThread().setContextClassLoader(contextLoader);
+		}
+	}
+	
+	@Test
+	public void testMissingSetter() throws Exception {
+		String source = HANDLER_SOURCE.replace("public void setName(String name) { this.name = name; }\n", "");
+		compile(source, false);
+	}
+	
+	private File compile(String source, boolean success) throws IOException {
+		
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(compiler);
+		
+		File dir = Files.createTempDirectory("jclif-processor").toFile();
+		File sourceFile = new File(dir, "CopyCommand.java");
+		Files.write(sourceFile.toPath(), source.getBytes(Charset.forName("UTF-8")));
+		
+		StringWriter diagnostics = new StringWriter();
+		boolean result = compiler.getTask(diagnostics, null, null, 
+				Arrays.asList("-d", dir.getPath(), 
+						"-s", dir.getPath(),
+						"-classpath", System.getProperty("java.class.path"),
+						"-processor", HandlerAnnotationProcessor.class.getName()), 
+				null, 
+				compiler.getStandardFileManager(null, null, null).getJavaFileObjects(sourceFile)).call();
+		
+		Assert.assertEquals(diagnostics.toString(), success, result);
+		if(!success) {
+			Assert.assertTrue(diagnostics.toString(), diagnostics.toString().contains("Setter method not found for field name"));
+		}
+		return dir;
+	}
+	
+}
@@ -0,0 +1,85 @@
+package org.jclif.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jclif.runtime.Executor;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Builds a native image of the example application and runs it. Test is skipped if no
+ * native-image tool is found in GRAALVM_HOME, JAVA_HOME or PATH, it is excluded from 
+ * the default build and run by the native-image profile.
+ */
+public class NativeImageSmokeTest {
+	
+	@Test
+	public void testNativeImage() throws IOException, InterruptedException {
+		
+		File nativeImage = findNativeImage();
+		Assume.assumeNotNull(nativeImage);
+		
+		File dir = Files.createTempDirectory("jclif-native").toFile();
+		CodeGenerator codeGen = new CodeGenerator("app1", "src/test/java");
+		codeGen.generateMain("examples", dir.getPath());
+		codeGen.generateNativeImageConfig("examples", dir.getPath());
+		
+		File image = new File(dir, "app1");
+		run(Arrays.asList(nativeImage.getPath(), "--no-fallback", 
+				"-cp", dir.getPath() + File.pathSeparator + System.getProperty("java.class.path"),
+				"-o", image.getPath(), Executor.class.getName()));
+		
+		String output = run(Arrays.asList(image.getPath(), "list", "-x"));
+		Assert.assertTrue(output, output.contains("Error: Option -x is invalid."));
+		Assert.assertTrue(output, output.contains("list"));
+		
+		// handler is created, its fields are set by its setters and its handler method is called
+		output = run(Arrays.asList(image.getPath(), "list", "-s", "-n", "name", "1", "2"));
+		Assert.assertTrue(output, output.contains(
+				"List handler called. showAll=true,name=name,dir=[], counts=[1, 2]"));
+	}
+	
+	private static File findNativeImage() {
+		List<String> dirs = new ArrayList<String>();
+		for(String home : Arrays.asList(System.getenv("GRAALVM_HOME"), System.getenv("JAVA_HOME"))) {
+			if(home!=null) {
+				dirs.add(new File(home, "bin").getPath());
+			}
+		}
+		if(System.getenv("PATH")!=null) {
+			dirs.addAll(Arrays.asList(System.getenv("PATH").split(File.pathSeparator)));
+		}
+		for(String dir : dirs) {
+			File file = new File(dir, "native-image");
+			if(file.canExecute()) {
+				return file;
+			}
+		}
+		return null;
+	}
+	
+	private static String run(List<String> command) throws IOException, InterruptedException {
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		InputStream in = process.getInputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		in.close();
+		String text = new String(output.toByteArray(), Charset.defaultCharset());
+		Assert.assertEquals(text, 0, process.waitFor());
+		return text;
+	}
+	
+}
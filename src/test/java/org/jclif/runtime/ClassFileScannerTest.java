@@ -0,0 +1,53 @@
+package org.jclif.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.ListCommand;
+import examples.MyClass;
+
+public class ClassFileScannerTest {
+	
+	@Test
+	public void testGetCommandClassNameStream() throws IOException {
+		Assert.assertEquals("examples.ListCommand", scan(ListCommand.class));
+		Assert.assertNull(scan(MyClass.class));
+		Assert.assertNull(scan(ClassFileScannerTest.class));
+		Assert.assertEquals(ScriptRunnerTest.FailCommand.class.getName(), scan(ScriptRunnerTest.FailCommand.class));
+		Assert.assertEquals(PartitionedSchedulerTest.UpdateCommand.class.getName(), 
+				scan(PartitionedSchedulerTest.UpdateCommand.class));
+	}
+	
+	@Test
+	public void testGetCommandClassNameFile() throws IOException, URISyntaxException {
+		File file = new File(ListCommand.class.getResource("ListCommand.class").toURI());
+		Assert.assertEquals("examples.ListCommand", ClassFileScanner.getCommandClassName(file));
+	}
+	
+	@Test(expected=IOException.class)
+	public void testInvalidClassFile() throws IOException {
+		ClassFileScanner.getCommandClassName(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+	}
+	
+	@Test(expected=IOException.class)
+	public void testTruncatedClassFile() throws IOException {
+		ClassFileScanner.getCommandClassName(ByteBuffer.wrap(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 51, 0, 10}));
+	}
+	
+	private String scan(Class<?> type) throws IOException {
+		String resource = "/" + type.getName().replace('.', '/') + ".class";
+		InputStream in = type.getResourceAsStream(resource);
+		try {
+			return ClassFileScanner.getCommandClassName(in);
+		} finally {
+			in.close();
+		}
+	}
+	
+}
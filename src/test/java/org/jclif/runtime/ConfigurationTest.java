@@ -77,8 +77,8 @@ public class ConfigurationTest {
 		
 		Assert.assertEquals("examples", config.getHandlerPackage());
 		List<Class<?>> handlerList = config.getPackageHandlerList();
-		Assert.assertEquals(3, handlerList.size());
-		Assert.assertTrue(handlerList.contains(MyClass.class));
+		Assert.assertEquals(2, handlerList.size());
+		Assert.assertFalse(handlerList.contains(MyClass.class));
 		Assert.assertTrue(handlerList.contains(ListCommand.class));
 		Assert.assertTrue(handlerList.contains(DefaultCommand.class));
 	
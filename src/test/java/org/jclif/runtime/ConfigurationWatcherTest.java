@@ -0,0 +1,187 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import examples.ListCommand;
+
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.type.CommandLineConfiguration;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ConfigurationWatcherTest {
+
+	private static final long TIMEOUT = 10000;
+
+	@Test
+	public void testReloadConfigurationFile() throws Exception {
+
+		File dir = Files.createTempDirectory("jclif-watch").toFile();
+		File configFile = new File(dir, "jclif.properties");
+		write(configFile, "org.jclif.app.handler.1=examples.ListCommand\n");
+
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.setConfigurationFile(configFile);
+		executor.loadHandlers();
+		CommandLineConfiguration config = executor.getConfig();
+		Assert.assertNotNull(config.getCommandMetadata("list"));
+
+		executor.reload();
+		Assert.assertNotNull(executor.getConfig().getCommandMetadata("list"));
+		Assert.assertNotSame(config, executor.getConfig());
+
+		Closeable watcher = executor.watch();
+		try {
+			write(configFile, "org.jclif.app.name=watched\n");
+			Assert.assertTrue(waitFor(executor, "list", false));
+		} finally {
+			watcher.close();
+			configFile.delete();
+			dir.delete();
+		}
+
+		// snapshot taken before reload is not modified
+		Assert.assertNotNull(config.getCommandMetadata("list"));
+	}
+
+	@Test
+	public void testReloadDispatchesOlderSnapshot() throws Exception {
+
+		File dir = Files.createTempDirectory("jclif-watch").toFile();
+		File configFile = new File(dir, "jclif.properties");
+		write(configFile, "org.jclif.app.handler.1=examples.ListCommand\n"
+				+ "org.jclif.app.handler.2=org.jclif.runtime.ScriptRunnerTest$FailCommand\n");
+
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.setConfigurationFile(configFile);
+		executor.loadHandlers();
+		Executor.Snapshot snapshot = executor.getSnapshot();
+		CommandLineParseResult result = CommandLineParser.getInstance().parse(snapshot.getConfig(), 
+				executor.getEnvironment(), "list", "-s", "1");
+		Assert.assertSame(ListCommand.class, snapshot.getHandler(result).getHandlerClass());
+
+		// ordinals of the reloaded commands differ from the ordinals of the parsed result
+		write(configFile, "org.jclif.app.handler.1=org.jclif.runtime.ScriptRunnerTest$FailCommand\n"
+				+ "org.jclif.app.handler.2=examples.ListCommand\n");
+		try {
+			executor.reload();
+		} finally {
+			configFile.delete();
+			dir.delete();
+		}
+		// handler now at the ordinal of the result does not handle the result
+		Assert.assertNull(executor.getHandler(result));
+		Assert.assertSame(ListCommand.class, snapshot.getHandler(result).getHandlerClass());
+	}
+
+	@Test
+	public void testReloadConfigurationStream() throws Exception {
+
+		Executor executor = new Executor(new ByteArrayInputStream(
+				"org.jclif.app.handler.1=examples.ListCommand\n".getBytes("UTF-8")),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.loadHandlers();
+		Assert.assertNotNull(executor.getConfig().getCommandMetadata("list"));
+
+		// properties read from the stream are kept
+		executor.reload();
+		Assert.assertNotNull(executor.getConfig().getCommandMetadata("list"));
+	}
+
+	@Test
+	public void testReloadPluginJar() throws Exception {
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(compiler);
+
+		File dir = Files.createTempDirectory("jclif-plugin").toFile();
+		File configFile = new File(dir, "jclif.properties");
+		write(configFile, "org.jclif.app.handler.1=plugin.PingCommand\n");
+		File pluginDir = new File(dir, "plugins");
+		pluginDir.mkdir();
+
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.setConfigurationFile(configFile);
+		executor.setPluginDirectory(pluginDir);
+		executor.loadHandlers();
+		Assert.assertNull(executor.getConfig().getCommandMetadata("ping"));
+
+		Closeable watcher = executor.watch();
+		try {
+			createPluginJar(compiler, dir, new File(pluginDir, "ping.jar"));
+			Assert.assertTrue(waitFor(executor, "ping", true));
+		} finally {
+			watcher.close();
+		}
+
+		System.clearProperty("jclif.test.ping");
+		executor.execute("ping");
+		Assert.assertEquals("pong", System.getProperty("jclif.test.ping"));
+		System.clearProperty("jclif.test.ping");
+	}
+
+	private static boolean waitFor(Executor executor, String command, boolean registered)
+			throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while(System.currentTimeMillis() < end) {
+			if((executor.getConfig().getCommandMetadata(command)!=null) == registered) {
+				return true;
+			}
+			Thread.sleep(50);
+		}
+		return false;
+	}
+
+	private static void createPluginJar(JavaCompiler compiler, File dir, File jarFile) throws IOException {
+		File sourceDir = new File(dir, "src/plugin");
+		sourceDir.mkdirs();
+		File sourceFile = new File(sourceDir, "PingCommand.java");
+		write(sourceFile, "package plugin;\n"
+				+ "@org.jclif.annotation.Command(identifier=\"ping\", description=\"Ping\")\n"
+				+ "public class PingCommand {\n"
+				+ "	@org.jclif.annotation.Handler\n"
+				+ "	public void execute() { System.setProperty(\"jclif.test.ping\", \"pong\"); }\n"
+				+ "}\n");
+		File classDir = new File(dir, "classes");
+		classDir.mkdirs();
+		Assert.assertEquals(0, compiler.run(null, null, null, "-proc:none",
+				"-cp", System.getProperty("java.class.path"),
+				"-d", classDir.getPath(), sourceFile.getPath()));
+
+		// write to a temporary file first so the watcher sees a complete jar
+		File tempFile = new File(dir, "ping.tmp");
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(tempFile));
+		try {
+			out.putNextEntry(new JarEntry("plugin/PingCommand.class"));
+			out.write(Files.readAllBytes(new File(classDir, "plugin/PingCommand.class").toPath()));
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+		Assert.assertTrue(tempFile.renameTo(jarFile));
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), Arrays.asList(content), Charset.forName("UTF-8"));
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionContextTest {
+
+	@Test
+	public void testBindIsPerThread() throws InterruptedException {
+		PrintStream out = new PrintStream(new ByteArrayOutputStream());
+		Assert.assertSame(System.out, ExecutionContext.getOut());
+		PrintStream previous = ExecutionContext.bind(out);
+		try {
+			Assert.assertNull(previous);
+			Assert.assertSame(out, ExecutionContext.getOut());
+			final AtomicReference<PrintStream> otherOut = new AtomicReference<PrintStream>();
+			Thread other = new Thread() {
+				public void run() {
+					otherOut.set(ExecutionContext.getOut());
+				}
+			};
+			other.start();
+			other.join();
+			Assert.assertSame(System.out, otherOut.get());
+		} finally {
+			ExecutionContext.bind(previous);
+		}
+		Assert.assertSame(System.out, ExecutionContext.getOut());
+	}
+
+}
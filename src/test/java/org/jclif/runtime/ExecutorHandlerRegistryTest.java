@@ -0,0 +1,103 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.type.CommandLineConfiguration;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.CommandMetadataImpl;
+import org.jclif.type.OptionConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.ListCommand;
+
+public class ExecutorHandlerRegistryTest {
+	
+	@Test
+	public void testGetHandler() {
+		ExecutorHandlerRegistry registry = new ExecutorHandlerRegistry();
+		ExecutorHandler handler = new ExecutorHandler(ListCommand.class);
+		registry.add(handler, 40);
+		Assert.assertSame(handler, registry.getHandler(40));
+		Assert.assertSame(handler, registry.getHandler(handler.getMetadata()));
+		Assert.assertNull(registry.getHandler(0));
+		Assert.assertNull(registry.getHandler(-1));
+		Assert.assertNull(registry.getHandler(41));
+		Assert.assertNull(registry.getDefaultHandler());
+		
+		CommandMetadata other = new CommandMetadataImpl("list", new OptionConfiguration(), "Other list", null);
+		Assert.assertNull(registry.getHandler(other));
+	}
+	
+	@Test
+	public void testGetHandlerByCommandPath() {
+		ExecutorHandlerRegistry registry = new ExecutorHandlerRegistry();
+		CommandMetadata add = new CommandMetadataImpl("add", new OptionConfiguration(), "Add", null);
+		CommandMetadata remoteAdd = new CommandMetadataImpl("add", new OptionConfiguration(), "Remote add", null);
+		ExecutorHandler addHandler = new ExecutorHandler(add, ListCommand.class, null);
+		ExecutorHandler remoteAddHandler = new ExecutorHandler(remoteAdd, ListCommand.class, null);
+		registry.add(addHandler, 0, "add");
+		registry.add(remoteAddHandler, 1, "remote add");
+		Assert.assertSame(addHandler, registry.getHandler("add", add));
+		Assert.assertSame(remoteAddHandler, registry.getHandler("remote add", remoteAdd));
+		Assert.assertSame(addHandler, registry.getHandler(add));
+		Assert.assertNull(registry.getHandler("remote add", add));
+	}
+	
+	@Test
+	public void testAddAssignsOrdinal() {
+		ExecutorHandlerRegistry registry = new ExecutorHandlerRegistry();
+		ExecutorHandler first = new ExecutorHandler(ListCommand.class);
+		ExecutorHandler second = new ExecutorHandler(
+				new CommandMetadataImpl("other", new OptionConfiguration(), "Other", null), ListCommand.class, null);
+		Assert.assertEquals(5, registry.add(first, 5));
+		Assert.assertEquals(6, registry.add(second));
+		Assert.assertSame(first, registry.getHandler(5));
+		Assert.assertSame(second, registry.getHandler(6));
+		Assert.assertEquals(7, registry.copy().add(first));
+	}
+	
+	@Test
+	public void testRegisterHandlerWhileExecuting() throws Exception {
+		final Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.setOperatingSystem("linux");
+		executor.registerHandler(ListCommand.class);
+		final CommandLineConfiguration initial = executor.getConfig();
+		Assert.assertTrue(initial.isFrozen());
+		
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread reader = new Thread() {
+			public void run() {
+				try {
+					while(!done.get()) {
+						CommandLineParseResult result = CommandLineParser.getInstance().parse(
+								executor.getConfig(), new String[] {"list", "-s", "1"});
+						Assert.assertSame(ListCommand.class, executor.getHandler(result).getHandlerClass());
+					}
+				} catch (Throwable t) {
+					failure.set(t);
+				}
+			}
+		};
+		reader.start();
+		for(int i = 0; i < 200; i++) {
+			executor.registerHandler(new ExecutorHandler(
+					new CommandMetadataImpl("command" + i, new OptionConfiguration(), "Command", null), 
+					ListCommand.class, null));
+		}
+		done.set(true);
+		reader.join();
+		Assert.assertNull(String.valueOf(failure.get()), failure.get());
+		Assert.assertEquals(1, initial.getCommandConfiguration().size());
+		Assert.assertEquals(201, executor.getConfig().getCommandConfiguration().size());
+	}
+	
+}
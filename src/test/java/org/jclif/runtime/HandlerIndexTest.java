@@ -0,0 +1,96 @@
+package org.jclif.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.DefaultCommand;
+import examples.ListCommand;
+
+public class HandlerIndexTest {
+	
+	@Test
+	public void testWriteRead() throws IOException, ClassNotFoundException {
+		
+		File indexFile = File.createTempFile("jclif-index", ".idx");
+		indexFile.deleteOnExit();
+		File location = new File("target/test-classes");
+		
+		List<Class<?>> handlers = Arrays.<Class<?>>asList(ListCommand.class, DefaultCommand.class);
+		new HandlerIndex("examples", location, 42, handlers).write(indexFile);
+		
+		HandlerIndex index = HandlerIndex.read(indexFile);
+		Assert.assertTrue(index.matches("examples", location, 42));
+		Assert.assertFalse(index.matches("examples", location, 43));
+		Assert.assertFalse(index.matches("other", location, 42));
+		if(Files.getFileStore(indexFile.toPath()).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Assert.assertEquals(PosixFilePermissions.fromString("rw-------"), 
+					Files.getPosixFilePermissions(indexFile.toPath()));
+		}
+		Assert.assertEquals(handlers, index.loadClasses(getClass().getClassLoader()));
+		Assert.assertEquals("list", index.getEntries().get(0).getIdentifier());
+		Assert.assertEquals("List files", index.getEntries().get(0).getDescription());
+		
+		// index listing a class of another package is not used
+		new HandlerIndex("examples", location, 42, 
+				Arrays.<Class<?>>asList(ListCommand.class, HandlerIndexTest.class)).write(indexFile);
+		Assert.assertFalse(HandlerIndex.read(indexFile).matches("examples", location, 42));
+		
+		indexFile.delete();
+		Assert.assertNull(HandlerIndex.read(indexFile));
+	}
+	
+	@Test
+	public void testFingerprint() throws IOException {
+		
+		File dir = File.createTempFile("jclif-index", "");
+		dir.delete();
+		File packageDir = new File(dir, "a/b");
+		packageDir.mkdirs();
+		File classFile = new File(packageDir, "A.class");
+		classFile.createNewFile();
+		
+		long fingerprint = HandlerIndex.fingerprint(dir, "a");
+		Assert.assertEquals(fingerprint, HandlerIndex.fingerprint(dir, "a"));
+		
+		classFile.setLastModified(classFile.lastModified() - 10000);
+		Assert.assertNotEquals(fingerprint, HandlerIndex.fingerprint(dir, "a"));
+		
+		classFile.delete();
+		packageDir.delete();
+		packageDir.getParentFile().delete();
+		dir.delete();
+	}
+	
+	@Test
+	public void testGetPackageHandlerListIndex() throws IOException {
+		
+		File indexFile = File.createTempFile("jclif-index", ".idx");
+		indexFile.delete();
+		indexFile.deleteOnExit();
+		
+		Configuration config = new Configuration();
+		config.load();
+		List<Class<?>> handlerList = config.getPackageHandlerList(indexFile);
+		Assert.assertEquals(2, handlerList.size());
+		Assert.assertTrue(indexFile.isFile());
+		
+		// index with the same fingerprint is used instead of scanning the package
+		HandlerIndex index = HandlerIndex.read(indexFile);
+		File location = new File("target/test-classes").getCanonicalFile();
+		Assert.assertTrue(index.matches("examples", location, index.getFingerprint()));
+		new HandlerIndex("examples", location, index.getFingerprint(), 
+				Arrays.<Class<?>>asList(ListCommand.class)).write(indexFile);
+		Assert.assertEquals(Arrays.<Class<?>>asList(ListCommand.class), config.getPackageHandlerList(indexFile));
+		
+		indexFile.delete();
+	}
+	
+}
@@ -0,0 +1,65 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.ListCommand;
+
+public class LazyCommandMetadataTest {
+	
+	@Test
+	public void testLoadOnDemand() {
+		LazyCommandMetadata metadata = new LazyCommandMetadata(ListCommand.class.getName(), "list", "List files");
+		Assert.assertEquals("list", metadata.getIdentifier());
+		Assert.assertEquals("List files", metadata.getDescription());
+		Assert.assertFalse(metadata.isLoaded());
+		Assert.assertNotNull(metadata.getOptionConfigurations().getOption("s"));
+		Assert.assertTrue(metadata.isLoaded());
+		Assert.assertEquals(ListCommand.class, metadata.getHandlerClass());
+	}
+	
+	@Test
+	public void testLoadDispatchedCommandOnly() {
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		LazyCommandMetadata listMetadata = new LazyCommandMetadata(ListCommand.class.getName(), "list", "List files");
+		LazyCommandMetadata missingMetadata = new LazyCommandMetadata("examples.MissingCommand", "missing", "Missing");
+		executor.registerHandler(new ExecutorHandler(listMetadata));
+		executor.registerHandler(new ExecutorHandler(missingMetadata));
+		
+		executor.execute("list", "-s");
+		Assert.assertTrue(listMetadata.isLoaded());
+		Assert.assertFalse(missingMetadata.isLoaded());
+		
+		try {
+			missingMetadata.getOptionConfigurations();
+			Assert.fail("Missing handler class loaded");
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals("Handler class examples.MissingCommand not found", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testLoadWithOwnerClassLoader() {
+		final List<String> loadedNames = new ArrayList<String>();
+		ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				loadedNames.add(name);
+				return super.loadClass(name, resolve);
+			}
+		};
+		LazyCommandMetadata metadata = new LazyCommandMetadata(ListCommand.class.getName(), "list", 
+				"List files", "", loader);
+		Assert.assertEquals(ListCommand.class, metadata.getHandlerClass());
+		Assert.assertTrue(loadedNames.toString(), loadedNames.contains(ListCommand.class.getName()));
+	}
+	
+}
@@ -0,0 +1,148 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.annotation.Option;
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.type.CompiledConfiguration;
+import org.jclif.type.EnvironmentSnapshot;
+import org.jclif.type.OptionMetadata;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptionFallbackTest {
+
+	static final List<String> CALLS = new ArrayList<String>();
+
+	@Command(identifier="job",description="Run a job")
+	public static class JobCommand {
+
+		@Option(identifier="n",type=ParameterType.INTEGER,required=true,environmentVariable="JOB_COUNT")
+		private Integer count;
+
+		@Option(identifier="v",environmentVariable="JOB_VERBOSE",systemProperty="job.verbose")
+		private Boolean verbose;
+
+		@Option(identifier="h",type=ParameterType.STRING,environmentVariable="JOB_HOSTS")
+		private List<String> hosts;
+
+		@Handler
+		public void execute() {
+			CALLS.add(count + "," + verbose + "," + hosts);
+		}
+
+		public void setCount(Integer count) {
+			this.count = count;
+		}
+
+		public void setVerbose(Boolean verbose) {
+			this.verbose = verbose;
+		}
+
+		public void setHosts(List<String> hosts) {
+			this.hosts = hosts;
+		}
+
+	}
+
+	private static EnvironmentSnapshot createEnvironment(String... variables) {
+		Map<String, String> environment = new HashMap<String, String>();
+		for(int i = 0; i < variables.length; i += 2) {
+			environment.put(variables[i], variables[i + 1]);
+		}
+		Map<String, String> properties = new HashMap<String, String>();
+		properties.put("job.verbose", "false");
+		return new EnvironmentSnapshot(environment, properties);
+	}
+
+	@Test
+	public void testFallbackValues() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(JobCommand.class);
+		executor.setEnvironment(createEnvironment("JOB_COUNT", "5", "JOB_VERBOSE", "true", "JOB_HOSTS", "a, b"));
+
+		CALLS.clear();
+		executor.execute("job");
+		executor.execute("job", "-n", "7", "-v", "-h", "c");
+		Assert.assertEquals(output.toString(), Arrays.asList("5,false,[a, b]", "7,true,[c]"), CALLS);
+	}
+
+	@Test
+	public void testMissingAndInvalidFallbackValues() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(JobCommand.class);
+
+		CALLS.clear();
+		executor.setEnvironment(createEnvironment());
+		executor.execute("job");
+		Assert.assertTrue(output.toString(), output.toString().contains("Option -n is required."));
+
+		executor.setEnvironment(createEnvironment("JOB_COUNT", "five"));
+		executor.execute("job");
+		Assert.assertTrue(output.toString(), output.toString().contains("Error: Invalid fallback value 'five' for option n"));
+		Assert.assertFalse(output.toString(), output.toString().contains("Unknwon exception"));
+
+		// a flag accepts only true or false
+		for(String value : new String[] {"1", "yes"}) {
+			output.reset();
+			Map<String, String> properties = new HashMap<String, String>();
+			properties.put("job.verbose", value);
+			executor.setEnvironment(new EnvironmentSnapshot(Collections.singletonMap("JOB_COUNT", "5"), properties));
+			executor.execute("job");
+			Assert.assertTrue(output.toString(), output.toString().contains("Error: Invalid fallback value '" 
+					+ value + "' for option v"));
+		}
+		Assert.assertTrue(CALLS.isEmpty());
+	}
+
+	@Test
+	public void testFallbackValueConvertedOnAccess() throws InvalidInputException {
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(JobCommand.class);
+
+		CommandLineParseResult result = CommandLineParser.getInstance().parse(executor.getConfig(), 
+				createEnvironment("JOB_COUNT", "five"), "job");
+		Assert.assertEquals(Boolean.FALSE, HandlerBinderSupport.getOptionValue(result, "v"));
+		try {
+			HandlerBinderSupport.getOptionValue(result, "n");
+			Assert.fail("Invalid fallback value converted");
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getCause() instanceof InvalidInputException);
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid fallback value 'five' for option n"));
+		}
+	}
+
+	@Test
+	public void testCompiledFallbackNames() throws IOException {
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(JobCommand.class);
+		File file = File.createTempFile("jclif", ".cfg");
+		file.deleteOnExit();
+		CompiledConfiguration.write(executor.getConfig(), new HashMap<String, String>(), file);
+
+		OptionMetadata verbose = CompiledConfiguration.map(file).getConfiguration()
+				.getCommandMetadata("job").getOptionConfigurations().get("v");
+		Assert.assertEquals("JOB_VERBOSE", verbose.getEnvironmentVariable());
+		Assert.assertEquals("job.verbose", verbose.getSystemProperty());
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.jclif.runtime;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.DefaultCommand;
+import examples.ListCommand;
+import examples.MyClass;
+
+public class ParallelHandlerScannerTest {
+	
+	@Test
+	public void testScanDirectory() throws URISyntaxException {
+		File dir = new File(ListCommand.class.getResource("ListCommand.class").toURI()).getParentFile();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		List<String> classNames = ParallelHandlerScanner.scanDirectory(pool, dir);
+		pool.shutdown();
+		Assert.assertEquals(Arrays.asList("examples.DefaultCommand", "examples.ListCommand"), classNames);
+	}
+	
+	@Test
+	public void testCreateHandlers() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		List<ExecutorHandler> handlers = ParallelHandlerScanner.createHandlers(pool, 
+				Arrays.<Class<?>>asList(ListCommand.class, MyClass.class, DefaultCommand.class));
+		pool.shutdown();
+		Assert.assertEquals(2, handlers.size());
+		Assert.assertEquals(ListCommand.class, handlers.get(0).getHandlerClass());
+		Assert.assertEquals(DefaultCommand.class, handlers.get(1).getHandlerClass());
+	}
+	
+	@Test
+	public void testSharedPool() throws URISyntaxException {
+		File dir = new File(ListCommand.class.getResource("ListCommand.class").toURI()).getParentFile();
+		ForkJoinPool pool = ParallelHandlerScanner.getPool();
+		ParallelHandlerScanner.scanDirectory(pool, dir);
+		Assert.assertSame(pool, ParallelHandlerScanner.getPool());
+		Assert.assertFalse(pool.isShutdown());
+		Assert.assertEquals(Arrays.asList("examples.DefaultCommand", "examples.ListCommand"), 
+				ParallelHandlerScanner.scanDirectory(pool, dir));
+	}
+	
+}
@@ -0,0 +1,195 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.annotation.Option;
+import org.jclif.annotation.Parameter;
+import org.jclif.annotation.ParameterType;
+import org.jclif.parser.CommandLineParseResult;
+import org.jclif.parser.CommandLineParser;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.type.CommandMetadata;
+import org.jclif.type.EnvironmentSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PartitionedSchedulerTest {
+	
+	@Command(identifier="update",description="Update entity",partitionKey="id")
+	public static class UpdateCommand {
+		
+		static final Map<String, List<Integer>> UPDATES = new ConcurrentHashMap<String, List<Integer>>();
+		
+		@Option(identifier="id",type=ParameterType.STRING,environmentVariable="UPDATE_ID")
+		private String id;
+		
+		@Parameter(identifier="value",type=ParameterType.INTEGER)
+		private Integer value;
+		
+		@Handler
+		public void execute() {
+			List<Integer> updates = UPDATES.get(id);
+			if(updates==null) {
+				updates = Collections.synchronizedList(new ArrayList<Integer>());
+				List<Integer> existing = ((ConcurrentHashMap<String, List<Integer>>) UPDATES).putIfAbsent(id, updates);
+				updates = (existing==null)?updates:existing;
+			}
+			updates.add(value);
+		}
+		
+		public void setId(String id) {
+			this.id = id;
+		}
+		
+		public void setValue(Integer value) {
+			this.value = value;
+		}
+		
+	}
+	
+	@Command(identifier="invalid",partitionKey="missing")
+	public static class InvalidPartitionCommand {
+		
+		@Handler
+		public void execute() {
+		}
+		
+	}
+	
+	@Test
+	public void testLaneCount() {
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Assert.assertEquals(8, new PartitionedScheduler(pool, 5).getLaneCount());
+		Assert.assertEquals(1, new PartitionedScheduler(pool, 1).getLaneCount());
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testOrderPerKey() throws InterruptedException {
+		
+		int keys = 16;
+		int tasksPerKey = 500;
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		PartitionedScheduler scheduler = new PartitionedScheduler(pool, 4);
+		final CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+		final List<List<Integer>> results = new ArrayList<List<Integer>>();
+		for(int k = 0; k < keys; k++) {
+			results.add(new ArrayList<Integer>());
+		}
+		
+		for(int i = 0; i < tasksPerKey; i++) {
+			for(int k = 0; k < keys; k++) {
+				final List<Integer> result = results.get(k);
+				final int value = i;
+				scheduler.submit("key" + k, new Runnable() {
+					public void run() {
+						result.add(value);
+						done.countDown();
+					}
+				});
+			}
+		}
+		
+		Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+		pool.shutdown();
+		for(List<Integer> result : results) {
+			Assert.assertEquals(tasksPerKey, result.size());
+			for(int i = 0; i < tasksPerKey; i++) {
+				Assert.assertEquals(Integer.valueOf(i), result.get(i));
+			}
+		}
+	}
+	
+	@Test
+	public void testLaneContinuesAfterError() throws InterruptedException {
+		
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		PartitionedScheduler scheduler = new PartitionedScheduler(pool, 1);
+		final CountDownLatch done = new CountDownLatch(3);
+		for(int i = 0; i < 4; i++) {
+			final boolean fail = (i == 1);
+			scheduler.submit("key", new Runnable() {
+				public void run() {
+					if(fail) {
+						throw new AssertionError("task failed");
+					}
+					done.countDown();
+				}
+			});
+		}
+		
+		Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testPartitionKeyFallback() throws InvalidInputException {
+		
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(UpdateCommand.class);
+		EnvironmentSnapshot environment = new EnvironmentSnapshot(
+				Collections.singletonMap("UPDATE_ID", "7"), Collections.<String, String>emptyMap());
+		
+		CommandLineParseResult fallback = CommandLineParser.getInstance().parse(
+				executor.getConfig(), environment, "update", "1");
+		CommandLineParseResult explicit = CommandLineParser.getInstance().parse(
+				executor.getConfig(), environment, "update", "-id", "7", "2");
+		CommandMetadata metadata = (CommandMetadata) fallback.getMatchingCommand().getMetadata();
+		Assert.assertEquals("7", PartitionedScheduler.getPartitionKey(metadata, fallback));
+		Assert.assertEquals("7", PartitionedScheduler.getPartitionKey(metadata, explicit));
+		
+		CommandLineParseResult missing = CommandLineParser.getInstance().parse(
+				executor.getConfig(), EnvironmentSnapshot.EMPTY, "update", "1");
+		Assert.assertNull(PartitionedScheduler.getPartitionKey(metadata, missing));
+	}
+	
+	@Test
+	public void testPartitionedScript() throws IOException {
+		
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), 
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(UpdateCommand.class);
+		executor.setScriptConcurrency(4);
+		UpdateCommand.UPDATES.clear();
+		
+		StringBuilder script = new StringBuilder();
+		for(int i = 0; i < 200; i++) {
+			script.append("update -id ").append(i % 3).append(' ').append(i).append('\n');
+		}
+		ScriptSummary summary = executor.executeScript(new StringReader(script.toString()));
+		
+		Assert.assertEquals(200, summary.getCount());
+		Assert.assertEquals(0, summary.getFailures());
+		for(int k = 0; k < 3; k++) {
+			List<Integer> updates = UpdateCommand.UPDATES.get(String.valueOf(k));
+			int previous = -1;
+			for(Integer value : updates) {
+				Assert.assertEquals(k, value % 3);
+				Assert.assertTrue(value > previous);
+				previous = value;
+			}
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidPartitionKey() {
+		AnnotationProcessor.getHandlerMetadata(InvalidPartitionCommand.class);
+	}
+	
+}
@@ -0,0 +1,154 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclif.annotation.Command;
+import org.jclif.annotation.Handler;
+import org.jclif.parser.InvalidInputException;
+import org.jclif.type.EnvironmentSnapshot;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import examples.ListCommand;
+
+public class ScriptRunnerTest {
+	
+	@Command(identifier="fail",description="Always fails")
+	public static class FailCommand {
+		
+		static final AtomicInteger ATTEMPTS = new AtomicInteger();
+		
+		@Handler
+		public void execute() {
+			ATTEMPTS.incrementAndGet();
+			throw new IllegalStateException("failed");
+		}
+		
+	}
+	
+	@Command(identifier="crash",description="Always throws an error")
+	public static class CrashCommand {
+		
+		static final AtomicInteger ATTEMPTS = new AtomicInteger();
+		
+		@Handler
+		public void execute() {
+			ATTEMPTS.incrementAndGet();
+			throw new AssertionError("crashed");
+		}
+		
+	}
+	
+	private ByteArrayOutputStream output;
+	private Executor executor;
+	
+	@Before
+	public void setUp() {
+		output = new ByteArrayOutputStream();
+		executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(ListCommand.class);
+		executor.registerHandler(FailCommand.class);
+		executor.registerHandler(CrashCommand.class);
+		FailCommand.ATTEMPTS.set(0);
+		CrashCommand.ATTEMPTS.set(0);
+	}
+	
+	@Test
+	public void testExecuteScriptContinue() throws IOException {
+		String script = "# sample script\n"
+				+ "list -s 1 2\n"
+				+ "\n"
+				+ "list -x\n"
+				+ "list -s -n 'some name' 3\n"
+				+ "fail\n";
+		executor.setScriptConcurrency(2);
+		ScriptSummary summary = executor.executeScript(new StringReader(script));
+		
+		Assert.assertEquals(4, summary.getCount());
+		Assert.assertEquals(2, summary.getFailures());
+		Assert.assertEquals(0, summary.getSkipped());
+		Assert.assertFalse(summary.isStopped());
+		Assert.assertEquals(3, summary.getCommandStatistics("list").getCount());
+		Assert.assertEquals(1, summary.getCommandStatistics("list").getFailures());
+		Assert.assertEquals(1, FailCommand.ATTEMPTS.get());
+		
+		String out = output.toString();
+		Assert.assertTrue(out, out.contains("Error: line 4: Option -x is invalid."));
+		Assert.assertTrue(out, out.contains("Error: line 6: Handler method of handler class"));
+	}
+	
+	@Test
+	public void testExecuteScriptStop() throws IOException {
+		String script = "list -x\n"
+				+ "list -s 1\n"
+				+ "list -s 2\n";
+		executor.setScriptFailurePolicy(ScriptFailurePolicy.STOP);
+		ScriptSummary summary = executor.executeScript(new StringReader(script));
+		
+		Assert.assertTrue(summary.isStopped());
+		Assert.assertEquals(1, summary.getCount());
+		Assert.assertEquals(1, summary.getFailures());
+		Assert.assertEquals(2, summary.getSkipped());
+	}
+	
+	@Test
+	public void testExecuteScriptRetry() throws IOException {
+		executor.setScriptFailurePolicy(ScriptFailurePolicy.RETRY);
+		executor.setScriptRetryCount(2);
+		ScriptSummary summary = executor.executeScript(new StringReader("fail\n"));
+		
+		Assert.assertEquals(1, summary.getCount());
+		Assert.assertEquals(1, summary.getFailures());
+		Assert.assertEquals(2, summary.getCommandStatistics("fail").getRetries());
+		Assert.assertEquals(3, FailCommand.ATTEMPTS.get());
+	}
+	
+	@Test
+	public void testExecuteScriptErrorNotRetried() throws IOException {
+		executor.setScriptFailurePolicy(ScriptFailurePolicy.RETRY);
+		executor.setScriptRetryCount(2);
+		executor.setScriptConcurrency(1);
+		ScriptSummary summary = executor.executeScript(new StringReader("crash\nlist -s 1\n"));
+		
+		Assert.assertTrue(summary.isStopped());
+		Assert.assertEquals(1, summary.getCount());
+		Assert.assertEquals(1, summary.getFailures());
+		Assert.assertEquals(1, summary.getSkipped());
+		Assert.assertEquals(1, CrashCommand.ATTEMPTS.get());
+	}
+	
+	@Test
+	public void testParseScriptOptions() throws InvalidInputException {
+		Assert.assertNull(executor.parseScriptOptions("list", "-s"));
+		
+		executor.setEnvironment(EnvironmentSnapshot.EMPTY);
+		Assert.assertNull(executor.parseScriptOptions());
+		
+		File script = executor.parseScriptOptions("--script", "commands.txt", "--script_concurrency", "2", 
+				"--script_failure_policy", "retry", "--script_retry_count", "5");
+		Assert.assertEquals(new File("commands.txt"), script);
+		Assert.assertEquals(2, executor.getScriptConcurrency());
+		Assert.assertEquals(ScriptFailurePolicy.RETRY, executor.getScriptFailurePolicy());
+		Assert.assertEquals(5, executor.getScriptRetryCount());
+		
+		executor.setEnvironment(new EnvironmentSnapshot(Collections.<String, String>emptyMap(), 
+				Collections.singletonMap(Configuration.PROPERTY_JCLIF_SCRIPT_FILE, "other.txt")));
+		Assert.assertEquals(new File("other.txt"), executor.parseScriptOptions());
+		
+		try {
+			executor.parseScriptOptions("--script", "commands.txt", "--script_failure_policy", "ignore");
+			Assert.fail("Invalid failure policy accepted");
+		} catch (InvalidInputException e) {
+			// expected
+		}
+	}
+	
+}
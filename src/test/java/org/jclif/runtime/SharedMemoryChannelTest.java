@@ -0,0 +1,109 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.ListCommand;
+
+public class SharedMemoryChannelTest {
+
+	@Test
+	public void testEncodeDecodeArguments() throws IOException {
+		String[] args = {"list", "-n", "some name", "", "été"};
+		byte[] payload = SharedMemoryChannel.encodeArguments(args);
+		Assert.assertArrayEquals(args, SharedMemoryChannel.decodeArguments(payload));
+	}
+
+	@Test
+	public void testDecodeInvalidArgumentCount() {
+		byte[][] payloads = {{-1, -1, -1, -1}, {0x7f, -1, -1, -1, 0, 0, 0, 0}, {0, 0, 0, 2, 0, 0, 0, 0}};
+		for(byte[] payload : payloads) {
+			try {
+				SharedMemoryChannel.decodeArguments(payload);
+				Assert.fail("Invalid argument count accepted " + Arrays.toString(payload));
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testRequest() throws Exception {
+
+		File file = File.createTempFile("jclif-channel", ".shm");
+		file.deleteOnExit();
+
+		final Executor executor = new Executor(new ByteArrayInputStream(new byte[0]),
+				new PrintStream(new ByteArrayOutputStream()));
+		executor.registerHandler(ListCommand.class);
+
+		final SharedMemoryChannel serverChannel = SharedMemoryChannel.create(file, 2, 4096);
+		serverChannel.setRequestTimeout(200, TimeUnit.MILLISECONDS);
+		Thread server = new Thread() {
+			public void run() {
+				try {
+					executor.serve(serverChannel);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		server.start();
+
+		SharedMemoryChannel clientChannel = SharedMemoryChannel.open(file);
+		SharedMemoryChannel otherClientChannel = SharedMemoryChannel.open(file);
+		for(int i = 0; i < 5; i++) {
+			String output = clientChannel.request("list", "-x");
+			Assert.assertTrue(output, output.startsWith("Error: Option -x is invalid."));
+			Assert.assertTrue(output, output.contains("Usage:"));
+			output = otherClientChannel.request("list", "-s", "3");
+			Assert.assertTrue(output, output.startsWith("List handler called. showAll=true"));
+		}
+		Assert.assertEquals(Arrays.asList("list"), clientChannel.complete(0, "l"));
+		Assert.assertEquals(Arrays.asList("-d", "-n", "-s"), clientChannel.complete(1, "list", "-"));
+		Assert.assertEquals(Collections.emptyList(), clientChannel.complete(0, "x"));
+		try {
+			clientChannel.complete(5, "list");
+			Assert.fail("Cursor out of range accepted");
+		} catch (IllegalArgumentException e) {
+			// expected, executor keeps serving
+		}
+		try {
+			clientChannel.request(SharedMemoryChannel.COMPLETION_REQUEST, "x");
+			Assert.fail("Invalid cursor accepted");
+		} catch (IllegalArgumentException e) {
+			// expected, executor keeps serving
+		}
+		Assert.assertEquals(Arrays.asList("list"), clientChannel.complete(0, "l"));
+		try {
+			clientChannel.request(new byte[] {-1, -1, -1, -1});
+			Assert.fail("Invalid request accepted");
+		} catch (IllegalArgumentException e) {
+			// expected, executor keeps serving
+		}
+		// a client claiming a request and dying does not block the other clients
+		clientChannel.claimSequence();
+		for(int i = 0; i < 3; i++) {
+			String output = otherClientChannel.request("list", "-s", "3");
+			Assert.assertTrue(output, output.startsWith("List handler called. showAll=true"));
+		}
+
+		clientChannel.close();
+		otherClientChannel.close();
+		server.join(5000);
+		Assert.assertFalse(server.isAlive());
+		Assert.assertTrue(serverChannel.isClosed());
+
+		file.delete();
+	}
+
+}
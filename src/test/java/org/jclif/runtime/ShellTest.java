@@ -0,0 +1,126 @@
+package org.jclif.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import examples.ListCommand;
+
+public class ShellTest {
+	
+	@Test
+	public void testShell() throws IOException {
+		
+		File historyFile = File.createTempFile("jclif-history", ".txt");
+		historyFile.deleteOnExit();
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(ListCommand.class);
+		executor.setShellHistoryFile(historyFile);
+		executor.shell(new StringReader("list -x\n\nhelp\nlist \"unterminated\nhistory\nexit\nlist -y\n"));
+		
+		String out = output.toString();
+		Assert.assertTrue(out, out.startsWith("jclif> Error: Option -x is invalid."));
+		Assert.assertTrue(out, out.contains("Shell commands: help, history, exit, quit"));
+		Assert.assertTrue(out, out.contains("Error: Unterminated quote"));
+		Assert.assertTrue(out, out.contains("    1  list -x"));
+		Assert.assertTrue(out, out.contains("    4  history"));
+		Assert.assertFalse(out, out.contains("-y"));
+		
+		Assert.assertEquals(Arrays.asList("list -x", "help", "list \"unterminated", "history", "exit"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		historyFile.delete();
+	}
+	
+	@Test
+	public void testHistorySize() throws IOException {
+		
+		File historyFile = File.createTempFile("jclif-history", ".txt");
+		historyFile.deleteOnExit();
+		
+		ShellHistory history = new ShellHistory(historyFile, 2);
+		history.add("one");
+		history.add("two");
+		history.add("two");
+		history.add("three");
+		Assert.assertEquals(Arrays.asList("two", "three"), history.getLines());
+		history.close();
+		Assert.assertEquals(Arrays.asList("two", "three"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		
+		history = new ShellHistory(historyFile, 2);
+		history.load();
+		Assert.assertEquals(Arrays.asList("two", "three"), history.getLines());
+		historyFile.delete();
+	}
+	
+	@Test
+	public void testConcurrentHistory() throws IOException {
+		
+		File historyFile = File.createTempFile("jclif-history", ".txt");
+		historyFile.deleteOnExit();
+		
+		ShellHistory history = new ShellHistory(historyFile, 3);
+		ShellHistory otherHistory = new ShellHistory(historyFile, 3);
+		history.add("one");
+		otherHistory.add("two");
+		history.add("three");
+		Assert.assertEquals(Arrays.asList("one", "two", "three"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		otherHistory.add("four");
+		otherHistory.add("five");
+		otherHistory.close();
+		history.close();
+		Assert.assertEquals(Arrays.asList("three", "four", "five"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		historyFile.delete();
+	}
+	
+	@Test
+	public void testHistoryCompactedPastTwiceMaxSize() throws IOException {
+		
+		File historyFile = File.createTempFile("jclif-history", ".txt");
+		historyFile.deleteOnExit();
+		
+		ShellHistory history = new ShellHistory(historyFile, 2);
+		history.load();
+		for(String line : Arrays.asList("one", "two", "three", "four")) {
+			history.add(line);
+		}
+		Assert.assertEquals(Arrays.asList("one", "two", "three", "four"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		history.add("five");
+		Assert.assertEquals(Arrays.asList("four", "five"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		history.add("six");
+		history.close();
+		Assert.assertEquals(Arrays.asList("five", "six"), 
+				Files.readAllLines(historyFile.toPath(), Charset.forName("UTF-8")));
+		historyFile.delete();
+	}
+	
+	@Test
+	public void testHelpCommand() throws IOException {
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Executor executor = new Executor(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+		executor.registerHandler(ListCommand.class);
+		executor.shell(new StringReader("help list\nhelp move\n"));
+		
+		String out = output.toString();
+		Assert.assertTrue(out, out.contains("List files"));
+		Assert.assertTrue(out, out.contains("Error: Unknown command move"));
+		Assert.assertFalse(out, out.contains("Shell commands:"));
+	}
+	
+}
@@ -0,0 +1,31 @@
+package org.jclif.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BKTreeTest {
+
+	@Test
+	public void testDistance() {
+		Assert.assertEquals(0, BKTree.distance("list", "list"));
+		Assert.assertEquals(2, BKTree.distance("lsit", "list"));
+		Assert.assertEquals(3, BKTree.distance("", "abc"));
+		Assert.assertEquals(3, BKTree.distance("kitten", "sitting"));
+	}
+
+	@Test
+	public void testSearch() {
+		BKTree tree = new BKTree();
+		for(String term : new String[] {"list", "lost", "copy", "move", "remove", "list"}) {
+			tree.add(term);
+		}
+		Assert.assertEquals(5, tree.size());
+		Assert.assertEquals(Arrays.asList("list", "lost"), tree.search("lst", 1));
+		Assert.assertEquals(Arrays.asList("move", "remove"), tree.search("emove", 2));
+		Assert.assertEquals(Collections.emptyList(), tree.search("xyz", 1));
+	}
+
+}
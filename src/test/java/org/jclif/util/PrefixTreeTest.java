@@ -0,0 +1,24 @@
+package org.jclif.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefixTreeTest {
+
+	@Test
+	public void testFind() {
+		PrefixTree tree = new PrefixTree();
+		for(String term : new String[] {"list", "link", "lint", "copy", "li", "list"}) {
+			tree.add(term);
+		}
+		Assert.assertEquals(5, tree.size());
+		Assert.assertEquals(Arrays.asList("li", "link", "lint", "list"), tree.find("li"));
+		Assert.assertEquals(Arrays.asList("copy", "li", "link", "lint", "list"), tree.find(""));
+		Assert.assertEquals(Collections.emptyList(), tree.find("lx"));
+		Assert.assertEquals(Collections.emptyList(), tree.find("copyx"));
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.jclif.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RadixTreeTest {
+
+	@Test
+	public void testGetUnique() {
+		RadixTree<String> tree = new RadixTree<String>();
+		for(String key : new String[] {"verbose", "version", "verb", "output", "out"}) {
+			Assert.assertNull(tree.put(key, key.toUpperCase()));
+		}
+		Assert.assertEquals("VERBOSE", tree.put("verbose", "VERBOSE"));
+		Assert.assertEquals(5, tree.size());
+		
+		Assert.assertEquals("VERB", tree.get("verb"));
+		Assert.assertNull(tree.get("ver"));
+		Assert.assertNull(tree.get("verbos"));
+		
+		Assert.assertEquals("VERB", tree.getUnique("verb"));
+		Assert.assertEquals("VERBOSE", tree.getUnique("verbo"));
+		Assert.assertEquals("VERSION", tree.getUnique("vers"));
+		Assert.assertEquals("OUT", tree.getUnique("out"));
+		Assert.assertEquals("OUTPUT", tree.getUnique("outp"));
+		Assert.assertNull(tree.getUnique("ver"));
+		Assert.assertNull(tree.getUnique("o"));
+		Assert.assertNull(tree.getUnique("x"));
+		Assert.assertNull(tree.getUnique("verbosely"));
+	}
+
+	@Test
+	public void testCountAndKeys() {
+		RadixTree<Integer> tree = new RadixTree<Integer>();
+		String[] keys = {"verbose", "version", "verb", "output"};
+		for(int i = 0; i < keys.length; i++) {
+			tree.put(keys[i], i);
+		}
+		Assert.assertEquals(3, tree.count("ver"));
+		Assert.assertEquals(2, tree.count("verb"));
+		Assert.assertEquals(1, tree.count("verbo"));
+		Assert.assertEquals(4, tree.count(""));
+		Assert.assertEquals(0, tree.count("vx"));
+		Assert.assertEquals(Arrays.asList("verb", "verbose", "version"), tree.keys("ver"));
+		Assert.assertEquals(Arrays.asList("verbose"), tree.keys("verbo"));
+		Assert.assertEquals(Arrays.asList("output", "verb", "verbose", "version"), tree.keys(""));
+		Assert.assertEquals(Collections.emptyList(), tree.keys("outputs"));
+	}
+
+}
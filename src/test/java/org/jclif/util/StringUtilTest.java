@@ -0,0 +1,21 @@
+package org.jclif.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringUtilTest {
+	
+	@Test
+	public void testTokenize() {
+		Assert.assertArrayEquals(new String[]{"list", "-n", "some name", "it's", "a\"b"}, 
+				StringUtil.tokenize("  list -n \"some name\" \"it's\"   a\\\"b "));
+		Assert.assertArrayEquals(new String[]{"list", ""}, StringUtil.tokenize("list ''"));
+		Assert.assertEquals(0, StringUtil.tokenize("   ").length);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testTokenizeUnterminatedQuote() {
+		StringUtil.tokenize("list -n \"some name");
+	}
+
+}